@@ -14,6 +14,8 @@
 package com.facebook.presto.benchmark;
 
 import com.facebook.presto.Session;
+import com.facebook.presto.sql.analyzer.FeaturesConfig;
+import com.facebook.presto.sql.analyzer.FunctionsConfig;
 import com.facebook.presto.testing.LocalQueryRunner;
 import com.facebook.presto.tpch.TpchConnectorFactory;
 import com.google.common.collect.ImmutableMap;
@@ -41,6 +43,11 @@ public final class BenchmarkQueryRunner
     }
 
     public static LocalQueryRunner createLocalQueryRunner(Map<String, String> extraSessionProperties)
+    {
+        return createLocalQueryRunner(extraSessionProperties, new FunctionsConfig());
+    }
+
+    public static LocalQueryRunner createLocalQueryRunner(Map<String, String> extraSessionProperties, FunctionsConfig functionsConfig)
     {
         SessionBuilder sessionBuilder = testSessionBuilder()
                 .setCatalog("tpch")
@@ -49,7 +56,7 @@ public final class BenchmarkQueryRunner
         extraSessionProperties.forEach(sessionBuilder::setSystemProperty);
 
         Session session = sessionBuilder.build();
-        LocalQueryRunner localQueryRunner = new LocalQueryRunner(session);
+        LocalQueryRunner localQueryRunner = new LocalQueryRunner(session, new FeaturesConfig(), functionsConfig);
 
         // add tpch
         localQueryRunner.createCatalog("tpch", new TpchConnectorFactory(1), ImmutableMap.of());
@@ -13,9 +13,17 @@
  */
 package com.facebook.presto.benchmark;
 
+import com.facebook.presto.sql.analyzer.FunctionsConfig;
+import com.facebook.presto.sql.analyzer.RegexLibrary;
 import com.facebook.presto.testing.LocalQueryRunner;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import java.util.Locale;
 
 import static com.facebook.presto.benchmark.BenchmarkQueryRunner.createLocalQueryRunner;
+import static com.facebook.presto.sql.analyzer.RegexLibrary.ADAPTIVE;
+import static com.facebook.presto.sql.analyzer.RegexLibrary.JONI;
 
 public class SqlJoniRegexpBenchmark
         extends AbstractSqlBenchmark
@@ -27,7 +35,13 @@ public class SqlJoniRegexpBenchmark
 
     public static void main(String[] args)
     {
-        new SqlJoniRegexpBenchmark(createLocalQueryRunner(), "SELECT array_agg(regexp_extract_all(comment||cast(random() as varchar), '[a-z]* ')) FROM orders cross join unnest(sequence(1, 10))", "sql_regexp_extract_all").runBenchmark(new SimpleLineBenchmarkResultWriter(System.out));
-        new SqlJoniRegexpBenchmark(createLocalQueryRunner(), "SELECT array_agg(regexp_replace(comment||cast(random() as varchar), '[a-z]* ', cast(random() as varchar))) FROM orders cross join unnest(sequence(1, 10))", "sql_regexp_replace").runBenchmark(new SimpleLineBenchmarkResultWriter(System.out));
+        // the adaptive regex library runs these patterns on Joni, with the compiled patterns cached when they are not constant
+        for (RegexLibrary regexLibrary : ImmutableList.of(JONI, ADAPTIVE)) {
+            LocalQueryRunner localQueryRunner = createLocalQueryRunner(ImmutableMap.of(), new FunctionsConfig().setRegexLibrary(regexLibrary));
+            String suffix = "_" + regexLibrary.name().toLowerCase(Locale.ENGLISH);
+            new SqlJoniRegexpBenchmark(localQueryRunner, "SELECT array_agg(regexp_extract_all(comment||cast(random() as varchar), '[a-z]* ')) FROM orders cross join unnest(sequence(1, 10))", "sql_regexp_extract_all" + suffix).runBenchmark(new SimpleLineBenchmarkResultWriter(System.out));
+            new SqlJoniRegexpBenchmark(localQueryRunner, "SELECT array_agg(regexp_replace(comment||cast(random() as varchar), '[a-z]* ', cast(random() as varchar))) FROM orders cross join unnest(sequence(1, 10))", "sql_regexp_replace" + suffix).runBenchmark(new SimpleLineBenchmarkResultWriter(System.out));
+            new SqlJoniRegexpBenchmark(localQueryRunner, "SELECT count(*) FROM orders WHERE regexp_like(comment, CASE WHEN orderkey % 2 = 0 THEN 'special' ELSE 'pending|unusual' END)", "sql_regexp_like_non_constant" + suffix).runBenchmark(new SimpleLineBenchmarkResultWriter(System.out));
+        }
     }
 }
@@ -14,19 +14,39 @@
 package com.facebook.presto.benchmark;
 
 import com.facebook.presto.testing.LocalQueryRunner;
+import com.google.common.collect.ImmutableMap;
+
+import java.util.Map;
 
 import static com.facebook.presto.benchmark.BenchmarkQueryRunner.createLocalQueryRunner;
+import static java.lang.String.format;
 
 public class SqlLikeBenchmark
         extends AbstractSqlBenchmark
 {
+    // the pattern shapes that are matched without a regular expression, and one that is not
+    private static final Map<String, String> PATTERNS = ImmutableMap.<String, String>builder()
+            .put("prefix", "slyly%")
+            .put("suffix", "%deposits")
+            .put("contains", "%special%")
+            .put("sequence", "%ly%ly%")
+            .put("single_character_wildcard", "%ly_ly%")
+            .build();
+
     public SqlLikeBenchmark(LocalQueryRunner localQueryRunner)
     {
-        super(localQueryRunner, "sql_like", 4, 5, "SELECT orderkey FROM lineitem WHERE comment LIKE '%ly%ly%'");
+        this(localQueryRunner, "sql_like", PATTERNS.get("sequence"));
+    }
+
+    public SqlLikeBenchmark(LocalQueryRunner localQueryRunner, String name, String pattern)
+    {
+        super(localQueryRunner, name, 4, 5, format("SELECT orderkey FROM lineitem WHERE comment LIKE '%s'", pattern));
     }
 
     public static void main(String[] args)
     {
-        new SqlLikeBenchmark(createLocalQueryRunner()).runBenchmark(new SimpleLineBenchmarkResultWriter(System.out));
+        LocalQueryRunner localQueryRunner = createLocalQueryRunner();
+        PATTERNS.forEach((shape, pattern) -> new SqlLikeBenchmark(localQueryRunner, format("sql_like_%s", shape), pattern)
+                .runBenchmark(new SimpleLineBenchmarkResultWriter(System.out)));
     }
 }
@@ -13,20 +13,46 @@
  */
 package com.facebook.presto.benchmark;
 
+import com.facebook.presto.sql.analyzer.FunctionsConfig;
+import com.facebook.presto.sql.analyzer.RegexLibrary;
 import com.facebook.presto.testing.LocalQueryRunner;
+import com.google.common.collect.ImmutableMap;
+
+import java.util.Locale;
+import java.util.Map;
 
 import static com.facebook.presto.benchmark.BenchmarkQueryRunner.createLocalQueryRunner;
+import static java.lang.String.format;
 
 public class SqlRegexpLikeBenchmark
         extends AbstractSqlBenchmark
 {
+    // patterns of each kind that the adaptive regex library tells apart
+    private static final Map<String, String> PATTERNS = ImmutableMap.of(
+            "word", "\\b[a-z]{5}ly\\b",
+            "literal", "special",
+            "literal_alternation", "special|pending|unusual",
+            "nested_quantifier", "(ly )+(a|e)+");
+
     public SqlRegexpLikeBenchmark(LocalQueryRunner localQueryRunner)
     {
-        super(localQueryRunner, "sql_regexp_like", 4, 5, "SELECT count(*) FROM orders WHERE regexp_like(comment, '\\b[a-z]{5}ly\\b')");
+        this(localQueryRunner, "sql_regexp_like", PATTERNS.get("word"));
+    }
+
+    public SqlRegexpLikeBenchmark(LocalQueryRunner localQueryRunner, String name, String pattern)
+    {
+        super(localQueryRunner, name, 4, 5, format("SELECT count(*) FROM orders WHERE regexp_like(comment, '%s')", pattern));
     }
 
     public static void main(String[] args)
     {
-        new SqlRegexpLikeBenchmark(createLocalQueryRunner()).runBenchmark(new SimpleLineBenchmarkResultWriter(System.out));
+        for (RegexLibrary regexLibrary : RegexLibrary.values()) {
+            LocalQueryRunner localQueryRunner = createLocalQueryRunner(ImmutableMap.of(), new FunctionsConfig().setRegexLibrary(regexLibrary));
+            PATTERNS.forEach((kind, pattern) -> new SqlRegexpLikeBenchmark(
+                    localQueryRunner,
+                    format("sql_regexp_like_%s_%s", kind, regexLibrary.name().toLowerCase(Locale.ENGLISH)),
+                    pattern)
+                    .runBenchmark(new SimpleLineBenchmarkResultWriter(System.out)));
+        }
     }
 }
@@ -162,6 +162,9 @@ public class ClientOptions
     @Option(name = "--disable-redirects", title = "disable redirects", description = "Disable client following redirects from server")
     public boolean disableRedirects;
 
+    @Option(name = "--binary-results", title = "binary results", description = "Fetch query results as serialized pages instead of JSON rows")
+    public boolean binaryResults;
+
     public enum OutputFormat
     {
         ALIGNED,
@@ -197,7 +200,8 @@ public class ClientOptions
                 disableCompression,
                 emptyMap(),
                 emptyMap(),
-                validateNextUriSource);
+                validateNextUriSource,
+                binaryResults);
     }
 
     public static URI parseServer(String server)
@@ -0,0 +1,375 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.client;
+
+import com.facebook.presto.common.Page;
+import com.facebook.presto.common.block.Block;
+import com.facebook.presto.common.block.BlockEncodingManager;
+import com.facebook.presto.common.type.NamedTypeSignature;
+import com.facebook.presto.common.type.SqlDate;
+import com.facebook.presto.common.type.SqlDecimal;
+import com.facebook.presto.common.type.SqlTime;
+import com.facebook.presto.common.type.SqlTimeWithTimeZone;
+import com.facebook.presto.common.type.SqlTimestamp;
+import com.facebook.presto.common.type.SqlTimestampWithTimeZone;
+import com.facebook.presto.common.type.TimeZoneKey;
+import com.facebook.presto.common.type.TypeSignature;
+import com.facebook.presto.common.type.TypeSignatureParameter;
+import com.facebook.presto.spi.page.PagesSerde;
+import com.facebook.presto.spi.page.SerializedPage;
+import com.google.common.collect.ImmutableList;
+import com.google.common.net.InetAddresses;
+import io.airlift.slice.BasicSliceInput;
+import io.airlift.slice.Slice;
+import io.airlift.slice.Slices;
+
+import java.math.BigInteger;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static com.facebook.presto.client.IntervalDayTime.formatMillis;
+import static com.facebook.presto.client.IntervalYearMonth.formatMonths;
+import static com.facebook.presto.common.type.Decimals.MAX_SHORT_PRECISION;
+import static com.facebook.presto.common.type.Decimals.decodeUnscaledValue;
+import static com.facebook.presto.common.type.ParameterKind.NAMED_TYPE;
+import static com.facebook.presto.common.type.StandardTypes.ARRAY;
+import static com.facebook.presto.common.type.StandardTypes.BIGINT;
+import static com.facebook.presto.common.type.StandardTypes.BOOLEAN;
+import static com.facebook.presto.common.type.StandardTypes.CHAR;
+import static com.facebook.presto.common.type.StandardTypes.DATE;
+import static com.facebook.presto.common.type.StandardTypes.DECIMAL;
+import static com.facebook.presto.common.type.StandardTypes.DOUBLE;
+import static com.facebook.presto.common.type.StandardTypes.HYPER_LOG_LOG;
+import static com.facebook.presto.common.type.StandardTypes.INTEGER;
+import static com.facebook.presto.common.type.StandardTypes.INTERVAL_DAY_TO_SECOND;
+import static com.facebook.presto.common.type.StandardTypes.INTERVAL_YEAR_TO_MONTH;
+import static com.facebook.presto.common.type.StandardTypes.IPADDRESS;
+import static com.facebook.presto.common.type.StandardTypes.IPPREFIX;
+import static com.facebook.presto.common.type.StandardTypes.JSON;
+import static com.facebook.presto.common.type.StandardTypes.KLL_SKETCH;
+import static com.facebook.presto.common.type.StandardTypes.K_HYPER_LOG_LOG;
+import static com.facebook.presto.common.type.StandardTypes.MAP;
+import static com.facebook.presto.common.type.StandardTypes.P4_HYPER_LOG_LOG;
+import static com.facebook.presto.common.type.StandardTypes.QDIGEST;
+import static com.facebook.presto.common.type.StandardTypes.REAL;
+import static com.facebook.presto.common.type.StandardTypes.ROW;
+import static com.facebook.presto.common.type.StandardTypes.SMALLINT;
+import static com.facebook.presto.common.type.StandardTypes.TDIGEST;
+import static com.facebook.presto.common.type.StandardTypes.TIME;
+import static com.facebook.presto.common.type.StandardTypes.TIMESTAMP;
+import static com.facebook.presto.common.type.StandardTypes.TIMESTAMP_MICROSECONDS;
+import static com.facebook.presto.common.type.StandardTypes.TIMESTAMP_WITH_TIME_ZONE;
+import static com.facebook.presto.common.type.StandardTypes.TIME_WITH_TIME_ZONE;
+import static com.facebook.presto.common.type.StandardTypes.TINYINT;
+import static com.facebook.presto.common.type.StandardTypes.UNKNOWN;
+import static com.facebook.presto.common.type.StandardTypes.UUID;
+import static com.facebook.presto.common.type.StandardTypes.VARBINARY;
+import static com.facebook.presto.common.type.StandardTypes.VARCHAR;
+import static com.facebook.presto.common.type.TypeSignature.parseTypeSignature;
+import static com.facebook.presto.spi.page.PageCodecMarker.COMPRESSED;
+import static com.facebook.presto.spi.page.PagesSerdeUtil.readSerializedPage;
+import static java.lang.Float.intBitsToFloat;
+import static java.lang.Long.reverseBytes;
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Decodes the {@code binaryData} of query results, a list of base64 encoded serialized pages,
+ * and the pages of result segments into rows holding the same values as the rows that
+ * {@link FixJsonDataUtils} produces from the JSON {@code data}. Values are read from the blocks of the pages when a row is accessed,
+ * so the columns that are never read are never decoded.
+ */
+final class BinaryDataDecoder
+{
+    private final PagesSerde serde = new PagesSerde(new BlockEncodingManager(), Optional.empty(), Optional.empty(), Optional.empty());
+    private final TimeZoneKey timeZoneKey;
+    private final boolean legacyTimestamp;
+
+    public BinaryDataDecoder(TimeZoneKey timeZoneKey, boolean legacyTimestamp)
+    {
+        this.timeZoneKey = requireNonNull(timeZoneKey, "timeZoneKey is null");
+        this.legacyTimestamp = legacyTimestamp;
+    }
+
+    public Iterable<List<Object>> decode(List<Column> columns, Iterable<String> binaryData)
+    {
+        if (binaryData == null) {
+            return null;
+        }
+        ImmutableList.Builder<SerializedPage> pages = ImmutableList.builder();
+        for (String encodedPage : binaryData) {
+            byte[] bytes = Base64.getDecoder().decode(encodedPage);
+            pages.add(readSerializedPage(new BasicSliceInput(Slices.wrappedBuffer(bytes))));
+        }
+        return decodePages(columns, pages.build());
+    }
+
+    public Iterable<List<Object>> decodePages(List<Column> columns, List<SerializedPage> serializedPages)
+    {
+        requireNonNull(columns, "columns is null");
+        List<ValueReader> readers = columns.stream()
+                .map(column -> createReader(parseTypeSignature(column.getType())))
+                .collect(ImmutableList.toImmutableList());
+
+        ImmutableList.Builder<List<Object>> rows = ImmutableList.builder();
+        for (SerializedPage serializedPage : serializedPages) {
+            Page page = deserialize(serializedPage);
+            if (page.getChannelCount() != columns.size()) {
+                throw new ClientException(format("Page has %s channels, but the query has %s columns", page.getChannelCount(), columns.size()));
+            }
+            for (int position = 0; position < page.getPositionCount(); position++) {
+                rows.add(new PageRow(readers, page, position));
+            }
+        }
+        return rows.build();
+    }
+
+    private Page deserialize(SerializedPage serializedPage)
+    {
+        if (COMPRESSED.isSet(serializedPage.getPageCodecMarkers())) {
+            throw new ClientException("Binary results are compressed, which is not supported by the client: disable exchange compression for the session");
+        }
+        return serde.deserialize(serializedPage);
+    }
+
+    private ValueReader createReader(TypeSignature signature)
+    {
+        if (signature.isDistinctType()) {
+            return createReader(signature.getDistinctTypeInfo().getBaseType());
+        }
+        if (signature.getTypeSignatureBase().hasTypeName() && signature.getTypeSignatureBase().hasStandardType()) {
+            return createReader(signature.getStandardTypeSignature());
+        }
+        if (signature.isVarcharEnum()) {
+            return BinaryDataDecoder::readString;
+        }
+        if (signature.isBigintEnum()) {
+            return Block::getLong;
+        }
+        switch (signature.getBase()) {
+            case BIGINT:
+                return Block::getLong;
+            case INTEGER:
+                return Block::getInt;
+            case SMALLINT:
+                return Block::getShort;
+            case TINYINT:
+                return Block::getByte;
+            case DOUBLE:
+                return (block, position) -> Double.longBitsToDouble(block.getLong(position));
+            case REAL:
+                return (block, position) -> intBitsToFloat(block.getInt(position));
+            case BOOLEAN:
+                return (block, position) -> block.getByte(position) != 0;
+            case VARCHAR:
+            case JSON:
+                return BinaryDataDecoder::readString;
+            case CHAR:
+                int length = signature.getParameters().get(0).getLongLiteral().intValue();
+                return (block, position) -> {
+                    StringBuilder builder = new StringBuilder(length);
+                    builder.append(readString(block, position));
+                    for (int i = builder.length(); i < length; i++) {
+                        builder.append(' ');
+                    }
+                    return builder.toString();
+                };
+            case DECIMAL:
+                int precision = signature.getParameters().get(0).getLongLiteral().intValue();
+                int scale = signature.getParameters().get(1).getLongLiteral().intValue();
+                if (precision <= MAX_SHORT_PRECISION) {
+                    return (block, position) -> new SqlDecimal(BigInteger.valueOf(block.getLong(position)), precision, scale).toString();
+                }
+                return (block, position) -> new SqlDecimal(decodeUnscaledValue(readSlice(block, position)), precision, scale).toString();
+            case DATE:
+                return (block, position) -> new SqlDate(block.getInt(position)).toString();
+            case TIME:
+                if (legacyTimestamp) {
+                    return (block, position) -> new SqlTime(block.getLong(position), timeZoneKey).toString();
+                }
+                return (block, position) -> new SqlTime(block.getLong(position)).toString();
+            case TIMESTAMP:
+                return createTimestampReader(MILLISECONDS);
+            case TIMESTAMP_MICROSECONDS:
+                return createTimestampReader(MICROSECONDS);
+            case TIME_WITH_TIME_ZONE:
+                return (block, position) -> new SqlTimeWithTimeZone(block.getLong(position)).toString();
+            case TIMESTAMP_WITH_TIME_ZONE:
+                return (block, position) -> new SqlTimestampWithTimeZone(block.getLong(position)).toString();
+            case INTERVAL_DAY_TO_SECOND:
+                return (block, position) -> formatMillis(block.getLong(position));
+            case INTERVAL_YEAR_TO_MONTH:
+                return (block, position) -> formatMonths(block.getInt(position));
+            case UUID:
+                return (block, position) -> new UUID(reverseBytes(block.getLong(position, 0)), reverseBytes(block.getLong(position, Long.BYTES))).toString();
+            case IPADDRESS:
+                return (block, position) -> toAddressString(readSlice(block, position).getBytes());
+            case IPPREFIX:
+                return (block, position) -> {
+                    Slice slice = readSlice(block, position);
+                    return toAddressString(slice.getBytes(0, 2 * Long.BYTES)) + "/" + (slice.getByte(2 * Long.BYTES) & 0xFF);
+                };
+            case VARBINARY:
+            case HYPER_LOG_LOG:
+            case P4_HYPER_LOG_LOG:
+            case K_HYPER_LOG_LOG:
+            case QDIGEST:
+            case TDIGEST:
+            case KLL_SKETCH:
+                return (block, position) -> readSlice(block, position).getBytes();
+            case UNKNOWN:
+                return (block, position) -> null;
+            case ARRAY:
+                return createArrayReader(createReader(signature.getTypeOrNamedTypeParametersAsTypeSignatures().get(0)));
+            case MAP:
+                return createMapReader(
+                        createReader(signature.getTypeOrNamedTypeParametersAsTypeSignatures().get(0)),
+                        createReader(signature.getTypeOrNamedTypeParametersAsTypeSignatures().get(1)));
+            case ROW:
+                return createRowReader(signature.getParameters());
+            default:
+                throw new ClientException(format("Type %s is not supported with binary results", signature));
+        }
+    }
+
+    private ValueReader createTimestampReader(TimeUnit precision)
+    {
+        if (legacyTimestamp) {
+            return (block, position) -> new SqlTimestamp(block.getLong(position), timeZoneKey, precision).toString();
+        }
+        return (block, position) -> new SqlTimestamp(block.getLong(position), precision).toString();
+    }
+
+    private static ValueReader createArrayReader(ValueReader elementReader)
+    {
+        return (block, position) -> {
+            Block elements = block.getBlock(position);
+            List<Object> values = new ArrayList<>(elements.getPositionCount());
+            for (int i = 0; i < elements.getPositionCount(); i++) {
+                values.add(readValue(elementReader, elements, i));
+            }
+            return values;
+        };
+    }
+
+    private static ValueReader createMapReader(ValueReader keyReader, ValueReader valueReader)
+    {
+        return (block, position) -> {
+            // keys and values alternate in the block of a single map
+            Block entries = block.getBlock(position);
+            Map<Object, Object> values = new HashMap<>();
+            for (int i = 0; i < entries.getPositionCount(); i += 2) {
+                values.put(readValue(keyReader, entries, i), readValue(valueReader, entries, i + 1));
+            }
+            return values;
+        };
+    }
+
+    private ValueReader createRowReader(List<TypeSignatureParameter> parameters)
+    {
+        ImmutableList.Builder<String> names = ImmutableList.builder();
+        ImmutableList.Builder<ValueReader> readers = ImmutableList.builder();
+        for (int i = 0; i < parameters.size(); i++) {
+            TypeSignatureParameter parameter = parameters.get(i);
+            if (parameter.getKind() != NAMED_TYPE) {
+                throw new ClientException(format("Unexpected parameter [%s] for row type", parameter));
+            }
+            NamedTypeSignature namedTypeSignature = parameter.getNamedTypeSignature();
+            names.add(namedTypeSignature.getName().orElse("field" + i));
+            readers.add(createReader(namedTypeSignature.getTypeSignature()));
+        }
+        List<String> fieldNames = names.build();
+        List<ValueReader> fieldReaders = readers.build();
+        return (block, position) -> {
+            Block fields = block.getBlock(position);
+            Map<String, Object> values = new LinkedHashMap<>();
+            for (int i = 0; i < fieldReaders.size(); i++) {
+                values.put(fieldNames.get(i), readValue(fieldReaders.get(i), fields, i));
+            }
+            return values;
+        };
+    }
+
+    private static Object readValue(ValueReader reader, Block block, int position)
+    {
+        if (block.isNull(position)) {
+            return null;
+        }
+        return reader.read(block, position);
+    }
+
+    private static Slice readSlice(Block block, int position)
+    {
+        return block.getSlice(position, 0, block.getSliceLength(position));
+    }
+
+    private static String readString(Block block, int position)
+    {
+        return readSlice(block, position).toStringUtf8();
+    }
+
+    private static String toAddressString(byte[] address)
+    {
+        try {
+            return InetAddresses.toAddrString(InetAddress.getByAddress(address));
+        }
+        catch (UnknownHostException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    private interface ValueReader
+    {
+        Object read(Block block, int position);
+    }
+
+    private static final class PageRow
+            extends AbstractList<Object>
+    {
+        private final List<ValueReader> readers;
+        private final Page page;
+        private final int position;
+
+        private PageRow(List<ValueReader> readers, Page page, int position)
+        {
+            this.readers = readers;
+            this.page = page;
+            this.position = position;
+        }
+
+        @Override
+        public Object get(int channel)
+        {
+            return readValue(readers.get(channel), page.getBlock(channel), position);
+        }
+
+        @Override
+        public int size()
+        {
+            return readers.size();
+        }
+    }
+}
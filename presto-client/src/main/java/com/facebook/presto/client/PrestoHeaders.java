@@ -43,9 +43,11 @@ public final class PrestoHeaders
     public static final String PRESTO_ADDED_SESSION_FUNCTION = "X-Presto-Added-Session-Functions";
     public static final String PRESTO_REMOVED_SESSION_FUNCTION = "X-Presto-Removed-Session-Function";
     public static final String PRESTO_RETRY_QUERY = "X-Presto-Retry-Query";
+    public static final String PRESTO_RESULT_SEGMENTS = "X-Presto-Result-Segments";
 
     public static final String PRESTO_CURRENT_STATE = "X-Presto-Current-State";
     public static final String PRESTO_MAX_WAIT = "X-Presto-Max-Wait";
+    public static final String PRESTO_COMPLETED_DRIVER_GROUP_COUNT = "X-Presto-Completed-Driver-Group-Count";
     public static final String PRESTO_MAX_SIZE = "X-Presto-Max-Size";
     public static final String PRESTO_BUFFER_REMAINING_BYTES = "X-Presto-Buffer-Remaining-Bytes";
     public static final String PRESTO_TASK_INSTANCE_ID = "X-Presto-Task-Instance-Id";
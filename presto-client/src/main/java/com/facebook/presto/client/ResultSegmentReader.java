@@ -0,0 +1,155 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.client;
+
+import com.facebook.airlift.units.DataSize;
+import com.facebook.presto.client.OkHttpUtil.NullCallback;
+import com.facebook.presto.spi.page.SerializedPage;
+import com.google.common.collect.ImmutableList;
+import io.airlift.slice.InputStreamSliceInput;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.List;
+import java.util.function.Function;
+
+import static com.facebook.airlift.units.DataSize.Unit.MEGABYTE;
+import static com.facebook.presto.client.PrestoHeaders.PRESTO_BUFFER_COMPLETE;
+import static com.facebook.presto.client.PrestoHeaders.PRESTO_MAX_SIZE;
+import static com.facebook.presto.client.PrestoHeaders.PRESTO_PAGE_NEXT_TOKEN;
+import static com.facebook.presto.spi.page.PagesSerdeUtil.readSerializedPages;
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.net.HttpHeaders.CONTENT_TYPE;
+import static java.lang.String.format;
+import static java.net.HttpURLConnection.HTTP_NO_CONTENT;
+import static java.net.HttpURLConnection.HTTP_OK;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Reads a result segment, the output buffer of a task in the root stage of a query, directly from
+ * the worker running the task. Every request acknowledges the pages read before, which lets the
+ * worker free them, and the buffer is deleted once it is drained so that the task can finish.
+ */
+class ResultSegmentReader
+{
+    static final String PRESTO_PAGES = "application/X-presto-pages";
+    private static final DataSize MAX_RESPONSE_SIZE = new DataSize(16, MEGABYTE);
+
+    private final OkHttpClient httpClient;
+    private final Function<HttpUrl, Request.Builder> requestFactory;
+    private final HttpUrl segmentUrl;
+
+    private long token;
+    private boolean complete;
+    private boolean closed;
+
+    public ResultSegmentReader(OkHttpClient httpClient, Function<HttpUrl, Request.Builder> requestFactory, URI segment)
+    {
+        this.httpClient = requireNonNull(httpClient, "httpClient is null");
+        this.requestFactory = requireNonNull(requestFactory, "requestFactory is null");
+        this.segmentUrl = HttpUrl.get(requireNonNull(segment, "segment is null"));
+    }
+
+    public synchronized boolean isComplete()
+    {
+        return complete;
+    }
+
+    /**
+     * Returns the next pages of the segment, which are empty when the worker did not produce any
+     * within its wait time. The request for the same token can be retried after a failure.
+     */
+    public synchronized List<SerializedPage> readPages()
+            throws IOException
+    {
+        checkState(!complete && !closed, "segment is already read");
+
+        Request request = requestFactory.apply(segmentUrl.newBuilder().addPathSegment(String.valueOf(token)).build())
+                .header(PRESTO_MAX_SIZE, MAX_RESPONSE_SIZE.toString())
+                .build();
+        List<SerializedPage> pages;
+        long nextToken;
+        boolean bufferComplete;
+        try (Response response = httpClient.newCall(request).execute()) {
+            if (response.code() != HTTP_OK && response.code() != HTTP_NO_CONTENT) {
+                ResponseBody body = response.body();
+                throw new ClientException(format("Error reading result segment at %s returned HTTP %s: %s", request.url(), response.code(), body == null ? "" : body.string()));
+            }
+            nextToken = Long.parseLong(getRequiredHeader(response, PRESTO_PAGE_NEXT_TOKEN));
+            bufferComplete = Boolean.parseBoolean(getRequiredHeader(response, PRESTO_BUFFER_COMPLETE));
+            if (response.code() == HTTP_NO_CONTENT) {
+                pages = ImmutableList.of();
+            }
+            else {
+                String contentType = getRequiredHeader(response, CONTENT_TYPE);
+                if (!contentType.startsWith(PRESTO_PAGES)) {
+                    throw new ClientException(format("Expected %s response from %s but got %s", PRESTO_PAGES, request.url(), contentType));
+                }
+                try (InputStreamSliceInput input = new InputStreamSliceInput(response.body().byteStream())) {
+                    pages = ImmutableList.copyOf(readSerializedPages(input));
+                }
+                catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+            }
+        }
+
+        if (nextToken != token) {
+            // free the pages on the worker without waiting for the next request
+            httpClient.newCall(requestFactory.apply(segmentUrl.newBuilder()
+                    .addPathSegment(String.valueOf(nextToken))
+                    .addPathSegment("acknowledge")
+                    .build()).build())
+                    .enqueue(new NullCallback());
+            token = nextToken;
+        }
+        if (bufferComplete) {
+            complete = true;
+            delete();
+        }
+        return pages;
+    }
+
+    public synchronized void close()
+    {
+        if (!complete) {
+            delete();
+        }
+    }
+
+    private void delete()
+    {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        httpClient.newCall(requestFactory.apply(segmentUrl).delete().build())
+                .enqueue(new NullCallback());
+    }
+
+    private static String getRequiredHeader(Response response, String name)
+    {
+        String value = response.header(name);
+        if (value == null) {
+            throw new ClientException(format("Expected %s header in result segment response from %s", name, response.request().url()));
+        }
+        return value;
+    }
+}
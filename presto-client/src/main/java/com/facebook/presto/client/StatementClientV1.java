@@ -17,6 +17,7 @@ import com.facebook.airlift.json.JsonCodec;
 import com.facebook.airlift.units.Duration;
 import com.facebook.presto.client.OkHttpUtil.NullCallback;
 import com.facebook.presto.common.type.TimeZoneKey;
+import com.facebook.presto.spi.page.SerializedPage;
 import com.facebook.presto.spi.security.SelectedRole;
 import com.google.common.base.Joiner;
 import com.google.common.base.Splitter;
@@ -32,6 +33,7 @@ import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.RequestBody;
 
+import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.net.URI;
 import java.net.URLDecoder;
@@ -42,6 +44,7 @@ import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -59,6 +62,7 @@ import static com.facebook.presto.client.PrestoHeaders.PRESTO_LANGUAGE;
 import static com.facebook.presto.client.PrestoHeaders.PRESTO_PREPARED_STATEMENT;
 import static com.facebook.presto.client.PrestoHeaders.PRESTO_REMOVED_SESSION_FUNCTION;
 import static com.facebook.presto.client.PrestoHeaders.PRESTO_RESOURCE_ESTIMATE;
+import static com.facebook.presto.client.PrestoHeaders.PRESTO_RESULT_SEGMENTS;
 import static com.facebook.presto.client.PrestoHeaders.PRESTO_SCHEMA;
 import static com.facebook.presto.client.PrestoHeaders.PRESTO_SESSION;
 import static com.facebook.presto.client.PrestoHeaders.PRESTO_SESSION_FUNCTION;
@@ -83,6 +87,7 @@ import static java.net.HttpURLConnection.HTTP_UNAUTHORIZED;
 import static java.net.HttpURLConnection.HTTP_UNAVAILABLE;
 import static java.util.Objects.requireNonNull;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
 
 @ThreadSafe
 class StatementClientV1
@@ -90,6 +95,10 @@ class StatementClientV1
 {
     private static final MediaType MEDIA_TYPE_TEXT = MediaType.parse("text/plain; charset=utf-8");
     private static final JsonCodec<QueryResults> QUERY_RESULTS_CODEC = jsonCodec(QueryResults.class);
+    // the session property that decides how the server encodes time and timestamp values, enabled by default
+    private static final String LEGACY_TIMESTAMP = "legacy_timestamp";
+    // while result segments are read from the workers, the coordinator still needs to hear from the client
+    private static final Duration COORDINATOR_HEARTBEAT_INTERVAL = new Duration(10, SECONDS);
 
     private static final Splitter SESSION_HEADER_SPLITTER = Splitter.on('=').limit(2).trimResults();
     private static final String USER_AGENT_VALUE = StatementClientV1.class.getSimpleName() +
@@ -99,6 +108,7 @@ class StatementClientV1
     private final OkHttpClient httpClient;
     private final String query;
     private final AtomicReference<QueryResults> currentResults = new AtomicReference<>();
+    private final AtomicReference<QueryData> currentData = new AtomicReference<>();
     private final AtomicReference<String> setCatalog = new AtomicReference<>();
     private final AtomicReference<String> setSchema = new AtomicReference<>();
     private final Map<String, String> setSessionProperties = new ConcurrentHashMap<>();
@@ -115,6 +125,10 @@ class StatementClientV1
     private final Map<String, String> addedSessionFunctions = new ConcurrentHashMap<>();
     private final Set<String> removedSessionFunctions = newConcurrentHashSet();
     private final boolean validateNextUriSource;
+    private final boolean binaryResults;
+    private final BinaryDataDecoder binaryDataDecoder;
+    private final ConcurrentLinkedDeque<ResultSegmentReader> segments = new ConcurrentLinkedDeque<>();
+    private volatile long lastCoordinatorRequestNanos = System.nanoTime();
     private final Map<String, List<String>> responseHeaders;
     private final AtomicReference<State> state = new AtomicReference<>(State.RUNNING);
 
@@ -131,6 +145,10 @@ class StatementClientV1
         this.user = session.getUser();
         this.compressionDisabled = session.isCompressionDisabled();
         this.validateNextUriSource = session.validateNextUriSource();
+        this.binaryResults = session.isBinaryResults();
+        this.binaryDataDecoder = new BinaryDataDecoder(
+                session.getTimeZone(),
+                Boolean.parseBoolean(session.getProperties().getOrDefault(LEGACY_TIMESTAMP, "true")));
 
         Request request = buildQueryRequest(session, query);
 
@@ -150,7 +168,12 @@ class StatementClientV1
         if (url == null) {
             throw new ClientException("Invalid server URL: " + session.getServer());
         }
-        url = url.newBuilder().encodedPath("/v1/statement").build();
+        HttpUrl.Builder urlBuilder = url.newBuilder().encodedPath("/v1/statement");
+        if (binaryResults) {
+            // the server keeps the parameter in the next URIs it returns
+            urlBuilder.addQueryParameter("binaryResults", "true");
+        }
+        url = urlBuilder.build();
 
         Request.Builder builder = prepareRequest(url)
                 .post(RequestBody.create(MEDIA_TYPE_TEXT, query));
@@ -272,7 +295,7 @@ class StatementClientV1
     public QueryData currentData()
     {
         checkState(isRunning(), "current position is not valid (cursor past end)");
-        return currentResults.get();
+        return currentData.get();
     }
 
     @Override
@@ -370,12 +393,22 @@ class StatementClientV1
 
         URI nextUri = currentStatusInfo().getNextUri();
         if (nextUri == null) {
+            closeSegments();
             state.compareAndSet(State.RUNNING, State.FINISHED);
             return false;
         }
+
+        // the query cannot finish before its result segments are read, so they are read before the coordinator is asked for more
+        ResultSegmentReader segment = segments.peek();
+        if (segment != null && Duration.nanosSince(lastCoordinatorRequestNanos).compareTo(COORDINATOR_HEARTBEAT_INTERVAL) < 0) {
+            return readSegment(segment);
+        }
         validateNextUriSource(nextUri, currentStatusInfo().getInfoUri());
 
-        Request request = prepareRequest(HttpUrl.get(nextUri)).build();
+        // the client reads result segments, the coordinator only returns them to clients that send this header
+        Request request = prepareRequest(HttpUrl.get(nextUri))
+                .header(PRESTO_RESULT_SEGMENTS, "true")
+                .build();
 
         Exception cause = null;
         long start = System.nanoTime();
@@ -418,6 +451,7 @@ class StatementClientV1
                 cause = e;
                 continue;
             }
+            lastCoordinatorRequestNanos = System.nanoTime();
 
             if ((response.getStatusCode() == HTTP_OK) && response.hasValue()) {
                 processResponse(response.getHeaders(), response.getValue());
@@ -431,6 +465,68 @@ class StatementClientV1
         }
     }
 
+    private boolean readSegment(ResultSegmentReader segment)
+    {
+        Exception cause = null;
+        long start = System.nanoTime();
+        long attempts = 0;
+
+        while (true) {
+            if (isClientAborted()) {
+                return false;
+            }
+
+            Duration sinceStart = Duration.nanosSince(start);
+            if (attempts > 0 && sinceStart.compareTo(requestTimeoutNanos) > 0) {
+                state.compareAndSet(State.RUNNING, State.CLIENT_ERROR);
+                throw new RuntimeException(format("Error reading result segment (attempts: %s, duration: %s)", attempts, sinceStart), cause);
+            }
+
+            if (attempts > 0) {
+                // back-off on retry
+                try {
+                    MILLISECONDS.sleep(attempts * 100);
+                }
+                catch (InterruptedException e) {
+                    try {
+                        close();
+                    }
+                    finally {
+                        Thread.currentThread().interrupt();
+                    }
+                    state.compareAndSet(State.RUNNING, State.CLIENT_ERROR);
+                    throw new RuntimeException("StatementClient thread was interrupted");
+                }
+            }
+            attempts++;
+
+            List<SerializedPage> pages;
+            try {
+                pages = segment.readPages();
+            }
+            catch (IOException e) {
+                cause = e;
+                continue;
+            }
+            catch (RuntimeException e) {
+                state.compareAndSet(State.RUNNING, State.CLIENT_ERROR);
+                throw e;
+            }
+
+            if (segment.isComplete()) {
+                segments.remove(segment);
+            }
+            if (pages.isEmpty()) {
+                currentData.set(() -> null);
+            }
+            else {
+                Iterable<List<Object>> data = binaryDataDecoder.decodePages(currentResults.get().getColumns(), pages);
+                currentData.set(() -> data);
+            }
+            return true;
+        }
+    }
+
     private void validateNextUriSource(final URI nextUri, final URI infoUri)
     {
         if (!validateNextUriSource) {
@@ -506,7 +602,23 @@ class StatementClientV1
             removedSessionFunctions.add(urlDecode(signature));
         }
 
+        if (results.getSegments() != null) {
+            for (URI segment : results.getSegments()) {
+                segments.add(new ResultSegmentReader(httpClient, this::prepareRequest, segment));
+            }
+        }
+
         currentResults.set(results);
+        currentData.set(decodeBinaryData(results));
+    }
+
+    private QueryData decodeBinaryData(QueryResults results)
+    {
+        if (results.getBinaryData() == null) {
+            return results;
+        }
+        Iterable<List<Object>> data = binaryDataDecoder.decode(results.getColumns(), results.getBinaryData());
+        return () -> data;
     }
 
     private RuntimeException requestFailedException(String task, Request request, JsonResponse<QueryResults> response)
@@ -547,6 +659,7 @@ class StatementClientV1
     {
         // If the query is not done, abort the query.
         if (state.compareAndSet(State.RUNNING, State.CLIENT_ABORTED)) {
+            closeSegments();
             URI uri = currentResults.get().getNextUri();
             if (uri != null) {
                 httpDelete(uri);
@@ -554,6 +667,14 @@ class StatementClientV1
         }
     }
 
+    private void closeSegments()
+    {
+        ResultSegmentReader segment;
+        while ((segment = segments.poll()) != null) {
+            segment.close();
+        }
+    }
+
     private void httpDelete(URI uri)
     {
         Request request = prepareRequest(HttpUrl.get(uri))
@@ -0,0 +1,194 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.client;
+
+import com.facebook.presto.common.Page;
+import com.facebook.presto.common.block.Block;
+import com.facebook.presto.common.block.BlockBuilder;
+import com.facebook.presto.common.block.BlockEncodingManager;
+import com.facebook.presto.common.type.ArrayType;
+import com.facebook.presto.common.type.DecimalType;
+import com.facebook.presto.common.type.RowType;
+import com.facebook.presto.common.type.TimeZoneKey;
+import com.facebook.presto.common.type.Type;
+import com.facebook.presto.spi.page.PagesSerde;
+import com.facebook.presto.spi.page.SerializedPage;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.airlift.slice.DynamicSliceOutput;
+import io.airlift.slice.Slices;
+import org.testng.annotations.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+
+import static com.facebook.presto.common.type.BigintType.BIGINT;
+import static com.facebook.presto.common.type.BooleanType.BOOLEAN;
+import static com.facebook.presto.common.type.CharType.createCharType;
+import static com.facebook.presto.common.type.DateType.DATE;
+import static com.facebook.presto.common.type.Decimals.encodeScaledValue;
+import static com.facebook.presto.common.type.DoubleType.DOUBLE;
+import static com.facebook.presto.common.type.IntegerType.INTEGER;
+import static com.facebook.presto.common.type.RealType.REAL;
+import static com.facebook.presto.common.type.TimeZoneKey.UTC_KEY;
+import static com.facebook.presto.common.type.TimeZoneKey.getTimeZoneKey;
+import static com.facebook.presto.common.type.TimestampType.TIMESTAMP;
+import static com.facebook.presto.common.type.VarbinaryType.VARBINARY;
+import static com.facebook.presto.common.type.VarcharType.VARCHAR;
+import static com.facebook.presto.spi.page.PageCodecMarker.COMPRESSED;
+import static com.facebook.presto.spi.page.PagesSerdeUtil.writeSerializedPage;
+import static java.lang.Float.floatToRawIntBits;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+public class TestBinaryDataDecoder
+{
+    private static final PagesSerde SERDE = new PagesSerde(new BlockEncodingManager(), Optional.empty(), Optional.empty(), Optional.empty());
+
+    @Test
+    public void testPrimitiveTypes()
+    {
+        DecimalType shortDecimal = DecimalType.createDecimalType(5, 2);
+        DecimalType longDecimal = DecimalType.createDecimalType(25, 3);
+        List<Type> types = ImmutableList.of(BIGINT, INTEGER, DOUBLE, REAL, BOOLEAN, VARCHAR, createCharType(4), shortDecimal, longDecimal, DATE, VARBINARY);
+        BlockBuilder[] builders = createBlockBuilders(types);
+        BIGINT.writeLong(builders[0], 12300000000L);
+        INTEGER.writeLong(builders[1], 123);
+        DOUBLE.writeDouble(builders[2], 0.1);
+        REAL.writeLong(builders[3], floatToRawIntBits(123.45f));
+        BOOLEAN.writeBoolean(builders[4], true);
+        VARCHAR.writeString(builders[5], "hello");
+        createCharType(4).writeString(builders[6], "ab");
+        shortDecimal.writeLong(builders[7], 12345);
+        longDecimal.writeSlice(builders[8], encodeScaledValue(new BigDecimal("1234567890123456789012.345")));
+        DATE.writeLong(builders[9], 17575);
+        VARBINARY.writeSlice(builders[10], Slices.wrappedBuffer(new byte[] {1, 2, 3}));
+        for (BlockBuilder builder : builders) {
+            builder.appendNull();
+        }
+
+        List<List<Object>> rows = decode(UTC_KEY, true, types, builders);
+        assertEquals(rows.size(), 2);
+        List<Object> row = rows.get(0);
+        assertEquals(row.get(0), 12300000000L);
+        assertEquals(row.get(1), 123);
+        assertEquals(row.get(2), 0.1);
+        assertEquals(row.get(3), 123.45f);
+        assertEquals(row.get(4), true);
+        assertEquals(row.get(5), "hello");
+        assertEquals(row.get(6), "ab  ");
+        assertEquals(row.get(7), "123.45");
+        assertEquals(row.get(8), "1234567890123456789012.345");
+        assertEquals(row.get(9), "2018-02-13");
+        assertEquals((byte[]) row.get(10), new byte[] {1, 2, 3});
+        assertEquals(rows.get(1), Arrays.asList(new Object[types.size()]));
+    }
+
+    @Test
+    public void testTimestamp()
+    {
+        List<Type> types = ImmutableList.of(TIMESTAMP);
+        BlockBuilder[] builders = createBlockBuilders(types);
+        // 2018-02-13 13:14:15.123 UTC
+        TIMESTAMP.writeLong(builders[0], 1518527655123L);
+
+        assertEquals(decode(UTC_KEY, true, types, builders).get(0).get(0), "2018-02-13 13:14:15.123");
+        // legacy timestamps are instants, rendered in the time zone of the session
+        assertEquals(decode(getTimeZoneKey("+01:00"), true, types, builders).get(0).get(0), "2018-02-13 14:14:15.123");
+        assertEquals(decode(getTimeZoneKey("+01:00"), false, types, builders).get(0).get(0), "2018-02-13 13:14:15.123");
+    }
+
+    @Test
+    public void testStructuralTypes()
+    {
+        ArrayType arrayType = new ArrayType(BIGINT);
+        RowType rowType = RowType.from(ImmutableList.of(RowType.field("x", BIGINT), RowType.field("y", VARCHAR)));
+        List<Type> types = ImmutableList.of(arrayType, rowType);
+        BlockBuilder[] builders = createBlockBuilders(types);
+
+        BlockBuilder elements = builders[0].beginBlockEntry();
+        BIGINT.writeLong(elements, 1);
+        elements.appendNull();
+        builders[0].closeEntry();
+
+        BlockBuilder fields = builders[1].beginBlockEntry();
+        BIGINT.writeLong(fields, 2);
+        VARCHAR.writeString(fields, "b");
+        builders[1].closeEntry();
+
+        List<Object> row = decode(UTC_KEY, true, types, builders).get(0);
+        assertEquals(row.get(0), Arrays.asList(1L, null));
+        assertEquals(row.get(1), ImmutableMap.of("x", 2L, "y", "b"));
+    }
+
+    @Test
+    public void testNoBinaryData()
+    {
+        BinaryDataDecoder decoder = new BinaryDataDecoder(UTC_KEY, true);
+        assertNull(decoder.decode(ImmutableList.of(new Column("c", BIGINT)), null));
+    }
+
+    @Test
+    public void testUnsupportedType()
+    {
+        BinaryDataDecoder decoder = new BinaryDataDecoder(UTC_KEY, true);
+        List<Column> columns = ImmutableList.of(new Column("c", "Geometry", new ClientTypeSignature("Geometry", ImmutableList.of())));
+        assertThatThrownBy(() -> decoder.decode(columns, ImmutableList.of()))
+                .isInstanceOf(ClientException.class)
+                .hasMessage("Type Geometry is not supported with binary results");
+    }
+
+    @Test
+    public void testCompressedPage()
+    {
+        BlockBuilder builder = BIGINT.createBlockBuilder(null, 1);
+        BIGINT.writeLong(builder, 1);
+        SerializedPage page = SERDE.serialize(new Page(builder.build()));
+        SerializedPage compressedPage = new SerializedPage(page.getSlice(), COMPRESSED.set((byte) 0), page.getPositionCount(), page.getUncompressedSizeInBytes() + 1, 0);
+
+        BinaryDataDecoder decoder = new BinaryDataDecoder(UTC_KEY, true);
+        assertThatThrownBy(() -> decoder.decode(ImmutableList.of(new Column("c", BIGINT)), ImmutableList.of(encode(compressedPage))))
+                .isInstanceOf(ClientException.class)
+                .hasMessageContaining("Binary results are compressed");
+    }
+
+    private static BlockBuilder[] createBlockBuilders(List<Type> types)
+    {
+        return types.stream()
+                .map(type -> type.createBlockBuilder(null, 2))
+                .toArray(BlockBuilder[]::new);
+    }
+
+    private static List<List<Object>> decode(TimeZoneKey timeZoneKey, boolean legacyTimestamp, List<Type> types, BlockBuilder[] builders)
+    {
+        Page page = new Page(Arrays.stream(builders)
+                .map(BlockBuilder::build)
+                .toArray(Block[]::new));
+        List<Column> columns = types.stream()
+                .map(type -> new Column("c", type))
+                .collect(ImmutableList.toImmutableList());
+        return ImmutableList.copyOf(new BinaryDataDecoder(timeZoneKey, legacyTimestamp).decode(columns, ImmutableList.of(encode(SERDE.serialize(page)))));
+    }
+
+    private static String encode(SerializedPage page)
+    {
+        DynamicSliceOutput output = new DynamicSliceOutput(page.getSizeInBytes());
+        writeSerializedPage(output, page);
+        return Base64.getEncoder().encodeToString(output.slice().getBytes());
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.client;
+
+import com.facebook.presto.common.Page;
+import com.facebook.presto.common.block.BlockBuilder;
+import com.facebook.presto.common.block.BlockEncodingManager;
+import com.facebook.presto.spi.page.PagesSerde;
+import com.facebook.presto.spi.page.SerializedPage;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import io.airlift.slice.DynamicSliceOutput;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.facebook.presto.client.PrestoHeaders.PRESTO_BUFFER_COMPLETE;
+import static com.facebook.presto.client.PrestoHeaders.PRESTO_MAX_SIZE;
+import static com.facebook.presto.client.PrestoHeaders.PRESTO_PAGE_NEXT_TOKEN;
+import static com.facebook.presto.client.PrestoHeaders.PRESTO_USER;
+import static com.facebook.presto.client.ResultSegmentReader.PRESTO_PAGES;
+import static com.facebook.presto.common.type.BigintType.BIGINT;
+import static com.facebook.presto.common.type.TimeZoneKey.UTC_KEY;
+import static com.facebook.presto.spi.page.PagesSerdeUtil.writeSerializedPages;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.net.HttpHeaders.CONTENT_TYPE;
+import static java.net.HttpURLConnection.HTTP_NOT_FOUND;
+import static java.net.HttpURLConnection.HTTP_NO_CONTENT;
+import static java.net.HttpURLConnection.HTTP_OK;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+
+@Test(singleThreaded = true)
+public class TestResultSegmentReader
+{
+    private static final PagesSerde SERDE = new PagesSerde(new BlockEncodingManager(), Optional.empty(), Optional.empty(), Optional.empty());
+    private static final String SEGMENT_PATH = "/v1/segment/20160128_214710_00012_rk68b.0.0.0.0";
+
+    private MockWebServer server;
+    private OkHttpClient httpClient;
+
+    @BeforeMethod(alwaysRun = true)
+    public void setup()
+            throws IOException
+    {
+        server = new MockWebServer();
+        server.start();
+        httpClient = new OkHttpClient();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void teardown()
+            throws IOException
+    {
+        server.close();
+        server = null;
+    }
+
+    @Test
+    public void testReadSegment()
+            throws Exception
+    {
+        server.setDispatcher(new Dispatcher()
+        {
+            @Override
+            public MockResponse dispatch(RecordedRequest request)
+            {
+                String path = request.getRequestUrl().encodedPath();
+                if (request.getMethod().equals("DELETE") || path.endsWith("/acknowledge")) {
+                    return new MockResponse().setResponseCode(HTTP_NO_CONTENT);
+                }
+                if (path.equals(SEGMENT_PATH + "/0")) {
+                    return new MockResponse()
+                            .setResponseCode(HTTP_OK)
+                            .setHeader(CONTENT_TYPE, PRESTO_PAGES)
+                            .setHeader(PRESTO_PAGE_NEXT_TOKEN, "2")
+                            .setHeader(PRESTO_BUFFER_COMPLETE, "false")
+                            .setBody(serialize(createPage(1, 2), createPage(3)));
+                }
+                if (path.equals(SEGMENT_PATH + "/2")) {
+                    return new MockResponse()
+                            .setResponseCode(HTTP_NO_CONTENT)
+                            .setHeader(PRESTO_PAGE_NEXT_TOKEN, "2")
+                            .setHeader(PRESTO_BUFFER_COMPLETE, "true");
+                }
+                return new MockResponse().setResponseCode(HTTP_NOT_FOUND);
+            }
+        });
+
+        ResultSegmentReader reader = createReader();
+        List<SerializedPage> pages = reader.readPages();
+        assertEquals(pages.size(), 2);
+        assertFalse(reader.isComplete());
+        List<Column> columns = ImmutableList.of(new Column("c", BIGINT));
+        assertEquals(ImmutableList.copyOf(new BinaryDataDecoder(UTC_KEY, true).decodePages(columns, pages)),
+                ImmutableList.of(ImmutableList.of(1L), ImmutableList.of(2L), ImmutableList.of(3L)));
+
+        assertTrue(reader.readPages().isEmpty());
+        assertTrue(reader.isComplete());
+
+        // the pages are acknowledged and the drained buffer is deleted
+        Set<String> requests = new HashSet<>();
+        for (int i = 0; i < 4; i++) {
+            RecordedRequest request = server.takeRequest(10, SECONDS);
+            assertNotNull(request);
+            assertEquals(request.getHeader(PRESTO_USER), "user");
+            assertEquals(request.getRequestUrl().queryParameter("key"), "secret");
+            if (request.getMethod().equals("GET") && !request.getRequestUrl().encodedPath().endsWith("/acknowledge")) {
+                assertEquals(request.getHeader(PRESTO_MAX_SIZE), "16MB");
+            }
+            requests.add(request.getMethod() + " " + request.getRequestUrl().encodedPath());
+        }
+        assertEquals(requests, ImmutableSet.of(
+                "GET " + SEGMENT_PATH + "/0",
+                "GET " + SEGMENT_PATH + "/2/acknowledge",
+                "GET " + SEGMENT_PATH + "/2",
+                "DELETE " + SEGMENT_PATH));
+    }
+
+    @Test
+    public void testSegmentNotFound()
+    {
+        server.enqueue(new MockResponse().setResponseCode(HTTP_NOT_FOUND).setBody("Task not found"));
+
+        assertThatThrownBy(() -> createReader().readPages())
+                .isInstanceOf(ClientException.class)
+                .hasMessageContaining("returned HTTP 404: Task not found");
+    }
+
+    private ResultSegmentReader createReader()
+    {
+        URI segment = server.url(SEGMENT_PATH).newBuilder().addQueryParameter("key", "secret").build().uri();
+        return new ResultSegmentReader(httpClient, url -> new Request.Builder().url(url).addHeader(PRESTO_USER, "user"), segment);
+    }
+
+    private static Page createPage(long... values)
+    {
+        BlockBuilder builder = BIGINT.createBlockBuilder(null, values.length);
+        for (long value : values) {
+            BIGINT.writeLong(builder, value);
+        }
+        return new Page(builder.build());
+    }
+
+    private static Buffer serialize(Page... pages)
+    {
+        DynamicSliceOutput output = new DynamicSliceOutput(1024);
+        writeSerializedPages(output, Arrays.stream(pages)
+                .map(SERDE::serialize)
+                .collect(toImmutableList()));
+        return new Buffer().write(output.slice().getBytes());
+    }
+}
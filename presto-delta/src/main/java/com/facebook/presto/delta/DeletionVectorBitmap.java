@@ -0,0 +1,128 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.delta;
+
+import org.apache.hadoop.fs.PositionedReadable;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.lang.Math.toIntExact;
+import static java.nio.ByteOrder.BIG_ENDIAN;
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Row indexes deleted from a data file by a Delta deletion vector.
+ * <p>
+ * The rows are kept the way Delta serializes them: one 32-bit Roaring bitmap for every value of the
+ * high 32 bits of the row index, so that a lookup is an array access followed by a bitmap lookup.
+ */
+public final class DeletionVectorBitmap
+{
+    // magic number of the portable serialization format of the 64-bit Roaring bitmaps written by Delta
+    private static final int PORTABLE_ROARING_BITMAP_MAGIC_NUMBER = 1681511377;
+    // a larger key would address rows beyond 2^42, which no data file has
+    private static final int MAX_BITMAP_KEY = 1 << 10;
+
+    private final RoaringBitmap[] bitmaps;
+    private final long cardinality;
+
+    private DeletionVectorBitmap(RoaringBitmap[] bitmaps)
+    {
+        this.bitmaps = requireNonNull(bitmaps, "bitmaps is null");
+        long cardinality = 0;
+        for (RoaringBitmap bitmap : bitmaps) {
+            cardinality += bitmap.getLongCardinality();
+        }
+        this.cardinality = cardinality;
+    }
+
+    public boolean isDeleted(long rowIndex)
+    {
+        int high = (int) (rowIndex >>> 32);
+        return high < bitmaps.length && bitmaps[high].contains((int) rowIndex);
+    }
+
+    public long getCardinality()
+    {
+        return cardinality;
+    }
+
+    /**
+     * Reads a deletion vector stored at {@code offset} of a deletion vector file. The stored bitmap is
+     * prefixed by its size, and followed by its CRC-32 checksum.
+     */
+    public static DeletionVectorBitmap read(PositionedReadable input, long offset, int sizeInBytes)
+            throws IOException
+    {
+        byte[] header = new byte[Integer.BYTES];
+        input.readFully(offset, header);
+        int size = ByteBuffer.wrap(header).order(BIG_ENDIAN).getInt();
+        checkArgument(size == sizeInBytes, "Deletion vector size is %s, but %s is expected", size, sizeInBytes);
+
+        byte[] data = new byte[size + Integer.BYTES];
+        input.readFully(offset + Integer.BYTES, data);
+        int expectedChecksum = ByteBuffer.wrap(data, size, Integer.BYTES).order(BIG_ENDIAN).getInt();
+        CRC32 checksum = new CRC32();
+        checksum.update(data, 0, size);
+        checkArgument((int) checksum.getValue() == expectedChecksum, "Deletion vector checksum mismatch");
+
+        return deserialize(ByteBuffer.wrap(data, 0, size));
+    }
+
+    /**
+     * Deserializes a deletion vector, e.g. one stored inline in the Delta log.
+     */
+    public static DeletionVectorBitmap deserialize(byte[] data)
+    {
+        return deserialize(ByteBuffer.wrap(data));
+    }
+
+    private static DeletionVectorBitmap deserialize(ByteBuffer buffer)
+    {
+        buffer = buffer.slice().order(LITTLE_ENDIAN);
+        int magicNumber = buffer.getInt();
+        checkArgument(magicNumber == PORTABLE_ROARING_BITMAP_MAGIC_NUMBER, "Unsupported deletion vector format: %s", magicNumber);
+
+        int bitmapCount = toIntExact(buffer.getLong());
+        RoaringBitmap[] bitmaps = new RoaringBitmap[0];
+        for (int i = 0; i < bitmapCount; i++) {
+            // the bitmaps are sorted by key, and the keys without any deleted row are left out
+            int key = buffer.getInt();
+            checkArgument(key <= MAX_BITMAP_KEY, "Deletion vector bitmap key is too large: %s", key);
+            checkArgument(key >= bitmaps.length, "Deletion vector bitmap keys are not sorted");
+            RoaringBitmap[] grown = new RoaringBitmap[key + 1];
+            System.arraycopy(bitmaps, 0, grown, 0, bitmaps.length);
+            for (int j = bitmaps.length; j < key; j++) {
+                grown[j] = new RoaringBitmap();
+            }
+            bitmaps = grown;
+
+            RoaringBitmap bitmap = new RoaringBitmap();
+            try {
+                bitmap.deserialize(buffer);
+            }
+            catch (IOException e) {
+                throw new IllegalArgumentException("Invalid deletion vector bitmap", e);
+            }
+            buffer.position(buffer.position() + bitmap.serializedSizeInBytes());
+            bitmaps[key] = bitmap;
+        }
+        return new DeletionVectorBitmap(bitmaps);
+    }
+}
@@ -20,6 +20,7 @@ import com.facebook.presto.spi.ConnectorSession;
 import com.facebook.presto.spi.PrestoException;
 import com.facebook.presto.spi.SchemaTableName;
 import com.facebook.presto.spi.StandardErrorCode;
+import io.delta.kernel.Scan;
 import io.delta.kernel.Snapshot;
 import io.delta.kernel.Table;
 import io.delta.kernel.data.FilteredColumnarBatch;
@@ -28,6 +29,7 @@ import io.delta.kernel.defaults.engine.DefaultEngine;
 import io.delta.kernel.engine.Engine;
 import io.delta.kernel.exceptions.TableNotFoundException;
 import io.delta.kernel.internal.InternalScanFileUtils;
+import io.delta.kernel.internal.ScanImpl;
 import io.delta.kernel.internal.SnapshotImpl;
 import io.delta.kernel.utils.CloseableIterator;
 import jakarta.inject.Inject;
@@ -139,7 +141,8 @@ public class DeltaClient
     }
 
     /**
-     * Get the list of files corresponding to the given Delta table.
+     * Get the list of files corresponding to the given Delta table. The add action of every file includes
+     * its statistics, when the writer collected them.
      *
      * @return Closeable iterator of files. It is responsibility of the caller to close the iterator.
      */
@@ -161,9 +164,13 @@ public class DeltaClient
         }
 
         try {
-            return sourceTable.getSnapshotAsOfVersion(deltaEngine.get(),
-                            deltaTable.getSnapshotId().get()).getScanBuilder(deltaEngine.get()).build()
-                    .getScanFiles(deltaEngine.get());
+            Scan scan = sourceTable.getSnapshotAsOfVersion(deltaEngine.get(),
+                            deltaTable.getSnapshotId().get()).getScanBuilder(deltaEngine.get()).build();
+            if (scan instanceof ScanImpl) {
+                // the file statistics are used to skip the files which do not match the query predicate
+                return ((ScanImpl) scan).getScanFiles(deltaEngine.get(), true);
+            }
+            return scan.getScanFiles(deltaEngine.get());
         }
         catch (TableNotFoundException e) {
             throw new PrestoException(StandardErrorCode.NOT_FOUND,
@@ -0,0 +1,135 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.delta;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.delta.kernel.internal.actions.DeletionVectorDescriptor;
+
+import java.util.Objects;
+import java.util.Optional;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Deletion vector descriptor of a data file, as stored in the add action of the Delta log.
+ */
+public class DeltaDeletionVector
+{
+    private final String storageType;
+    private final String pathOrInlineDv;
+    private final Optional<Integer> offset;
+    private final int sizeInBytes;
+    private final long cardinality;
+
+    @JsonCreator
+    public DeltaDeletionVector(
+            @JsonProperty("storageType") String storageType,
+            @JsonProperty("pathOrInlineDv") String pathOrInlineDv,
+            @JsonProperty("offset") Optional<Integer> offset,
+            @JsonProperty("sizeInBytes") int sizeInBytes,
+            @JsonProperty("cardinality") long cardinality)
+    {
+        checkArgument(sizeInBytes >= 0, "sizeInBytes must be non-negative");
+        checkArgument(cardinality >= 0, "cardinality must be non-negative");
+
+        this.storageType = requireNonNull(storageType, "storageType is null");
+        this.pathOrInlineDv = requireNonNull(pathOrInlineDv, "pathOrInlineDv is null");
+        this.offset = requireNonNull(offset, "offset is null");
+        this.sizeInBytes = sizeInBytes;
+        this.cardinality = cardinality;
+    }
+
+    public static DeltaDeletionVector fromDescriptor(DeletionVectorDescriptor descriptor)
+    {
+        return new DeltaDeletionVector(
+                descriptor.getStorageType(),
+                descriptor.getPathOrInlineDv(),
+                descriptor.getOffset(),
+                descriptor.getSizeInBytes(),
+                descriptor.getCardinality());
+    }
+
+    public DeletionVectorDescriptor toDescriptor()
+    {
+        return new DeletionVectorDescriptor(storageType, pathOrInlineDv, offset, sizeInBytes, cardinality);
+    }
+
+    @JsonProperty
+    public String getStorageType()
+    {
+        return storageType;
+    }
+
+    @JsonProperty
+    public String getPathOrInlineDv()
+    {
+        return pathOrInlineDv;
+    }
+
+    @JsonProperty
+    public Optional<Integer> getOffset()
+    {
+        return offset;
+    }
+
+    @JsonProperty
+    public int getSizeInBytes()
+    {
+        return sizeInBytes;
+    }
+
+    @JsonProperty
+    public long getCardinality()
+    {
+        return cardinality;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        DeltaDeletionVector that = (DeltaDeletionVector) o;
+        return sizeInBytes == that.sizeInBytes &&
+                cardinality == that.cardinality &&
+                storageType.equals(that.storageType) &&
+                pathOrInlineDv.equals(that.pathOrInlineDv) &&
+                offset.equals(that.offset);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(storageType, pathOrInlineDv, offset, sizeInBytes, cardinality);
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("storageType", storageType)
+                .add("pathOrInlineDv", pathOrInlineDv)
+                .add("offset", offset)
+                .add("sizeInBytes", sizeInBytes)
+                .add("cardinality", cardinality)
+                .toString();
+    }
+}
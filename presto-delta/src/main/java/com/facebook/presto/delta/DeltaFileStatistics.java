@@ -0,0 +1,234 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.delta;
+
+import com.facebook.presto.common.predicate.Domain;
+import com.facebook.presto.common.predicate.Range;
+import com.facebook.presto.common.predicate.TupleDomain;
+import com.facebook.presto.common.predicate.ValueSet;
+import com.facebook.presto.common.type.DecimalType;
+import com.facebook.presto.common.type.Type;
+import com.facebook.presto.common.type.TypeManager;
+import com.facebook.presto.common.type.VarcharType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.facebook.presto.common.type.BigintType.BIGINT;
+import static com.facebook.presto.common.type.BooleanType.BOOLEAN;
+import static com.facebook.presto.common.type.DateType.DATE;
+import static com.facebook.presto.common.type.Decimals.encodeUnscaledValue;
+import static com.facebook.presto.common.type.DoubleType.DOUBLE;
+import static com.facebook.presto.common.type.IntegerType.INTEGER;
+import static com.facebook.presto.common.type.RealType.REAL;
+import static com.facebook.presto.common.type.SmallintType.SMALLINT;
+import static com.facebook.presto.common.type.TinyintType.TINYINT;
+import static com.facebook.presto.delta.DeltaColumnHandle.ColumnType.REGULAR;
+import static com.fasterxml.jackson.databind.DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS;
+import static io.airlift.slice.Slices.utf8Slice;
+import static java.lang.Float.floatToRawIntBits;
+import static java.math.RoundingMode.UNNECESSARY;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Statistics of a data file, as written to the {@code stats} field of its add action in the Delta log.
+ * They are used to skip the files which cannot contain any row matching the query predicate.
+ * <p>
+ * Timestamp statistics are not used: Delta truncates them to milliseconds, and writes them in the
+ * session time zone of the writer.
+ */
+public class DeltaFileStatistics
+{
+    // Delta truncates string statistics to this many characters, a truncated maximum is not an upper bound
+    private static final int STRING_PREFIX_LENGTH = 32;
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().enable(USE_BIG_DECIMAL_FOR_FLOATS);
+
+    private final Optional<Long> numRecords;
+    private final Optional<JsonNode> minValues;
+    private final Optional<JsonNode> maxValues;
+    private final Optional<JsonNode> nullCounts;
+
+    private DeltaFileStatistics(JsonNode stats)
+    {
+        JsonNode numRecords = stats.get("numRecords");
+        this.numRecords = numRecords != null && numRecords.canConvertToLong() ? Optional.of(numRecords.asLong()) : Optional.empty();
+        this.minValues = Optional.ofNullable(stats.get("minValues")).filter(JsonNode::isObject);
+        this.maxValues = Optional.ofNullable(stats.get("maxValues")).filter(JsonNode::isObject);
+        this.nullCounts = Optional.ofNullable(stats.get("nullCount")).filter(JsonNode::isObject);
+    }
+
+    /**
+     * Parses the statistics of a data file, returns empty if the file has no statistics or they cannot be parsed.
+     */
+    public static Optional<DeltaFileStatistics> parse(String stats)
+    {
+        if (stats == null || stats.isEmpty()) {
+            return Optional.empty();
+        }
+        try {
+            JsonNode node = OBJECT_MAPPER.readTree(stats);
+            return node.isObject() ? Optional.of(new DeltaFileStatistics(node)) : Optional.empty();
+        }
+        catch (JsonProcessingException e) {
+            return Optional.empty();
+        }
+    }
+
+    public Optional<Long> getNumRecords()
+    {
+        return numRecords;
+    }
+
+    /**
+     * Returns false if no row of the file can match the predicate on the regular columns of the table.
+     */
+    public boolean mayMatch(TupleDomain<DeltaColumnHandle> predicate, TypeManager typeManager)
+    {
+        requireNonNull(predicate, "predicate is null");
+        if (predicate.isNone() || numRecords.equals(Optional.of(0L))) {
+            return false;
+        }
+
+        for (Map.Entry<DeltaColumnHandle, Domain> entry : predicate.getDomains().get().entrySet()) {
+            DeltaColumnHandle column = entry.getKey();
+            if (column.getColumnType() != REGULAR) {
+                continue;
+            }
+            Type type = typeManager.getType(column.getDataType());
+            if (!entry.getValue().overlaps(getDomain(column.getName(), type))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the domain of the values of the column in the file.
+     */
+    public Domain getDomain(String columnName, Type type)
+    {
+        Optional<Long> nullCount = nullCounts.flatMap(values -> getField(values, columnName))
+                .filter(JsonNode::canConvertToLong)
+                .map(JsonNode::asLong);
+        if (nullCount.isPresent() && numRecords.isPresent() && nullCount.get().equals(numRecords.get())) {
+            return Domain.onlyNull(type);
+        }
+        boolean nullAllowed = !nullCount.equals(Optional.of(0L));
+        if (!type.isOrderable()) {
+            return Domain.create(ValueSet.all(type), nullAllowed);
+        }
+
+        Optional<Object> min = minValues.flatMap(values -> getField(values, columnName))
+                .flatMap(value -> getValue(type, value, false));
+        Optional<Object> max = maxValues.flatMap(values -> getField(values, columnName))
+                .flatMap(value -> getValue(type, value, true));
+        Range range;
+        if (min.isPresent() && max.isPresent()) {
+            range = Range.range(type, min.get(), true, max.get(), true);
+        }
+        else if (min.isPresent()) {
+            range = Range.greaterThanOrEqual(type, min.get());
+        }
+        else if (max.isPresent()) {
+            range = Range.lessThanOrEqual(type, max.get());
+        }
+        else {
+            return Domain.create(ValueSet.all(type), nullAllowed);
+        }
+        return Domain.create(ValueSet.ofRanges(range), nullAllowed);
+    }
+
+    private static Optional<JsonNode> getField(JsonNode values, String columnName)
+    {
+        JsonNode value = values.get(columnName);
+        if (value != null) {
+            return Optional.of(value);
+        }
+        // the column names are lower cased when the connector is not case sensitive
+        Iterator<Map.Entry<String, JsonNode>> fields = values.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            if (field.getKey().equalsIgnoreCase(columnName)) {
+                return Optional.of(field.getValue());
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static Optional<Object> getValue(Type type, JsonNode value, boolean isMax)
+    {
+        if (value.isNull()) {
+            return Optional.empty();
+        }
+        if (type.equals(BIGINT) || type.equals(INTEGER) || type.equals(SMALLINT) || type.equals(TINYINT)) {
+            return value.isIntegralNumber() && value.canConvertToLong() ? Optional.of(value.asLong()) : Optional.empty();
+        }
+        if (type.equals(DOUBLE)) {
+            // NaN and the infinities are written as strings
+            return value.isNumber() ? Optional.of(value.doubleValue()) : Optional.empty();
+        }
+        if (type.equals(REAL)) {
+            return value.isNumber() ? Optional.of((long) floatToRawIntBits(value.floatValue())) : Optional.empty();
+        }
+        if (type.equals(BOOLEAN)) {
+            return value.isBoolean() ? Optional.of(value.booleanValue()) : Optional.empty();
+        }
+        if (type.equals(DATE)) {
+            try {
+                return value.isTextual() ? Optional.of(LocalDate.parse(value.textValue()).toEpochDay()) : Optional.empty();
+            }
+            catch (DateTimeParseException e) {
+                return Optional.empty();
+            }
+        }
+        if (type instanceof VarcharType) {
+            if (!value.isTextual()) {
+                return Optional.empty();
+            }
+            String text = value.textValue();
+            if (isMax && text.codePointCount(0, text.length()) >= STRING_PREFIX_LENGTH) {
+                return Optional.empty();
+            }
+            return Optional.of(utf8Slice(text));
+        }
+        if (type instanceof DecimalType) {
+            if (!value.isNumber()) {
+                return Optional.empty();
+            }
+            DecimalType decimalType = (DecimalType) type;
+            try {
+                BigDecimal decimal = value.decimalValue().setScale(decimalType.getScale(), UNNECESSARY);
+                if (decimal.precision() > decimalType.getPrecision()) {
+                    return Optional.empty();
+                }
+                if (decimalType.isShort()) {
+                    return Optional.of(decimal.unscaledValue().longValueExact());
+                }
+                return Optional.of(encodeUnscaledValue(decimal.unscaledValue()));
+            }
+            catch (ArithmeticException e) {
+                return Optional.empty();
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -23,8 +23,10 @@ import com.facebook.presto.spi.PrestoException;
 import java.io.IOException;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
+import static com.facebook.presto.common.type.BigintType.BIGINT;
 import static com.facebook.presto.delta.DeltaColumnHandle.ColumnType.PARTITION;
 import static com.facebook.presto.delta.DeltaErrorCode.DELTA_READ_DATA_ERROR;
 import static java.util.Objects.requireNonNull;
@@ -33,6 +35,7 @@ import static java.util.Objects.requireNonNull;
  * {@link ConnectorPageSource} implementation for Delta tables that prefills
  * partition column blocks and combines them with regular column blocks returned
  * by the underlying file reader {@link ConnectorPageSource} implementation.
+ * The rows deleted by the deletion vector of the file, if any, are removed.
  */
 public class DeltaPageSource
         implements ConnectorPageSource
@@ -40,6 +43,7 @@ public class DeltaPageSource
     private final List<DeltaColumnHandle> columnHandles;
     private final ConnectorPageSource dataPageSource;
     private final Map<String, Block> partitionValues;
+    private final Optional<DeletionVectorBitmap> deletionVector;
 
     /**
      * Create a DeltaPageSource
@@ -47,15 +51,19 @@ public class DeltaPageSource
      * @param columnHandles   List of columns (includes partition and regular) in order for which data needed in output.
      * @param partitionValues Partition values (partition column -> partition value map).
      * @param dataPageSource  Initialized underlying file reader which returns the data for regular columns.
+     * @param deletionVector  Rows deleted from the file. When present, the last column returned by the file reader
+     *                        is the index of each row in the file.
      */
     public DeltaPageSource(
             List<DeltaColumnHandle> columnHandles,
             Map<String, Block> partitionValues,
-            ConnectorPageSource dataPageSource)
+            ConnectorPageSource dataPageSource,
+            Optional<DeletionVectorBitmap> deletionVector)
     {
         this.columnHandles = requireNonNull(columnHandles, "columnHandles is null");
         this.partitionValues = requireNonNull(partitionValues, "partitionValues is null");
         this.dataPageSource = requireNonNull(dataPageSource, "dataPageSource is null");
+        this.deletionVector = requireNonNull(deletionVector, "deletionVector is null");
     }
 
     @Override
@@ -81,7 +89,11 @@ public class DeltaPageSource
                     dataColumnIndex++;
                 }
             }
-            return new Page(positionCount, blocksWithPartitionColumns);
+            Page page = new Page(positionCount, blocksWithPartitionColumns);
+            if (deletionVector.isPresent()) {
+                page = removeDeletedRows(page, dataPage.getBlock(dataPage.getChannelCount() - 1), deletionVector.get());
+            }
+            return page;
         }
         catch (PrestoException exception) {
             closeWithSuppression(exception);
@@ -93,6 +105,23 @@ public class DeltaPageSource
         }
     }
 
+    private static Page removeDeletedRows(Page page, Block rowIndexes, DeletionVectorBitmap deletionVector)
+    {
+        int positionCount = page.getPositionCount();
+        int[] retained = new int[positionCount];
+        int retainedCount = 0;
+        for (int position = 0; position < positionCount; position++) {
+            if (!deletionVector.isDeleted(BIGINT.getLong(rowIndexes, position))) {
+                retained[retainedCount] = position;
+                retainedCount++;
+            }
+        }
+        if (retainedCount == positionCount) {
+            return page;
+        }
+        return page.getPositions(retained, 0, retainedCount);
+    }
+
     private void closeWithSuppression(Throwable throwable)
     {
         requireNonNull(throwable, "throwable is null");
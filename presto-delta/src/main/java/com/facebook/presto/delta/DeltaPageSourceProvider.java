@@ -48,6 +48,7 @@ import com.facebook.presto.spi.connector.ConnectorPageSourceProvider;
 import com.facebook.presto.spi.connector.ConnectorTransactionHandle;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import io.delta.kernel.internal.actions.DeletionVectorDescriptor;
 import jakarta.inject.Inject;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FSDataInputStream;
@@ -74,6 +75,7 @@ import java.util.Optional;
 import java.util.OptionalLong;
 import java.util.stream.Collectors;
 
+import static com.facebook.presto.common.type.BigintType.BIGINT;
 import static com.facebook.presto.delta.DeltaColumnHandle.ColumnType.PARTITION;
 import static com.facebook.presto.delta.DeltaColumnHandle.ColumnType.REGULAR;
 import static com.facebook.presto.delta.DeltaColumnHandle.ColumnType.SUBFIELD;
@@ -116,6 +118,8 @@ import static org.apache.parquet.io.ColumnIOConverter.findNestedColumnIO;
 public class DeltaPageSourceProvider
         implements ConnectorPageSourceProvider
 {
+    private static final String ROW_INDEX_COLUMN_NAME = "$row_index";
+
     private final HdfsEnvironment hdfsEnvironment;
     private final TypeManager typeManager;
     private final FileFormatDataSourceStats fileFormatDataSourceStats;
@@ -160,6 +164,9 @@ public class DeltaPageSourceProvider
                 .filter(columnHandle -> columnHandle.getColumnType() != PARTITION)
                 .collect(Collectors.toList());
 
+        Optional<DeletionVectorBitmap> deletionVector = deltaSplit.getDeletionVector()
+                .map(descriptor -> readDeletionVector(hdfsContext, deltaTableHandle.getDeltaTable().getTableLocation(), descriptor));
+
         ConnectorPageSource dataPageSource = createParquetPageSource(
                 hdfsEnvironment,
                 session,
@@ -172,12 +179,43 @@ public class DeltaPageSourceProvider
                 deltaTableHandle.toSchemaTableName(),
                 typeManager,
                 deltaTableLayoutHandle.getPredicate(),
+                deletionVector.isPresent(),
                 fileFormatDataSourceStats);
 
         return new DeltaPageSource(
                 deltaColumnHandles,
                 convertPartitionValues(deltaColumnHandles, deltaSplit.getPartitionValues()),
-                dataPageSource);
+                dataPageSource,
+                deletionVector);
+    }
+
+    private DeletionVectorBitmap readDeletionVector(HdfsContext hdfsContext, String tableLocation, DeltaDeletionVector deletionVector)
+    {
+        DeletionVectorDescriptor descriptor = deletionVector.toDescriptor();
+        DeletionVectorBitmap bitmap;
+        try {
+            if (descriptor.isInline()) {
+                bitmap = DeletionVectorBitmap.deserialize(descriptor.inlineData());
+            }
+            else {
+                Path path = new Path(descriptor.getAbsolutePath(tableLocation));
+                ExtendedFileSystem fileSystem = hdfsEnvironment.getFileSystem(hdfsContext, path);
+                try (FSDataInputStream inputStream = fileSystem.open(path)) {
+                    bitmap = DeletionVectorBitmap.read(inputStream, descriptor.getOffset().orElse(0), descriptor.getSizeInBytes());
+                }
+            }
+        }
+        catch (IOException e) {
+            throw new PrestoException(DELTA_CANNOT_OPEN_SPLIT, format("Error reading deletion vector %s: %s", deletionVector, e.getMessage()), e);
+        }
+        catch (IllegalArgumentException e) {
+            throw new PrestoException(DELTA_BAD_DATA, format("Invalid deletion vector %s: %s", deletionVector, e.getMessage()), e);
+        }
+
+        if (bitmap.getCardinality() != deletionVector.getCardinality()) {
+            throw new PrestoException(DELTA_BAD_DATA, format("Deletion vector %s has %s deleted rows", deletionVector, bitmap.getCardinality()));
+        }
+        return bitmap;
     }
 
     /**
@@ -212,6 +250,7 @@ public class DeltaPageSourceProvider
             SchemaTableName tableName,
             TypeManager typeManager,
             TupleDomain<DeltaColumnHandle> effectivePredicate,
+            boolean readRowIndexes,
             FileFormatDataSourceStats stats)
     {
         AggregatedMemoryContext systemMemoryContext = newSimpleAggregatedMemoryContext();
@@ -255,14 +294,18 @@ public class DeltaPageSourceProvider
             MessageType requestedSchema = message.orElseGet(() -> new MessageType(fileSchema.getName(), ImmutableList.of()));
 
             ImmutableList.Builder<BlockMetaData> footerBlocks = ImmutableList.builder();
+            ImmutableList.Builder<Long> footerBlockStarts = ImmutableList.builder();
+            long nextStart = 0;
             for (BlockMetaData block : parquetMetadata.getBlocks()) {
                 Optional<Integer> firstIndex = findFirstNonHiddenColumnId(block);
                 if (firstIndex.isPresent()) {
                     long firstDataPage = block.getColumns().get(firstIndex.get()).getFirstDataPageOffset();
                     if (firstDataPage >= start && firstDataPage < start + length) {
                         footerBlocks.add(block);
+                        footerBlockStarts.add(nextStart);
                     }
                 }
+                nextStart += block.getRowCount();
             }
 
             Map<List<String>, RichColumnDescriptor> descriptorsByPath = getDescriptors(fileSchema, requestedSchema);
@@ -270,11 +313,16 @@ public class DeltaPageSourceProvider
             Predicate parquetPredicate = buildPredicate(requestedSchema, parquetTupleDomain, descriptorsByPath);
             final ParquetDataSource finalDataSource = dataSource;
             ImmutableList.Builder<BlockMetaData> blocks = ImmutableList.builder();
+            ImmutableList.Builder<Long> blockStarts = ImmutableList.builder();
             List<ColumnIndexStore> blockIndexStores = new ArrayList<>();
-            for (BlockMetaData block : footerBlocks.build()) {
+            List<BlockMetaData> candidateBlocks = footerBlocks.build();
+            List<Long> candidateBlockStarts = footerBlockStarts.build();
+            for (int i = 0; i < candidateBlocks.size(); i++) {
+                BlockMetaData block = candidateBlocks.get(i);
                 Optional<ColumnIndexStore> columnIndexStore = getColumnIndexStore(parquetPredicate, finalDataSource, block, descriptorsByPath, false);
                 if (predicateMatches(parquetPredicate, block, finalDataSource, descriptorsByPath, parquetTupleDomain, columnIndexStore, false, Optional.of(session.getWarningCollector()))) {
                     blocks.add(block);
+                    blockStarts.add(candidateBlockStarts.get(i));
                     blockIndexStores.add(columnIndexStore.orElse(null));
                 }
             }
@@ -282,7 +330,7 @@ public class DeltaPageSourceProvider
             ParquetReader parquetReader = new ParquetReader(
                     messageColumnIO,
                     blocks.build(),
-                    Optional.empty(),
+                    Optional.of(blockStarts.build()),
                     dataSource,
                     systemMemoryContext,
                     getParquetMaxReadBlockSize(session),
@@ -296,6 +344,7 @@ public class DeltaPageSourceProvider
             ImmutableList.Builder<String> namesBuilder = ImmutableList.builder();
             ImmutableList.Builder<Type> typesBuilder = ImmutableList.builder();
             ImmutableList.Builder<Optional<Field>> fieldsBuilder = ImmutableList.builder();
+            ImmutableList.Builder<Boolean> rowIndexColumns = ImmutableList.builder();
             for (DeltaColumnHandle column : columns) {
                 checkArgument(column.getColumnType() == REGULAR || column.getColumnType() == SUBFIELD,
                         "column type must be regular or subfield column");
@@ -305,6 +354,7 @@ public class DeltaPageSourceProvider
 
                 namesBuilder.add(name);
                 typesBuilder.add(type);
+                rowIndexColumns.add(false);
 
                 if (isPushedDownSubfield(column)) {
                     Subfield pushedDownSubfield = getPushedDownSubfield(column);
@@ -324,7 +374,14 @@ public class DeltaPageSourceProvider
                     fieldsBuilder.add(Optional.empty());
                 }
             }
-            return new ParquetPageSource(parquetReader, typesBuilder.build(), fieldsBuilder.build(), namesBuilder.build(), new RuntimeStats());
+            if (readRowIndexes) {
+                // the row indexes in the file, used to remove the deleted rows, follow the requested columns
+                namesBuilder.add(ROW_INDEX_COLUMN_NAME);
+                typesBuilder.add(BIGINT);
+                fieldsBuilder.add(Optional.empty());
+                rowIndexColumns.add(true);
+            }
+            return new ParquetPageSource(parquetReader, typesBuilder.build(), fieldsBuilder.build(), rowIndexColumns.build(), namesBuilder.build(), new RuntimeStats());
         }
         catch (Exception exception) {
             try {
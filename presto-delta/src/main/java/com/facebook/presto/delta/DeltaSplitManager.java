@@ -13,6 +13,7 @@
  */
 package com.facebook.presto.delta;
 
+import com.facebook.presto.common.predicate.TupleDomain;
 import com.facebook.presto.common.type.TypeManager;
 import com.facebook.presto.spi.ConnectorSession;
 import com.facebook.presto.spi.ConnectorSplit;
@@ -32,6 +33,7 @@ import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
 import static com.facebook.presto.hive.HiveCommonSessionProperties.getNodeSelectionStrategy;
@@ -70,6 +72,7 @@ public class DeltaSplitManager
             implements ConnectorSplitSource
     {
         private final DeltaTable deltaTable;
+        private final TupleDomain<DeltaColumnHandle> predicate;
         private final CloseableIterator<Row> rowIterator;
         private final int maxBatchSize;
         private final ConnectorSession session;
@@ -78,6 +81,7 @@ public class DeltaSplitManager
         {
             this.session = requireNonNull(session, "session is null");
             this.deltaTable = deltaTableHandle.getTable().getDeltaTable();
+            this.predicate = deltaTableHandle.getPredicate();
             this.rowIterator = DeltaExpressionUtils.iterateWithPartitionPruning(
                     deltaClient.listFiles(session, deltaTable),
                     deltaTableHandle.getPredicate(),
@@ -92,6 +96,12 @@ public class DeltaSplitManager
             long currentSplitCount = 0;
             while (rowIterator.hasNext() && currentSplitCount < maxSize && currentSplitCount < maxBatchSize) {
                 Row row = rowIterator.next();
+                Optional<DeltaFileStatistics> statistics = getStatistics(row);
+                Optional<DeltaDeletionVector> deletionVector = Optional.ofNullable(InternalScanFileUtils.getDeletionVectorDescriptorFromRow(row))
+                        .map(DeltaDeletionVector::fromDescriptor);
+                if (!mayContainMatchingRows(statistics, deletionVector)) {
+                    continue;
+                }
                 FileStatus addFileStatus = InternalScanFileUtils.getAddFileStatus(row);
                 splitBuilder.add(new DeltaSplit(
                         connectorId,
@@ -102,13 +112,26 @@ public class DeltaSplitManager
                         addFileStatus.getSize() /* split length - default is read the entire file in one split */,
                         addFileStatus.getSize(),
                         removeNullPartitionValues(InternalScanFileUtils.getPartitionValues(row)),
-                        getNodeSelectionStrategy(session)));
+                        getNodeSelectionStrategy(session),
+                        deletionVector));
                 currentSplitCount++;
             }
 
             return completedFuture(new ConnectorSplitBatch(splitBuilder.build(), !rowIterator.hasNext()));
         }
 
+        private boolean mayContainMatchingRows(Optional<DeltaFileStatistics> statistics, Optional<DeltaDeletionVector> deletionVector)
+        {
+            if (!statistics.isPresent()) {
+                return true;
+            }
+            // every row of the file is deleted
+            if (deletionVector.isPresent() && statistics.get().getNumRecords().equals(Optional.of(deletionVector.get().getCardinality()))) {
+                return false;
+            }
+            return statistics.get().mayMatch(predicate, typeManager);
+        }
+
         @Override
         public void close()
         {
@@ -127,6 +150,23 @@ public class DeltaSplitManager
         }
     }
 
+    /**
+     * Returns the statistics written to the add action of the file, if any.
+     */
+    private static Optional<DeltaFileStatistics> getStatistics(Row scanFile)
+    {
+        int addFileOrdinal = scanFile.getSchema().indexOf("add");
+        if (addFileOrdinal < 0 || scanFile.isNullAt(addFileOrdinal)) {
+            return Optional.empty();
+        }
+        Row addFile = scanFile.getStruct(addFileOrdinal);
+        int statsOrdinal = addFile.getSchema().indexOf("stats");
+        if (statsOrdinal < 0 || addFile.isNullAt(statsOrdinal)) {
+            return Optional.empty();
+        }
+        return DeltaFileStatistics.parse(addFile.getString(statsOrdinal));
+    }
+
     /**
      * Utility method to remove the null value partition values.
      * These null values cause problems later when used with Guava Immutable map structures.
@@ -0,0 +1,158 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.delta;
+
+import org.apache.hadoop.fs.PositionedReadable;
+import org.roaringbitmap.RoaringBitmap;
+import org.testng.annotations.Test;
+
+import java.io.EOFException;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+
+import static java.nio.ByteOrder.BIG_ENDIAN;
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+public class TestDeletionVectorBitmap
+{
+    private static final long HIGH_ROW = (2L << 32) + 7;
+
+    @Test
+    public void testDeserialize()
+    {
+        DeletionVectorBitmap bitmap = DeletionVectorBitmap.deserialize(serialize());
+        assertDeletedRows(bitmap);
+    }
+
+    @Test
+    public void testRead()
+            throws Exception
+    {
+        byte[] serialized = serialize();
+        CRC32 checksum = new CRC32();
+        checksum.update(serialized);
+        // a version byte, then the size, the bitmap, and its checksum
+        ByteBuffer file = ByteBuffer.allocate(1 + Integer.BYTES + serialized.length + Integer.BYTES).order(BIG_ENDIAN);
+        file.put((byte) 1);
+        file.putInt(serialized.length);
+        file.put(serialized);
+        file.putInt((int) checksum.getValue());
+
+        assertDeletedRows(DeletionVectorBitmap.read(new ByteArrayReadable(file.array()), 1, serialized.length));
+
+        expectThrows(IllegalArgumentException.class, () -> DeletionVectorBitmap.read(new ByteArrayReadable(file.array()), 1, serialized.length + 1));
+        file.put(file.limit() - 1, (byte) (file.get(file.limit() - 1) + 1));
+        expectThrows(IllegalArgumentException.class, () -> DeletionVectorBitmap.read(new ByteArrayReadable(file.array()), 1, serialized.length));
+    }
+
+    @Test
+    public void testUnsupportedFormat()
+    {
+        expectThrows(IllegalArgumentException.class, () -> DeletionVectorBitmap.deserialize(new byte[] {1, 2, 3, 4, 0, 0, 0, 0, 0, 0, 0, 0}));
+    }
+
+    @Test
+    public void testInvalidKey()
+    {
+        expectThrows(IllegalArgumentException.class, () -> DeletionVectorBitmap.deserialize(serialize(Integer.MAX_VALUE)));
+        expectThrows(IllegalArgumentException.class, () -> DeletionVectorBitmap.deserialize(serialize(-1)));
+    }
+
+    private static void assertDeletedRows(DeletionVectorBitmap bitmap)
+    {
+        assertEquals(bitmap.getCardinality(), 4);
+        assertTrue(bitmap.isDeleted(0));
+        assertTrue(bitmap.isDeleted(3));
+        assertTrue(bitmap.isDeleted(100_000));
+        assertTrue(bitmap.isDeleted(HIGH_ROW));
+        assertFalse(bitmap.isDeleted(1));
+        assertFalse(bitmap.isDeleted((1L << 32) + 3));
+        assertFalse(bitmap.isDeleted(HIGH_ROW + 1));
+        assertFalse(bitmap.isDeleted(5L << 32));
+    }
+
+    /**
+     * Serializes the deleted rows in the portable 64-bit Roaring bitmap format written by Delta, leaving out
+     * the empty bitmap of the key 1.
+     */
+    private static byte[] serialize()
+    {
+        RoaringBitmap low = RoaringBitmap.bitmapOf(0, 3, 100_000);
+        RoaringBitmap high = RoaringBitmap.bitmapOf((int) HIGH_ROW);
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + Long.BYTES + 2 * Integer.BYTES + low.serializedSizeInBytes() + high.serializedSizeInBytes())
+                .order(LITTLE_ENDIAN);
+        buffer.putInt(1681511377);
+        buffer.putLong(2);
+        buffer.putInt(0);
+        low.serialize(buffer);
+        buffer.putInt(2);
+        high.serialize(buffer);
+        return buffer.array();
+    }
+
+    /**
+     * Serializes a single bitmap of the given key.
+     */
+    private static byte[] serialize(int key)
+    {
+        RoaringBitmap bitmap = RoaringBitmap.bitmapOf(1);
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + Long.BYTES + Integer.BYTES + bitmap.serializedSizeInBytes())
+                .order(LITTLE_ENDIAN);
+        buffer.putInt(1681511377);
+        buffer.putLong(1);
+        buffer.putInt(key);
+        bitmap.serialize(buffer);
+        return buffer.array();
+    }
+
+    private static class ByteArrayReadable
+            implements PositionedReadable
+    {
+        private final byte[] data;
+
+        public ByteArrayReadable(byte[] data)
+        {
+            this.data = data;
+        }
+
+        @Override
+        public int read(long position, byte[] buffer, int offset, int length)
+        {
+            int read = Math.min(length, data.length - (int) position);
+            System.arraycopy(data, (int) position, buffer, offset, read);
+            return read;
+        }
+
+        @Override
+        public void readFully(long position, byte[] buffer, int offset, int length)
+                throws EOFException
+        {
+            if (position + length > data.length) {
+                throw new EOFException();
+            }
+            System.arraycopy(data, (int) position, buffer, offset, length);
+        }
+
+        @Override
+        public void readFully(long position, byte[] buffer)
+                throws EOFException
+        {
+            readFully(position, buffer, 0, buffer.length);
+        }
+    }
+}
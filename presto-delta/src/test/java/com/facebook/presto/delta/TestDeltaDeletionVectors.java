@@ -0,0 +1,300 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.delta;
+
+import com.facebook.airlift.units.DataSize;
+import com.facebook.presto.common.Page;
+import com.facebook.presto.common.block.BlockBuilder;
+import com.facebook.presto.common.type.Type;
+import com.facebook.presto.execution.QueryInfo;
+import com.facebook.presto.operator.OperatorStats;
+import com.facebook.presto.parquet.writer.ParquetSchemaConverter;
+import com.facebook.presto.parquet.writer.ParquetWriter;
+import com.facebook.presto.parquet.writer.ParquetWriterOptions;
+import com.facebook.presto.testing.QueryRunner;
+import com.facebook.presto.tests.DistributedQueryRunner;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import org.roaringbitmap.RoaringBitmap;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.LongPredicate;
+import java.util.stream.LongStream;
+import java.util.zip.CRC32;
+
+import static com.facebook.airlift.units.DataSize.Unit.BYTE;
+import static com.facebook.presto.common.type.BigintType.BIGINT;
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
+import static com.google.common.io.MoreFiles.deleteRecursively;
+import static com.google.common.io.RecursiveDeleteOption.ALLOW_INSECURE;
+import static java.lang.String.format;
+import static java.nio.ByteOrder.BIG_ENDIAN;
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Queries a Delta table whose data files have deletion vectors. The table is written by the test:
+ * <ul>
+ * <li>{@code part-0.parquet} with the ids 0 to 299, and an inline deletion vector</li>
+ * <li>{@code part-1.parquet} with the ids 1000 to 1299, and a deletion vector stored in a file</li>
+ * <li>{@code part-2.parquet} with the ids 2000 to 2099, and no deletion vector</li>
+ * </ul>
+ * Every data file has row groups of 100 rows.
+ */
+public class TestDeltaDeletionVectors
+        extends AbstractDeltaDistributedQueryTestBase
+{
+    private static final String TABLE_NAME = "deletion-vectors";
+    private static final int ROW_GROUP_SIZE = 100;
+    private static final Set<Long> INLINE_DELETED_ROWS = ImmutableSet.of(0L, 150L, 299L);
+    private static final Set<Long> ON_DISK_DELETED_ROWS = ImmutableSet.of(5L, 100L, 101L, 250L);
+    // characters of the Z85 variant of Base85 used by Delta to encode deletion vectors and their UUIDs
+    private static final String BASE85_CHARACTERS = "0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ.-:+=^!/*?&<>()[]{}@%$#";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private Path tableDirectory;
+
+    @Override
+    protected QueryRunner createQueryRunner()
+            throws Exception
+    {
+        QueryRunner queryRunner = super.createQueryRunner();
+
+        tableDirectory = Files.createTempDirectory("delta-deletion-vectors");
+        Files.createDirectory(tableDirectory.resolve("_delta_log"));
+        UUID deletionVectorId = UUID.randomUUID();
+        byte[] inlineDeletionVector = serialize(INLINE_DELETED_ROWS);
+        byte[] onDiskDeletionVector = serialize(ON_DISK_DELETED_ROWS);
+        writeDeletionVectorFile(tableDirectory.resolve(format("deletion_vector_%s.bin", deletionVectorId)), onDiskDeletionVector);
+
+        List<String> log = ImmutableList.of(
+                objectMapper.writeValueAsString(ImmutableMap.of("protocol", ImmutableMap.of(
+                        "minReaderVersion", 3,
+                        "minWriterVersion", 7,
+                        "readerFeatures", ImmutableList.of("deletionVectors"),
+                        "writerFeatures", ImmutableList.of("deletionVectors")))),
+                objectMapper.writeValueAsString(ImmutableMap.of("metaData", ImmutableMap.of(
+                        "id", UUID.randomUUID().toString(),
+                        "format", ImmutableMap.of("provider", "parquet", "options", ImmutableMap.of()),
+                        "schemaString", "{\"type\":\"struct\",\"fields\":[{\"name\":\"id\",\"type\":\"long\",\"nullable\":true,\"metadata\":{}}]}",
+                        "partitionColumns", ImmutableList.of(),
+                        "configuration", ImmutableMap.of("delta.enableDeletionVectors", "true"),
+                        "createdTime", System.currentTimeMillis()))),
+                addFile("part-0.parquet", 0, 300, ImmutableMap.of(
+                        "storageType", "i",
+                        "pathOrInlineDv", encodeBase85(inlineDeletionVector),
+                        "sizeInBytes", inlineDeletionVector.length,
+                        "cardinality", INLINE_DELETED_ROWS.size())),
+                addFile("part-1.parquet", 1000, 300, ImmutableMap.of(
+                        "storageType", "u",
+                        "pathOrInlineDv", encodeBase85(ByteBuffer.allocate(16)
+                                .putLong(deletionVectorId.getMostSignificantBits())
+                                .putLong(deletionVectorId.getLeastSignificantBits())
+                                .array()),
+                        "offset", 1,
+                        "sizeInBytes", onDiskDeletionVector.length,
+                        "cardinality", ON_DISK_DELETED_ROWS.size())),
+                addFile("part-2.parquet", 2000, 100, ImmutableMap.of()));
+        Files.write(tableDirectory.resolve("_delta_log").resolve("00000000000000000000.json"), log, UTF_8);
+
+        queryRunner.execute(format(
+                "CREATE TABLE %s.\"%s\".\"%s\" (dummyColumn INT) WITH (external_location = '%s')",
+                DELTA_CATALOG,
+                DELTA_SCHEMA,
+                TABLE_NAME,
+                tableDirectory.toUri()));
+        return queryRunner;
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void deleteTable()
+            throws IOException
+    {
+        QueryRunner queryRunner = getQueryRunner();
+        if (queryRunner != null) {
+            queryRunner.execute(format("DROP TABLE IF EXISTS %s.\"%s\".\"%s\"", DELTA_CATALOG, DELTA_SCHEMA, TABLE_NAME));
+        }
+        if (tableDirectory != null) {
+            deleteRecursively(tableDirectory, ALLOW_INSECURE);
+        }
+    }
+
+    @Test
+    public void testDeletedRowsAreRemoved()
+    {
+        Set<Long> expected = expectedIds(id -> true);
+        assertEquals(computeActual(format("SELECT id FROM \"%s\"", TABLE_NAME)).getOnlyColumnAsSet(), expected);
+        assertEquals(computeActual(format("SELECT count(*) FROM \"%s\"", TABLE_NAME)).getOnlyValue(), (long) expected.size());
+    }
+
+    @Test
+    public void testSkippedRowGroups()
+    {
+        // the skipped row groups are counted in the row indexes matched against the deletion vectors
+        assertEquals(
+                computeActual(format("SELECT id FROM \"%s\" WHERE id >= 150", TABLE_NAME)).getOnlyColumnAsSet(),
+                expectedIds(id -> id >= 150));
+        assertEquals(
+                computeActual(format("SELECT id FROM \"%s\" WHERE id BETWEEN 1100 AND 1199", TABLE_NAME)).getOnlyColumnAsSet(),
+                expectedIds(id -> id >= 1100 && id <= 1199));
+    }
+
+    @Test
+    public void testFilesSkippedByStatistics()
+    {
+        String query = format("SELECT id FROM \"%s\" WHERE id >= 2050", TABLE_NAME);
+        assertEquals(computeActual(query).getOnlyColumnAsSet(), expectedIds(id -> id >= 2050));
+        // only the split of part-2.parquet is read, the statistics of the other files exclude the predicate
+        assertEquals(getScannedSplits(query), 1);
+        assertEquals(getScannedSplits(format("SELECT id FROM \"%s\" WHERE id >= 50", TABLE_NAME)), 3);
+    }
+
+    private long getScannedSplits(String query)
+    {
+        DistributedQueryRunner queryRunner = (DistributedQueryRunner) getQueryRunner();
+        QueryInfo queryInfo = queryRunner.getQueryInfo(queryRunner.executeWithQueryId(getSession(), query).getQueryId());
+        // each split is read by a driver of the table scan
+        return queryInfo.getQueryStats().getOperatorSummaries().stream()
+                .filter(summary -> summary.getOperatorType().equals("ScanFilterAndProjectOperator") || summary.getOperatorType().equals("TableScanOperator"))
+                .mapToLong(OperatorStats::getTotalDrivers)
+                .sum();
+    }
+
+    private static Set<Long> expectedIds(LongPredicate filter)
+    {
+        return LongStream.concat(LongStream.concat(
+                        LongStream.range(0, 300).filter(id -> !INLINE_DELETED_ROWS.contains(id)),
+                        LongStream.range(1000, 1300).filter(id -> !ON_DISK_DELETED_ROWS.contains(id - 1000))),
+                        LongStream.range(2000, 2100))
+                .filter(filter)
+                .boxed()
+                .collect(toImmutableSet());
+    }
+
+    /**
+     * Writes a data file with the ids {@code firstId} to {@code firstId + rowCount - 1}, and returns its add action.
+     */
+    private String addFile(String fileName, long firstId, int rowCount, Map<String, Object> deletionVector)
+            throws IOException
+    {
+        Path file = tableDirectory.resolve(fileName);
+        List<Type> types = ImmutableList.of(BIGINT);
+        List<String> columnNames = ImmutableList.of("id");
+        ParquetSchemaConverter schemaConverter = new ParquetSchemaConverter(types, columnNames);
+        ParquetWriterOptions writerOptions = ParquetWriterOptions.builder()
+                // flush a row group after every page
+                .setMaxBlockSize(new DataSize(1, BYTE))
+                .build();
+        try (OutputStream outputStream = Files.newOutputStream(file);
+                ParquetWriter writer = new ParquetWriter(
+                        outputStream,
+                        schemaConverter.getMessageType(),
+                        schemaConverter.getPrimitiveTypes(),
+                        columnNames,
+                        types,
+                        writerOptions,
+                        null)) {
+            for (long start = firstId; start < firstId + rowCount; start += ROW_GROUP_SIZE) {
+                BlockBuilder blockBuilder = BIGINT.createBlockBuilder(null, ROW_GROUP_SIZE);
+                for (long id = start; id < start + ROW_GROUP_SIZE; id++) {
+                    BIGINT.writeLong(blockBuilder, id);
+                }
+                writer.write(new Page(blockBuilder.build()));
+            }
+        }
+
+        String statistics = objectMapper.writeValueAsString(ImmutableMap.of(
+                "numRecords", rowCount,
+                "minValues", ImmutableMap.of("id", firstId),
+                "maxValues", ImmutableMap.of("id", firstId + rowCount - 1),
+                "nullCount", ImmutableMap.of("id", 0)));
+        ImmutableMap.Builder<String, Object> addFile = ImmutableMap.<String, Object>builder()
+                .put("path", fileName)
+                .put("partitionValues", ImmutableMap.of())
+                .put("size", Files.size(file))
+                .put("modificationTime", System.currentTimeMillis())
+                .put("dataChange", true)
+                .put("stats", statistics);
+        if (!deletionVector.isEmpty()) {
+            addFile.put("deletionVector", deletionVector);
+        }
+        return objectMapper.writeValueAsString(ImmutableMap.of("add", addFile.build()));
+    }
+
+    /**
+     * Serializes the deleted rows in the portable 64-bit Roaring bitmap format written by Delta.
+     */
+    private static byte[] serialize(Set<Long> rows)
+    {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        rows.forEach(row -> bitmap.add(row.intValue()));
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + Long.BYTES + Integer.BYTES + bitmap.serializedSizeInBytes())
+                .order(LITTLE_ENDIAN);
+        buffer.putInt(1681511377);
+        buffer.putLong(1);
+        buffer.putInt(0);
+        bitmap.serialize(buffer);
+        return buffer.array();
+    }
+
+    /**
+     * Writes a deletion vector file: a version byte, then the size of the deletion vector, the deletion vector,
+     * and its checksum.
+     */
+    private static void writeDeletionVectorFile(Path file, byte[] deletionVector)
+            throws IOException
+    {
+        CRC32 checksum = new CRC32();
+        checksum.update(deletionVector);
+        ByteBuffer buffer = ByteBuffer.allocate(1 + Integer.BYTES + deletionVector.length + Integer.BYTES).order(BIG_ENDIAN);
+        buffer.put((byte) 1);
+        buffer.putInt(deletionVector.length);
+        buffer.put(deletionVector);
+        buffer.putInt((int) checksum.getValue());
+        Files.write(file, buffer.array());
+    }
+
+    /**
+     * Encodes the data in Base85, padded with zeros to a multiple of 4 bytes.
+     */
+    private static String encodeBase85(byte[] data)
+    {
+        ByteBuffer buffer = ByteBuffer.wrap(Arrays.copyOf(data, (data.length + 3) / 4 * 4)).order(BIG_ENDIAN);
+        StringBuilder encoded = new StringBuilder();
+        while (buffer.hasRemaining()) {
+            long value = Integer.toUnsignedLong(buffer.getInt());
+            char[] characters = new char[5];
+            for (int i = 4; i >= 0; i--) {
+                characters[i] = BASE85_CHARACTERS.charAt((int) (value % 85));
+                value /= 85;
+            }
+            encoded.append(characters);
+        }
+        return encoded.toString();
+    }
+}
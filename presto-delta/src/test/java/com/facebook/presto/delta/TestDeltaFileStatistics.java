@@ -0,0 +1,106 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.delta;
+
+import com.facebook.presto.common.predicate.Domain;
+import com.facebook.presto.common.predicate.Range;
+import com.facebook.presto.common.predicate.TupleDomain;
+import com.facebook.presto.common.predicate.ValueSet;
+import com.facebook.presto.common.type.Type;
+import com.facebook.presto.common.type.TypeManager;
+import com.facebook.presto.common.type.TypeSignature;
+import com.google.common.collect.ImmutableMap;
+import org.testng.annotations.Test;
+
+import java.util.Optional;
+
+import static com.facebook.presto.common.type.BigintType.BIGINT;
+import static com.facebook.presto.common.type.DateType.DATE;
+import static com.facebook.presto.common.type.DoubleType.DOUBLE;
+import static com.facebook.presto.common.type.VarcharType.VARCHAR;
+import static com.facebook.presto.delta.DeltaColumnHandle.ColumnType.PARTITION;
+import static com.facebook.presto.delta.DeltaColumnHandle.ColumnType.REGULAR;
+import static com.facebook.presto.metadata.FunctionAndTypeManager.createTestFunctionAndTypeManager;
+import static io.airlift.slice.Slices.utf8Slice;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestDeltaFileStatistics
+{
+    private static final TypeManager TYPE_MANAGER = createTestFunctionAndTypeManager();
+
+    private static final String STATS = "{\"numRecords\":10," +
+            "\"minValues\":{\"as_long\":5,\"as_double\":-1.5,\"as_string\":\"apple\",\"as_date\":\"2024-01-01\",\"nested\":{\"a\":1}}," +
+            "\"maxValues\":{\"as_long\":20,\"as_double\":2.5,\"as_string\":\"" + "z".repeat(32) + "\",\"as_date\":\"2024-12-31\",\"nested\":{\"a\":2}}," +
+            "\"nullCount\":{\"as_long\":0,\"as_double\":3,\"as_string\":0,\"as_date\":0,\"all_null\":10,\"nested\":{\"a\":0}}}";
+
+    @Test
+    public void testGetDomain()
+    {
+        DeltaFileStatistics statistics = DeltaFileStatistics.parse(STATS).get();
+        assertEquals(statistics.getNumRecords(), Optional.of(10L));
+
+        assertEquals(statistics.getDomain("as_long", BIGINT), Domain.create(ValueSet.ofRanges(Range.range(BIGINT, 5L, true, 20L, true)), false));
+        assertEquals(statistics.getDomain("AS_LONG", BIGINT), Domain.create(ValueSet.ofRanges(Range.range(BIGINT, 5L, true, 20L, true)), false));
+        assertEquals(statistics.getDomain("as_double", DOUBLE), Domain.create(ValueSet.ofRanges(Range.range(DOUBLE, -1.5, true, 2.5, true)), true));
+        assertEquals(statistics.getDomain("as_date", DATE), Domain.create(ValueSet.ofRanges(Range.range(DATE, 19723L, true, 20088L, true)), false));
+        // the maximum string may be truncated
+        assertEquals(statistics.getDomain("as_string", VARCHAR), Domain.create(ValueSet.ofRanges(Range.greaterThanOrEqual(VARCHAR, utf8Slice("apple"))), false));
+        assertEquals(statistics.getDomain("all_null", BIGINT), Domain.onlyNull(BIGINT));
+        assertEquals(statistics.getDomain("missing", BIGINT), Domain.all(BIGINT));
+    }
+
+    @Test
+    public void testMayMatch()
+    {
+        DeltaFileStatistics statistics = DeltaFileStatistics.parse(STATS).get();
+
+        assertTrue(statistics.mayMatch(TupleDomain.all(), TYPE_MANAGER));
+        assertFalse(statistics.mayMatch(TupleDomain.none(), TYPE_MANAGER));
+        assertTrue(statistics.mayMatch(predicate("as_long", REGULAR, BIGINT, Domain.singleValue(BIGINT, 10L)), TYPE_MANAGER));
+        assertFalse(statistics.mayMatch(predicate("as_long", REGULAR, BIGINT, Domain.singleValue(BIGINT, 30L)), TYPE_MANAGER));
+        assertFalse(statistics.mayMatch(predicate("as_long", REGULAR, BIGINT, Domain.onlyNull(BIGINT)), TYPE_MANAGER));
+        assertTrue(statistics.mayMatch(predicate("as_double", REGULAR, DOUBLE, Domain.onlyNull(DOUBLE)), TYPE_MANAGER));
+        assertFalse(statistics.mayMatch(predicate("all_null", REGULAR, BIGINT, Domain.notNull(BIGINT)), TYPE_MANAGER));
+        assertTrue(statistics.mayMatch(predicate("as_string", REGULAR, VARCHAR, Domain.singleValue(VARCHAR, utf8Slice("zzzzzzzzzzzzzzzzzzzzzzzzzzzzzzzzz"))), TYPE_MANAGER));
+        assertFalse(statistics.mayMatch(predicate("as_string", REGULAR, VARCHAR, Domain.singleValue(VARCHAR, utf8Slice("aaa"))), TYPE_MANAGER));
+        // partition columns are pruned with the partition values
+        assertTrue(statistics.mayMatch(predicate("as_long", PARTITION, BIGINT, Domain.singleValue(BIGINT, 30L)), TYPE_MANAGER));
+    }
+
+    @Test
+    public void testEmptyFile()
+    {
+        DeltaFileStatistics statistics = DeltaFileStatistics.parse("{\"numRecords\":0}").get();
+        assertFalse(statistics.mayMatch(TupleDomain.all(), TYPE_MANAGER));
+    }
+
+    @Test
+    public void testInvalidStatistics()
+    {
+        assertFalse(DeltaFileStatistics.parse(null).isPresent());
+        assertFalse(DeltaFileStatistics.parse("").isPresent());
+        assertFalse(DeltaFileStatistics.parse("{not json").isPresent());
+
+        DeltaFileStatistics statistics = DeltaFileStatistics.parse("{\"minValues\":{\"as_long\":\"x\"},\"maxValues\":{\"as_long\":1.5}}").get();
+        assertEquals(statistics.getDomain("as_long", BIGINT), Domain.all(BIGINT));
+    }
+
+    private static TupleDomain<DeltaColumnHandle> predicate(String name, DeltaColumnHandle.ColumnType columnType, Type type, Domain domain)
+    {
+        TypeSignature typeSignature = type.getTypeSignature();
+        return TupleDomain.withColumnDomains(ImmutableMap.of(new DeltaColumnHandle(name, typeSignature, columnType, Optional.empty()), domain));
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.server.flight;
+
+import com.facebook.airlift.log.Logger;
+import com.facebook.presto.common.block.BlockEncodingSerde;
+import com.facebook.presto.dispatcher.DispatchManager;
+import com.facebook.presto.execution.QueryManager;
+import com.facebook.presto.operator.ExchangeClientSupplier;
+import com.facebook.presto.server.security.PasswordAuthenticatorManager;
+import com.facebook.presto.server.security.SecurityConfig;
+import com.facebook.presto.spi.security.AccessDeniedException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Inject;
+import org.apache.arrow.flight.CallHeaderAuthenticator.AuthResult;
+import org.apache.arrow.flight.CallStatus;
+import org.apache.arrow.flight.FlightServer;
+import org.apache.arrow.flight.Location;
+import org.apache.arrow.flight.auth2.BasicCallHeaderAuthenticator;
+import org.apache.arrow.flight.auth2.GeneratedBearerTokenAuthenticator;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.util.AutoCloseables;
+
+import java.io.File;
+import java.io.IOException;
+
+import static com.facebook.presto.server.security.SecurityConfig.AuthenticationType.PASSWORD;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Arrow Flight SQL endpoint of the coordinator. Clients authenticate with a user name, and
+ * with a password when the coordinator uses password authentication, after which they
+ * use the bearer token returned by the server.
+ */
+public class ArrowFlightServer
+{
+    private static final Logger log = Logger.get(ArrowFlightServer.class);
+
+    private final ArrowFlightServerConfig config;
+    private final boolean passwordAuthentication;
+    private final PasswordAuthenticatorManager passwordAuthenticatorManager;
+    private final DispatchManager dispatchManager;
+    private final QueryManager queryManager;
+    private final ExchangeClientSupplier exchangeClientSupplier;
+    private final BlockEncodingSerde blockEncodingSerde;
+
+    private BufferAllocator allocator;
+    private PrestoFlightSqlProducer producer;
+    private FlightServer server;
+
+    @Inject
+    public ArrowFlightServer(
+            ArrowFlightServerConfig config,
+            SecurityConfig securityConfig,
+            PasswordAuthenticatorManager passwordAuthenticatorManager,
+            DispatchManager dispatchManager,
+            QueryManager queryManager,
+            ExchangeClientSupplier exchangeClientSupplier,
+            BlockEncodingSerde blockEncodingSerde)
+    {
+        this.config = requireNonNull(config, "config is null");
+        this.passwordAuthentication = securityConfig.getAuthenticationTypes().contains(PASSWORD);
+        this.passwordAuthenticatorManager = requireNonNull(passwordAuthenticatorManager, "passwordAuthenticatorManager is null");
+        this.dispatchManager = requireNonNull(dispatchManager, "dispatchManager is null");
+        this.queryManager = requireNonNull(queryManager, "queryManager is null");
+        this.exchangeClientSupplier = requireNonNull(exchangeClientSupplier, "exchangeClientSupplier is null");
+        this.blockEncodingSerde = requireNonNull(blockEncodingSerde, "blockEncodingSerde is null");
+    }
+
+    @PostConstruct
+    public synchronized void start()
+            throws IOException
+    {
+        allocator = new RootAllocator(config.getMaxMemory().toBytes());
+        producer = new PrestoFlightSqlProducer(dispatchManager, queryManager, exchangeClientSupplier, blockEncodingSerde, allocator);
+        producer.start();
+
+        Location location = config.isTlsEnabled()
+                ? Location.forGrpcTls("0.0.0.0", config.getPort())
+                : Location.forGrpcInsecure("0.0.0.0", config.getPort());
+        FlightServer.Builder builder = FlightServer.builder(allocator, location, producer)
+                .headerAuthenticator(new GeneratedBearerTokenAuthenticator(new BasicCallHeaderAuthenticator(this::authenticate)))
+                .middleware(FlightHeadersMiddleware.KEY, new FlightHeadersMiddleware.Factory());
+        if (config.isTlsEnabled()) {
+            builder.useTls(new File(config.getCertificateChainFile()), new File(config.getPrivateKeyFile()));
+        }
+        server = builder.build();
+        server.start();
+        log.info("Arrow Flight SQL server listening on port %s", server.getPort());
+    }
+
+    @PreDestroy
+    public synchronized void stop()
+            throws Exception
+    {
+        AutoCloseables.close(server, producer, allocator);
+    }
+
+    private AuthResult authenticate(String user, String password)
+    {
+        if (user == null || user.isEmpty()) {
+            throw CallStatus.UNAUTHENTICATED.withDescription("User must be set").toRuntimeException();
+        }
+        if (passwordAuthentication) {
+            try {
+                passwordAuthenticatorManager.getAuthenticator().createAuthenticatedPrincipal(user, password);
+            }
+            catch (AccessDeniedException e) {
+                throw CallStatus.UNAUTHENTICATED.withDescription(e.getMessage()).toRuntimeException();
+            }
+        }
+        return () -> user;
+    }
+}
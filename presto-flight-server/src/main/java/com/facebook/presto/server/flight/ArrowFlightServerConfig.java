@@ -0,0 +1,111 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.server.flight;
+
+import com.facebook.airlift.configuration.Config;
+import com.facebook.airlift.configuration.ConfigDescription;
+import com.facebook.airlift.units.DataSize;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+import static com.facebook.airlift.units.DataSize.Unit.GIGABYTE;
+
+public class ArrowFlightServerConfig
+{
+    private boolean enabled;
+    private int port = 8815;
+    private DataSize maxMemory = new DataSize(1, GIGABYTE);
+    private String certificateChainFile;
+    private String privateKeyFile;
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    @Config("arrow-flight-server.enabled")
+    @ConfigDescription("Serve query results to Arrow Flight SQL clients")
+    public ArrowFlightServerConfig setEnabled(boolean enabled)
+    {
+        this.enabled = enabled;
+        return this;
+    }
+
+    @Min(0)
+    @Max(65535)
+    public int getPort()
+    {
+        return port;
+    }
+
+    @Config("arrow-flight-server.port")
+    public ArrowFlightServerConfig setPort(int port)
+    {
+        this.port = port;
+        return this;
+    }
+
+    @NotNull
+    public DataSize getMaxMemory()
+    {
+        return maxMemory;
+    }
+
+    @Config("arrow-flight-server.max-memory")
+    @ConfigDescription("Maximum memory of the record batches being sent to clients")
+    public ArrowFlightServerConfig setMaxMemory(DataSize maxMemory)
+    {
+        this.maxMemory = maxMemory;
+        return this;
+    }
+
+    public String getCertificateChainFile()
+    {
+        return certificateChainFile;
+    }
+
+    @Config("arrow-flight-server.tls.certificate-chain-file")
+    @ConfigDescription("PEM certificate chain of the server, enables TLS")
+    public ArrowFlightServerConfig setCertificateChainFile(String certificateChainFile)
+    {
+        this.certificateChainFile = certificateChainFile;
+        return this;
+    }
+
+    public String getPrivateKeyFile()
+    {
+        return privateKeyFile;
+    }
+
+    @Config("arrow-flight-server.tls.private-key-file")
+    @ConfigDescription("PEM private key of the server")
+    public ArrowFlightServerConfig setPrivateKeyFile(String privateKeyFile)
+    {
+        this.privateKeyFile = privateKeyFile;
+        return this;
+    }
+
+    public boolean isTlsEnabled()
+    {
+        return certificateChainFile != null;
+    }
+
+    @AssertTrue(message = "arrow-flight-server.tls.certificate-chain-file and arrow-flight-server.tls.private-key-file must be set together")
+    public boolean isTlsConfigValid()
+    {
+        return (certificateChainFile == null) == (privateKeyFile == null);
+    }
+}
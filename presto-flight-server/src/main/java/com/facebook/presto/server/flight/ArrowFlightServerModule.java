@@ -0,0 +1,37 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.server.flight;
+
+import com.facebook.airlift.configuration.AbstractConfigurationAwareModule;
+import com.facebook.presto.server.ServerConfig;
+import com.google.inject.Binder;
+import com.google.inject.Scopes;
+
+/**
+ * Starts the Arrow Flight SQL endpoint on the coordinator when {@code arrow-flight-server.enabled} is set.
+ */
+public class ArrowFlightServerModule
+        extends AbstractConfigurationAwareModule
+{
+    @Override
+    protected void setup(Binder binder)
+    {
+        if (!buildConfigObject(ServerConfig.class).isCoordinator()) {
+            return;
+        }
+        if (buildConfigObject(ArrowFlightServerConfig.class).isEnabled()) {
+            binder.bind(ArrowFlightServer.class).in(Scopes.SINGLETON);
+        }
+    }
+}
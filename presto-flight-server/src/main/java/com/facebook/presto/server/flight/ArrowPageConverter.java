@@ -0,0 +1,298 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.server.flight;
+
+import com.facebook.presto.common.Page;
+import com.facebook.presto.common.block.Block;
+import com.facebook.presto.common.function.SqlFunctionProperties;
+import com.facebook.presto.common.type.ArrayType;
+import com.facebook.presto.common.type.CharType;
+import com.facebook.presto.common.type.DecimalType;
+import com.facebook.presto.common.type.MapType;
+import com.facebook.presto.common.type.RowType;
+import com.facebook.presto.common.type.TimestampType;
+import com.facebook.presto.common.type.Type;
+import com.facebook.presto.common.type.VarcharType;
+import com.google.common.collect.ImmutableList;
+import io.airlift.slice.Slice;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.DecimalVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.Float4Vector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.SmallIntVector;
+import org.apache.arrow.vector.TimeStampVector;
+import org.apache.arrow.vector.TinyIntVector;
+import org.apache.arrow.vector.VarBinaryVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.complex.ListVector;
+import org.apache.arrow.vector.complex.MapVector;
+import org.apache.arrow.vector.complex.StructVector;
+import org.apache.arrow.vector.types.DateUnit;
+import org.apache.arrow.vector.types.FloatingPointPrecision;
+import org.apache.arrow.vector.types.TimeUnit;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.apache.arrow.vector.types.pojo.Schema;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static com.facebook.presto.common.type.BigintType.BIGINT;
+import static com.facebook.presto.common.type.BooleanType.BOOLEAN;
+import static com.facebook.presto.common.type.Chars.padSpaces;
+import static com.facebook.presto.common.type.DateTimeEncoding.unpackMillisUtc;
+import static com.facebook.presto.common.type.DateType.DATE;
+import static com.facebook.presto.common.type.Decimals.decodeUnscaledValue;
+import static com.facebook.presto.common.type.DoubleType.DOUBLE;
+import static com.facebook.presto.common.type.IntegerType.INTEGER;
+import static com.facebook.presto.common.type.RealType.REAL;
+import static com.facebook.presto.common.type.SmallintType.SMALLINT;
+import static com.facebook.presto.common.type.TimestampWithTimeZoneType.TIMESTAMP_WITH_TIME_ZONE;
+import static com.facebook.presto.common.type.TinyintType.TINYINT;
+import static com.facebook.presto.common.type.UnknownType.UNKNOWN;
+import static com.facebook.presto.common.type.VarbinaryType.VARBINARY;
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.lang.Float.intBitsToFloat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+
+/**
+ * Converts pages into Arrow record batches, value by value from the blocks and without
+ * going through the row based representation of the results. Types without an Arrow
+ * equivalent, such as JSON or intervals, are sent as their string representation.
+ */
+public class ArrowPageConverter
+{
+    private final List<Type> types;
+    private final SqlFunctionProperties properties;
+    private final Schema schema;
+
+    public ArrowPageConverter(List<String> columnNames, List<Type> columnTypes, SqlFunctionProperties properties)
+    {
+        requireNonNull(columnNames, "columnNames is null");
+        requireNonNull(columnTypes, "columnTypes is null");
+        checkArgument(columnNames.size() == columnTypes.size(), "Column names and types size mismatch");
+        this.types = ImmutableList.copyOf(columnTypes);
+        this.properties = requireNonNull(properties, "properties is null");
+
+        ImmutableList.Builder<Field> fields = ImmutableList.builder();
+        for (int i = 0; i < columnNames.size(); i++) {
+            fields.add(toField(columnNames.get(i), columnTypes.get(i), true));
+        }
+        this.schema = new Schema(fields.build());
+    }
+
+    public Schema getSchema()
+    {
+        return schema;
+    }
+
+    /**
+     * Replaces the contents of the vectors of the root, which must have been created
+     * for the schema of this converter, with the rows of the page.
+     */
+    public void fill(VectorSchemaRoot root, Page page)
+    {
+        int positionCount = page.getPositionCount();
+        for (int channel = 0; channel < types.size(); channel++) {
+            FieldVector vector = root.getVector(channel);
+            vector.setInitialCapacity(positionCount);
+            vector.allocateNew();
+            writeBlock(types.get(channel), page.getBlock(channel), vector, 0);
+        }
+        root.setRowCount(positionCount);
+    }
+
+    private void writeBlock(Type type, Block block, FieldVector vector, int offset)
+    {
+        for (int position = 0; position < block.getPositionCount(); position++) {
+            writeValue(type, block, position, vector, offset + position);
+        }
+    }
+
+    private void writeValue(Type type, Block block, int position, FieldVector vector, int index)
+    {
+        // nulls are left unset, the validity buffers of new vectors are cleared
+        if (block.isNull(position) || type.equals(UNKNOWN)) {
+            return;
+        }
+
+        if (type.equals(BOOLEAN)) {
+            ((BitVector) vector).setSafe(index, BOOLEAN.getBoolean(block, position) ? 1 : 0);
+        }
+        else if (type.equals(TINYINT)) {
+            ((TinyIntVector) vector).setSafe(index, (byte) TINYINT.getLong(block, position));
+        }
+        else if (type.equals(SMALLINT)) {
+            ((SmallIntVector) vector).setSafe(index, (short) SMALLINT.getLong(block, position));
+        }
+        else if (type.equals(INTEGER)) {
+            ((IntVector) vector).setSafe(index, (int) INTEGER.getLong(block, position));
+        }
+        else if (type.equals(BIGINT)) {
+            ((BigIntVector) vector).setSafe(index, BIGINT.getLong(block, position));
+        }
+        else if (type.equals(REAL)) {
+            ((Float4Vector) vector).setSafe(index, intBitsToFloat((int) REAL.getLong(block, position)));
+        }
+        else if (type.equals(DOUBLE)) {
+            ((Float8Vector) vector).setSafe(index, DOUBLE.getDouble(block, position));
+        }
+        else if (type instanceof DecimalType) {
+            DecimalType decimalType = (DecimalType) type;
+            if (decimalType.isShort()) {
+                ((DecimalVector) vector).setSafe(index, decimalType.getLong(block, position));
+            }
+            else {
+                ((DecimalVector) vector).setSafe(index, new BigDecimal(decodeUnscaledValue(decimalType.getSlice(block, position)), decimalType.getScale()));
+            }
+        }
+        else if (type instanceof VarcharType) {
+            Slice value = type.getSlice(block, position);
+            ((VarCharVector) vector).setSafe(index, value.toByteBuffer(), 0, value.length());
+        }
+        else if (type instanceof CharType) {
+            Slice value = padSpaces(type.getSlice(block, position), (CharType) type);
+            ((VarCharVector) vector).setSafe(index, value.toByteBuffer(), 0, value.length());
+        }
+        else if (type.equals(VARBINARY)) {
+            Slice value = VARBINARY.getSlice(block, position);
+            ((VarBinaryVector) vector).setSafe(index, value.toByteBuffer(), 0, value.length());
+        }
+        else if (type.equals(DATE)) {
+            ((DateDayVector) vector).setSafe(index, (int) DATE.getLong(block, position));
+        }
+        else if (type instanceof TimestampType) {
+            ((TimeStampVector) vector).setSafe(index, type.getLong(block, position));
+        }
+        else if (type.equals(TIMESTAMP_WITH_TIME_ZONE)) {
+            ((TimeStampVector) vector).setSafe(index, unpackMillisUtc(TIMESTAMP_WITH_TIME_ZONE.getLong(block, position)));
+        }
+        else if (type instanceof ArrayType) {
+            ListVector listVector = (ListVector) vector;
+            Block elements = ((ArrayType) type).getObject(block, position);
+            int offset = listVector.startNewValue(index);
+            writeBlock(((ArrayType) type).getElementType(), elements, listVector.getDataVector(), offset);
+            listVector.endValue(index, elements.getPositionCount());
+        }
+        else if (type instanceof MapType) {
+            MapType mapType = (MapType) type;
+            MapVector mapVector = (MapVector) vector;
+            StructVector entryVector = (StructVector) mapVector.getDataVector();
+            FieldVector keyVector = (FieldVector) entryVector.getChildByOrdinal(0);
+            FieldVector valueVector = (FieldVector) entryVector.getChildByOrdinal(1);
+            // the keys and values of a map alternate in its block
+            Block entries = mapType.getObject(block, position);
+            int entryCount = entries.getPositionCount() / 2;
+            int offset = mapVector.startNewValue(index);
+            for (int entry = 0; entry < entryCount; entry++) {
+                entryVector.setIndexDefined(offset + entry);
+                writeValue(mapType.getKeyType(), entries, 2 * entry, keyVector, offset + entry);
+                writeValue(mapType.getValueType(), entries, 2 * entry + 1, valueVector, offset + entry);
+            }
+            mapVector.endValue(index, entryCount);
+        }
+        else if (type instanceof RowType) {
+            StructVector structVector = (StructVector) vector;
+            List<Type> fieldTypes = type.getTypeParameters();
+            Block fields = ((RowType) type).getObject(block, position);
+            structVector.setIndexDefined(index);
+            for (int field = 0; field < fieldTypes.size(); field++) {
+                writeValue(fieldTypes.get(field), fields, field, (FieldVector) structVector.getChildByOrdinal(field), index);
+            }
+        }
+        else {
+            byte[] value = String.valueOf(type.getObjectValue(properties, block, position)).getBytes(UTF_8);
+            ((VarCharVector) vector).setSafe(index, value);
+        }
+    }
+
+    private Field toField(String name, Type type, boolean nullable)
+    {
+        if (type instanceof ArrayType) {
+            return new Field(name, new FieldType(nullable, ArrowType.List.INSTANCE, null), ImmutableList.of(
+                    toField("item", ((ArrayType) type).getElementType(), true)));
+        }
+        if (type instanceof MapType) {
+            MapType mapType = (MapType) type;
+            Field entries = new Field(MapVector.DATA_VECTOR_NAME, new FieldType(false, ArrowType.Struct.INSTANCE, null), ImmutableList.of(
+                    toField(MapVector.KEY_NAME, mapType.getKeyType(), false),
+                    toField(MapVector.VALUE_NAME, mapType.getValueType(), true)));
+            return new Field(name, new FieldType(nullable, new ArrowType.Map(false), null), ImmutableList.of(entries));
+        }
+        if (type instanceof RowType) {
+            List<RowType.Field> fields = ((RowType) type).getFields();
+            ImmutableList.Builder<Field> children = ImmutableList.builder();
+            for (int i = 0; i < fields.size(); i++) {
+                children.add(toField(fields.get(i).getName().orElse("field" + i), fields.get(i).getType(), true));
+            }
+            return new Field(name, new FieldType(nullable, ArrowType.Struct.INSTANCE, null), children.build());
+        }
+        return new Field(name, new FieldType(nullable, toArrowType(type), null), ImmutableList.of());
+    }
+
+    private ArrowType toArrowType(Type type)
+    {
+        if (type.equals(UNKNOWN)) {
+            return ArrowType.Null.INSTANCE;
+        }
+        if (type.equals(BOOLEAN)) {
+            return ArrowType.Bool.INSTANCE;
+        }
+        if (type.equals(TINYINT)) {
+            return new ArrowType.Int(8, true);
+        }
+        if (type.equals(SMALLINT)) {
+            return new ArrowType.Int(16, true);
+        }
+        if (type.equals(INTEGER)) {
+            return new ArrowType.Int(32, true);
+        }
+        if (type.equals(BIGINT)) {
+            return new ArrowType.Int(64, true);
+        }
+        if (type.equals(REAL)) {
+            return new ArrowType.FloatingPoint(FloatingPointPrecision.SINGLE);
+        }
+        if (type.equals(DOUBLE)) {
+            return new ArrowType.FloatingPoint(FloatingPointPrecision.DOUBLE);
+        }
+        if (type instanceof DecimalType) {
+            DecimalType decimalType = (DecimalType) type;
+            return new ArrowType.Decimal(decimalType.getPrecision(), decimalType.getScale(), 128);
+        }
+        if (type.equals(VARBINARY)) {
+            return ArrowType.Binary.INSTANCE;
+        }
+        if (type.equals(DATE)) {
+            return new ArrowType.Date(DateUnit.DAY);
+        }
+        if (type instanceof TimestampType) {
+            TimeUnit unit = ((TimestampType) type).getPrecision() == MICROSECONDS ? TimeUnit.MICROSECOND : TimeUnit.MILLISECOND;
+            // legacy timestamps are instants, rendered in the time zone of the session
+            return new ArrowType.Timestamp(unit, properties.isLegacyTimestamp() ? properties.getTimeZoneKey().getId() : null);
+        }
+        if (type.equals(TIMESTAMP_WITH_TIME_ZONE)) {
+            return new ArrowType.Timestamp(TimeUnit.MILLISECOND, "UTC");
+        }
+        return ArrowType.Utf8.INSTANCE;
+    }
+}
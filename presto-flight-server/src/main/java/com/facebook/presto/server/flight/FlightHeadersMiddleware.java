@@ -0,0 +1,67 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.server.flight;
+
+import org.apache.arrow.flight.CallHeaders;
+import org.apache.arrow.flight.CallInfo;
+import org.apache.arrow.flight.CallStatus;
+import org.apache.arrow.flight.FlightProducer.CallContext;
+import org.apache.arrow.flight.FlightServerMiddleware;
+import org.apache.arrow.flight.RequestContext;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Exposes the headers of a Flight call to the producer, which describe the session of the query.
+ */
+public class FlightHeadersMiddleware
+        implements FlightServerMiddleware
+{
+    public static final Key<FlightHeadersMiddleware> KEY = Key.of("presto-headers");
+
+    private final CallHeaders headers;
+
+    public FlightHeadersMiddleware(CallHeaders headers)
+    {
+        this.headers = requireNonNull(headers, "headers is null");
+    }
+
+    public static CallHeaders getHeaders(CallContext context)
+    {
+        FlightHeadersMiddleware middleware = context.getMiddleware(KEY);
+        if (middleware == null) {
+            throw CallStatus.INTERNAL.withDescription("Call headers are not available").toRuntimeException();
+        }
+        return middleware.headers;
+    }
+
+    @Override
+    public void onBeforeSendingHeaders(CallHeaders outgoingHeaders) {}
+
+    @Override
+    public void onCallCompleted(CallStatus status) {}
+
+    @Override
+    public void onCallErrored(Throwable error) {}
+
+    public static class Factory
+            implements FlightServerMiddleware.Factory<FlightHeadersMiddleware>
+    {
+        @Override
+        public FlightHeadersMiddleware onCallStarted(CallInfo info, CallHeaders incomingHeaders, RequestContext context)
+        {
+            return new FlightHeadersMiddleware(incomingHeaders);
+        }
+    }
+}
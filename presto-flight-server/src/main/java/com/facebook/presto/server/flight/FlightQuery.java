@@ -0,0 +1,197 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.server.flight;
+
+import com.facebook.airlift.units.Duration;
+import com.facebook.presto.Session;
+import com.facebook.presto.common.ErrorType;
+import com.facebook.presto.common.Page;
+import com.facebook.presto.common.block.BlockEncodingSerde;
+import com.facebook.presto.execution.ExecutionFailureInfo;
+import com.facebook.presto.execution.QueryExecution.QueryOutputInfo;
+import com.facebook.presto.execution.QueryManager;
+import com.facebook.presto.execution.QueryState;
+import com.facebook.presto.execution.buffer.PagesSerdeFactory;
+import com.facebook.presto.operator.ExchangeClient;
+import com.facebook.presto.spi.QueryId;
+import com.facebook.presto.spi.page.PagesSerde;
+import com.facebook.presto.spi.page.SerializedPage;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.errorprone.annotations.concurrent.GuardedBy;
+import org.apache.arrow.flight.CallStatus;
+import org.apache.arrow.flight.FlightRuntimeException;
+
+import static com.facebook.airlift.concurrent.MoreFutures.tryGetFutureValue;
+import static com.facebook.presto.SystemSessionProperties.getExchangeCompressionCodec;
+import static com.facebook.presto.SystemSessionProperties.isExchangeChecksumEnabled;
+import static com.facebook.presto.common.ErrorType.USER_ERROR;
+import static com.facebook.presto.execution.QueryState.FAILED;
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Results of a query submitted by an Arrow Flight SQL client. Like the results of the
+ * HTTP protocol, they are read from the output stage with an exchange client.
+ */
+class FlightQuery
+{
+    private final QueryId queryId;
+    private final String slug;
+    private final Session session;
+    private final QueryManager queryManager;
+    private final ExchangeClient exchangeClient;
+    private final PagesSerde serde;
+    private final SettableFuture<QueryOutputInfo> outputInfo = SettableFuture.create();
+
+    @GuardedBy("this")
+    private FlightRuntimeException failure;
+
+    public static FlightQuery create(
+            QueryId queryId,
+            String slug,
+            QueryManager queryManager,
+            ExchangeClient exchangeClient,
+            BlockEncodingSerde blockEncodingSerde)
+    {
+        FlightQuery query = new FlightQuery(queryId, slug, queryManager.getQuerySession(queryId), queryManager, exchangeClient, blockEncodingSerde);
+        queryManager.addOutputInfoListener(queryId, query::setQueryOutputInfo);
+        queryManager.addStateChangeListener(queryId, query::queryStateChanged);
+        return query;
+    }
+
+    private FlightQuery(
+            QueryId queryId,
+            String slug,
+            Session session,
+            QueryManager queryManager,
+            ExchangeClient exchangeClient,
+            BlockEncodingSerde blockEncodingSerde)
+    {
+        this.queryId = requireNonNull(queryId, "queryId is null");
+        this.slug = requireNonNull(slug, "slug is null");
+        this.session = requireNonNull(session, "session is null");
+        this.queryManager = requireNonNull(queryManager, "queryManager is null");
+        this.exchangeClient = requireNonNull(exchangeClient, "exchangeClient is null");
+        requireNonNull(blockEncodingSerde, "blockEncodingSerde is null");
+        this.serde = new PagesSerdeFactory(blockEncodingSerde, getExchangeCompressionCodec(session), isExchangeChecksumEnabled(session)).createPagesSerde();
+    }
+
+    public QueryId getQueryId()
+    {
+        return queryId;
+    }
+
+    public String getSlug()
+    {
+        return slug;
+    }
+
+    public Session getSession()
+    {
+        return session;
+    }
+
+    /**
+     * Returns the columns of the query, which are known once the query is planned. The future
+     * fails if the query fails before, and holds no columns for queries without output.
+     */
+    public ListenableFuture<QueryOutputInfo> getOutputInfo()
+    {
+        return outputInfo;
+    }
+
+    /**
+     * Returns the next page of the results, or null if none is produced within the wait time.
+     */
+    public Page getNextPage(Duration maxWait)
+    {
+        queryManager.recordHeartbeat(queryId);
+        SerializedPage serializedPage = exchangeClient.pollPage();
+        if (serializedPage == null && !exchangeClient.isFinished()) {
+            tryGetFutureValue(exchangeClient.isBlocked(), (int) maxWait.toMillis(), MILLISECONDS);
+            serializedPage = exchangeClient.pollPage();
+        }
+        if (serializedPage == null) {
+            return null;
+        }
+        return serde.deserialize(serializedPage);
+    }
+
+    /**
+     * Returns true when all results are read, or throws the failure of the query.
+     */
+    public boolean isFinished()
+    {
+        synchronized (this) {
+            if (failure != null) {
+                throw failure;
+            }
+        }
+        return exchangeClient.isFinished();
+    }
+
+    public void cancel()
+    {
+        queryManager.cancelQuery(queryId);
+        exchangeClient.close();
+    }
+
+    public void close()
+    {
+        exchangeClient.close();
+    }
+
+    private synchronized void setQueryOutputInfo(QueryOutputInfo info)
+    {
+        checkArgument(info.getColumnNames().size() == info.getColumnTypes().size(), "Column names and types size mismatch");
+        outputInfo.set(info);
+        info.getBufferLocations().forEach(exchangeClient::addLocation);
+        if (info.isNoMoreBufferLocations()) {
+            exchangeClient.noMoreLocations();
+        }
+    }
+
+    private void queryStateChanged(QueryState state)
+    {
+        if (state == FAILED) {
+            FlightRuntimeException exception = toFlightException(queryManager.getFullQueryInfo(queryId).getFailureInfo());
+            synchronized (this) {
+                failure = exception;
+            }
+            outputInfo.setException(exception);
+            exchangeClient.close();
+        }
+        else if (state.isDone() && !outputInfo.isDone()) {
+            // data definition statements finish without output
+            outputInfo.set(new QueryOutputInfo(ImmutableList.of(), ImmutableList.of(), ImmutableMap.of(), true));
+            exchangeClient.close();
+        }
+    }
+
+    static FlightRuntimeException toFlightException(ExecutionFailureInfo failureInfo)
+    {
+        if (failureInfo == null) {
+            return CallStatus.INTERNAL.withDescription("Query failed for an unknown reason").toRuntimeException();
+        }
+        ErrorType errorType = failureInfo.getErrorCode() == null ? null : failureInfo.getErrorCode().getType();
+        CallStatus status = errorType == USER_ERROR ? CallStatus.INVALID_ARGUMENT : CallStatus.INTERNAL;
+        return status.withDescription(failureInfo.getMessage())
+                .withCause(failureInfo.toException())
+                .toRuntimeException();
+    }
+}
@@ -0,0 +1,266 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.server.flight;
+
+import com.facebook.presto.common.RuntimeStats;
+import com.facebook.presto.common.transaction.TransactionId;
+import com.facebook.presto.server.SessionContext;
+import com.facebook.presto.spi.function.SqlFunctionId;
+import com.facebook.presto.spi.function.SqlInvokedFunction;
+import com.facebook.presto.spi.security.Identity;
+import com.facebook.presto.spi.session.ResourceEstimates;
+import com.facebook.presto.spi.tracing.Tracer;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import jakarta.annotation.Nullable;
+import org.apache.arrow.flight.CallHeaders;
+
+import java.net.URLDecoder;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.facebook.presto.client.PrestoHeaders.PRESTO_CATALOG;
+import static com.facebook.presto.client.PrestoHeaders.PRESTO_CLIENT_INFO;
+import static com.facebook.presto.client.PrestoHeaders.PRESTO_CLIENT_TAGS;
+import static com.facebook.presto.client.PrestoHeaders.PRESTO_LANGUAGE;
+import static com.facebook.presto.client.PrestoHeaders.PRESTO_SCHEMA;
+import static com.facebook.presto.client.PrestoHeaders.PRESTO_SESSION;
+import static com.facebook.presto.client.PrestoHeaders.PRESTO_SOURCE;
+import static com.facebook.presto.client.PrestoHeaders.PRESTO_TIME_ZONE;
+import static com.facebook.presto.client.PrestoHeaders.PRESTO_TRACE_TOKEN;
+import static com.facebook.presto.server.HttpRequestSessionContext.splitSessionHeader;
+import static com.google.common.base.Strings.emptyToNull;
+import static com.google.common.base.Strings.nullToEmpty;
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static com.google.common.net.HttpHeaders.USER_AGENT;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+import static org.apache.arrow.flight.CallStatus.INVALID_ARGUMENT;
+
+/**
+ * Session of a query submitted by an Arrow Flight SQL client. The session is described
+ * with the same headers as in the HTTP protocol, which Flight clients send as call headers.
+ * Flight statements are executed in auto-commit mode.
+ */
+public class FlightSessionContext
+        implements SessionContext
+{
+    private static final Splitter DOT_SPLITTER = Splitter.on('.');
+
+    private final Identity identity;
+    private final String catalog;
+    private final String schema;
+    private final String sqlText;
+    private final String source;
+    private final String userAgent;
+    private final String clientInfo;
+    private final Set<String> clientTags;
+    private final String timeZoneId;
+    private final String language;
+    private final Optional<String> traceToken;
+    private final Map<String, String> systemProperties;
+    private final Map<String, Map<String, String>> catalogSessionProperties;
+    private final RuntimeStats runtimeStats = new RuntimeStats();
+
+    public FlightSessionContext(String user, CallHeaders headers, String sqlText)
+    {
+        requireNonNull(user, "user is null");
+        requireNonNull(headers, "headers is null");
+        this.identity = new Identity(user, Optional.empty());
+        this.sqlText = requireNonNull(sqlText, "sqlText is null");
+
+        catalog = trimEmptyToNull(headers.get(PRESTO_CATALOG));
+        schema = trimEmptyToNull(headers.get(PRESTO_SCHEMA));
+        if (catalog == null && schema != null) {
+            throw INVALID_ARGUMENT.withDescription("Schema is set but catalog is not").toRuntimeException();
+        }
+        source = headers.get(PRESTO_SOURCE);
+        userAgent = headers.get(USER_AGENT);
+        clientInfo = headers.get(PRESTO_CLIENT_INFO);
+        clientTags = ImmutableSet.copyOf(splitSessionHeader(Collections.enumeration(ImmutableList.copyOf(headers.getAll(PRESTO_CLIENT_TAGS)))));
+        timeZoneId = headers.get(PRESTO_TIME_ZONE);
+        language = headers.get(PRESTO_LANGUAGE);
+        traceToken = Optional.ofNullable(trimEmptyToNull(headers.get(PRESTO_TRACE_TOKEN)));
+
+        // parse session properties, names with a dot are catalog session properties
+        Map<String, String> systemProperties = new HashMap<>();
+        Map<String, Map<String, String>> catalogSessionProperties = new HashMap<>();
+        for (String header : splitSessionHeader(Collections.enumeration(ImmutableList.copyOf(headers.getAll(PRESTO_SESSION))))) {
+            List<String> nameValue = Splitter.on('=').trimResults().splitToList(header);
+            if (nameValue.size() != 2) {
+                throw INVALID_ARGUMENT.withDescription("Invalid " + PRESTO_SESSION + " header").toRuntimeException();
+            }
+            String value = URLDecoder.decode(nameValue.get(1), UTF_8);
+            List<String> nameParts = DOT_SPLITTER.splitToList(nameValue.get(0));
+            if (nameParts.size() == 1) {
+                systemProperties.put(nameParts.get(0), value);
+            }
+            else if (nameParts.size() == 2) {
+                catalogSessionProperties.computeIfAbsent(nameParts.get(0), name -> new HashMap<>())
+                        .put(nameParts.get(1), value);
+            }
+            else {
+                throw INVALID_ARGUMENT.withDescription("Invalid " + PRESTO_SESSION + " header").toRuntimeException();
+            }
+        }
+        this.systemProperties = ImmutableMap.copyOf(systemProperties);
+        this.catalogSessionProperties = catalogSessionProperties.entrySet().stream()
+                .collect(toImmutableMap(Map.Entry::getKey, entry -> ImmutableMap.copyOf(entry.getValue())));
+    }
+
+    @Override
+    public Identity getIdentity()
+    {
+        return identity;
+    }
+
+    @Nullable
+    @Override
+    public String getCatalog()
+    {
+        return catalog;
+    }
+
+    @Nullable
+    @Override
+    public String getSchema()
+    {
+        return schema;
+    }
+
+    @Override
+    public String getSqlText()
+    {
+        return sqlText;
+    }
+
+    @Nullable
+    @Override
+    public String getSource()
+    {
+        return source;
+    }
+
+    @Nullable
+    @Override
+    public String getRemoteUserAddress()
+    {
+        return null;
+    }
+
+    @Nullable
+    @Override
+    public String getUserAgent()
+    {
+        return userAgent;
+    }
+
+    @Nullable
+    @Override
+    public String getClientInfo()
+    {
+        return clientInfo;
+    }
+
+    @Override
+    public Set<String> getClientTags()
+    {
+        return clientTags;
+    }
+
+    @Override
+    public ResourceEstimates getResourceEstimates()
+    {
+        return new ResourceEstimates(Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty());
+    }
+
+    @Nullable
+    @Override
+    public String getTimeZoneId()
+    {
+        return timeZoneId;
+    }
+
+    @Nullable
+    @Override
+    public String getLanguage()
+    {
+        return language;
+    }
+
+    @Override
+    public Optional<Tracer> getTracer()
+    {
+        return Optional.empty();
+    }
+
+    @Override
+    public Map<String, String> getSystemProperties()
+    {
+        return systemProperties;
+    }
+
+    @Override
+    public Map<String, Map<String, String>> getCatalogSessionProperties()
+    {
+        return catalogSessionProperties;
+    }
+
+    @Override
+    public Map<String, String> getPreparedStatements()
+    {
+        return ImmutableMap.of();
+    }
+
+    @Override
+    public Optional<TransactionId> getTransactionId()
+    {
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<String> getTraceToken()
+    {
+        return traceToken;
+    }
+
+    @Override
+    public boolean supportClientTransaction()
+    {
+        return false;
+    }
+
+    @Override
+    public Map<SqlFunctionId, SqlInvokedFunction> getSessionFunctions()
+    {
+        return ImmutableMap.of();
+    }
+
+    @Override
+    public RuntimeStats getRuntimeStats()
+    {
+        return runtimeStats;
+    }
+
+    private static String trimEmptyToNull(String value)
+    {
+        return emptyToNull(nullToEmpty(value).trim());
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.server.flight;
+
+import com.facebook.presto.server.PrestoServer;
+import com.google.common.collect.ImmutableList;
+import com.google.inject.Module;
+
+/**
+ * Presto server that also serves query results over Arrow Flight SQL. The endpoint and its
+ * Arrow dependencies are only on the class path of servers started with this main class.
+ */
+public class PrestoFlightServer
+        extends PrestoServer
+{
+    public static void main(String[] args)
+    {
+        new PrestoFlightServer().run();
+    }
+
+    @Override
+    protected Iterable<? extends Module> getAdditionalModules()
+    {
+        return ImmutableList.of(new ArrowFlightServerModule());
+    }
+}
@@ -0,0 +1,277 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.server.flight;
+
+import com.facebook.airlift.log.Logger;
+import com.facebook.airlift.units.Duration;
+import com.facebook.presto.common.Page;
+import com.facebook.presto.common.block.BlockEncodingSerde;
+import com.facebook.presto.dispatcher.DispatchInfo;
+import com.facebook.presto.dispatcher.DispatchManager;
+import com.facebook.presto.execution.ExecutionFailureInfo;
+import com.facebook.presto.execution.QueryExecution.QueryOutputInfo;
+import com.facebook.presto.execution.QueryManager;
+import com.facebook.presto.memory.context.SimpleLocalMemoryContext;
+import com.facebook.presto.operator.ExchangeClientSupplier;
+import com.facebook.presto.spi.QueryId;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.google.protobuf.Any;
+import com.google.protobuf.ByteString;
+import org.apache.arrow.flight.BackpressureStrategy;
+import org.apache.arrow.flight.CallStatus;
+import org.apache.arrow.flight.FlightDescriptor;
+import org.apache.arrow.flight.FlightEndpoint;
+import org.apache.arrow.flight.FlightInfo;
+import org.apache.arrow.flight.FlightRuntimeException;
+import org.apache.arrow.flight.Result;
+import org.apache.arrow.flight.Ticket;
+import org.apache.arrow.flight.sql.NoOpFlightSqlProducer;
+import org.apache.arrow.flight.sql.impl.FlightSql.ActionClosePreparedStatementRequest;
+import org.apache.arrow.flight.sql.impl.FlightSql.ActionCreatePreparedStatementRequest;
+import org.apache.arrow.flight.sql.impl.FlightSql.ActionCreatePreparedStatementResult;
+import org.apache.arrow.flight.sql.impl.FlightSql.CommandPreparedStatementQuery;
+import org.apache.arrow.flight.sql.impl.FlightSql.CommandStatementQuery;
+import org.apache.arrow.flight.sql.impl.FlightSql.TicketStatementQuery;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.VectorSchemaRoot;
+
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static com.facebook.airlift.concurrent.MoreFutures.getFutureValue;
+import static com.facebook.airlift.concurrent.Threads.threadsNamed;
+import static com.facebook.presto.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
+import static com.facebook.presto.server.flight.FlightQuery.toFlightException;
+import static java.util.Locale.ENGLISH;
+import static java.util.Objects.requireNonNull;
+import static java.util.UUID.randomUUID;
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Flight SQL service of the coordinator. Statements and prepared statements without parameters
+ * are submitted through the dispatch manager like the queries of the HTTP protocol, and their
+ * results are streamed as Arrow record batches, converted from the pages of the output stage.
+ * The catalog metadata commands of Flight SQL are not supported, clients can query the
+ * information schema instead.
+ */
+public class PrestoFlightSqlProducer
+        extends NoOpFlightSqlProducer
+{
+    private static final Logger log = Logger.get(PrestoFlightSqlProducer.class);
+
+    private static final Duration MAX_WAIT_TIME = new Duration(1, SECONDS);
+    private static final Splitter HANDLE_SPLITTER = Splitter.on('/');
+
+    private final DispatchManager dispatchManager;
+    private final QueryManager queryManager;
+    private final ExchangeClientSupplier exchangeClientSupplier;
+    private final BlockEncodingSerde blockEncodingSerde;
+    private final BufferAllocator allocator;
+
+    private final ConcurrentMap<QueryId, FlightQuery> queries = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService queryPurger = newSingleThreadScheduledExecutor(threadsNamed("flight-query-purger"));
+
+    public PrestoFlightSqlProducer(
+            DispatchManager dispatchManager,
+            QueryManager queryManager,
+            ExchangeClientSupplier exchangeClientSupplier,
+            BlockEncodingSerde blockEncodingSerde,
+            BufferAllocator allocator)
+    {
+        this.dispatchManager = requireNonNull(dispatchManager, "dispatchManager is null");
+        this.queryManager = requireNonNull(queryManager, "queryManager is null");
+        this.exchangeClientSupplier = requireNonNull(exchangeClientSupplier, "exchangeClientSupplier is null");
+        this.blockEncodingSerde = requireNonNull(blockEncodingSerde, "blockEncodingSerde is null");
+        this.allocator = requireNonNull(allocator, "allocator is null");
+    }
+
+    public void start()
+    {
+        // forget about the queries of clients that never read the results once the query manager is no longer tracking them
+        queryPurger.scheduleWithFixedDelay(
+                () -> {
+                    try {
+                        for (Entry<QueryId, FlightQuery> entry : queries.entrySet()) {
+                            try {
+                                queryManager.getQueryState(entry.getKey());
+                            }
+                            catch (NoSuchElementException e) {
+                                queries.remove(entry.getKey());
+                                entry.getValue().close();
+                            }
+                        }
+                    }
+                    catch (Throwable e) {
+                        log.warn(e, "Error removing old Flight queries");
+                    }
+                },
+                200,
+                200,
+                MILLISECONDS);
+    }
+
+    @Override
+    public void close()
+    {
+        queryPurger.shutdownNow();
+        queries.values().forEach(FlightQuery::cancel);
+        queries.clear();
+    }
+
+    @Override
+    public FlightInfo getFlightInfoStatement(CommandStatementQuery command, CallContext context, FlightDescriptor descriptor)
+    {
+        return execute(command.getQuery(), context, descriptor);
+    }
+
+    @Override
+    public void createPreparedStatement(ActionCreatePreparedStatementRequest request, CallContext context, StreamListener<Result> listener)
+    {
+        // the handle is the statement itself, which is executed when the client asks for its results
+        ActionCreatePreparedStatementResult result = ActionCreatePreparedStatementResult.newBuilder()
+                .setPreparedStatementHandle(ByteString.copyFromUtf8(request.getQuery()))
+                .build();
+        listener.onNext(new Result(Any.pack(result).toByteArray()));
+        listener.onCompleted();
+    }
+
+    @Override
+    public FlightInfo getFlightInfoPreparedStatement(CommandPreparedStatementQuery command, CallContext context, FlightDescriptor descriptor)
+    {
+        return execute(command.getPreparedStatementHandle().toStringUtf8(), context, descriptor);
+    }
+
+    @Override
+    public void closePreparedStatement(ActionClosePreparedStatementRequest request, CallContext context, StreamListener<Result> listener)
+    {
+        listener.onCompleted();
+    }
+
+    @Override
+    public void getStreamStatement(TicketStatementQuery ticket, CallContext context, ServerStreamListener listener)
+    {
+        FlightQuery query = getQuery(ticket.getStatementHandle().toStringUtf8(), context);
+        BackpressureStrategy backpressure = new BackpressureStrategy.CallbackBackpressureStrategy();
+        backpressure.register(listener);
+        listener.setOnCancelHandler(query::cancel);
+
+        QueryOutputInfo outputInfo = getFutureValue(query.getOutputInfo());
+        ArrowPageConverter converter = new ArrowPageConverter(outputInfo.getColumnNames(), outputInfo.getColumnTypes(), query.getSession().getSqlFunctionProperties());
+        try (VectorSchemaRoot root = VectorSchemaRoot.create(converter.getSchema(), allocator)) {
+            listener.start(root);
+            while (!query.isFinished()) {
+                Page page = query.getNextPage(MAX_WAIT_TIME);
+                if (page == null || page.getPositionCount() == 0) {
+                    continue;
+                }
+                converter.fill(root, page);
+                if (!waitForListener(query, backpressure)) {
+                    query.cancel();
+                    return;
+                }
+                listener.putNext();
+            }
+            listener.completed();
+        }
+        catch (FlightRuntimeException e) {
+            listener.error(e);
+        }
+        catch (RuntimeException e) {
+            query.cancel();
+            listener.error(CallStatus.INTERNAL.withDescription(e.getMessage()).withCause(e).toRuntimeException());
+        }
+        finally {
+            queries.remove(query.getQueryId());
+        }
+    }
+
+    private FlightInfo execute(String sql, CallContext context, FlightDescriptor descriptor)
+    {
+        QueryId queryId = dispatchManager.createQueryId();
+        String slug = "x" + randomUUID().toString().toLowerCase(ENGLISH).replace("-", "");
+        FlightSessionContext sessionContext = new FlightSessionContext(context.peerIdentity(), FlightHeadersMiddleware.getHeaders(context), sql);
+
+        getFutureValue(dispatchManager.createQuery(queryId, slug, 0, sessionContext, sql));
+        getFutureValue(dispatchManager.waitForDispatched(queryId));
+        Optional<ExecutionFailureInfo> dispatchFailure = dispatchManager.getDispatchInfo(queryId).flatMap(DispatchInfo::getFailureInfo);
+        if (dispatchFailure.isPresent()) {
+            throw toFlightException(dispatchFailure.get());
+        }
+
+        FlightQuery query;
+        try {
+            query = FlightQuery.create(
+                    queryId,
+                    slug,
+                    queryManager,
+                    exchangeClientSupplier.get(new SimpleLocalMemoryContext(newSimpleAggregatedMemoryContext(), PrestoFlightSqlProducer.class.getSimpleName())),
+                    blockEncodingSerde);
+        }
+        catch (NoSuchElementException e) {
+            throw CallStatus.NOT_FOUND.withDescription("Query not found").toRuntimeException();
+        }
+        queries.put(queryId, query);
+
+        QueryOutputInfo outputInfo = getFutureValue(query.getOutputInfo());
+        ArrowPageConverter converter = new ArrowPageConverter(outputInfo.getColumnNames(), outputInfo.getColumnTypes(), query.getSession().getSqlFunctionProperties());
+        TicketStatementQuery ticket = TicketStatementQuery.newBuilder()
+                .setStatementHandle(ByteString.copyFromUtf8(queryId + "/" + slug))
+                .build();
+        return new FlightInfo(converter.getSchema(), descriptor, ImmutableList.of(new FlightEndpoint(new Ticket(Any.pack(ticket).toByteArray()))), -1, -1);
+    }
+
+    private FlightQuery getQuery(String handle, CallContext context)
+    {
+        List<String> parts = HANDLE_SPLITTER.splitToList(handle);
+        if (parts.size() != 2) {
+            throw CallStatus.INVALID_ARGUMENT.withDescription("Invalid statement handle").toRuntimeException();
+        }
+        FlightQuery query;
+        try {
+            query = queries.get(QueryId.valueOf(parts.get(0)));
+        }
+        catch (IllegalArgumentException e) {
+            throw CallStatus.INVALID_ARGUMENT.withDescription("Invalid statement handle").toRuntimeException();
+        }
+        // only the user who submitted the query can read its results
+        if (query == null || !query.getSlug().equals(parts.get(1)) || !query.getSession().getUser().equals(context.peerIdentity())) {
+            throw CallStatus.NOT_FOUND.withDescription("Query not found").toRuntimeException();
+        }
+        return query;
+    }
+
+    private boolean waitForListener(FlightQuery query, BackpressureStrategy backpressure)
+    {
+        while (true) {
+            switch (backpressure.waitForListener(MAX_WAIT_TIME.toMillis())) {
+                case READY:
+                    return true;
+                case TIMEOUT:
+                    // keep the query alive while the client is slow
+                    queryManager.recordHeartbeat(query.getQueryId());
+                    break;
+                default:
+                    return false;
+            }
+        }
+    }
+}
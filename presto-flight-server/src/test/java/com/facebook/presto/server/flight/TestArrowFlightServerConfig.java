@@ -0,0 +1,61 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.server.flight;
+
+import com.facebook.airlift.units.DataSize;
+import com.google.common.collect.ImmutableMap;
+import org.testng.annotations.Test;
+
+import java.util.Map;
+
+import static com.facebook.airlift.configuration.testing.ConfigAssertions.assertFullMapping;
+import static com.facebook.airlift.configuration.testing.ConfigAssertions.assertRecordedDefaults;
+import static com.facebook.airlift.configuration.testing.ConfigAssertions.recordDefaults;
+import static com.facebook.airlift.units.DataSize.Unit.GIGABYTE;
+import static com.facebook.airlift.units.DataSize.Unit.MEGABYTE;
+
+public class TestArrowFlightServerConfig
+{
+    @Test
+    public void testDefaults()
+    {
+        assertRecordedDefaults(recordDefaults(ArrowFlightServerConfig.class)
+                .setEnabled(false)
+                .setPort(8815)
+                .setMaxMemory(new DataSize(1, GIGABYTE))
+                .setCertificateChainFile(null)
+                .setPrivateKeyFile(null));
+    }
+
+    @Test
+    public void testExplicitPropertyMappings()
+    {
+        Map<String, String> properties = new ImmutableMap.Builder<String, String>()
+                .put("arrow-flight-server.enabled", "true")
+                .put("arrow-flight-server.port", "32010")
+                .put("arrow-flight-server.max-memory", "512MB")
+                .put("arrow-flight-server.tls.certificate-chain-file", "/etc/presto/flight.crt")
+                .put("arrow-flight-server.tls.private-key-file", "/etc/presto/flight.key")
+                .build();
+
+        ArrowFlightServerConfig expected = new ArrowFlightServerConfig()
+                .setEnabled(true)
+                .setPort(32010)
+                .setMaxMemory(new DataSize(512, MEGABYTE))
+                .setCertificateChainFile("/etc/presto/flight.crt")
+                .setPrivateKeyFile("/etc/presto/flight.key");
+
+        assertFullMapping(properties, expected);
+    }
+}
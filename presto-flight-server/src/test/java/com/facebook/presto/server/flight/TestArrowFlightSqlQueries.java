@@ -0,0 +1,181 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.server.flight;
+
+import com.facebook.presto.testing.MaterializedResult;
+import com.facebook.presto.testing.MaterializedRow;
+import com.facebook.presto.tests.DistributedQueryRunner;
+import com.facebook.presto.tpch.TpchPlugin;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableMultiset;
+import org.apache.arrow.flight.CallOption;
+import org.apache.arrow.flight.FlightCallHeaders;
+import org.apache.arrow.flight.FlightClient;
+import org.apache.arrow.flight.FlightEndpoint;
+import org.apache.arrow.flight.FlightInfo;
+import org.apache.arrow.flight.FlightStream;
+import org.apache.arrow.flight.HeaderCallOption;
+import org.apache.arrow.flight.Location;
+import org.apache.arrow.flight.grpc.CredentialCallOption;
+import org.apache.arrow.flight.sql.FlightSqlClient;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.util.Text;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.facebook.presto.client.PrestoHeaders.PRESTO_CATALOG;
+import static com.facebook.presto.client.PrestoHeaders.PRESTO_SCHEMA;
+import static com.facebook.presto.testing.TestingSession.testSessionBuilder;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+@Test(singleThreaded = true)
+public class TestArrowFlightSqlQueries
+{
+    private DistributedQueryRunner queryRunner;
+    private BufferAllocator allocator;
+    private FlightClient client;
+    private FlightSqlClient sqlClient;
+    private CallOption[] callOptions;
+
+    @BeforeClass
+    public void setUp()
+            throws Exception
+    {
+        int port = findUnusedPort();
+        queryRunner = DistributedQueryRunner.builder(testSessionBuilder().setCatalog("tpch").setSchema("tiny").build())
+                .setNodeCount(2)
+                .setExtraModules(ImmutableList.of(new ArrowFlightServerModule()))
+                .setCoordinatorProperties(ImmutableMap.of(
+                        "arrow-flight-server.enabled", "true",
+                        "arrow-flight-server.port", String.valueOf(port)))
+                .build();
+        queryRunner.installPlugin(new TpchPlugin());
+        queryRunner.createCatalog("tpch", "tpch");
+
+        allocator = new RootAllocator(Long.MAX_VALUE);
+        client = FlightClient.builder(allocator, Location.forGrpcInsecure("localhost", port)).build();
+        CredentialCallOption credentials = client.authenticateBasicToken("user", "").orElseThrow(AssertionError::new);
+        FlightCallHeaders headers = new FlightCallHeaders();
+        headers.insert(PRESTO_CATALOG, "tpch");
+        headers.insert(PRESTO_SCHEMA, "tiny");
+        callOptions = new CallOption[] {credentials, new HeaderCallOption(headers)};
+        sqlClient = new FlightSqlClient(client);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown()
+            throws Exception
+    {
+        if (sqlClient != null) {
+            sqlClient.close();
+        }
+        if (allocator != null) {
+            allocator.close();
+        }
+        if (queryRunner != null) {
+            queryRunner.close();
+        }
+        sqlClient = null;
+        client = null;
+        allocator = null;
+        queryRunner = null;
+    }
+
+    @Test
+    public void testFetch()
+            throws Exception
+    {
+        assertQuery("SELECT nationkey, name, regionkey FROM nation ORDER BY nationkey");
+    }
+
+    @Test
+    public void testFetchFromWorkers()
+            throws Exception
+    {
+        // enough rows to span several pages read from the output stage on the workers
+        assertQuery("SELECT orderkey, orderstatus, totalprice FROM orders");
+    }
+
+    @Test
+    public void testEmptyResult()
+            throws Exception
+    {
+        assertEquals(fetch("SELECT nationkey FROM nation WHERE nationkey < 0").size(), 0);
+    }
+
+    private void assertQuery(String sql)
+            throws Exception
+    {
+        List<List<Object>> actual = fetch(sql);
+        MaterializedResult expected = queryRunner.execute(sql);
+        assertEquals(actual.size(), expected.getRowCount());
+        assertTrue(actual.size() > 0);
+
+        List<List<Object>> expectedRows = new ArrayList<>();
+        for (MaterializedRow row : expected.getMaterializedRows()) {
+            expectedRows.add(row.getFields());
+        }
+        if (sql.contains("ORDER BY")) {
+            assertEquals(actual, expectedRows);
+        }
+        else {
+            assertEquals(ImmutableMultiset.copyOf(actual), ImmutableMultiset.copyOf(expectedRows));
+        }
+    }
+
+    private List<List<Object>> fetch(String sql)
+            throws Exception
+    {
+        FlightInfo info = sqlClient.execute(sql, callOptions);
+        List<List<Object>> rows = new ArrayList<>();
+        for (FlightEndpoint endpoint : info.getEndpoints()) {
+            try (FlightStream stream = sqlClient.getStream(endpoint.getTicket(), callOptions)) {
+                while (stream.next()) {
+                    VectorSchemaRoot root = stream.getRoot();
+                    for (int position = 0; position < root.getRowCount(); position++) {
+                        List<Object> row = new ArrayList<>();
+                        for (FieldVector vector : root.getFieldVectors()) {
+                            Object value = vector.getObject(position);
+                            row.add(value instanceof Text ? value.toString() : value);
+                        }
+                        rows.add(row);
+                    }
+                }
+            }
+        }
+        return rows;
+    }
+
+    private static int findUnusedPort()
+            throws IOException
+    {
+        try (ServerSocket socket = new ServerSocket()) {
+            socket.setReuseAddress(false);
+            socket.bind(new InetSocketAddress(0));
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.server.flight;
+
+import com.facebook.presto.common.Page;
+import com.facebook.presto.common.block.Block;
+import com.facebook.presto.common.block.BlockBuilder;
+import com.facebook.presto.common.type.ArrayType;
+import com.facebook.presto.common.type.DecimalType;
+import com.facebook.presto.common.type.RowType;
+import com.facebook.presto.common.type.Type;
+import com.google.common.collect.ImmutableList;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.DecimalVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.complex.ListVector;
+import org.apache.arrow.vector.complex.StructVector;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.util.Text;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static com.facebook.presto.SessionTestUtils.TEST_SESSION;
+import static com.facebook.presto.common.type.BigintType.BIGINT;
+import static com.facebook.presto.common.type.Decimals.encodeScaledValue;
+import static com.facebook.presto.common.type.JsonType.JSON;
+import static com.facebook.presto.common.type.VarcharType.VARCHAR;
+import static io.airlift.slice.Slices.utf8Slice;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+@Test(singleThreaded = true)
+public class TestArrowPageConverter
+{
+    private BufferAllocator allocator;
+
+    @BeforeClass
+    public void setUp()
+    {
+        allocator = new RootAllocator();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown()
+    {
+        allocator.close();
+        allocator = null;
+    }
+
+    @Test
+    public void testPrimitiveTypes()
+    {
+        DecimalType longDecimal = DecimalType.createDecimalType(25, 3);
+        List<Type> types = ImmutableList.of(BIGINT, VARCHAR, longDecimal, JSON);
+        BlockBuilder[] builders = createBlockBuilders(types);
+        BIGINT.writeLong(builders[0], 12300000000L);
+        VARCHAR.writeString(builders[1], "hello");
+        longDecimal.writeSlice(builders[2], encodeScaledValue(new BigDecimal("1234567890123456789012.345")));
+        JSON.writeSlice(builders[3], utf8Slice("{\"a\":1}"));
+        for (BlockBuilder builder : builders) {
+            builder.appendNull();
+        }
+
+        ArrowPageConverter converter = new ArrowPageConverter(ImmutableList.of("a", "b", "c", "d"), types, TEST_SESSION.getSqlFunctionProperties());
+        assertEquals(converter.getSchema().getFields().get(0).getType(), new ArrowType.Int(64, true));
+        // types without an Arrow equivalent are sent as strings
+        assertEquals(converter.getSchema().getFields().get(3).getType(), ArrowType.Utf8.INSTANCE);
+
+        try (VectorSchemaRoot root = VectorSchemaRoot.create(converter.getSchema(), allocator)) {
+            converter.fill(root, createPage(builders));
+            assertEquals(root.getRowCount(), 2);
+
+            BigIntVector bigints = (BigIntVector) root.getVector(0);
+            assertEquals(bigints.get(0), 12300000000L);
+            assertTrue(bigints.isNull(1));
+            assertEquals(((VarCharVector) root.getVector(1)).getObject(0), new Text("hello"));
+            assertEquals(((DecimalVector) root.getVector(2)).getObject(0), new BigDecimal("1234567890123456789012.345"));
+            assertEquals(((VarCharVector) root.getVector(3)).getObject(0), new Text("{\"a\":1}"));
+            for (int channel = 1; channel < types.size(); channel++) {
+                assertTrue(root.getVector(channel).isNull(1));
+            }
+
+            // the vectors are reused for the next page
+            BlockBuilder[] next = createBlockBuilders(types);
+            BIGINT.writeLong(next[0], 7);
+            for (int channel = 1; channel < types.size(); channel++) {
+                next[channel].appendNull();
+            }
+            converter.fill(root, createPage(next));
+            assertEquals(root.getRowCount(), 1);
+            assertEquals(bigints.get(0), 7);
+            assertTrue(root.getVector(1).isNull(0));
+        }
+    }
+
+    @Test
+    public void testStructuralTypes()
+    {
+        ArrayType arrayType = new ArrayType(BIGINT);
+        RowType rowType = RowType.from(ImmutableList.of(RowType.field("x", BIGINT), RowType.field("y", VARCHAR)));
+        List<Type> types = ImmutableList.of(arrayType, rowType);
+        BlockBuilder[] builders = createBlockBuilders(types);
+
+        BlockBuilder elements = builders[0].beginBlockEntry();
+        BIGINT.writeLong(elements, 1);
+        elements.appendNull();
+        builders[0].closeEntry();
+        builders[0].appendNull();
+        elements = builders[0].beginBlockEntry();
+        BIGINT.writeLong(elements, 3);
+        builders[0].closeEntry();
+
+        BlockBuilder fields = builders[1].beginBlockEntry();
+        BIGINT.writeLong(fields, 2);
+        VARCHAR.writeString(fields, "b");
+        builders[1].closeEntry();
+        builders[1].appendNull();
+        fields = builders[1].beginBlockEntry();
+        fields.appendNull();
+        VARCHAR.writeString(fields, "c");
+        builders[1].closeEntry();
+
+        ArrowPageConverter converter = new ArrowPageConverter(ImmutableList.of("a", "r"), types, TEST_SESSION.getSqlFunctionProperties());
+        try (VectorSchemaRoot root = VectorSchemaRoot.create(converter.getSchema(), allocator)) {
+            converter.fill(root, createPage(builders));
+            assertEquals(root.getRowCount(), 3);
+
+            ListVector arrays = (ListVector) root.getVector(0);
+            assertEquals(arrays.getObject(0), Arrays.asList(1L, null));
+            assertTrue(arrays.isNull(1));
+            assertEquals(arrays.getObject(2), ImmutableList.of(3L));
+
+            StructVector rows = (StructVector) root.getVector(1);
+            Map<?, ?> row = (Map<?, ?>) rows.getObject(0);
+            assertEquals(row.get("x"), 2L);
+            assertEquals(row.get("y"), new Text("b"));
+            assertTrue(rows.isNull(1));
+            row = (Map<?, ?>) rows.getObject(2);
+            assertNull(row.get("x"));
+            assertEquals(row.get("y"), new Text("c"));
+            assertFalse(rows.isNull(2));
+        }
+    }
+
+    private static BlockBuilder[] createBlockBuilders(List<Type> types)
+    {
+        return types.stream()
+                .map(type -> type.createBlockBuilder(null, 3))
+                .toArray(BlockBuilder[]::new);
+    }
+
+    private static Page createPage(BlockBuilder[] builders)
+    {
+        return new Page(Arrays.stream(builders)
+                .map(BlockBuilder::build)
+                .toArray(Block[]::new));
+    }
+}
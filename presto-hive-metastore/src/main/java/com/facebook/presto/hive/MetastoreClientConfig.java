@@ -61,6 +61,7 @@ public class MetastoreClientConfig
     private long metastoreCacheMaximumSize = 10000;
     private long perTransactionMetastoreCacheMaximumSize = 1000;
     private int maxMetastoreRefreshThreads = 100;
+    private Duration metastoreCacheBatchWindow = new Duration(0, TimeUnit.MILLISECONDS);
 
     private String recordingPath;
     private boolean replay;
@@ -282,6 +283,22 @@ public class MetastoreClientConfig
         return this;
     }
 
+    @NotNull
+    public Duration getMetastoreCacheBatchWindow()
+    {
+        return metastoreCacheBatchWindow;
+    }
+
+    @MinDuration("0ms")
+    @Config("hive.metastore.cache.batch-window")
+    @ConfigDescription("Time to wait for concurrent requests of the same query for more partitions or partition statistics, " +
+            "so that they are fetched from the metastore in a single call per table")
+    public MetastoreClientConfig setMetastoreCacheBatchWindow(Duration metastoreCacheBatchWindow)
+    {
+        this.metastoreCacheBatchWindow = metastoreCacheBatchWindow;
+        return this;
+    }
+
     public String getRecordingPath()
     {
         return recordingPath;
@@ -0,0 +1,147 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive.metastore;
+
+import com.facebook.airlift.units.Duration;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.errorprone.annotations.ThreadSafe;
+import com.google.errorprone.annotations.concurrent.GuardedBy;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static com.facebook.airlift.concurrent.MoreFutures.getFutureValue;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Loads the values of many keys with bulk metastore calls, merging the requests of concurrent callers.
+ * <p>
+ * A key which is already being loaded for another caller is not loaded again, and the caller waits for
+ * that load instead. Keys which are not being loaded are collected in a pending batch per group, e.g. per
+ * table of a query, so that the keys of the group requested by concurrent callers during the batch window
+ * are loaded with one call. The caller which opens the batch of a group waits for the window and then loads
+ * the batch on its own thread, so callers only ever wait for the loads of the groups they request.
+ */
+@ThreadSafe
+class CoalescingBatchLoader<K, V>
+{
+    private final Function<? super K, ?> groupFunction;
+    private final Function<List<K>, Map<K, V>> groupLoader;
+    private final long batchWindowNanos;
+
+    @GuardedBy("this")
+    private final Map<K, SettableFuture<V>> loadingKeys = new HashMap<>();
+    @GuardedBy("this")
+    private final Map<Object, List<K>> pendingBatches = new HashMap<>();
+
+    /**
+     * @param groupFunction the group of a key; the keys of a group are loaded together
+     * @param groupLoader loads the values of keys of the same group, and returns a value for every key
+     */
+    public CoalescingBatchLoader(Function<? super K, ?> groupFunction, Function<List<K>, Map<K, V>> groupLoader, Duration batchWindow)
+    {
+        this.groupFunction = requireNonNull(groupFunction, "groupFunction is null");
+        this.groupLoader = requireNonNull(groupLoader, "groupLoader is null");
+        this.batchWindowNanos = requireNonNull(batchWindow, "batchWindow is null").roundTo(NANOSECONDS);
+    }
+
+    public Map<K, V> loadAll(Iterable<? extends K> keys)
+    {
+        Map<K, SettableFuture<V>> futures = new LinkedHashMap<>();
+        Map<Object, List<K>> batches = new LinkedHashMap<>();
+        synchronized (this) {
+            for (K key : keys) {
+                if (futures.containsKey(key)) {
+                    continue;
+                }
+                SettableFuture<V> future = loadingKeys.get(key);
+                if (future == null) {
+                    future = SettableFuture.create();
+                    loadingKeys.put(key, future);
+                    Object group = groupFunction.apply(key);
+                    List<K> batch = pendingBatches.get(group);
+                    if (batch == null) {
+                        // this caller opens the batch of the group, and loads it once the batch window has passed
+                        batch = new ArrayList<>();
+                        pendingBatches.put(group, batch);
+                        batches.put(group, batch);
+                    }
+                    batch.add(key);
+                }
+                futures.put(key, future);
+            }
+        }
+
+        if (!batches.isEmpty()) {
+            waitForBatchWindow();
+            synchronized (this) {
+                batches.forEach(pendingBatches::remove);
+            }
+            batches.values().forEach(this::load);
+        }
+
+        ImmutableMap.Builder<K, V> values = ImmutableMap.builder();
+        futures.forEach((key, future) -> values.put(key, getFutureValue(future)));
+        return values.build();
+    }
+
+    private void waitForBatchWindow()
+    {
+        if (batchWindowNanos == 0) {
+            return;
+        }
+        try {
+            NANOSECONDS.sleep(batchWindowNanos);
+        }
+        catch (InterruptedException e) {
+            // load the batch right away, the other callers of the batch are waiting for it
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void load(List<K> batch)
+    {
+        // the batch is no longer pending, so no other caller adds keys to it
+        List<SettableFuture<V>> futures = new ArrayList<>(batch.size());
+        synchronized (this) {
+            batch.forEach(key -> futures.add(loadingKeys.get(key)));
+        }
+        try {
+            Map<K, V> values = groupLoader.apply(batch);
+            for (int i = 0; i < batch.size(); i++) {
+                V value = values.get(batch.get(i));
+                if (value == null) {
+                    futures.get(i).setException(new IllegalStateException("No value loaded for " + batch.get(i)));
+                }
+                else {
+                    futures.get(i).set(value);
+                }
+            }
+        }
+        catch (Throwable t) {
+            futures.forEach(future -> future.setException(t));
+        }
+        finally {
+            synchronized (this) {
+                batch.forEach(loadingKeys::remove);
+            }
+        }
+    }
+}
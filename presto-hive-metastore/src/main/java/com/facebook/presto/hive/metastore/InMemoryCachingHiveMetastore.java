@@ -13,6 +13,7 @@
  */
 package com.facebook.presto.hive.metastore;
 
+import com.facebook.airlift.units.Duration;
 import com.facebook.presto.common.predicate.Domain;
 import com.facebook.presto.hive.ForCachingHiveMetastore;
 import com.facebook.presto.hive.HiveTableHandle;
@@ -25,6 +26,7 @@ import com.facebook.presto.spi.security.RoleGrant;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
@@ -106,6 +108,8 @@ public class InMemoryCachingHiveMetastore
     private final LoadingCache<KeyAndContext<UserTableKey>, Set<HivePrivilegeInfo>> tablePrivilegesCache;
     private final LoadingCache<KeyAndContext<String>, Set<String>> rolesCache;
     private final LoadingCache<KeyAndContext<PrestoPrincipal>, Set<RoleGrant>> roleGrantsCache;
+    private final CoalescingBatchLoader<KeyAndContext<HivePartitionName>, Optional<Partition>> partitionBatchLoader;
+    private final CoalescingBatchLoader<KeyAndContext<HivePartitionName>, PartitionStatistics> partitionStatisticsBatchLoader;
     private final MetastoreCacheStats metastoreCacheStats;
     private final MetastoreCacheSpecProvider metastoreCacheSpecProvider;
 
@@ -131,7 +135,9 @@ public class InMemoryCachingHiveMetastore
                 metastoreClientConfig.getPartitionCacheValidationPercentage(),
                 metastoreClientConfig.getPartitionCacheColumnCountLimit(),
                 metastoreCacheStats,
-                metastoreCacheSpecProvider);
+                Optional.of(metastoreCacheSpecProvider),
+                false,
+                metastoreClientConfig.getMetastoreCacheBatchWindow());
     }
 
     public InMemoryCachingHiveMetastore(
@@ -155,7 +161,8 @@ public class InMemoryCachingHiveMetastore
                 partitionCacheColumnCountLimit,
                 metastoreCacheStats,
                 Optional.of(metastoreCacheSpecProvider),
-                false);
+                false,
+                new Duration(0, MILLISECONDS));
     }
 
     public static InMemoryCachingHiveMetastore memoizeMetastore(ExtendedHiveMetastore delegate, boolean isMetastoreImpersonationEnabled, long maximumSize, int partitionCacheMaxColumnCount)
@@ -170,7 +177,8 @@ public class InMemoryCachingHiveMetastore
                 partitionCacheMaxColumnCount,
                 NOOP_METASTORE_CACHE_STATS,
                 Optional.empty(),
-                true);
+                true,
+                new Duration(0, MILLISECONDS));
     }
 
     private InMemoryCachingHiveMetastore(
@@ -183,7 +191,8 @@ public class InMemoryCachingHiveMetastore
             int partitionCacheColumnCountLimit,
             MetastoreCacheStats metastoreCacheStats,
             Optional<MetastoreCacheSpecProvider> metastoreCacheSpecProvider,
-            boolean perTransactionCache)
+            boolean perTransactionCache,
+            Duration batchWindow)
     {
         this.delegate = requireNonNull(delegate, "delegate is null");
         requireNonNull(executor, "executor is null");
@@ -194,6 +203,17 @@ public class InMemoryCachingHiveMetastore
         this.metastoreCacheStats = metastoreCacheStats;
         this.metastoreCacheSpecProvider = metastoreCacheSpecProvider.orElse(null);
 
+        // concurrent misses of a query for the partitions of the same table are loaded together, so that
+        // every metastore call runs under the context of the query it loads for
+        partitionBatchLoader = new CoalescingBatchLoader<>(
+                this::getBatchGroup,
+                partitionNames -> loadPartitionsByNames(withContext(partitionNames.get(0).getContext(), partitionNames)),
+                batchWindow);
+        partitionStatisticsBatchLoader = new CoalescingBatchLoader<>(
+                this::getBatchGroup,
+                this::loadPartitionColumnStatistics,
+                batchWindow);
+
         databaseNamesCache = buildCache(
                 executor,
                 DATABASE_NAMES,
@@ -236,7 +256,7 @@ public class InMemoryCachingHiveMetastore
                     @Override
                     public Map<KeyAndContext<HivePartitionName>, PartitionStatistics> loadAll(Iterable<? extends KeyAndContext<HivePartitionName>> keys)
                     {
-                        return loadPartitionColumnStatistics(keys);
+                        return partitionStatisticsBatchLoader.loadAll(keys);
                     }
                 },
                 perTransactionCache,
@@ -293,7 +313,7 @@ public class InMemoryCachingHiveMetastore
                     @Override
                     public Map<KeyAndContext<HivePartitionName>, Optional<Partition>> loadAll(Iterable<? extends KeyAndContext<HivePartitionName>> partitionNames)
                     {
-                        return loadPartitionsByNames(partitionNames);
+                        return partitionBatchLoader.loadAll(partitionNames);
                     }
                 },
                 perTransactionCache,
@@ -1079,6 +1099,29 @@ public class InMemoryCachingHiveMetastore
         return new KeyAndContext<>(applyImpersonationToMetastoreContext(context), key);
     }
 
+    /**
+     * Returns the group of partition keys loaded with one metastore call. Keys of different queries are
+     * never loaded together, because the call is made with the context, e.g. the runtime stats and
+     * warnings, of a single query.
+     */
+    private List<Object> getBatchGroup(KeyAndContext<HivePartitionName> partitionName)
+    {
+        return ImmutableList.of(
+                partitionName.getContext().getQueryId(),
+                getCachingKey(partitionName.getContext(), partitionName.getKey().getHiveTableName()));
+    }
+
+    /**
+     * Returns the keys with the same context, so that the keys of one query which were requested with
+     * different contexts can be loaded with a single metastore call. The keys remain equal to the original keys.
+     */
+    private static <T> List<KeyAndContext<T>> withContext(MetastoreContext context, List<KeyAndContext<T>> keys)
+    {
+        return keys.stream()
+                .map(key -> new KeyAndContext<>(context, key.getKey()))
+                .collect(toImmutableList());
+    }
+
     private static CacheBuilder<Object, Object> newCacheBuilder(OptionalLong expiresAfterWriteMillis, OptionalLong refreshMillis, long maximumSize)
     {
         CacheBuilder<Object, Object> cacheBuilder = CacheBuilder.newBuilder();
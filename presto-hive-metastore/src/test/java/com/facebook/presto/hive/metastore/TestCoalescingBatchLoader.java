@@ -0,0 +1,152 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive.metastore;
+
+import com.facebook.airlift.units.Duration;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+public class TestCoalescingBatchLoader
+{
+    private final ExecutorService executor = newCachedThreadPool();
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown()
+    {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testBatchesConcurrentRequests()
+            throws Exception
+    {
+        List<List<String>> calls = new CopyOnWriteArrayList<>();
+        CoalescingBatchLoader<String, String> loader = new CoalescingBatchLoader<>(
+                key -> key.substring(0, 1),
+                keys -> {
+                    calls.add(keys);
+                    return keys.stream().collect(toImmutableMap(Function.identity(), String::toUpperCase));
+                },
+                new Duration(500, MILLISECONDS));
+
+        Future<Map<String, String>> first = executor.submit(() -> loader.loadAll(ImmutableList.of("a1", "a2", "b1")));
+        Future<Map<String, String>> second = executor.submit(() -> loader.loadAll(ImmutableList.of("a2", "a3")));
+
+        assertEquals(first.get(10, SECONDS), ImmutableMap.of("a1", "A1", "a2", "A2", "b1", "B1"));
+        assertEquals(second.get(10, SECONDS), ImmutableMap.of("a2", "A2", "a3", "A3"));
+        // one call per group, and every key is loaded once
+        assertEquals(calls.size(), 2);
+        assertEquals(calls.stream().mapToInt(List::size).sum(), 4);
+    }
+
+    @Test
+    public void testGroupsLoadedByTheirCallers()
+            throws Exception
+    {
+        // the groups are the queries, which request different tables in the same batch window
+        Map<String, Thread> callThreads = new ConcurrentHashMap<>();
+        CoalescingBatchLoader<String, String> loader = new CoalescingBatchLoader<>(
+                key -> key.substring(0, key.indexOf('.')),
+                keys -> {
+                    keys.forEach(key -> assertNull(callThreads.put(key, Thread.currentThread())));
+                    return keys.stream().collect(toImmutableMap(Function.identity(), String::toUpperCase));
+                },
+                new Duration(500, MILLISECONDS));
+
+        Future<Thread> first = executor.submit(() -> {
+            assertEquals(loader.loadAll(ImmutableList.of("query1.a")), ImmutableMap.of("query1.a", "QUERY1.A"));
+            return Thread.currentThread();
+        });
+        Future<Thread> second = executor.submit(() -> {
+            assertEquals(loader.loadAll(ImmutableList.of("query2.b")), ImmutableMap.of("query2.b", "QUERY2.B"));
+            return Thread.currentThread();
+        });
+
+        // each query makes its own call on its own thread
+        assertEquals(callThreads.get("query1.a"), first.get(10, SECONDS));
+        assertEquals(callThreads.get("query2.b"), second.get(10, SECONDS));
+        assertEquals(callThreads.size(), 2);
+    }
+
+    @Test
+    public void testCoalescesKeysBeingLoaded()
+            throws Exception
+    {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<List<String>> calls = new CopyOnWriteArrayList<>();
+        CoalescingBatchLoader<String, String> loader = new CoalescingBatchLoader<>(
+                key -> "",
+                keys -> {
+                    calls.add(keys);
+                    loading.countDown();
+                    try {
+                        assertTrue(release.await(10, SECONDS));
+                    }
+                    catch (InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+                    return keys.stream().collect(toImmutableMap(Function.identity(), String::toUpperCase));
+                },
+                new Duration(0, MILLISECONDS));
+
+        Future<Map<String, String>> first = executor.submit(() -> loader.loadAll(ImmutableList.of("a")));
+        assertTrue(loading.await(10, SECONDS));
+        Future<Map<String, String>> second = executor.submit(() -> loader.loadAll(ImmutableList.of("a", "b")));
+        release.countDown();
+
+        assertEquals(first.get(10, SECONDS), ImmutableMap.of("a", "A"));
+        assertEquals(second.get(10, SECONDS), ImmutableMap.of("a", "A", "b", "B"));
+        // "a" is not loaded again while it is being loaded for the first caller
+        assertEquals(calls, ImmutableList.of(ImmutableList.of("a"), ImmutableList.of("b")));
+    }
+
+    @Test
+    public void testFailure()
+    {
+        CoalescingBatchLoader<String, String> loader = new CoalescingBatchLoader<>(
+                key -> key,
+                keys -> {
+                    throw new IllegalArgumentException("test failure");
+                },
+                new Duration(0, MILLISECONDS));
+        assertEquals(expectThrows(IllegalArgumentException.class, () -> loader.loadAll(ImmutableList.of("a"))).getMessage(), "test failure");
+
+        CoalescingBatchLoader<String, String> missingValues = new CoalescingBatchLoader<>(
+                key -> key,
+                keys -> ImmutableMap.of(),
+                new Duration(0, MILLISECONDS));
+        expectThrows(IllegalStateException.class, () -> missingValues.loadAll(ImmutableList.of("a")));
+    }
+}
@@ -48,6 +48,7 @@ public class TestMetastoreClientConfig
                 .setMetastoreCacheMaximumSize(10000)
                 .setPerTransactionMetastoreCacheMaximumSize(1000)
                 .setMaxMetastoreRefreshThreads(100)
+                .setMetastoreCacheBatchWindow(new Duration(0, TimeUnit.MILLISECONDS))
                 .setRecordingPath(null)
                 .setRecordingDuration(new Duration(0, TimeUnit.MINUTES))
                 .setReplay(false)
@@ -78,6 +79,7 @@ public class TestMetastoreClientConfig
                 .put("hive.metastore-cache-maximum-size", "5000")
                 .put("hive.per-transaction-metastore-cache-maximum-size", "500")
                 .put("hive.metastore-refresh-max-threads", "2500")
+                .put("hive.metastore.cache.batch-window", "20ms")
                 .put("hive.metastore-recording-path", "/foo/bar")
                 .put("hive.metastore-recoding-duration", "42s")
                 .put("hive.replay-metastore-recording", "true")
@@ -105,6 +107,7 @@ public class TestMetastoreClientConfig
                 .setMetastoreCacheMaximumSize(5000)
                 .setPerTransactionMetastoreCacheMaximumSize(500)
                 .setMaxMetastoreRefreshThreads(2500)
+                .setMetastoreCacheBatchWindow(new Duration(20, TimeUnit.MILLISECONDS))
                 .setRecordingPath("/foo/bar")
                 .setRecordingDuration(new Duration(42, TimeUnit.SECONDS))
                 .setReplay(true)
@@ -29,6 +29,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import static com.facebook.presto.hive.HiveErrorCode.HIVE_FILESYSTEM_ERROR;
@@ -44,7 +45,11 @@ public class BackgroundHiveSplitLoader
     private static final ListenableFuture<?> COMPLETED_FUTURE = immediateFuture(null);
 
     private final int loaderConcurrency;
+    private final int maxLoaderConcurrency;
+    private final AtomicInteger loaderTasks = new AtomicInteger();
+    private final AtomicInteger completedListings = new AtomicInteger();
     private final Executor executor;
+    private final NamenodeStats namenodeStats;
     private final ConcurrentLazyQueue<HivePartitionMetadata> partitions;
     private final Deque<Iterator<InternalHiveSplit>> fileIterators = new ConcurrentLinkedDeque<>();
     private final PartitionLoader delegatingPartitionLoader;
@@ -80,13 +85,17 @@ public class BackgroundHiveSplitLoader
             DirectoryLister directoryLister,
             Executor executor,
             int loaderConcurrency,
+            int maxLoaderConcurrency,
             boolean recursiveDirWalkerEnabled,
             boolean schedulerUsesHostAddresses,
             boolean partialAggregationsPushedDown)
     {
         this.loaderConcurrency = loaderConcurrency;
         checkArgument(loaderConcurrency > 0, "loaderConcurrency must be > 0, found: %s", loaderConcurrency);
+        this.maxLoaderConcurrency = maxLoaderConcurrency;
+        checkArgument(maxLoaderConcurrency >= loaderConcurrency, "maxLoaderConcurrency must be >= loaderConcurrency, found: %s", maxLoaderConcurrency);
         this.executor = requireNonNull(executor, "executor is null");
+        this.namenodeStats = requireNonNull(namenodeStats, "namenodeStats is null");
         this.partitions = new ConcurrentLazyQueue<>(requireNonNull(partitions, "partitions is null"));
         this.delegatingPartitionLoader = new DelegatingPartitionLoader(table, infoColumnConstraints, tableBucketInfo, session, hdfsEnvironment, namenodeStats, directoryLister, fileIterators, recursiveDirWalkerEnabled, schedulerUsesHostAddresses, partialAggregationsPushedDown);
     }
@@ -95,6 +104,7 @@ public class BackgroundHiveSplitLoader
     public void start(HiveSplitSource splitSource)
     {
         this.hiveSplitSource = splitSource;
+        loaderTasks.set(loaderConcurrency);
         for (int i = 0; i < loaderConcurrency; i++) {
             ResumableTasks.submit(executor, new HiveSplitLoaderTask());
         }
@@ -190,6 +200,12 @@ public class BackgroundHiveSplitLoader
             if (partition == null) {
                 return COMPLETED_FUTURE;
             }
+            if (completedListings.get() > 0 && hiveSplitSource.getBufferedInternalSplitCount() == 0) {
+                // Every split listed so far has been scheduled and the queue is empty, so the scan is
+                // waiting on file listing rather than on split scheduling: list more partitions in parallel.
+                addLoaderTaskIfNecessary();
+            }
+            namenodeStats.getListedPartitions().update(1);
             return delegatingPartitionLoader.loadPartition(partition, hiveSplitSource, stopped);
         }
 
@@ -200,8 +216,23 @@ public class BackgroundHiveSplitLoader
                 return future;
             }
         }
+        if (!stopped) {
+            completedListings.incrementAndGet();
+        }
 
         // No need to put the iterator back, since it's either empty or we've stopped
         return COMPLETED_FUTURE;
     }
+
+    private void addLoaderTaskIfNecessary()
+    {
+        if (stopped || partitions.isEmpty()) {
+            return;
+        }
+        int tasks = loaderTasks.get();
+        if (tasks < maxLoaderConcurrency && loaderTasks.compareAndSet(tasks, tasks + 1)) {
+            namenodeStats.getAddedSplitLoaders().update(1);
+            ResumableTasks.submit(executor, new HiveSplitLoaderTask());
+        }
+    }
 }
@@ -13,8 +13,12 @@
  */
 package com.facebook.presto.hive;
 
+import com.facebook.airlift.http.client.thrift.ThriftProtocolUtils;
+import com.facebook.airlift.log.Logger;
 import com.facebook.airlift.units.DataSize;
 import com.facebook.airlift.units.Duration;
+import com.facebook.drift.codec.ThriftCodec;
+import com.facebook.drift.codec.ThriftCodecManager;
 import com.facebook.presto.common.RuntimeStats;
 import com.facebook.presto.hive.filesystem.ExtendedFileSystem;
 import com.facebook.presto.hive.metastore.Partition;
@@ -25,37 +29,62 @@ import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.Weigher;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import io.airlift.slice.BasicSliceInput;
+import io.airlift.slice.DynamicSliceOutput;
+import io.airlift.slice.Slice;
+import io.airlift.slice.SliceOutput;
+import io.airlift.slice.Slices;
+import jakarta.annotation.PreDestroy;
 import jakarta.inject.Inject;
 import org.apache.hadoop.fs.Path;
 import org.openjdk.jol.info.ClassLayout;
 import org.weakref.jmx.Managed;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
+import static com.facebook.drift.transport.netty.codec.Protocol.BINARY;
 import static com.facebook.presto.common.RuntimeMetricName.DIRECTORY_LISTING_CACHE_HIT;
 import static com.facebook.presto.common.RuntimeMetricName.DIRECTORY_LISTING_CACHE_MISS;
 import static com.facebook.presto.common.RuntimeMetricName.DIRECTORY_LISTING_TIME_NANOS;
 import static com.facebook.presto.common.RuntimeMetricName.FILES_READ_COUNT;
 import static com.facebook.presto.common.RuntimeUnit.NANO;
 import static com.facebook.presto.common.RuntimeUnit.NONE;
+import static com.facebook.presto.hive.NestedDirectoryPolicy.RECURSE;
 import static com.facebook.presto.spi.StandardErrorCode.INVALID_PROCEDURE_ARGUMENT;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.collect.ImmutableSet.toImmutableSet;
 import static java.lang.Math.toIntExact;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
 import static java.util.Objects.requireNonNull;
 
 public class CachingDirectoryLister
         implements DirectoryLister
 {
+    private static final Logger log = Logger.get(CachingDirectoryLister.class);
+
+    // bumped whenever the layout of the persistent file changes, so that files of other versions are ignored
+    private static final int PERSISTENT_FILE_VERSION = 1;
+    private static final ThriftCodec<HiveFileInfo> FILE_INFO_CODEC = new ThriftCodecManager().getCodec(HiveFileInfo.class);
+
     private final Cache<String, ValueHolder> cache;
     private final CachedTableChecker cachedTableChecker;
     private final DirectoryLister delegate;
+    private final long expireAfterWriteMillis;
+    private final boolean validateDirectoryModificationTime;
+    private final Optional<File> persistentFile;
 
     @Inject
     public CachingDirectoryLister(@ForCachingDirectoryLister DirectoryLister delegate, HiveClientConfig hiveClientConfig)
@@ -64,12 +93,28 @@ public class CachingDirectoryLister
                 delegate,
                 hiveClientConfig.getFileStatusCacheExpireAfterWrite(),
                 hiveClientConfig.getFileStatusCacheMaxRetainedSize(),
-                hiveClientConfig.getFileStatusCacheTables());
+                hiveClientConfig.getFileStatusCacheTables(),
+                hiveClientConfig.isFileStatusCacheValidateDirectoryModificationTime(),
+                Optional.ofNullable(hiveClientConfig.getFileStatusCachePersistentFile()));
     }
 
     public CachingDirectoryLister(DirectoryLister delegate, Duration expireAfterWrite, DataSize maxSize, List<String> tables)
+    {
+        this(delegate, expireAfterWrite, maxSize, tables, false, Optional.empty());
+    }
+
+    public CachingDirectoryLister(
+            DirectoryLister delegate,
+            Duration expireAfterWrite,
+            DataSize maxSize,
+            List<String> tables,
+            boolean validateDirectoryModificationTime,
+            Optional<File> persistentFile)
     {
         this.delegate = requireNonNull(delegate, "delegate is null");
+        this.expireAfterWriteMillis = expireAfterWrite.toMillis();
+        this.validateDirectoryModificationTime = validateDirectoryModificationTime;
+        this.persistentFile = requireNonNull(persistentFile, "persistentFile is null");
         cache = CacheBuilder.newBuilder()
                 .maximumWeight(maxSize.toBytes())
                 .weigher((Weigher<String, ValueHolder>) (key, value) -> toIntExact(key.length() + value.getRetainedSizeInBytes()))
@@ -77,6 +122,7 @@ public class CachingDirectoryLister
                 .recordStats()
                 .build();
         this.cachedTableChecker = new CachedTableChecker(requireNonNull(tables, "tables is null"));
+        persistentFile.ifPresent(this::loadCache);
     }
 
     @Override
@@ -90,10 +136,15 @@ public class CachingDirectoryLister
     {
         RuntimeStats runtimeStats = hiveDirectoryContext.getRuntimeStats();
         long startTime = System.nanoTime();
-        if (hiveDirectoryContext.isCacheable()) {
+        boolean cacheable = hiveDirectoryContext.isCacheable() && isValidatable(hiveDirectoryContext);
+        if (cacheable) {
             // DO NOT USE Caching, when cache is disabled.
             // This is useful for debugging issues, when cache is explicitly disabled via session property.
             ValueHolder value = Optional.ofNullable(cache.getIfPresent(path.toString())).orElse(null);
+            if (value != null && !isValid(fileSystem, path, value)) {
+                cache.invalidate(path.toString());
+                value = null;
+            }
             if (value != null) {
                 List<HiveFileInfo> files = value.getFiles();
                 runtimeStats.addMetricValue(DIRECTORY_LISTING_CACHE_HIT, NONE, 1);
@@ -104,15 +155,59 @@ public class CachingDirectoryLister
         }
 
         runtimeStats.addMetricValue(DIRECTORY_LISTING_CACHE_MISS, NONE, 1);
+        boolean enableCaching = cacheable && cachedTableChecker.isCachedTable(table.getSchemaTableName());
+        // read the modification time before listing, so that files added during the listing invalidate the entry
+        long directoryModificationTime = enableCaching ? getDirectoryModificationTime(fileSystem, path) : 0;
         Iterator<HiveFileInfo> iterator = delegate.list(fileSystem, table, path, partition, namenodeStats, hiveDirectoryContext);
         runtimeStats.addMetricValue(DIRECTORY_LISTING_TIME_NANOS, NANO, System.nanoTime() - startTime);
-        if (hiveDirectoryContext.isCacheable() && cachedTableChecker.isCachedTable(table.getSchemaTableName())) {
-            return fileCountTrackingIterator(iterator, path, runtimeStats, true);
+        return fileCountTrackingIterator(iterator, path, table.getSchemaTableName(), directoryModificationTime, runtimeStats, enableCaching);
+    }
+
+    /**
+     * Adding or removing a file does not change the modification time of the directories above its parent,
+     * so recursive listings cannot be validated, and are not cached when the validation is enabled.
+     */
+    private boolean isValidatable(HiveDirectoryContext hiveDirectoryContext)
+    {
+        return !validateDirectoryModificationTime || hiveDirectoryContext.getNestedDirectoryPolicy() != RECURSE;
+    }
+
+    private boolean isValid(ExtendedFileSystem fileSystem, Path path, ValueHolder value)
+    {
+        // entries loaded from the persistent file keep their original creation time
+        if (System.currentTimeMillis() - value.getCreatedTimeMillis() >= expireAfterWriteMillis) {
+            return false;
+        }
+        if (!validateDirectoryModificationTime || value.getDirectoryModificationTime() == 0) {
+            return true;
         }
-        return fileCountTrackingIterator(iterator, path, runtimeStats, false);
+        return getDirectoryModificationTime(fileSystem, path) == value.getDirectoryModificationTime();
     }
 
-    private Iterator<HiveFileInfo> fileCountTrackingIterator(Iterator<HiveFileInfo> iterator, Path path, RuntimeStats runtimeStats, boolean enableCaching)
+    /**
+     * Returns the modification time of the directory, or 0 if it is not known. Object stores report
+     * no modification time for directories, so their cached listings are not validated.
+     */
+    private long getDirectoryModificationTime(ExtendedFileSystem fileSystem, Path path)
+    {
+        if (!validateDirectoryModificationTime) {
+            return 0;
+        }
+        try {
+            return fileSystem.getFileStatus(path).getModificationTime();
+        }
+        catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private Iterator<HiveFileInfo> fileCountTrackingIterator(
+            Iterator<HiveFileInfo> iterator,
+            Path path,
+            SchemaTableName tableName,
+            long directoryModificationTime,
+            RuntimeStats runtimeStats,
+            boolean enableCaching)
     {
         return new Iterator<HiveFileInfo>()
         {
@@ -125,7 +220,7 @@ public class CachingDirectoryLister
                 if (!hasNext) {
                     runtimeStats.addMetricValue(FILES_READ_COUNT, NONE, files.size());
                     if (enableCaching) {
-                        cache.put(path.toString(), new ValueHolder(files));
+                        cache.put(path.toString(), new ValueHolder(tableName, files, directoryModificationTime, System.currentTimeMillis()));
                     }
                 }
                 return hasNext;
@@ -171,6 +266,94 @@ public class CachingDirectoryLister
         cache.invalidateAll();
     }
 
+    /**
+     * Writes the cached listings to the persistent file, so that they can be used again after a restart.
+     */
+    @Managed
+    @PreDestroy
+    public void saveCache()
+    {
+        if (!persistentFile.isPresent()) {
+            return;
+        }
+        File file = persistentFile.get();
+        SliceOutput output = new DynamicSliceOutput(1024);
+        output.writeInt(PERSISTENT_FILE_VERSION);
+        Map<String, ValueHolder> entries = ImmutableMap.copyOf(cache.asMap());
+        output.writeInt(entries.size());
+        try {
+            for (Map.Entry<String, ValueHolder> entry : entries.entrySet()) {
+                ValueHolder value = entry.getValue();
+                writeString(output, entry.getKey());
+                writeString(output, value.getTableName().toString());
+                output.writeLong(value.getCreatedTimeMillis());
+                output.writeLong(value.getDirectoryModificationTime());
+                output.writeInt(value.getFiles().size());
+                for (HiveFileInfo fileInfo : value.getFiles()) {
+                    ThriftProtocolUtils.write(fileInfo, FILE_INFO_CODEC, BINARY, output);
+                }
+            }
+            // write a temporary file first, so that a failed save does not leave a truncated file behind
+            File temporaryFile = new File(file.getPath() + ".tmp");
+            Files.write(temporaryFile.toPath(), output.slice().getBytes());
+            Files.move(temporaryFile.toPath(), file.toPath(), ATOMIC_MOVE, REPLACE_EXISTING);
+        }
+        catch (IOException e) {
+            log.warn(e, "Failed to save directory listing cache to %s", file);
+        }
+    }
+
+    private void loadCache(File file)
+    {
+        if (!file.exists()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        int loaded = 0;
+        try {
+            BasicSliceInput input = Slices.wrappedBuffer(Files.readAllBytes(file.toPath())).getInput();
+            if (input.readInt() != PERSISTENT_FILE_VERSION) {
+                log.info("Ignoring directory listing cache file %s written by a different version", file);
+                return;
+            }
+            int entryCount = input.readInt();
+            for (int entry = 0; entry < entryCount; entry++) {
+                String path = readString(input);
+                SchemaTableName tableName = SchemaTableName.valueOf(readString(input));
+                long createdTimeMillis = input.readLong();
+                long directoryModificationTime = input.readLong();
+                int fileCount = input.readInt();
+                ImmutableList.Builder<HiveFileInfo> files = ImmutableList.builder();
+                for (int i = 0; i < fileCount; i++) {
+                    files.add(ThriftProtocolUtils.read(FILE_INFO_CODEC, BINARY, input));
+                }
+                // skip the listings which expired while the server was down, or of tables which are no longer cached
+                if (now - createdTimeMillis < expireAfterWriteMillis && cachedTableChecker.isCachedTable(tableName)) {
+                    cache.put(path, new ValueHolder(tableName, files.build(), directoryModificationTime, createdTimeMillis));
+                    loaded++;
+                }
+            }
+            log.info("Loaded %s directory listings from %s", loaded, file);
+        }
+        catch (IOException | RuntimeException e) {
+            log.warn(e, "Failed to load directory listing cache from %s", file);
+            cache.invalidateAll();
+        }
+    }
+
+    private static void writeString(SliceOutput output, String value)
+    {
+        byte[] bytes = value.getBytes(UTF_8);
+        output.writeInt(bytes.length);
+        output.writeBytes(bytes);
+    }
+
+    private static String readString(BasicSliceInput input)
+    {
+        Slice slice = input.readSlice(input.readInt());
+        return slice.toStringUtf8();
+    }
+
     @Managed
     public Double getHitRate()
     {
@@ -217,11 +400,32 @@ public class CachingDirectoryLister
     {
         private static final long INSTANCE_SIZE = ClassLayout.parseClass(ValueHolder.class).instanceSize();
 
+        private final SchemaTableName tableName;
         private final List<HiveFileInfo> files;
+        private final long directoryModificationTime;
+        private final long createdTimeMillis;
 
-        public ValueHolder(List<HiveFileInfo> files)
+        public ValueHolder(SchemaTableName tableName, List<HiveFileInfo> files, long directoryModificationTime, long createdTimeMillis)
         {
+            this.tableName = requireNonNull(tableName, "tableName is null");
             this.files = ImmutableList.copyOf(requireNonNull(files, "files is null"));
+            this.directoryModificationTime = directoryModificationTime;
+            this.createdTimeMillis = createdTimeMillis;
+        }
+
+        public SchemaTableName getTableName()
+        {
+            return tableName;
+        }
+
+        public long getDirectoryModificationTime()
+        {
+            return directoryModificationTime;
+        }
+
+        public long getCreatedTimeMillis()
+        {
+            return createdTimeMillis;
         }
 
         public List<HiveFileInfo> getFiles()
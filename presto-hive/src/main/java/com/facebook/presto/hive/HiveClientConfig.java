@@ -32,6 +32,7 @@ import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import org.joda.time.DateTimeZone;
 
+import java.io.File;
 import java.util.List;
 import java.util.TimeZone;
 import java.util.concurrent.TimeUnit;
@@ -72,6 +73,7 @@ public class HiveClientConfig
     private int maxPartitionBatchSize = 100;
     private int maxInitialSplits = 200;
     private int splitLoaderConcurrency = 4;
+    private int maxSplitLoaderConcurrency = 4;
     private DataSize maxInitialSplitSize;
     private int domainCompactionThreshold = 100;
     private DataSize writerSortBufferSize = new DataSize(64, MEGABYTE);
@@ -163,6 +165,8 @@ public class HiveClientConfig
     private Duration fileStatusCacheExpireAfterWrite = new Duration(0, TimeUnit.SECONDS);
     private DataSize fileStatusCacheMaxRetainedSize = new DataSize(0, KILOBYTE);
     private List<String> fileStatusCacheTables = ImmutableList.of();
+    private boolean fileStatusCacheValidateDirectoryModificationTime;
+    private File fileStatusCachePersistentFile;
 
     private DataSize pageFileStripeMaxSize = new DataSize(24, MEGABYTE);
     private boolean parquetDereferencePushdownEnabled;
@@ -263,6 +267,20 @@ public class HiveClientConfig
         return this;
     }
 
+    @Min(1)
+    public int getMaxSplitLoaderConcurrency()
+    {
+        return maxSplitLoaderConcurrency;
+    }
+
+    @Config("hive.max-split-loader-concurrency")
+    @ConfigDescription("Maximum number of concurrent split loaders of a table scan. Loaders are added while the split queue is empty and partitions are left to list. No loaders are added unless this is above hive.split-loader-concurrency")
+    public HiveClientConfig setMaxSplitLoaderConcurrency(int maxSplitLoaderConcurrency)
+    {
+        this.maxSplitLoaderConcurrency = maxSplitLoaderConcurrency;
+        return this;
+    }
+
     @Min(1)
     public int getDomainCompactionThreshold()
     {
@@ -838,6 +856,32 @@ public class HiveClientConfig
         return this;
     }
 
+    public boolean isFileStatusCacheValidateDirectoryModificationTime()
+    {
+        return fileStatusCacheValidateDirectoryModificationTime;
+    }
+
+    @Config("hive.file-status-cache.validate-modification-time")
+    @ConfigDescription("Check the modification time of a cached directory before using its cached listing. Recursive listings are not cached when enabled")
+    public HiveClientConfig setFileStatusCacheValidateDirectoryModificationTime(boolean fileStatusCacheValidateDirectoryModificationTime)
+    {
+        this.fileStatusCacheValidateDirectoryModificationTime = fileStatusCacheValidateDirectoryModificationTime;
+        return this;
+    }
+
+    public File getFileStatusCachePersistentFile()
+    {
+        return fileStatusCachePersistentFile;
+    }
+
+    @Config("hive.file-status-cache.persistent-file")
+    @ConfigDescription("Local file the directory listing cache is saved to on shutdown and loaded from on startup")
+    public HiveClientConfig setFileStatusCachePersistentFile(File fileStatusCachePersistentFile)
+    {
+        this.fileStatusCachePersistentFile = fileStatusCachePersistentFile;
+        return this;
+    }
+
     public enum HdfsAuthenticationType
     {
         NONE,
@@ -20,6 +20,7 @@ import com.facebook.presto.spi.classloader.ThreadContextClassLoader;
 import com.facebook.presto.spi.connector.Connector;
 import com.facebook.presto.spi.connector.ConnectorAccessControl;
 import com.facebook.presto.spi.connector.ConnectorCapabilities;
+import com.facebook.presto.spi.connector.ConnectorCodecProvider;
 import com.facebook.presto.spi.connector.ConnectorCommitHandle;
 import com.facebook.presto.spi.connector.ConnectorMetadata;
 import com.facebook.presto.spi.connector.ConnectorNodePartitioningProvider;
@@ -71,6 +72,7 @@ public class HiveConnector
     private final ConnectorAccessControl accessControl;
     private final ClassLoader classLoader;
     private final ConnectorPlanOptimizerProvider planOptimizerProvider;
+    private final ConnectorCodecProvider codecProvider;
 
     private final HiveTransactionManager transactionManager;
 
@@ -90,6 +92,7 @@ public class HiveConnector
             List<PropertyMetadata<?>> analyzeProperties,
             ConnectorAccessControl accessControl,
             ConnectorPlanOptimizerProvider planOptimizerProvider,
+            ConnectorCodecProvider codecProvider,
             ClassLoader classLoader)
     {
         this.lifeCycleManager = requireNonNull(lifeCycleManager, "lifeCycleManager is null");
@@ -108,6 +111,7 @@ public class HiveConnector
         this.accessControl = requireNonNull(accessControl, "accessControl is null");
         this.classLoader = requireNonNull(classLoader, "classLoader is null");
         this.planOptimizerProvider = requireNonNull(planOptimizerProvider, "planOptimizerProvider is null");
+        this.codecProvider = requireNonNull(codecProvider, "codecProvider is null");
     }
 
     @Override
@@ -148,6 +152,12 @@ public class HiveConnector
         return planOptimizerProvider;
     }
 
+    @Override
+    public ConnectorCodecProvider getConnectorCodecProvider()
+    {
+        return codecProvider;
+    }
+
     @Override
     public Set<SystemTable> getSystemTables()
     {
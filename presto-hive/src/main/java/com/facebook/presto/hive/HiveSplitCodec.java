@@ -0,0 +1,409 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive;
+
+import com.facebook.airlift.json.smile.SmileCodec;
+import com.facebook.presto.hive.HiveSplit.BucketConversion;
+import com.facebook.presto.hive.metastore.Storage;
+import com.facebook.presto.spi.ConnectorCodec;
+import com.facebook.presto.spi.ConnectorSplit;
+import com.facebook.presto.spi.HostAddress;
+import com.facebook.presto.spi.PrestoException;
+import com.facebook.presto.spi.SplitWeight;
+import com.facebook.presto.spi.schedule.NodeSelectionStrategy;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import io.airlift.slice.BasicSliceInput;
+import io.airlift.slice.DynamicSliceOutput;
+import io.airlift.slice.Slice;
+import io.airlift.slice.SliceOutput;
+import io.airlift.slice.Slices;
+import jakarta.inject.Inject;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
+
+import static com.facebook.presto.spi.StandardErrorCode.INVALID_ARGUMENTS;
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
+import static io.airlift.slice.Slices.utf8Slice;
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Binary encoding of {@link HiveSplit}, used when use-connector-provided-serialization-codecs is enabled.
+ * <p>
+ * The fields which differ from split to split are written one by one. The partition level fields, which
+ * are the same for all the splits of a partition, are encoded once per partition on the coordinator, and
+ * decoded once per partition on the worker, where the splits of the partition share the decoded objects.
+ */
+public class HiveSplitCodec
+        implements ConnectorCodec<ConnectorSplit>
+{
+    private static final byte VERSION = 1;
+    private static final int MAX_CACHED_PARTITIONS = 1_000;
+
+    private final SmileCodec<PartitionFields> partitionFieldsCodec;
+    private final Cache<PartitionFields, byte[]> encodedPartitions = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHED_PARTITIONS)
+            .build();
+    private final Cache<Slice, PartitionFields> decodedPartitions = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHED_PARTITIONS)
+            .build();
+
+    @Inject
+    public HiveSplitCodec(SmileCodec<PartitionFields> partitionFieldsCodec)
+    {
+        this.partitionFieldsCodec = requireNonNull(partitionFieldsCodec, "partitionFieldsCodec is null");
+    }
+
+    @Override
+    public byte[] serialize(ConnectorSplit connectorSplit)
+    {
+        HiveSplit split = (HiveSplit) connectorSplit;
+        PartitionFields partitionFields = new PartitionFields(split);
+        byte[] encodedPartition = encodedPartitions.getIfPresent(partitionFields);
+        if (encodedPartition == null) {
+            encodedPartition = partitionFieldsCodec.toBytes(partitionFields);
+            encodedPartitions.put(partitionFields, encodedPartition);
+        }
+
+        HiveFileSplit fileSplit = split.getFileSplit();
+        SliceOutput output = new DynamicSliceOutput(encodedPartition.length + 256);
+        output.writeByte(VERSION);
+        output.writeInt(encodedPartition.length);
+        output.writeBytes(encodedPartition);
+
+        writeString(output, fileSplit.getPath());
+        output.writeLong(fileSplit.getStart());
+        output.writeLong(fileSplit.getLength());
+        output.writeLong(fileSplit.getFileSize());
+        output.writeLong(fileSplit.getFileModifiedTime());
+        if (fileSplit.getExtraFileInfo().isPresent()) {
+            output.writeInt(fileSplit.getExtraFileInfo().get().length);
+            output.writeBytes(fileSplit.getExtraFileInfo().get());
+        }
+        else {
+            output.writeInt(-1);
+        }
+        output.writeInt(fileSplit.getCustomSplitInfo().size());
+        for (Map.Entry<String, String> entry : fileSplit.getCustomSplitInfo().entrySet()) {
+            writeString(output, entry.getKey());
+            writeString(output, entry.getValue());
+        }
+        output.writeLong(fileSplit.getAffinitySchedulingFileSectionIndex());
+
+        output.writeInt(split.getAddresses().size());
+        for (HostAddress address : split.getAddresses()) {
+            writeString(output, address.toString());
+        }
+        writeOptionalInt(output, split.getReadBucketNumber());
+        writeOptionalInt(output, split.getTableBucketNumber());
+        output.writeByte(split.getNodeSelectionStrategy().ordinal());
+        output.writeLong(split.getSplitWeight().getRawValue());
+        return output.slice().getBytes();
+    }
+
+    @Override
+    public ConnectorSplit deserialize(byte[] bytes)
+    {
+        BasicSliceInput input = Slices.wrappedBuffer(bytes).getInput();
+        byte version = input.readByte();
+        if (version != VERSION) {
+            throw new PrestoException(INVALID_ARGUMENTS, format("Can not deserialize hive split with encoding version %s", version));
+        }
+        Slice encodedPartition = input.readSlice(input.readInt());
+        PartitionFields partitionFields = decodedPartitions.getIfPresent(encodedPartition);
+        if (partitionFields == null) {
+            // copy the key, so that the cache does not hold on to the bytes of the whole split
+            byte[] partitionBytes = encodedPartition.getBytes();
+            partitionFields = partitionFieldsCodec.fromBytes(partitionBytes);
+            decodedPartitions.put(Slices.wrappedBuffer(partitionBytes), partitionFields);
+        }
+
+        String path = readString(input);
+        long start = input.readLong();
+        long length = input.readLong();
+        long fileSize = input.readLong();
+        long fileModifiedTime = input.readLong();
+        int extraFileInfoLength = input.readInt();
+        Optional<byte[]> extraFileInfo = extraFileInfoLength < 0 ? Optional.empty() : Optional.of(input.readSlice(extraFileInfoLength).getBytes());
+        int customSplitInfoSize = input.readInt();
+        ImmutableMap.Builder<String, String> customSplitInfo = ImmutableMap.builder();
+        for (int i = 0; i < customSplitInfoSize; i++) {
+            customSplitInfo.put(readString(input), readString(input));
+        }
+        long affinitySchedulingFileSectionIndex = input.readLong();
+        HiveFileSplit fileSplit = new HiveFileSplit(path, start, length, fileSize, fileModifiedTime, extraFileInfo, customSplitInfo.build(), affinitySchedulingFileSectionIndex);
+
+        int addressCount = input.readInt();
+        ImmutableList.Builder<HostAddress> addresses = ImmutableList.builder();
+        for (int i = 0; i < addressCount; i++) {
+            addresses.add(HostAddress.fromString(readString(input)));
+        }
+        OptionalInt readBucketNumber = readOptionalInt(input);
+        OptionalInt tableBucketNumber = readOptionalInt(input);
+        NodeSelectionStrategy nodeSelectionStrategy = NodeSelectionStrategy.values()[input.readByte()];
+        long splitWeight = input.readLong();
+
+        return new HiveSplit(
+                fileSplit,
+                partitionFields.getDatabase(),
+                partitionFields.getTable(),
+                partitionFields.getPartitionName(),
+                partitionFields.getStorage(),
+                partitionFields.getPartitionKeys(),
+                addresses.build(),
+                readBucketNumber,
+                tableBucketNumber,
+                nodeSelectionStrategy,
+                partitionFields.getPartitionDataColumnCount(),
+                partitionFields.getTableToPartitionMapping(),
+                partitionFields.getBucketConversion(),
+                partitionFields.isS3SelectPushdownEnabled(),
+                partitionFields.getCacheQuotaRequirement(),
+                partitionFields.getEncryptionInformation(),
+                ImmutableSet.copyOf(partitionFields.getRedundantColumnDomains()),
+                SplitWeight.fromRawValue(splitWeight),
+                partitionFields.getRowIdPartitionComponent());
+    }
+
+    private static void writeString(SliceOutput output, String value)
+    {
+        Slice slice = utf8Slice(value);
+        output.writeInt(slice.length());
+        output.writeBytes(slice);
+    }
+
+    private static String readString(BasicSliceInput input)
+    {
+        return input.readSlice(input.readInt()).toStringUtf8();
+    }
+
+    private static void writeOptionalInt(SliceOutput output, OptionalInt value)
+    {
+        output.writeBoolean(value.isPresent());
+        output.writeInt(value.orElse(0));
+    }
+
+    private static OptionalInt readOptionalInt(BasicSliceInput input)
+    {
+        boolean present = input.readBoolean();
+        int value = input.readInt();
+        return present ? OptionalInt.of(value) : OptionalInt.empty();
+    }
+
+    /**
+     * Fields of {@link HiveSplit} which are the same for all the splits of a partition.
+     */
+    public static final class PartitionFields
+    {
+        private final String database;
+        private final String table;
+        private final String partitionName;
+        private final Storage storage;
+        private final List<HivePartitionKey> partitionKeys;
+        private final int partitionDataColumnCount;
+        private final TableToPartitionMapping tableToPartitionMapping;
+        private final Optional<BucketConversion> bucketConversion;
+        private final boolean s3SelectPushdownEnabled;
+        private final CacheQuotaRequirement cacheQuotaRequirement;
+        private final Optional<EncryptionInformation> encryptionInformation;
+        private final Set<HiveColumnHandle> redundantColumnDomains;
+        private final Optional<byte[]> rowIdPartitionComponent;
+
+        private PartitionFields(HiveSplit split)
+        {
+            this(
+                    split.getDatabase(),
+                    split.getTable(),
+                    split.getPartitionName(),
+                    split.getStorage(),
+                    split.getPartitionKeys(),
+                    split.getPartitionDataColumnCount(),
+                    split.getTableToPartitionMapping(),
+                    split.getBucketConversion(),
+                    split.isS3SelectPushdownEnabled(),
+                    split.getCacheQuotaRequirement(),
+                    split.getEncryptionInformation(),
+                    split.getRedundantColumnDomains().stream()
+                            .map(HiveColumnHandle.class::cast)
+                            .collect(toImmutableSet()),
+                    split.getRowIdPartitionComponent());
+        }
+
+        @JsonCreator
+        public PartitionFields(
+                @JsonProperty("database") String database,
+                @JsonProperty("table") String table,
+                @JsonProperty("partitionName") String partitionName,
+                @JsonProperty("storage") Storage storage,
+                @JsonProperty("partitionKeys") List<HivePartitionKey> partitionKeys,
+                @JsonProperty("partitionDataColumnCount") int partitionDataColumnCount,
+                @JsonProperty("tableToPartitionMapping") TableToPartitionMapping tableToPartitionMapping,
+                @JsonProperty("bucketConversion") Optional<BucketConversion> bucketConversion,
+                @JsonProperty("s3SelectPushdownEnabled") boolean s3SelectPushdownEnabled,
+                @JsonProperty("cacheQuota") CacheQuotaRequirement cacheQuotaRequirement,
+                @JsonProperty("encryptionMetadata") Optional<EncryptionInformation> encryptionInformation,
+                @JsonProperty("redundantColumnDomains") Set<HiveColumnHandle> redundantColumnDomains,
+                @JsonProperty("rowIdPartitionComponent") Optional<byte[]> rowIdPartitionComponent)
+        {
+            this.database = requireNonNull(database, "database is null");
+            this.table = requireNonNull(table, "table is null");
+            this.partitionName = requireNonNull(partitionName, "partitionName is null");
+            this.storage = requireNonNull(storage, "storage is null");
+            this.partitionKeys = ImmutableList.copyOf(requireNonNull(partitionKeys, "partitionKeys is null"));
+            this.partitionDataColumnCount = partitionDataColumnCount;
+            this.tableToPartitionMapping = requireNonNull(tableToPartitionMapping, "tableToPartitionMapping is null");
+            this.bucketConversion = requireNonNull(bucketConversion, "bucketConversion is null");
+            this.s3SelectPushdownEnabled = s3SelectPushdownEnabled;
+            this.cacheQuotaRequirement = requireNonNull(cacheQuotaRequirement, "cacheQuotaRequirement is null");
+            this.encryptionInformation = requireNonNull(encryptionInformation, "encryptionInformation is null");
+            this.redundantColumnDomains = ImmutableSet.copyOf(requireNonNull(redundantColumnDomains, "redundantColumnDomains is null"));
+            this.rowIdPartitionComponent = requireNonNull(rowIdPartitionComponent, "rowIdPartitionComponent is null");
+        }
+
+        @JsonProperty
+        public String getDatabase()
+        {
+            return database;
+        }
+
+        @JsonProperty
+        public String getTable()
+        {
+            return table;
+        }
+
+        @JsonProperty
+        public String getPartitionName()
+        {
+            return partitionName;
+        }
+
+        @JsonProperty
+        public Storage getStorage()
+        {
+            return storage;
+        }
+
+        @JsonProperty
+        public List<HivePartitionKey> getPartitionKeys()
+        {
+            return partitionKeys;
+        }
+
+        @JsonProperty
+        public int getPartitionDataColumnCount()
+        {
+            return partitionDataColumnCount;
+        }
+
+        @JsonProperty
+        public TableToPartitionMapping getTableToPartitionMapping()
+        {
+            return tableToPartitionMapping;
+        }
+
+        @JsonProperty
+        public Optional<BucketConversion> getBucketConversion()
+        {
+            return bucketConversion;
+        }
+
+        @JsonProperty
+        public boolean isS3SelectPushdownEnabled()
+        {
+            return s3SelectPushdownEnabled;
+        }
+
+        @JsonProperty("cacheQuota")
+        public CacheQuotaRequirement getCacheQuotaRequirement()
+        {
+            return cacheQuotaRequirement;
+        }
+
+        @JsonProperty("encryptionMetadata")
+        public Optional<EncryptionInformation> getEncryptionInformation()
+        {
+            return encryptionInformation;
+        }
+
+        @JsonProperty
+        public Set<HiveColumnHandle> getRedundantColumnDomains()
+        {
+            return redundantColumnDomains;
+        }
+
+        @JsonProperty
+        public Optional<byte[]> getRowIdPartitionComponent()
+        {
+            return rowIdPartitionComponent;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            PartitionFields that = (PartitionFields) o;
+            // TableToPartitionMapping is compared by identity, it is shared by the splits of a partition
+            return partitionDataColumnCount == that.partitionDataColumnCount &&
+                    s3SelectPushdownEnabled == that.s3SelectPushdownEnabled &&
+                    Objects.equals(database, that.database) &&
+                    Objects.equals(table, that.table) &&
+                    Objects.equals(partitionName, that.partitionName) &&
+                    Objects.equals(storage, that.storage) &&
+                    Objects.equals(partitionKeys, that.partitionKeys) &&
+                    tableToPartitionMapping == that.tableToPartitionMapping &&
+                    Objects.equals(bucketConversion, that.bucketConversion) &&
+                    Objects.equals(cacheQuotaRequirement, that.cacheQuotaRequirement) &&
+                    Objects.equals(encryptionInformation, that.encryptionInformation) &&
+                    Objects.equals(redundantColumnDomains, that.redundantColumnDomains) &&
+                    Arrays.equals(rowIdPartitionComponent.orElse(null), that.rowIdPartitionComponent.orElse(null));
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(
+                    database,
+                    table,
+                    partitionName,
+                    storage,
+                    partitionKeys,
+                    partitionDataColumnCount,
+                    System.identityHashCode(tableToPartitionMapping),
+                    bucketConversion,
+                    s3SelectPushdownEnabled,
+                    cacheQuotaRequirement,
+                    encryptionInformation,
+                    redundantColumnDomains,
+                    Arrays.hashCode(rowIdPartitionComponent.orElse(null)));
+        }
+    }
+}
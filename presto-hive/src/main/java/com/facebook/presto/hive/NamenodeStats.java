@@ -25,6 +25,8 @@ public class NamenodeStats
 {
     private final CallStats listLocatedStatus = new CallStats();
     private final CallStats remoteIteratorNext = new CallStats();
+    private final CounterStat listedPartitions = new CounterStat();
+    private final CounterStat addedSplitLoaders = new CounterStat();
 
     @Managed
     @Nested
@@ -40,6 +42,20 @@ public class NamenodeStats
         return remoteIteratorNext;
     }
 
+    @Managed
+    @Nested
+    public CounterStat getListedPartitions()
+    {
+        return listedPartitions;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getAddedSplitLoaders()
+    {
+        return addedSplitLoaders;
+    }
+
     public static class CallStats
     {
         private final TimeStat time = new TimeStat(TimeUnit.MILLISECONDS);
@@ -16,15 +16,23 @@ package com.facebook.presto.hive.orc;
 import com.facebook.airlift.units.DataSize;
 import com.facebook.presto.hive.FileFormatDataSourceStats;
 import com.facebook.presto.orc.AbstractOrcDataSource;
+import com.facebook.presto.orc.DiskRange;
 import com.facebook.presto.orc.OrcDataSourceId;
 import com.facebook.presto.spi.PrestoException;
+import com.google.common.collect.ImmutableMap;
 import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileRange;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
 
+import static com.facebook.airlift.concurrent.MoreFutures.getFutureValue;
 import static com.facebook.presto.hive.HiveErrorCode.HIVE_FILESYSTEM_ERROR;
 import static com.facebook.presto.hive.HiveErrorCode.HIVE_MISSING_DATA;
 import static com.facebook.presto.hive.HiveErrorCode.HIVE_UNKNOWN_ERROR;
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static java.lang.String.format;
 import static java.util.Objects.requireNonNull;
 
@@ -79,4 +87,49 @@ public class HdfsOrcDataSource
             throw new PrestoException(HIVE_UNKNOWN_ERROR, message, e);
         }
     }
+
+    @Override
+    protected Map<DiskRange, byte[]> readInternal(List<DiskRange> diskRanges)
+    {
+        if (diskRanges.size() == 1) {
+            DiskRange diskRange = diskRanges.get(0);
+            byte[] buffer = new byte[diskRange.getLength()];
+            readInternal(diskRange.getOffset(), buffer, 0, buffer.length);
+            return ImmutableMap.of(diskRange, buffer);
+        }
+
+        // file systems which support vectored reads, such as S3, fetch the ranges in parallel
+        List<FileRange> fileRanges = diskRanges.stream()
+                .map(diskRange -> FileRange.createFileRange(diskRange.getOffset(), diskRange.getLength()))
+                .collect(toImmutableList());
+        try {
+            long readStart = System.nanoTime();
+            inputStream.readVectored(fileRanges, ByteBuffer::allocate);
+            ImmutableMap.Builder<DiskRange, byte[]> buffers = ImmutableMap.builder();
+            long bytes = 0;
+            for (int i = 0; i < diskRanges.size(); i++) {
+                ByteBuffer data = getFutureValue(fileRanges.get(i).getData(), IOException.class);
+                byte[] buffer = new byte[diskRanges.get(i).getLength()];
+                data.get(buffer);
+                buffers.put(diskRanges.get(i), buffer);
+                bytes += buffer.length;
+            }
+            stats.readDataBytesPerSecond(bytes, System.nanoTime() - readStart);
+            return buffers.build();
+        }
+        catch (PrestoException e) {
+            // just in case there is a Presto wrapper or hook
+            throw e;
+        }
+        catch (Exception e) {
+            String message = format("Error reading from %s at positions %s. ", this, diskRanges);
+            if (e.getClass().getSimpleName().equals("BlockMissingException")) {
+                throw new PrestoException(HIVE_MISSING_DATA, message, e);
+            }
+            if (e instanceof IOException) {
+                throw new PrestoException(HIVE_FILESYSTEM_ERROR, message + e.getMessage(), e);
+            }
+            throw new PrestoException(HIVE_UNKNOWN_ERROR, message, e);
+        }
+    }
 }
@@ -61,6 +61,9 @@ public class HiveS3Config
     private PrestoS3AclType s3AclType = PrestoS3AclType.PRIVATE;
     private boolean skipGlacierObjects;
     private boolean s3WebIdentityEnabled;
+    private DataSize s3RangeReadMaxMergeDistance = new DataSize(1, MEGABYTE);
+    private DataSize s3RangeReadMaxMergedSize = new DataSize(8, MEGABYTE);
+    private int s3RangeReadMaxConcurrency = 8;
 
     public boolean isS3WebIdentityEnabled()
     {
@@ -461,4 +464,47 @@ public class HiveS3Config
         this.skipGlacierObjects = skipGlacierObjects;
         return this;
     }
+
+    @NotNull
+    public DataSize getS3RangeReadMaxMergeDistance()
+    {
+        return s3RangeReadMaxMergeDistance;
+    }
+
+    @Config("hive.s3.range-read.merge-distance")
+    @ConfigDescription("Maximum gap between byte ranges read together which are merged into a single S3 request")
+    public HiveS3Config setS3RangeReadMaxMergeDistance(DataSize s3RangeReadMaxMergeDistance)
+    {
+        this.s3RangeReadMaxMergeDistance = s3RangeReadMaxMergeDistance;
+        return this;
+    }
+
+    @NotNull
+    @MinDataSize("1B")
+    public DataSize getS3RangeReadMaxMergedSize()
+    {
+        return s3RangeReadMaxMergedSize;
+    }
+
+    @Config("hive.s3.range-read.max-size")
+    @ConfigDescription("Maximum size of a single S3 request for byte ranges merged together")
+    public HiveS3Config setS3RangeReadMaxMergedSize(DataSize s3RangeReadMaxMergedSize)
+    {
+        this.s3RangeReadMaxMergedSize = s3RangeReadMaxMergedSize;
+        return this;
+    }
+
+    @Min(1)
+    public int getS3RangeReadMaxConcurrency()
+    {
+        return s3RangeReadMaxConcurrency;
+    }
+
+    @Config("hive.s3.range-read.concurrency")
+    @ConfigDescription("Maximum number of concurrent S3 requests for the byte ranges read together from a file")
+    public HiveS3Config setS3RangeReadMaxConcurrency(int s3RangeReadMaxConcurrency)
+    {
+        this.s3RangeReadMaxConcurrency = s3RangeReadMaxConcurrency;
+        return this;
+    }
 }
@@ -52,6 +52,9 @@ public class PrestoS3ConfigurationUpdater
     private final PrestoS3AclType aclType;
     private boolean skipGlacierObjects;
     private final boolean webIdentityEnabled;
+    private final DataSize rangeReadMaxMergeDistance;
+    private final DataSize rangeReadMaxMergedSize;
+    private final int rangeReadMaxConcurrency;
 
     @Inject
     public PrestoS3ConfigurationUpdater(HiveS3Config config)
@@ -85,6 +88,9 @@ public class PrestoS3ConfigurationUpdater
         this.aclType = config.getS3AclType();
         this.skipGlacierObjects = config.isSkipGlacierObjects();
         this.webIdentityEnabled = config.isS3WebIdentityEnabled();
+        this.rangeReadMaxMergeDistance = config.getS3RangeReadMaxMergeDistance();
+        this.rangeReadMaxMergedSize = config.getS3RangeReadMaxMergedSize();
+        this.rangeReadMaxConcurrency = config.getS3RangeReadMaxConcurrency();
     }
 
     @Override
@@ -140,5 +146,8 @@ public class PrestoS3ConfigurationUpdater
         config.set(S3_USER_AGENT_PREFIX, userAgentPrefix);
         config.set(S3_ACL_TYPE, aclType.name());
         config.setBoolean(S3_SKIP_GLACIER_OBJECTS, skipGlacierObjects);
+        config.setLong(S3_RANGE_READ_MAX_MERGE_DISTANCE, rangeReadMaxMergeDistance.toBytes());
+        config.setLong(S3_RANGE_READ_MAX_MERGED_SIZE, rangeReadMaxMergedSize.toBytes());
+        config.setInt(S3_RANGE_READ_MAX_CONCURRENCY, rangeReadMaxConcurrency);
     }
 }
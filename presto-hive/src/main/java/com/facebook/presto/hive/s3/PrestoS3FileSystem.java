@@ -53,6 +53,7 @@ import com.amazonaws.services.s3.transfer.Transfer;
 import com.amazonaws.services.s3.transfer.TransferManager;
 import com.amazonaws.services.s3.transfer.TransferManagerBuilder;
 import com.amazonaws.services.s3.transfer.Upload;
+import com.facebook.airlift.concurrent.BoundedExecutor;
 import com.facebook.airlift.log.Logger;
 import com.facebook.airlift.units.DataSize;
 import com.facebook.airlift.units.Duration;
@@ -70,6 +71,7 @@ import org.apache.hadoop.fs.BufferedFSInputStream;
 import org.apache.hadoop.fs.FSDataInputStream;
 import org.apache.hadoop.fs.FSDataOutputStream;
 import org.apache.hadoop.fs.FSInputStream;
+import org.apache.hadoop.fs.FileRange;
 import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.LocatedFileStatus;
 import org.apache.hadoop.fs.Path;
@@ -89,6 +91,7 @@ import java.io.InputStream;
 import java.io.InterruptedIOException;
 import java.io.UncheckedIOException;
 import java.net.URI;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Date;
@@ -98,13 +101,17 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntFunction;
 
 import static com.amazonaws.regions.Regions.US_EAST_1;
 import static com.amazonaws.services.s3.Headers.SERVER_SIDE_ENCRYPTION;
 import static com.amazonaws.services.s3.Headers.UNENCRYPTED_CONTENT_LENGTH;
 import static com.amazonaws.services.s3.model.StorageClass.DeepArchive;
 import static com.amazonaws.services.s3.model.StorageClass.Glacier;
+import static com.facebook.airlift.concurrent.Threads.daemonThreadsNamed;
+import static com.facebook.airlift.units.DataSize.Unit.BYTE;
 import static com.facebook.airlift.units.DataSize.Unit.MEGABYTE;
 import static com.facebook.presto.hive.RetryDriver.retry;
 import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_ACCESS_KEY;
@@ -125,6 +132,9 @@ import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_MULTIPART_MI
 import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_MULTIPART_MIN_PART_SIZE;
 import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_PATH_STYLE_ACCESS;
 import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_PIN_CLIENT_TO_CURRENT_REGION;
+import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_RANGE_READ_MAX_CONCURRENCY;
+import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_RANGE_READ_MAX_MERGED_SIZE;
+import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_RANGE_READ_MAX_MERGE_DISTANCE;
 import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_SECRET_KEY;
 import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_SIGNER_TYPE;
 import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_SKIP_GLACIER_OBJECTS;
@@ -156,6 +166,7 @@ import static java.net.HttpURLConnection.HTTP_NOT_FOUND;
 import static java.nio.file.Files.createDirectories;
 import static java.nio.file.Files.createTempFile;
 import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.Executors.newCachedThreadPool;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.apache.hadoop.fs.FSExceptionMessages.CANNOT_SEEK_PAST_EOF;
 import static org.apache.hadoop.fs.FSExceptionMessages.NEGATIVE_SEEK;
@@ -176,6 +187,9 @@ public class PrestoS3FileSystem
     private static final MediaType X_DIRECTORY_MEDIA_TYPE = MediaType.create("application", "x-directory");
     private static final MediaType OCTET_STREAM_MEDIA_TYPE = MediaType.create("application", "octet-stream");
     private static final Set<String> GLACIER_STORAGE_CLASSES = ImmutableSet.of(Glacier.toString(), DeepArchive.toString());
+    private static final int MAX_RANGE_READ_THREADS = 64;
+    // shared by all file system instances to bound the range read threads of the process
+    private static final Executor RANGE_READ_EXECUTOR = new BoundedExecutor(newCachedThreadPool(daemonThreadsNamed("s3-range-read-%s")), MAX_RANGE_READ_THREADS);
 
     private URI uri;
     private Path workingDirectory;
@@ -199,6 +213,7 @@ public class PrestoS3FileSystem
     private boolean skipGlacierObjects;
     private PrestoS3StorageClass s3StorageClass;
     private boolean webIdentityEnabled;
+    private RangeReadPlanner rangeReadPlanner;
 
     @Override
     public void initialize(URI uri, Configuration conf)
@@ -241,6 +256,11 @@ public class PrestoS3FileSystem
         this.skipGlacierObjects = conf.getBoolean(S3_SKIP_GLACIER_OBJECTS, defaults.isSkipGlacierObjects());
         this.s3StorageClass = conf.getEnum(S3_STORAGE_CLASS, defaults.getS3StorageClass());
         this.webIdentityEnabled = conf.getBoolean(S3_WEB_IDENTITY_ENABLED, false);
+        this.rangeReadPlanner = new RangeReadPlanner(
+                RANGE_READ_EXECUTOR,
+                new DataSize(conf.getLong(S3_RANGE_READ_MAX_MERGE_DISTANCE, defaults.getS3RangeReadMaxMergeDistance().toBytes()), BYTE),
+                new DataSize(conf.getLong(S3_RANGE_READ_MAX_MERGED_SIZE, defaults.getS3RangeReadMaxMergedSize().toBytes()), BYTE),
+                conf.getInt(S3_RANGE_READ_MAX_CONCURRENCY, defaults.getS3RangeReadMaxConcurrency()));
         checkArgument(!(webIdentityEnabled && isNullOrEmpty(s3IamRole)), "Invalid configuration: hive.s3.iam-role must be provided when hive.s3.web.identity.auth.enabled is set to true");
         ClientConfiguration configuration = new ClientConfiguration()
                 .withMaxErrorRetry(maxErrorRetries)
@@ -421,7 +441,14 @@ public class PrestoS3FileSystem
     {
         return new FSDataInputStream(
                 new BufferedFSInputStream(
-                        new PrestoS3InputStream(s3, getBucketName(uri), path, maxAttempts, maxBackoffTime, maxRetryTime),
+                        new PrestoS3InputStream(
+                                s3,
+                                getBucketName(uri),
+                                path,
+                                maxAttempts,
+                                maxBackoffTime,
+                                maxRetryTime,
+                                rangeReadPlanner),
                         bufferSize));
     }
 
@@ -953,6 +980,7 @@ public class PrestoS3FileSystem
         private final int maxAttempts;
         private final Duration maxBackoffTime;
         private final Duration maxRetryTime;
+        private final RangeReadPlanner rangeReadPlanner;
 
         private final AtomicBoolean closed = new AtomicBoolean();
 
@@ -960,7 +988,7 @@ public class PrestoS3FileSystem
         private long streamPosition;
         private long nextReadPosition;
 
-        public PrestoS3InputStream(AmazonS3 s3, String host, Path path, int maxAttempts, Duration maxBackoffTime, Duration maxRetryTime)
+        public PrestoS3InputStream(AmazonS3 s3, String host, Path path, int maxAttempts, Duration maxBackoffTime, Duration maxRetryTime, RangeReadPlanner rangeReadPlanner)
         {
             this.s3 = requireNonNull(s3, "s3 is null");
             this.host = requireNonNull(host, "host is null");
@@ -970,6 +998,7 @@ public class PrestoS3FileSystem
             this.maxAttempts = maxAttempts;
             this.maxBackoffTime = requireNonNull(maxBackoffTime, "maxBackoffTime is null");
             this.maxRetryTime = requireNonNull(maxRetryTime, "maxRetryTime is null");
+            this.rangeReadPlanner = requireNonNull(rangeReadPlanner, "rangeReadPlanner is null");
         }
 
         @Override
@@ -979,6 +1008,14 @@ public class PrestoS3FileSystem
             closeStream();
         }
 
+        @Override
+        public void readVectored(List<? extends FileRange> ranges, IntFunction<ByteBuffer> allocate)
+                throws IOException
+        {
+            checkClosed();
+            rangeReadPlanner.readRanges(this, ranges, allocate);
+        }
+
         @Override
         public int read(long position, byte[] buffer, int offset, int length)
                 throws IOException
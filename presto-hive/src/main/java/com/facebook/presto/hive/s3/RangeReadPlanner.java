@@ -0,0 +1,106 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive.s3;
+
+import com.facebook.airlift.concurrent.BoundedExecutor;
+import com.facebook.airlift.units.DataSize;
+import com.facebook.presto.orc.DiskRange;
+import org.apache.hadoop.fs.FileRange;
+import org.apache.hadoop.fs.PositionedReadable;
+
+import java.io.EOFException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.IntFunction;
+
+import static com.facebook.presto.orc.OrcDataSourceUtils.mergeAdjacentDiskRanges;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static java.util.Objects.requireNonNull;
+import static org.apache.hadoop.fs.FSExceptionMessages.NEGATIVE_SEEK;
+
+/**
+ * Reads many byte ranges of an object with few requests. Ranges close to each other are merged into one
+ * ranged GET, and the merged ranges are fetched in parallel, so a reader asking for many small column
+ * streams pays for a few round trips instead of one per stream.
+ */
+class RangeReadPlanner
+{
+    private final Executor executor;
+    private final DataSize maxMergeDistance;
+    private final DataSize maxMergedSize;
+    private final int maxConcurrency;
+
+    public RangeReadPlanner(Executor executor, DataSize maxMergeDistance, DataSize maxMergedSize, int maxConcurrency)
+    {
+        checkArgument(maxConcurrency > 0, "maxConcurrency must be positive");
+        this.executor = requireNonNull(executor, "executor is null");
+        this.maxMergeDistance = requireNonNull(maxMergeDistance, "maxMergeDistance is null");
+        this.maxMergedSize = requireNonNull(maxMergedSize, "maxMergedSize is null");
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * Starts reading the ranges from {@code input}, and completes the data future of every range once its
+     * bytes are read. The positioned reads of {@code input} must be safe to call concurrently.
+     */
+    public void readRanges(PositionedReadable input, List<? extends FileRange> ranges, IntFunction<ByteBuffer> allocate)
+            throws EOFException
+    {
+        for (FileRange range : ranges) {
+            if (range.getOffset() < 0) {
+                throw new EOFException(NEGATIVE_SEEK);
+            }
+        }
+        for (FileRange range : ranges) {
+            range.setData(new CompletableFuture<>());
+            if (range.getLength() == 0) {
+                range.getData().complete(allocate.apply(0));
+            }
+        }
+
+        List<DiskRange> diskRanges = ranges.stream()
+                .filter(range -> range.getLength() > 0)
+                .map(range -> new DiskRange(range.getOffset(), range.getLength()))
+                .distinct()
+                .collect(toImmutableList());
+        Executor boundedExecutor = new BoundedExecutor(executor, maxConcurrency);
+        for (DiskRange mergedRange : mergeAdjacentDiskRanges(diskRanges, maxMergeDistance, maxMergedSize)) {
+            List<FileRange> contained = ranges.stream()
+                    .filter(range -> range.getLength() > 0)
+                    .filter(range -> mergedRange.contains(new DiskRange(range.getOffset(), range.getLength())))
+                    .collect(toImmutableList());
+            boundedExecutor.execute(() -> readMergedRange(input, mergedRange, contained, allocate));
+        }
+    }
+
+    private static void readMergedRange(PositionedReadable input, DiskRange mergedRange, List<FileRange> ranges, IntFunction<ByteBuffer> allocate)
+    {
+        try {
+            byte[] buffer = new byte[mergedRange.getLength()];
+            input.readFully(mergedRange.getOffset(), buffer, 0, buffer.length);
+            for (FileRange range : ranges) {
+                ByteBuffer data = allocate.apply(range.getLength());
+                data.put(buffer, (int) (range.getOffset() - mergedRange.getOffset()), range.getLength());
+                data.flip();
+                range.getData().complete(data);
+            }
+        }
+        catch (Throwable t) {
+            ranges.forEach(range -> range.getData().completeExceptionally(t));
+        }
+    }
+}
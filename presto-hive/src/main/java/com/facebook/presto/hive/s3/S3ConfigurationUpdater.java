@@ -49,6 +49,9 @@ public interface S3ConfigurationUpdater
     String S3_ACL_TYPE = "presto.s3.upload-acl-type";
     String S3_SKIP_GLACIER_OBJECTS = "presto.s3.skip-glacier-objects";
     String S3_STORAGE_CLASS = "presto.s3.storage-class";
+    String S3_RANGE_READ_MAX_MERGE_DISTANCE = "presto.s3.range-read.merge-distance";
+    String S3_RANGE_READ_MAX_MERGED_SIZE = "presto.s3.range-read.max-size";
+    String S3_RANGE_READ_MAX_CONCURRENCY = "presto.s3.range-read.concurrency";
 
     void updateConfiguration(Configuration config);
 }
@@ -61,6 +61,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
@@ -89,6 +90,7 @@ import static com.facebook.presto.spi.connector.NotPartitionedPartitionHandle.NO
 import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import static io.airlift.slice.Slices.utf8Slice;
+import static java.util.Collections.nCopies;
 import static java.util.concurrent.Executors.newCachedThreadPool;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertThrows;
@@ -140,6 +142,77 @@ public class TestBackgroundHiveSplitLoader
         assertEquals(drain(hiveSplitSource).size(), 2);
     }
 
+    @Test
+    public void testAddsLoadersWhileListing()
+            throws Exception
+    {
+        NamenodeStats namenodeStats = new NamenodeStats();
+        BackgroundHiveSplitLoader backgroundHiveSplitLoader = backgroundHiveSplitLoaderForListing(namenodeStats, EXECUTOR);
+
+        // the split queue has room for every split, so listing is never held back by split scheduling
+        HiveSplitSource hiveSplitSource = hiveSplitSourceForListing(backgroundHiveSplitLoader, EXECUTOR);
+        backgroundHiveSplitLoader.start(hiveSplitSource);
+
+        assertEquals(drain(hiveSplitSource).size(), 20);
+        assertEquals(namenodeStats.getListedPartitions().getTotalCount(), 10);
+        long addedLoaders = namenodeStats.getAddedSplitLoaders().getTotalCount();
+        assertTrue(addedLoaders <= 3, "unexpected number of added loaders: " + addedLoaders);
+    }
+
+    @Test
+    public void testNoLoadersAddedWhileSplitsAreQueued()
+            throws Exception
+    {
+        NamenodeStats namenodeStats = new NamenodeStats();
+        BackgroundHiveSplitLoader backgroundHiveSplitLoader = backgroundHiveSplitLoaderForListing(namenodeStats, directExecutor());
+
+        // nothing is scheduled until all partitions are listed, so the split queue never runs empty
+        HiveSplitSource hiveSplitSource = hiveSplitSourceForListing(backgroundHiveSplitLoader, directExecutor());
+        backgroundHiveSplitLoader.start(hiveSplitSource);
+
+        assertEquals(namenodeStats.getListedPartitions().getTotalCount(), 10);
+        assertEquals(namenodeStats.getAddedSplitLoaders().getTotalCount(), 0);
+        assertEquals(drain(hiveSplitSource).size(), 20);
+    }
+
+    private static BackgroundHiveSplitLoader backgroundHiveSplitLoaderForListing(NamenodeStats namenodeStats, Executor executor)
+    {
+        ConnectorSession connectorSession = new TestingConnectorSession(getAllSessionProperties(
+                new HiveClientConfig().setMaxSplitSize(new DataSize(1.0, GIGABYTE)),
+                new HiveCommonClientConfig()));
+        return new BackgroundHiveSplitLoader(
+                SIMPLE_TABLE,
+                nCopies(10, samplePartitionMetadatas().get(0)),
+                ImmutableMap.of(),
+                createBucketSplitInfo(Optional.empty(), Optional.empty()),
+                connectorSession,
+                new TestingHdfsEnvironment(TEST_FILES),
+                namenodeStats,
+                new CachingDirectoryLister(new HadoopDirectoryLister(), new HiveClientConfig()),
+                executor,
+                1,
+                4,
+                false,
+                false,
+                false);
+    }
+
+    private static HiveSplitSource hiveSplitSourceForListing(BackgroundHiveSplitLoader backgroundHiveSplitLoader, Executor executor)
+    {
+        return HiveSplitSource.allAtOnce(
+                SESSION,
+                SIMPLE_TABLE.getDatabaseName(),
+                SIMPLE_TABLE.getTableName(),
+                new CacheQuotaRequirement(GLOBAL, Optional.empty()),
+                1,
+                100,
+                new DataSize(32, MEGABYTE),
+                backgroundHiveSplitLoader,
+                executor,
+                new CounterStat(),
+                1);
+    }
+
     @Test
     public void testPathFilter()
             throws Exception
@@ -536,6 +609,7 @@ public class TestBackgroundHiveSplitLoader
                 new CachingDirectoryLister(new HadoopDirectoryLister(), new HiveClientConfig()),
                 EXECUTOR,
                 2,
+                2,
                 false,
                 false,
                 false);
@@ -571,6 +645,7 @@ public class TestBackgroundHiveSplitLoader
                 directoryLister,
                 EXECUTOR,
                 2,
+                2,
                 false,
                 false,
                 false);
@@ -593,6 +668,7 @@ public class TestBackgroundHiveSplitLoader
                 new CachingDirectoryLister(new HadoopDirectoryLister(), new HiveClientConfig()),
                 directExecutor(),
                 2,
+                2,
                 false,
                 false,
                 false);
@@ -0,0 +1,184 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive;
+
+import com.facebook.airlift.units.DataSize;
+import com.facebook.airlift.units.Duration;
+import com.facebook.presto.common.RuntimeStats;
+import com.facebook.presto.hive.filesystem.ExtendedFileSystem;
+import com.facebook.presto.spi.security.ConnectorIdentity;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.HadoopExtendedFileSystem;
+import org.apache.hadoop.fs.LocalFileSystem;
+import org.apache.hadoop.fs.Path;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.facebook.airlift.units.DataSize.Unit.KILOBYTE;
+import static com.facebook.presto.hive.NestedDirectoryPolicy.IGNORED;
+import static com.facebook.presto.hive.NestedDirectoryPolicy.RECURSE;
+import static com.facebook.presto.hive.TestBackgroundHiveSplitLoader.SIMPLE_TABLE;
+import static com.google.common.io.MoreFiles.deleteRecursively;
+import static com.google.common.io.RecursiveDeleteOption.ALLOW_INSECURE;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+@Test(singleThreaded = true)
+public class TestCachingDirectoryLister
+{
+    private java.nio.file.Path directory;
+    private ExtendedFileSystem fileSystem;
+
+    @BeforeMethod
+    public void setUp()
+            throws IOException
+    {
+        directory = Files.createTempDirectory("test-caching-directory-lister");
+        LocalFileSystem localFileSystem = new LocalFileSystem();
+        localFileSystem.initialize(URI.create("file:///"), new Configuration());
+        fileSystem = new HadoopExtendedFileSystem(localFileSystem);
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown()
+            throws IOException
+    {
+        fileSystem.close();
+        deleteRecursively(directory, ALLOW_INSECURE);
+    }
+
+    @Test
+    public void testValidateDirectoryModificationTime()
+            throws IOException
+    {
+        CachingDirectoryLister validatingLister = cachingDirectoryLister(true, Optional.empty());
+        CachingDirectoryLister lister = cachingDirectoryLister(false, Optional.empty());
+        createFile("a");
+
+        assertEquals(list(validatingLister, IGNORED), ImmutableSet.of("a"));
+        assertEquals(list(lister, IGNORED), ImmutableSet.of("a"));
+        assertEquals(list(validatingLister, IGNORED), ImmutableSet.of("a"));
+        assertEquals(validatingLister.getHitCount(), 1);
+
+        // adding a file changes the modification time of the directory
+        long modificationTime = directory.toFile().lastModified();
+        createFile("b");
+        assertTrue(directory.toFile().setLastModified(modificationTime + 10_000));
+
+        // the stale listing is dropped, and the directory is listed again
+        assertEquals(list(validatingLister, IGNORED), ImmutableSet.of("a", "b"));
+        assertEquals(validatingLister.getSize(), 1);
+        assertEquals(list(validatingLister, IGNORED), ImmutableSet.of("a", "b"));
+
+        // without the validation the stale listing is used
+        assertEquals(list(lister, IGNORED), ImmutableSet.of("a"));
+    }
+
+    @Test
+    public void testRecursiveListingNotCachedWhenValidated()
+            throws IOException
+    {
+        CachingDirectoryLister validatingLister = cachingDirectoryLister(true, Optional.empty());
+        CachingDirectoryLister lister = cachingDirectoryLister(false, Optional.empty());
+        Files.createDirectory(directory.resolve("nested"));
+        createFile("nested/a");
+
+        assertEquals(list(validatingLister, RECURSE), ImmutableSet.of("a"));
+        assertEquals(list(lister, RECURSE), ImmutableSet.of("a"));
+        assertEquals(validatingLister.getSize(), 0);
+        assertEquals(lister.getSize(), 1);
+
+        // a file added to the subdirectory does not change the modification time of the listed directory
+        createFile("nested/b");
+        assertEquals(list(validatingLister, RECURSE), ImmutableSet.of("a", "b"));
+        assertEquals(validatingLister.getSize(), 0);
+    }
+
+    @Test
+    public void testPersistentFile()
+            throws IOException
+    {
+        File persistentFile = directory.resolve("cache.bin").toFile();
+        Files.createDirectory(directory.resolve("table"));
+        createFile("table/a");
+        createFile("table/b");
+
+        CachingDirectoryLister lister = cachingDirectoryLister(false, Optional.of(persistentFile));
+        assertEquals(list(lister, new Path(directory.resolve("table").toUri()), IGNORED), ImmutableSet.of("a", "b"));
+        lister.saveCache();
+
+        // the saved listing is used after a restart, without listing the directory again
+        createFile("table/c");
+        CachingDirectoryLister restartedLister = cachingDirectoryLister(false, Optional.of(persistentFile));
+        assertEquals(restartedLister.getSize(), 1);
+        assertEquals(list(restartedLister, new Path(directory.resolve("table").toUri()), IGNORED), ImmutableSet.of("a", "b"));
+        assertEquals(restartedLister.getHitCount(), 1);
+        assertEquals(restartedLister.getMissCount(), 0);
+    }
+
+    private static CachingDirectoryLister cachingDirectoryLister(boolean validateDirectoryModificationTime, Optional<File> persistentFile)
+    {
+        return new CachingDirectoryLister(
+                new HadoopDirectoryLister(),
+                new Duration(5, MINUTES),
+                new DataSize(100, KILOBYTE),
+                ImmutableList.of("*"),
+                validateDirectoryModificationTime,
+                persistentFile);
+    }
+
+    private void createFile(String name)
+            throws IOException
+    {
+        Files.write(directory.resolve(name), new byte[] {1});
+    }
+
+    private Set<String> list(CachingDirectoryLister lister, NestedDirectoryPolicy nestedDirectoryPolicy)
+    {
+        return list(lister, new Path(directory.toUri()), nestedDirectoryPolicy);
+    }
+
+    /**
+     * Lists the directory to the end, so that the listing is cached, and returns the names of the listed files.
+     */
+    private Set<String> list(CachingDirectoryLister lister, Path path, NestedDirectoryPolicy nestedDirectoryPolicy)
+    {
+        HiveDirectoryContext hiveDirectoryContext = new HiveDirectoryContext(
+                nestedDirectoryPolicy,
+                true,
+                false,
+                new ConnectorIdentity("test", Optional.empty(), Optional.empty()),
+                ImmutableMap.of(),
+                new RuntimeStats());
+        ImmutableSet.Builder<String> names = ImmutableSet.builder();
+        Iterator<HiveFileInfo> files = lister.list(fileSystem, SIMPLE_TABLE, path, Optional.empty(), new NamenodeStats(), hiveDirectoryContext);
+        while (files.hasNext()) {
+            names.add(new Path(files.next().getPath()).getName());
+        }
+        return names.build();
+    }
+}
@@ -24,6 +24,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import org.testng.annotations.Test;
 
+import java.io.File;
 import java.time.ZoneId;
 import java.util.Map;
 import java.util.TimeZone;
@@ -59,6 +60,7 @@ public class TestHiveClientConfig
                 .setMaxInitialSplits(200)
                 .setMaxInitialSplitSize(new DataSize(32, Unit.MEGABYTE))
                 .setSplitLoaderConcurrency(4)
+                .setMaxSplitLoaderConcurrency(4)
                 .setDomainCompactionThreshold(100)
                 .setMaxConcurrentFileRenames(20)
                 .setMaxConcurrentZeroRowFileCreations(20)
@@ -123,6 +125,8 @@ public class TestHiveClientConfig
                 .setFileStatusCacheExpireAfterWrite(new Duration(0, TimeUnit.SECONDS))
                 .setFileStatusCacheMaxRetainedSize(new DataSize(0, KILOBYTE))
                 .setFileStatusCacheTables("")
+                .setFileStatusCacheValidateDirectoryModificationTime(false)
+                .setFileStatusCachePersistentFile(null)
                 .setPageFileStripeMaxSize(new DataSize(24, Unit.MEGABYTE))
                 .setBucketFunctionTypeForExchange(HIVE_COMPATIBLE)
                 .setBucketFunctionTypeForCteMaterialization(PRESTO_NATIVE)
@@ -193,6 +197,7 @@ public class TestHiveClientConfig
                 .put("hive.max-initial-splits", "10")
                 .put("hive.max-initial-split-size", "16MB")
                 .put("hive.split-loader-concurrency", "1")
+                .put("hive.max-split-loader-concurrency", "2")
                 .put("hive.domain-compaction-threshold", "42")
                 .put("hive.recursive-directories", "true")
                 .put("hive.storage-format", "SEQUENCEFILE")
@@ -250,6 +255,8 @@ public class TestHiveClientConfig
                 .put("hive.file-status-cache-tables", "foo.bar1, foo.bar2")
                 .put("hive.file-status-cache.max-retained-size", "500MB")
                 .put("hive.file-status-cache-expire-time", "30m")
+                .put("hive.file-status-cache.validate-modification-time", "true")
+                .put("hive.file-status-cache.persistent-file", "/tmp/directory-listing-cache")
                 .put("hive.pagefile.writer.stripe-max-size", "1kB")
                 .put("hive.bucket-function-type-for-exchange", "PRESTO_NATIVE")
                 .put("hive.bucket-function-type-for-cte-materialization", "HIVE_COMPATIBLE")
@@ -310,6 +317,7 @@ public class TestHiveClientConfig
                 .setMaxInitialSplits(10)
                 .setMaxInitialSplitSize(new DataSize(16, Unit.MEGABYTE))
                 .setSplitLoaderConcurrency(1)
+                .setMaxSplitLoaderConcurrency(2)
                 .setDomainCompactionThreshold(42)
                 .setMaxConcurrentFileRenames(100)
                 .setMaxConcurrentZeroRowFileCreations(100)
@@ -373,6 +381,8 @@ public class TestHiveClientConfig
                 .setFileStatusCacheTables("foo.bar1,foo.bar2")
                 .setFileStatusCacheMaxRetainedSize((new DataSize(500, MEGABYTE)))
                 .setFileStatusCacheExpireAfterWrite(new Duration(30, TimeUnit.MINUTES))
+                .setFileStatusCacheValidateDirectoryModificationTime(true)
+                .setFileStatusCachePersistentFile(new File("/tmp/directory-listing-cache"))
                 .setPageFileStripeMaxSize(new DataSize(1, Unit.KILOBYTE))
                 .setBucketFunctionTypeForExchange(PRESTO_NATIVE)
                 .setBucketFunctionTypeForCteMaterialization(HIVE_COMPATIBLE)
@@ -0,0 +1,175 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive;
+
+import com.facebook.presto.hive.metastore.Column;
+import com.facebook.presto.hive.metastore.Storage;
+import com.facebook.presto.hive.metastore.StorageFormat;
+import com.facebook.presto.spi.ColumnHandle;
+import com.facebook.presto.spi.HostAddress;
+import com.facebook.presto.spi.SplitWeight;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import org.testng.annotations.Test;
+
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
+
+import static com.facebook.airlift.json.smile.SmileCodec.smileCodec;
+import static com.facebook.presto.hive.BaseHiveColumnHandle.ColumnType.REGULAR;
+import static com.facebook.presto.hive.CacheQuotaRequirement.NO_CACHE_REQUIREMENT;
+import static com.facebook.presto.hive.HiveType.HIVE_LONG;
+import static com.facebook.presto.hive.HiveType.HIVE_STRING;
+import static com.facebook.presto.spi.schedule.NodeSelectionStrategy.SOFT_AFFINITY;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+
+public class TestHiveSplitCodec
+{
+    private static final Storage STORAGE = new Storage(
+            StorageFormat.create("serde", "input", "output"),
+            "location",
+            Optional.empty(),
+            false,
+            ImmutableMap.of(),
+            ImmutableMap.of());
+    private static final TableToPartitionMapping TABLE_TO_PARTITION_MAPPING = TableToPartitionMapping.mapColumnsByIndex(
+            ImmutableMap.of(1, new Column("name", HIVE_STRING, Optional.empty(), Optional.empty())));
+    private static final Set<ColumnHandle> REDUNDANT_COLUMN_DOMAINS = ImmutableSet.of(new HiveColumnHandle(
+            "test_column",
+            HIVE_LONG,
+            HIVE_LONG.getTypeSignature(),
+            5,
+            REGULAR,
+            Optional.empty(),
+            ImmutableList.of(),
+            Optional.empty()));
+
+    private final HiveSplitCodec codec = new HiveSplitCodec(smileCodec(HiveSplitCodec.PartitionFields.class));
+
+    @Test
+    public void testRoundTrip()
+    {
+        HiveSplit expected = createSplit(
+                new HiveFileSplit("path", 42, 87, 88, 1234, Optional.of(new byte[] {1, 2, 3}), ImmutableMap.of("key", "value"), 3),
+                OptionalInt.of(7));
+        HiveSplit actual = (HiveSplit) codec.deserialize(codec.serialize(expected));
+
+        assertEquals(actual.getDatabase(), expected.getDatabase());
+        assertEquals(actual.getTable(), expected.getTable());
+        assertEquals(actual.getPartitionName(), expected.getPartitionName());
+        assertEquals(actual.getFileSplit().getPath(), expected.getFileSplit().getPath());
+        assertEquals(actual.getFileSplit().getStart(), expected.getFileSplit().getStart());
+        assertEquals(actual.getFileSplit().getLength(), expected.getFileSplit().getLength());
+        assertEquals(actual.getFileSplit().getFileSize(), expected.getFileSplit().getFileSize());
+        assertEquals(actual.getFileSplit().getFileModifiedTime(), expected.getFileSplit().getFileModifiedTime());
+        assertEquals(actual.getFileSplit().getExtraFileInfo().get(), expected.getFileSplit().getExtraFileInfo().get());
+        assertEquals(actual.getFileSplit().getCustomSplitInfo(), expected.getFileSplit().getCustomSplitInfo());
+        assertEquals(actual.getFileSplit().getAffinitySchedulingFileSectionIndex(), expected.getFileSplit().getAffinitySchedulingFileSectionIndex());
+        assertEquals(actual.getStorage(), expected.getStorage());
+        assertEquals(actual.getPartitionKeys(), expected.getPartitionKeys());
+        assertEquals(actual.getAddresses(), expected.getAddresses());
+        assertEquals(actual.getReadBucketNumber(), expected.getReadBucketNumber());
+        assertEquals(actual.getTableBucketNumber(), expected.getTableBucketNumber());
+        assertEquals(actual.getNodeSelectionStrategy(), expected.getNodeSelectionStrategy());
+        assertEquals(actual.getPartitionDataColumnCount(), expected.getPartitionDataColumnCount());
+        assertEquals(actual.getTableToPartitionMapping().getTableToPartitionColumns(), expected.getTableToPartitionMapping().getTableToPartitionColumns());
+        assertEquals(actual.getBucketConversion(), expected.getBucketConversion());
+        assertEquals(actual.isS3SelectPushdownEnabled(), expected.isS3SelectPushdownEnabled());
+        assertEquals(actual.getCacheQuotaRequirement(), expected.getCacheQuotaRequirement());
+        assertEquals(actual.getEncryptionInformation(), expected.getEncryptionInformation());
+        assertEquals(actual.getRedundantColumnDomains(), expected.getRedundantColumnDomains());
+        assertEquals(actual.getSplitWeight(), expected.getSplitWeight());
+        assertEquals(actual.getRowIdPartitionComponent().get(), expected.getRowIdPartitionComponent().get());
+    }
+
+    @Test
+    public void testSplitsOfPartitionShareDecodedFields()
+    {
+        HiveSplit first = createSplit(new HiveFileSplit("path1", 0, 10, 20, 1234, Optional.empty(), ImmutableMap.of(), 0), OptionalInt.empty());
+        HiveSplit second = createSplit(new HiveFileSplit("path2", 10, 10, 20, 1234, Optional.empty(), ImmutableMap.of(), 0), OptionalInt.empty());
+
+        HiveSplit firstDecoded = (HiveSplit) codec.deserialize(codec.serialize(first));
+        HiveSplit secondDecoded = (HiveSplit) codec.deserialize(codec.serialize(second));
+
+        assertEquals(firstDecoded.getFileSplit().getPath(), "path1");
+        assertEquals(secondDecoded.getFileSplit().getPath(), "path2");
+        assertEquals(secondDecoded.getFileSplit().getStart(), 10);
+        assertSame(secondDecoded.getStorage(), firstDecoded.getStorage());
+        assertSame(secondDecoded.getPartitionKeys(), firstDecoded.getPartitionKeys());
+        assertSame(secondDecoded.getTableToPartitionMapping(), firstDecoded.getTableToPartitionMapping());
+        assertSame(secondDecoded.getEncryptionInformation(), firstDecoded.getEncryptionInformation());
+    }
+
+    @Test
+    public void testSplitOfOtherPartition()
+    {
+        HiveSplit split = createSplit(new HiveFileSplit("path", 0, 10, 20, 1234, Optional.empty(), ImmutableMap.of(), 0), OptionalInt.empty());
+        HiveSplit otherPartitionSplit = new HiveSplit(
+                split.getFileSplit(),
+                split.getDatabase(),
+                split.getTable(),
+                "ds=2",
+                split.getStorage(),
+                ImmutableList.of(new HivePartitionKey("ds", Optional.of("2"))),
+                split.getAddresses(),
+                split.getReadBucketNumber(),
+                split.getTableBucketNumber(),
+                split.getNodeSelectionStrategy(),
+                split.getPartitionDataColumnCount(),
+                split.getTableToPartitionMapping(),
+                split.getBucketConversion(),
+                split.isS3SelectPushdownEnabled(),
+                split.getCacheQuotaRequirement(),
+                split.getEncryptionInformation(),
+                split.getRedundantColumnDomains(),
+                split.getSplitWeight(),
+                split.getRowIdPartitionComponent());
+
+        assertEquals(((HiveSplit) codec.deserialize(codec.serialize(split))).getPartitionName(), "ds=1");
+        HiveSplit decoded = (HiveSplit) codec.deserialize(codec.serialize(otherPartitionSplit));
+        assertEquals(decoded.getPartitionName(), "ds=2");
+        assertEquals(decoded.getPartitionKeys(), ImmutableList.of(new HivePartitionKey("ds", Optional.of("2"))));
+    }
+
+    private static HiveSplit createSplit(HiveFileSplit fileSplit, OptionalInt bucketNumber)
+    {
+        return new HiveSplit(
+                fileSplit,
+                "db",
+                "table",
+                "ds=1",
+                STORAGE,
+                ImmutableList.of(new HivePartitionKey("ds", Optional.of("1"))),
+                ImmutableList.of(HostAddress.fromParts("127.0.0.1", 44), HostAddress.fromParts("127.0.0.1", 45)),
+                bucketNumber,
+                bucketNumber,
+                SOFT_AFFINITY,
+                10,
+                TABLE_TO_PARTITION_MAPPING,
+                Optional.empty(),
+                false,
+                NO_CACHE_REQUIREMENT,
+                Optional.of(EncryptionInformation.fromEncryptionMetadata(DwrfEncryptionMetadata.forPerField(
+                        ImmutableMap.of("field1", "test1".getBytes()),
+                        ImmutableMap.of(),
+                        "test_algo",
+                        "test_provider"))),
+                REDUNDANT_COLUMN_DOMAINS,
+                SplitWeight.fromProportion(2.0),
+                Optional.of(new byte[] {76, 58}));
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.hive.orc;
+
+import com.facebook.airlift.units.DataSize;
+import com.facebook.presto.hive.FileFormatDataSourceStats;
+import com.facebook.presto.orc.DiskRange;
+import com.facebook.presto.orc.OrcDataSourceId;
+import com.facebook.presto.orc.OrcDataSourceInput;
+import com.google.common.collect.ImmutableMap;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FSInputStream;
+import org.apache.hadoop.fs.FileRange;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+import static com.facebook.airlift.units.DataSize.Unit.BYTE;
+import static com.facebook.airlift.units.DataSize.Unit.KILOBYTE;
+import static io.airlift.slice.Slices.wrappedBuffer;
+import static org.testng.Assert.assertEquals;
+
+public class TestHdfsOrcDataSource
+{
+    private static final byte[] DATA = new byte[1000];
+    private static final Map<String, DiskRange> DISK_RANGES = ImmutableMap.of(
+            "a", new DiskRange(0, 10),
+            "b", new DiskRange(100, 20),
+            "c", new DiskRange(500, 30));
+
+    static {
+        for (int i = 0; i < DATA.length; i++) {
+            DATA[i] = (byte) i;
+        }
+    }
+
+    @Test
+    public void testVectoredRead()
+            throws IOException
+    {
+        ByteArrayInputStream input = new ByteArrayInputStream(DATA);
+        Map<String, OrcDataSourceInput> slices = createDataSource(input, false).readFully(DISK_RANGES);
+
+        // the ranges are too far apart to be merged, so they are fetched by a single vectored read
+        assertEquals(input.getVectoredReads(), 1);
+        assertEquals(input.getPositionalReads(), DISK_RANGES.size());
+        assertSlices(slices);
+        assertEquals(input.getVectoredReads(), 1);
+    }
+
+    @Test
+    public void testLazyRead()
+            throws IOException
+    {
+        ByteArrayInputStream input = new ByteArrayInputStream(DATA);
+        Map<String, OrcDataSourceInput> slices = createDataSource(input, true).readFully(DISK_RANGES);
+        assertEquals(input.getPositionalReads(), 0);
+
+        // only the used range is read, the ranges which are never used are never read
+        assertSlice(slices, "b");
+        assertEquals(input.getPositionalReads(), 1);
+        assertSlice(slices, "c");
+        assertEquals(input.getPositionalReads(), 2);
+        assertEquals(input.getVectoredReads(), 0);
+    }
+
+    @Test
+    public void testSingleRange()
+            throws IOException
+    {
+        ByteArrayInputStream input = new ByteArrayInputStream(DATA);
+        Map<String, OrcDataSourceInput> slices = createDataSource(input, false).readFully(ImmutableMap.of("a", new DiskRange(0, 10), "b", new DiskRange(15, 20)));
+
+        // the ranges are merged into one, which is read without a vectored read
+        assertEquals(input.getVectoredReads(), 0);
+        assertEquals(input.getPositionalReads(), 1);
+        assertSlice(slices, "a", new DiskRange(0, 10));
+        assertSlice(slices, "b", new DiskRange(15, 20));
+    }
+
+    private static HdfsOrcDataSource createDataSource(ByteArrayInputStream input, boolean lazyReadSmallRanges)
+    {
+        return new HdfsOrcDataSource(
+                new OrcDataSourceId("test"),
+                DATA.length,
+                new DataSize(10, BYTE),
+                new DataSize(1, KILOBYTE),
+                new DataSize(1, KILOBYTE),
+                lazyReadSmallRanges,
+                new FSDataInputStream(input),
+                new FileFormatDataSourceStats());
+    }
+
+    private static void assertSlices(Map<String, OrcDataSourceInput> slices)
+    {
+        assertEquals(slices.keySet(), DISK_RANGES.keySet());
+        for (String key : DISK_RANGES.keySet()) {
+            assertSlice(slices, key);
+        }
+    }
+
+    private static void assertSlice(Map<String, OrcDataSourceInput> slices, String key)
+    {
+        assertSlice(slices, key, DISK_RANGES.get(key));
+    }
+
+    private static void assertSlice(Map<String, OrcDataSourceInput> slices, String key, DiskRange diskRange)
+    {
+        assertEquals(
+                slices.get(key).getInput().readSlice(diskRange.getLength()),
+                wrappedBuffer(DATA, (int) diskRange.getOffset(), diskRange.getLength()));
+    }
+
+    private static class ByteArrayInputStream
+            extends FSInputStream
+    {
+        private final byte[] data;
+        private int position;
+        private int vectoredReads;
+        private int positionalReads;
+
+        public ByteArrayInputStream(byte[] data)
+        {
+            this.data = data;
+        }
+
+        public int getVectoredReads()
+        {
+            return vectoredReads;
+        }
+
+        public int getPositionalReads()
+        {
+            return positionalReads;
+        }
+
+        @Override
+        public void readVectored(List<? extends FileRange> ranges, IntFunction<ByteBuffer> allocate)
+                throws IOException
+        {
+            vectoredReads++;
+            super.readVectored(ranges, allocate);
+        }
+
+        @Override
+        public int read(long position, byte[] buffer, int offset, int length)
+        {
+            positionalReads++;
+            int read = Math.min(length, data.length - (int) position);
+            System.arraycopy(data, (int) position, buffer, offset, read);
+            return read;
+        }
+
+        @Override
+        public void seek(long position)
+        {
+            this.position = (int) position;
+        }
+
+        @Override
+        public long getPos()
+        {
+            return position;
+        }
+
+        @Override
+        public boolean seekToNewSource(long targetPosition)
+        {
+            return false;
+        }
+
+        @Override
+        public int read()
+        {
+            if (position >= data.length) {
+                return -1;
+            }
+            return data[position++] & 0xFF;
+        }
+    }
+}
@@ -63,7 +63,10 @@ public class TestHiveS3Config
                 .setPinS3ClientToCurrentRegion(false)
                 .setS3UserAgentPrefix("")
                 .setS3AclType(PrestoS3AclType.PRIVATE)
-                .setSkipGlacierObjects(false));
+                .setSkipGlacierObjects(false)
+                .setS3RangeReadMaxMergeDistance(new DataSize(1, Unit.MEGABYTE))
+                .setS3RangeReadMaxMergedSize(new DataSize(8, Unit.MEGABYTE))
+                .setS3RangeReadMaxConcurrency(8));
     }
 
     @Test
@@ -100,6 +103,9 @@ public class TestHiveS3Config
                 .put("hive.s3.user-agent-prefix", "user-agent-prefix")
                 .put("hive.s3.upload-acl-type", "PUBLIC_READ")
                 .put("hive.s3.skip-glacier-objects", "true")
+                .put("hive.s3.range-read.merge-distance", "2MB")
+                .put("hive.s3.range-read.max-size", "16MB")
+                .put("hive.s3.range-read.concurrency", "4")
                 .build();
 
         HiveS3Config expected = new HiveS3Config()
@@ -132,7 +138,10 @@ public class TestHiveS3Config
                 .setPinS3ClientToCurrentRegion(true)
                 .setS3UserAgentPrefix("user-agent-prefix")
                 .setS3AclType(PrestoS3AclType.PUBLIC_READ)
-                .setSkipGlacierObjects(true);
+                .setSkipGlacierObjects(true)
+                .setS3RangeReadMaxMergeDistance(new DataSize(2, Unit.MEGABYTE))
+                .setS3RangeReadMaxMergedSize(new DataSize(16, Unit.MEGABYTE))
+                .setS3RangeReadMaxConcurrency(4);
 
         assertFullMapping(properties, expected);
     }
@@ -40,9 +40,11 @@ import com.amazonaws.services.s3.model.S3ObjectSummary;
 import com.amazonaws.services.s3.model.StorageClass;
 import com.facebook.presto.hive.s3.PrestoS3FileSystem.UnrecoverableS3OperationException;
 import com.google.common.base.VerifyException;
+import com.google.common.collect.ImmutableList;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FSDataInputStream;
 import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileRange;
 import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.LocatedFileStatus;
 import org.apache.hadoop.fs.Path;
@@ -58,6 +60,7 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.lang.reflect.Field;
 import java.net.URI;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
@@ -65,6 +68,7 @@ import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.facebook.airlift.testing.Assertions.assertInstanceOf;
@@ -80,6 +84,7 @@ import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_MAX_CLIENT_R
 import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_MAX_RETRY_TIME;
 import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_PATH_STYLE_ACCESS;
 import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_PIN_CLIENT_TO_CURRENT_REGION;
+import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_RANGE_READ_MAX_MERGE_DISTANCE;
 import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_SECRET_KEY;
 import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_SIGNER_TYPE;
 import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_SKIP_GLACIER_OBJECTS;
@@ -89,6 +94,7 @@ import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_USER_AGENT_S
 import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_USE_INSTANCE_CREDENTIALS;
 import static com.facebook.presto.hive.s3.S3ConfigurationUpdater.S3_WEB_IDENTITY_ENABLED;
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.io.MoreFiles.deleteRecursively;
 import static com.google.common.io.RecursiveDeleteOption.ALLOW_INSECURE;
 import static java.net.HttpURLConnection.HTTP_FORBIDDEN;
@@ -788,6 +794,58 @@ public class TestPrestoS3FileSystem
         }
     }
 
+    @Test
+    public void testReadVectored()
+            throws Exception
+    {
+        byte[] data = new byte[100];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        try (PrestoS3FileSystem fs = new PrestoS3FileSystem()) {
+            List<String> requestedRanges = new CopyOnWriteArrayList<>();
+            MockAmazonS3 s3 = new MockAmazonS3()
+            {
+                @Override
+                public S3Object getObject(GetObjectRequest req)
+                {
+                    long[] range = req.getRange();
+                    requestedRanges.add(range[0] + "-" + range[1]);
+                    return new S3Object()
+                    {
+                        @Override
+                        public S3ObjectInputStream getObjectContent()
+                        {
+                            return new S3ObjectInputStream(new ByteArrayInputStream(data, (int) range[0], (int) (range[1] - range[0] + 1)), null);
+                        }
+                    };
+                }
+            };
+            Configuration configuration = new Configuration();
+            configuration.setLong(S3_RANGE_READ_MAX_MERGE_DISTANCE, 10);
+            fs.initialize(new URI("s3n://test-bucket/"), configuration);
+            fs.setS3Client(s3);
+
+            List<FileRange> ranges = ImmutableList.of(
+                    FileRange.createFileRange(0, 10),
+                    FileRange.createFileRange(15, 5),
+                    FileRange.createFileRange(50, 10),
+                    FileRange.createFileRange(70, 0));
+            try (FSDataInputStream inputStream = fs.open(new Path("s3n://test-bucket/test"))) {
+                inputStream.readVectored(ranges, ByteBuffer::allocate);
+                for (FileRange range : ranges) {
+                    ByteBuffer buffer = range.getData().get();
+                    assertEquals(buffer.remaining(), range.getLength());
+                    for (int i = 0; i < range.getLength(); i++) {
+                        assertEquals(buffer.get(), data[(int) range.getOffset() + i]);
+                    }
+                }
+            }
+            // the first two ranges are close enough to be read with one request
+            assertEquals(requestedRanges.stream().sorted().collect(toImmutableList()), ImmutableList.of("0-19", "50-59"));
+        }
+    }
+
     @Test
     public void testListPrefixModes()
             throws Exception
@@ -60,6 +60,7 @@ import com.facebook.presto.spi.MaterializedViewRefreshType;
 import com.facebook.presto.spi.MaterializedViewStaleReadBehavior;
 import com.facebook.presto.spi.MaterializedViewStalenessConfig;
 import com.facebook.presto.spi.MaterializedViewStatus;
+import com.facebook.presto.spi.MaterializedViewStatus.MaterializedDataPredicates;
 import com.facebook.presto.spi.PrestoException;
 import com.facebook.presto.spi.PrestoWarning;
 import com.facebook.presto.spi.SchemaTableName;
@@ -121,6 +122,7 @@ import org.apache.iceberg.UpdatePartitionSpec;
 import org.apache.iceberg.UpdateProperties;
 import org.apache.iceberg.exceptions.NoSuchTableException;
 import org.apache.iceberg.exceptions.ValidationException;
+import org.apache.iceberg.expressions.Expression;
 import org.apache.iceberg.types.Type;
 import org.apache.iceberg.types.TypeUtil;
 import org.apache.iceberg.types.Types;
@@ -139,6 +141,7 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.OptionalLong;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
@@ -229,6 +232,8 @@ import static com.facebook.presto.iceberg.changelog.ChangelogUtil.getRowTypeFrom
 import static com.facebook.presto.iceberg.optimizer.IcebergPlanOptimizer.getEnforcedColumns;
 import static com.facebook.presto.iceberg.util.StatisticsUtil.calculateBaseTableStatistics;
 import static com.facebook.presto.iceberg.util.StatisticsUtil.calculateStatisticsConsideringLayout;
+import static com.facebook.presto.spi.MaterializedViewRefreshType.FULL;
+import static com.facebook.presto.spi.MaterializedViewRefreshType.INCREMENTAL;
 import static com.facebook.presto.spi.MaterializedViewStatus.MaterializedViewState.FULLY_MATERIALIZED;
 import static com.facebook.presto.spi.MaterializedViewStatus.MaterializedViewState.NOT_MATERIALIZED;
 import static com.facebook.presto.spi.MaterializedViewStatus.MaterializedViewState.PARTIALLY_MATERIALIZED;
@@ -295,6 +300,10 @@ public abstract class IcebergAbstractMetadata
     protected final StatisticsFileCache statisticsFileCache;
     protected final IcebergTableProperties tableProperties;
     private final StandardFunctionResolution functionResolution;
+    // the base table snapshots read by a materialized view refresh in this transaction, and the partitions
+    // appended to up to them, so that the refresh scans, replaces and records the same snapshots
+    private final Map<SchemaTableName, Long> materializedViewBaseSnapshotIds = new ConcurrentHashMap<>();
+    private final Map<SchemaTableName, Optional<IcebergMaterializedViewDelta>> materializedViewDeltas = new ConcurrentHashMap<>();
 
     public IcebergAbstractMetadata(
             TypeManager typeManager,
@@ -1349,7 +1358,13 @@ public abstract class IcebergAbstractMetadata
                     long tableVersionSnapshotId = getSnapshotIdForTableVersion(table, version);
                     return Optional.of(tableVersionSnapshotId);
                 })
-                .orElseGet(() -> resolveSnapshotIdByName(table, name));
+                .orElseGet(() -> {
+                    Long pinnedSnapshotId = materializedViewBaseSnapshotIds.get(tableNameToLoad);
+                    if (name.getTableType() == DATA && !name.getSnapshotId().isPresent() && pinnedSnapshotId != null && table.snapshot(pinnedSnapshotId) != null) {
+                        return Optional.of(pinnedSnapshotId);
+                    }
+                    return resolveSnapshotIdByName(table, name);
+                });
 
         // Validate unsupported v3 features (column defaults, encryption) before
         // proceeding
@@ -2037,6 +2052,14 @@ public abstract class IcebergAbstractMetadata
                 lastFreshTime);
     }
 
+    @Override
+    public Map<SchemaTableName, MaterializedDataPredicates> getMaterializedViewRefreshPredicates(ConnectorSession session, SchemaTableName materializedViewName)
+    {
+        return getMaterializedViewDelta(session, materializedViewName)
+                .map(IcebergMaterializedViewDelta::getChangedPartitions)
+                .orElse(ImmutableMap.of());
+    }
+
     @Override
     public ConnectorInsertTableHandle beginRefreshMaterializedView(
             ConnectorSession session,
@@ -2055,10 +2078,22 @@ public abstract class IcebergAbstractMetadata
         IcebergTableHandle storageTableHandle = getTableHandle(session, storageTableName);
         Table storageTable = getIcebergTable(session, storageTableName);
 
-        storageTable.newDelete().deleteFromRowFilter(alwaysTrue()).commit();
-
         SchemaTableName materializedViewName = icebergTableHandle.getMaterializedViewName().get();
 
+        // an incremental refresh only replaces the partitions appended to since the last refresh,
+        // which are the same partitions the engine restricted the base table scans to
+        Expression refreshedRows = getMaterializedViewDelta(session, materializedViewName)
+                .map(IcebergMaterializedViewDelta::getStoragePredicate)
+                .orElse(alwaysTrue());
+        storageTable.newDelete().deleteFromRowFilter(refreshedRows).commit();
+
+        ImmutableMap.Builder<String, Long> baseSnapshots = ImmutableMap.builder();
+        getMaterializedView(session, materializedViewName).ifPresent(definition -> {
+            for (SchemaTableName baseTable : definition.getBaseTables()) {
+                baseSnapshots.put(getBaseTableViewPropertyName(baseTable), getMaterializedViewBaseSnapshotId(session, baseTable));
+            }
+        });
+
         return new IcebergInsertTableHandle(
                 storageTableHandle.getSchemaName(),
                 storageTableHandle.getIcebergTableName(),
@@ -2070,7 +2105,8 @@ public abstract class IcebergAbstractMetadata
                 getCompressionCodec(session),
                 storageTable.properties(),
                 getSupportedSortFields(storageTable.schema(), storageTable.sortOrder()),
-                Optional.of(materializedViewName));
+                Optional.of(materializedViewName),
+                baseSnapshots.build());
     }
 
     @Override
@@ -2094,25 +2130,11 @@ public abstract class IcebergAbstractMetadata
                     ? storageTable.currentSnapshot().snapshotId()
                     : 0L;
 
-            Optional<MaterializedViewDefinition> definition = getMaterializedView(session, materializedViewName);
             Map<String, String> properties = new HashMap<>();
             properties.put(PRESTO_MATERIALIZED_VIEW_LAST_REFRESH_SNAPSHOT_ID, String.valueOf(newSnapshotId));
-
-            if (definition.isPresent()) {
-                for (SchemaTableName baseTable : definition.get().getBaseTables()) {
-                    try {
-                        Table baseIcebergTable = getIcebergTable(session, baseTable);
-                        long baseSnapshotId = baseIcebergTable.currentSnapshot() != null
-                                ? baseIcebergTable.currentSnapshot().snapshotId()
-                                : 0L;
-                        String key = getBaseTableViewPropertyName(baseTable);
-                        properties.put(key, baseSnapshotId + "");
-                    }
-                    catch (Exception e) {
-                        log.warn(e, "Failed to capture snapshot for base table %s during refresh of materialized view %s", baseTable, materializedViewName);
-                    }
-                }
-            }
+            // record the base snapshots the refresh read rather than the current ones, so that the snapshots
+            // appended concurrently are picked up by the next refresh
+            icebergInsertHandle.getMaterializedViewBaseSnapshots().forEach((key, baseSnapshotId) -> properties.put(key, String.valueOf(baseSnapshotId)));
 
             // Update materialized view should run after the data refresh of the underlying storage table
             this.transactionContext.registerCallback(() -> updateIcebergViewProperties(session, materializedViewName, properties));
@@ -2121,6 +2143,65 @@ public abstract class IcebergAbstractMetadata
         return result;
     }
 
+    private Optional<IcebergMaterializedViewDelta> getMaterializedViewDelta(ConnectorSession session, SchemaTableName materializedViewName)
+    {
+        return materializedViewDeltas.computeIfAbsent(materializedViewName, ignored -> getMaterializedView(session, materializedViewName)
+                .flatMap(definition -> {
+                    // pin every base table before the refresh query reads any of them
+                    definition.getBaseTables().forEach(baseTable -> getMaterializedViewBaseSnapshotId(session, baseTable));
+                    return getViewMetadata(session, materializedViewName)
+                            .flatMap(viewMetadata -> computeMaterializedViewDelta(session, definition, viewMetadata.getProperties()));
+                }));
+    }
+
+    private Optional<IcebergMaterializedViewDelta> computeMaterializedViewDelta(
+            ConnectorSession session,
+            MaterializedViewDefinition definition,
+            Map<String, String> viewProperties)
+    {
+        if (definition.getRefreshType().orElse(FULL) != INCREMENTAL || !viewProperties.containsKey(PRESTO_MATERIALIZED_VIEW_LAST_REFRESH_SNAPSHOT_ID)) {
+            return Optional.empty();
+        }
+
+        Optional<IcebergMaterializedViewDelta> delta = Optional.empty();
+        for (SchemaTableName baseTable : definition.getBaseTables()) {
+            long refreshSnapshotId = getMaterializedViewBaseSnapshotId(session, baseTable);
+            String recordedSnapshotId = viewProperties.get(getBaseTableViewPropertyName(baseTable));
+            if (recordedSnapshotId == null || refreshSnapshotId == parseLong(recordedSnapshotId)) {
+                continue;
+            }
+            // the partitions changed in one base table say nothing about the view rows joined from another one,
+            // and rows from the outer join side may have been joined to rows of any partition before
+            if (delta.isPresent() || definition.getBaseTablesOnOuterJoinSide().contains(baseTable)) {
+                return Optional.empty();
+            }
+            delta = IcebergMaterializedViewDelta.create(
+                    typeManager,
+                    definition,
+                    baseTable,
+                    getIcebergTable(session, baseTable),
+                    parseLong(recordedSnapshotId),
+                    refreshSnapshotId,
+                    getIcebergTable(session, new SchemaTableName(definition.getSchema(), definition.getTable())));
+            if (!delta.isPresent()) {
+                return Optional.empty();
+            }
+        }
+        return delta;
+    }
+
+    /**
+     * Returns the snapshot of a base table read by a materialized view refresh in this transaction, which is
+     * the current snapshot when the refresh first looks at the table.
+     */
+    private long getMaterializedViewBaseSnapshotId(ConnectorSession session, SchemaTableName baseTable)
+    {
+        return materializedViewBaseSnapshotIds.computeIfAbsent(baseTable, ignored -> {
+            Table table = getIcebergTable(session, baseTable);
+            return table.currentSnapshot() != null ? table.currentSnapshot().snapshotId() : 0L;
+        });
+    }
+
     private SchemaTableName getStorageTableName(ConnectorSession session, SchemaTableName viewName, Map<String, Object> properties)
     {
         String tableName = getStorageTable(properties).orElseGet(() -> {
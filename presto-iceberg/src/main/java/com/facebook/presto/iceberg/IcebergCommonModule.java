@@ -41,6 +41,8 @@ import com.facebook.presto.hive.datasink.OutputStreamDataSinkFactory;
 import com.facebook.presto.hive.gcs.GcsConfigurationInitializer;
 import com.facebook.presto.hive.gcs.HiveGcsConfig;
 import com.facebook.presto.hive.gcs.HiveGcsConfigurationInitializer;
+import com.facebook.presto.iceberg.delete.PositionDeleteCache;
+import com.facebook.presto.iceberg.delete.PositionDeleteCacheKey;
 import com.facebook.presto.iceberg.nessie.IcebergNessieConfig;
 import com.facebook.presto.iceberg.optimizer.IcebergPlanOptimizerProvider;
 import com.facebook.presto.iceberg.procedure.ExpireSnapshotsProcedure;
@@ -97,10 +99,12 @@ import com.google.inject.Scopes;
 import com.google.inject.TypeLiteral;
 import com.google.inject.multibindings.Multibinder;
 import jakarta.inject.Singleton;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
 import org.weakref.jmx.MBeanExporter;
 
 import java.nio.ByteBuffer;
 import java.time.Duration;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 
@@ -224,6 +228,20 @@ public class IcebergCommonModule
         return statisticsFileCache;
     }
 
+    @Singleton
+    @Provides
+    public PositionDeleteCache createPositionDeleteCache(IcebergConfig config, MBeanExporter exporter)
+    {
+        Cache<PositionDeleteCacheKey, Map<String, Roaring64Bitmap>> delegate = CacheBuilder.newBuilder()
+                .maximumWeight(config.getMaxPositionDeleteCacheSize().toBytes())
+                .<PositionDeleteCacheKey, Map<String, Roaring64Bitmap>>weigher((key, entry) -> PositionDeleteCache.estimateSizeInBytes(entry))
+                .recordStats()
+                .build();
+        PositionDeleteCache positionDeleteCache = new PositionDeleteCache(delegate, config.getMaxPositionDeleteCacheSize().toBytes() > 0);
+        exporter.export(generatedNameOf(PositionDeleteCache.class, connectorId), positionDeleteCache);
+        return positionDeleteCache;
+    }
+
     @Singleton
     @Provides
     public ManifestFileCache createManifestFileCache(IcebergConfig config, MBeanExporter exporter)
@@ -267,6 +285,16 @@ public class IcebergCommonModule
                 daemonThreadsNamed("iceberg-split-manager-" + connectorId + "-%s"));
     }
 
+    @Provides
+    @Singleton
+    @ForIcebergSplitLoader
+    public ExecutorService createSplitLoaderExecutor(IcebergConfig config)
+    {
+        return newFixedThreadPool(
+                config.getSplitLoaderThreads(),
+                daemonThreadsNamed("iceberg-split-loader-" + connectorId + "-%s"));
+    }
+
     @Singleton
     @Provides
     public OrcFileTailSource createOrcFileTailSource(OrcCacheConfig orcCacheConfig, MBeanExporter exporter)
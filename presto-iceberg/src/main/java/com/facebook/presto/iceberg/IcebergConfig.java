@@ -31,6 +31,7 @@ import org.apache.iceberg.hadoop.HadoopFileIO;
 import java.util.EnumSet;
 import java.util.List;
 
+import static com.facebook.airlift.units.DataSize.Unit.BYTE;
 import static com.facebook.airlift.units.DataSize.Unit.MEGABYTE;
 import static com.facebook.airlift.units.DataSize.succinctDataSize;
 import static com.facebook.presto.hive.HiveCompressionCodec.ZSTD;
@@ -75,7 +76,9 @@ public class IcebergConfig
     private long manifestCacheMaxContentLength = IO_MANIFEST_CACHE_MAX_CONTENT_LENGTH_DEFAULT;
     private DataSize manifestCacheMaxChunkSize = succinctDataSize(2, MEGABYTE);
     private int splitManagerThreads = Runtime.getRuntime().availableProcessors();
+    private int splitLoaderThreads = Runtime.getRuntime().availableProcessors();
     private DataSize maxStatisticsFileCacheSize = succinctDataSize(256, MEGABYTE);
+    private DataSize maxPositionDeleteCacheSize = succinctDataSize(0, BYTE);
     private String materializedViewStoragePrefix = "__mv_storage__";
 
     @NotNull
@@ -413,6 +416,20 @@ public class IcebergConfig
         return this;
     }
 
+    @Min(1)
+    public int getSplitLoaderThreads()
+    {
+        return splitLoaderThreads;
+    }
+
+    @Config("iceberg.split-loader-threads")
+    @ConfigDescription("Number of threads to use for queueing the splits of table scans in the background")
+    public IcebergConfig setSplitLoaderThreads(int splitLoaderThreads)
+    {
+        this.splitLoaderThreads = splitLoaderThreads;
+        return this;
+    }
+
     @Min(0)
     public int getMetadataPreviousVersionsMax()
     {
@@ -466,6 +483,19 @@ public class IcebergConfig
         return this;
     }
 
+    public DataSize getMaxPositionDeleteCacheSize()
+    {
+        return maxPositionDeleteCacheSize;
+    }
+
+    @Config("iceberg.max-position-delete-cache-size")
+    @ConfigDescription("The maximum size in bytes of the deleted rows of position delete files cached on each worker. 0 disables the cache")
+    public IcebergConfig setMaxPositionDeleteCacheSize(DataSize maxPositionDeleteCacheSize)
+    {
+        this.maxPositionDeleteCacheSize = maxPositionDeleteCacheSize;
+        return this;
+    }
+
     public int getStatisticsKllSketchKParameter()
     {
         return this.statisticsKllSketchKParameter;
@@ -18,15 +18,36 @@ import com.facebook.presto.spi.ConnectorInsertTableHandle;
 import com.facebook.presto.spi.SchemaTableName;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableMap;
 
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
+import static java.util.Objects.requireNonNull;
+
 public class IcebergInsertTableHandle
         extends IcebergWritableTableHandle
         implements ConnectorInsertTableHandle
 {
+    private final Map<String, Long> materializedViewBaseSnapshots;
+
+    public IcebergInsertTableHandle(
+            String schemaName,
+            IcebergTableName tableName,
+            PrestoIcebergSchema schema,
+            PrestoIcebergPartitionSpec partitionSpec,
+            List<IcebergColumnHandle> inputColumns,
+            String outputPath,
+            FileFormat fileFormat,
+            HiveCompressionCodec compressionCodec,
+            Map<String, String> storageProperties,
+            List<SortField> sortOrder,
+            Optional<SchemaTableName> materializedViewName)
+    {
+        this(schemaName, tableName, schema, partitionSpec, inputColumns, outputPath, fileFormat, compressionCodec, storageProperties, sortOrder, materializedViewName, ImmutableMap.of());
+    }
+
     @JsonCreator
     public IcebergInsertTableHandle(
             @JsonProperty("schemaName") String schemaName,
@@ -39,7 +60,8 @@ public class IcebergInsertTableHandle
             @JsonProperty("compressionCodec") HiveCompressionCodec compressionCodec,
             @JsonProperty("storageProperties") Map<String, String> storageProperties,
             @JsonProperty("sortOrder") List<SortField> sortOrder,
-            @JsonProperty("materializedViewName") Optional<SchemaTableName> materializedViewName)
+            @JsonProperty("materializedViewName") Optional<SchemaTableName> materializedViewName,
+            @JsonProperty("materializedViewBaseSnapshots") Map<String, Long> materializedViewBaseSnapshots)
     {
         super(
                 schemaName,
@@ -53,5 +75,16 @@ public class IcebergInsertTableHandle
                 storageProperties,
                 sortOrder,
                 materializedViewName);
+        this.materializedViewBaseSnapshots = ImmutableMap.copyOf(requireNonNull(materializedViewBaseSnapshots, "materializedViewBaseSnapshots is null"));
+    }
+
+    /**
+     * Returns the base table snapshots a materialized view refresh reads, keyed by the view property
+     * they are recorded in.
+     */
+    @JsonProperty
+    public Map<String, Long> getMaterializedViewBaseSnapshots()
+    {
+        return materializedViewBaseSnapshots;
     }
 }
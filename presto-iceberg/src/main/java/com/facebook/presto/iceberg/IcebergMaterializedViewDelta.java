@@ -0,0 +1,215 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.iceberg;
+
+import com.facebook.presto.common.predicate.NullableValue;
+import com.facebook.presto.common.predicate.TupleDomain;
+import com.facebook.presto.common.type.Type;
+import com.facebook.presto.common.type.TypeManager;
+import com.facebook.presto.hive.HivePartitionKey;
+import com.facebook.presto.spi.MaterializedViewDefinition;
+import com.facebook.presto.spi.MaterializedViewStatus.MaterializedDataPredicates;
+import com.facebook.presto.spi.SchemaTableName;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import org.apache.iceberg.FileScanTask;
+import org.apache.iceberg.PartitionField;
+import org.apache.iceberg.Snapshot;
+import org.apache.iceberg.Table;
+import org.apache.iceberg.expressions.Expression;
+import org.apache.iceberg.io.CloseableIterable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.facebook.presto.iceberg.ExpressionConverter.toIcebergExpression;
+import static com.facebook.presto.iceberg.IcebergUtil.deserializePartitionValue;
+import static com.facebook.presto.iceberg.IcebergUtil.getColumns;
+import static com.facebook.presto.iceberg.IcebergUtil.getIdentityPartitions;
+import static com.facebook.presto.iceberg.IcebergUtil.getPartitionKeys;
+import static com.facebook.presto.iceberg.TypeConverter.toPrestoType;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
+import static java.util.Objects.requireNonNull;
+import static java.util.function.Function.identity;
+import static org.apache.iceberg.DataOperations.APPEND;
+import static org.apache.iceberg.expressions.Expressions.alwaysFalse;
+import static org.apache.iceberg.expressions.Expressions.or;
+import static org.apache.iceberg.util.SnapshotUtil.ancestorsBetween;
+import static org.apache.iceberg.util.SnapshotUtil.isAncestorOf;
+
+/**
+ * The identity partitions of a base table appended to since the last refresh of a materialized view.
+ * <p>
+ * When the base table partition columns are mapped directly to identity partition columns of the
+ * storage table, and the base table has only been appended to, the view rows of the other partitions
+ * are unchanged, so a refresh only has to replace the partitions listed here.
+ */
+public class IcebergMaterializedViewDelta
+{
+    private final SchemaTableName baseTableName;
+    private final List<String> baseColumns;
+    private final List<IcebergColumnHandle> storageColumns;
+    private final Set<List<NullableValue>> partitions;
+
+    private IcebergMaterializedViewDelta(
+            SchemaTableName baseTableName,
+            List<String> baseColumns,
+            List<IcebergColumnHandle> storageColumns,
+            Set<List<NullableValue>> partitions)
+    {
+        this.baseTableName = requireNonNull(baseTableName, "baseTableName is null");
+        this.baseColumns = ImmutableList.copyOf(requireNonNull(baseColumns, "baseColumns is null"));
+        this.storageColumns = ImmutableList.copyOf(requireNonNull(storageColumns, "storageColumns is null"));
+        this.partitions = ImmutableSet.copyOf(requireNonNull(partitions, "partitions is null"));
+    }
+
+    /**
+     * Returns the partitions of {@code baseTable} appended to after {@code lastRefreshSnapshotId} up to and
+     * including {@code refreshSnapshotId}, or empty if the view cannot be refreshed from them.
+     */
+    public static Optional<IcebergMaterializedViewDelta> create(
+            TypeManager typeManager,
+            MaterializedViewDefinition definition,
+            SchemaTableName baseTableName,
+            Table baseTable,
+            long lastRefreshSnapshotId,
+            long refreshSnapshotId,
+            Table storageTable)
+    {
+        if (baseTable.snapshot(refreshSnapshotId) == null ||
+                baseTable.snapshot(lastRefreshSnapshotId) == null ||
+                !isAncestorOf(baseTable, refreshSnapshotId, lastRefreshSnapshotId)) {
+            return Optional.empty();
+        }
+        for (Snapshot snapshot : ancestorsBetween(baseTable, refreshSnapshotId, lastRefreshSnapshotId)) {
+            // overwrites and deletes may have changed the rows of any partition
+            if (!APPEND.equals(snapshot.operation())) {
+                return Optional.empty();
+            }
+        }
+
+        Set<String> storagePartitionColumns = getIdentityPartitions(storageTable.spec()).keySet().stream()
+                .map(field -> storageTable.schema().findColumnName(field.sourceId()))
+                .collect(toImmutableSet());
+        Map<String, IcebergColumnHandle> storageColumnsByName = getColumns(storageTable.schema(), storageTable.spec(), typeManager).stream()
+                .collect(toImmutableMap(IcebergColumnHandle::getName, identity()));
+        Map<String, String> viewColumnsByBaseColumn = new HashMap<>();
+        definition.getDirectColumnMappingsAsMap().forEach((viewColumn, baseColumns) -> {
+            String baseColumn = baseColumns.get(baseTableName);
+            if (baseColumn != null && storagePartitionColumns.contains(viewColumn)) {
+                viewColumnsByBaseColumn.putIfAbsent(baseColumn, viewColumn);
+            }
+        });
+
+        List<PartitionField> partitionFields = new ArrayList<>();
+        List<String> baseColumns = new ArrayList<>();
+        List<IcebergColumnHandle> storageColumns = new ArrayList<>();
+        for (PartitionField field : getIdentityPartitions(baseTable.spec()).keySet()) {
+            String baseColumn = baseTable.schema().findColumnName(field.sourceId());
+            String viewColumn = viewColumnsByBaseColumn.get(baseColumn);
+            if (viewColumn == null) {
+                continue;
+            }
+            IcebergColumnHandle storageColumn = storageColumnsByName.get(viewColumn);
+            Type type = toPrestoType(baseTable.schema().findType(field.sourceId()), typeManager);
+            if (storageColumn != null && storageColumn.getType().equals(type)) {
+                partitionFields.add(field);
+                baseColumns.add(baseColumn);
+                storageColumns.add(storageColumn);
+            }
+        }
+        if (partitionFields.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Set<List<Optional<String>>> partitionValues = new HashSet<>();
+        try (CloseableIterable<FileScanTask> tasks = baseTable.newIncrementalAppendScan()
+                .fromSnapshotExclusive(lastRefreshSnapshotId)
+                .toSnapshot(refreshSnapshotId)
+                .planFiles()) {
+            for (FileScanTask task : tasks) {
+                // files written with an older spec may not have a value for every partition column
+                if (task.spec().specId() != baseTable.spec().specId()) {
+                    return Optional.empty();
+                }
+                Map<Integer, HivePartitionKey> partitionKeys = getPartitionKeys(task.spec(), task.file().partition());
+                partitionValues.add(partitionFields.stream()
+                        .map(field -> partitionKeys.get(field.fieldId()).getValue())
+                        .collect(toImmutableList()));
+            }
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (partitionValues.isEmpty()) {
+            return Optional.empty();
+        }
+
+        ImmutableSet.Builder<List<NullableValue>> partitions = ImmutableSet.builder();
+        for (List<Optional<String>> values : partitionValues) {
+            ImmutableList.Builder<NullableValue> partition = ImmutableList.builder();
+            for (int i = 0; i < values.size(); i++) {
+                Type type = storageColumns.get(i).getType();
+                Object value = deserializePartitionValue(type, values.get(i).orElse(null), baseColumns.get(i));
+                partition.add(value == null ? NullableValue.asNull(type) : NullableValue.of(type, value));
+            }
+            partitions.add(partition.build());
+        }
+        return Optional.of(new IcebergMaterializedViewDelta(baseTableName, baseColumns, storageColumns, partitions.build()));
+    }
+
+    /**
+     * Returns the changed partitions as predicates on the base table columns, in the form the engine
+     * uses to restrict the base table scans of a refresh.
+     */
+    public Map<SchemaTableName, MaterializedDataPredicates> getChangedPartitions()
+    {
+        List<TupleDomain<String>> predicates = partitions.stream()
+                .map(partition -> {
+                    ImmutableMap.Builder<String, NullableValue> values = ImmutableMap.builder();
+                    for (int i = 0; i < baseColumns.size(); i++) {
+                        values.put(baseColumns.get(i), partition.get(i));
+                    }
+                    return TupleDomain.fromFixedValues(values.build());
+                })
+                .collect(toImmutableList());
+        return ImmutableMap.of(baseTableName, new MaterializedDataPredicates(predicates, baseColumns));
+    }
+
+    /**
+     * Returns the predicate on the storage table matching the rows of the changed partitions.
+     */
+    public Expression getStoragePredicate()
+    {
+        Expression predicate = alwaysFalse();
+        for (List<NullableValue> partition : partitions) {
+            ImmutableMap.Builder<IcebergColumnHandle, NullableValue> values = ImmutableMap.builder();
+            for (int i = 0; i < storageColumns.size(); i++) {
+                values.put(storageColumns.get(i), partition.get(i));
+            }
+            predicate = or(predicate, toIcebergExpression(TupleDomain.fromFixedValues(values.build())));
+        }
+        return predicate;
+    }
+}
@@ -45,6 +45,8 @@ import com.facebook.presto.iceberg.changelog.ChangelogPageSource;
 import com.facebook.presto.iceberg.delete.DeleteFile;
 import com.facebook.presto.iceberg.delete.DeleteFilter;
 import com.facebook.presto.iceberg.delete.IcebergDeletePageSink;
+import com.facebook.presto.iceberg.delete.PositionDeleteCache;
+import com.facebook.presto.iceberg.delete.PositionDeleteCacheKey;
 import com.facebook.presto.iceberg.delete.PositionDeleteFilter;
 import com.facebook.presto.iceberg.delete.RowPredicate;
 import com.facebook.presto.memory.context.AggregatedMemoryContext;
@@ -83,6 +85,7 @@ import com.google.common.base.VerifyException;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import io.airlift.slice.Slice;
 import jakarta.inject.Inject;
 import org.apache.hadoop.conf.Configuration;
@@ -108,7 +111,6 @@ import org.apache.parquet.internal.filter2.columnindex.ColumnIndexStore;
 import org.apache.parquet.io.ColumnIO;
 import org.apache.parquet.io.MessageColumnIO;
 import org.apache.parquet.schema.MessageType;
-import org.roaringbitmap.longlong.LongBitmapDataProvider;
 import org.roaringbitmap.longlong.Roaring64Bitmap;
 
 import java.io.IOException;
@@ -120,6 +122,7 @@ import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.OptionalLong;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -159,6 +162,7 @@ import static com.facebook.presto.iceberg.IcebergUtil.getShallowWrappedIcebergTa
 import static com.facebook.presto.iceberg.TypeConverter.ORC_ICEBERG_ID_KEY;
 import static com.facebook.presto.iceberg.TypeConverter.toHiveType;
 import static com.facebook.presto.iceberg.delete.EqualityDeleteFilter.readEqualityDeletes;
+import static com.facebook.presto.iceberg.delete.PositionDeleteFilter.readAllPositionDeletes;
 import static com.facebook.presto.iceberg.delete.PositionDeleteFilter.readPositionDeletes;
 import static com.facebook.presto.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
 import static com.facebook.presto.orc.OrcEncoding.ORC;
@@ -178,6 +182,7 @@ import static com.facebook.presto.spi.StandardErrorCode.NOT_SUPPORTED;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Predicates.not;
 import static com.google.common.base.Suppliers.memoize;
+import static com.google.common.base.Throwables.throwIfInstanceOf;
 import static com.google.common.base.Verify.verify;
 import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.collect.ImmutableMap.toImmutableMap;
@@ -213,6 +218,7 @@ public class IcebergPageSourceProvider
     private final PageIndexerFactory pageIndexerFactory;
     private final int maxOpenPartitions;
     private final SortParameters sortParameters;
+    private final PositionDeleteCache positionDeleteCache;
 
     @Inject
     public IcebergPageSourceProvider(
@@ -228,7 +234,8 @@ public class IcebergPageSourceProvider
             JsonCodec<CommitTaskData> jsonCodec,
             PageIndexerFactory pageIndexerFactory,
             IcebergConfig icebergConfig,
-            SortParameters sortParameters)
+            SortParameters sortParameters,
+            PositionDeleteCache positionDeleteCache)
     {
         this.hdfsEnvironment = requireNonNull(hdfsEnvironment, "hdfsEnvironment is null");
         this.fileFormatDataSourceStats = requireNonNull(fileFormatDataSourceStats, "fileFormatDataSourceStats is null");
@@ -244,6 +251,7 @@ public class IcebergPageSourceProvider
         requireNonNull(icebergConfig, "icebergConfig is null");
         this.maxOpenPartitions = icebergConfig.getMaxPartitionsPerWriter();
         this.sortParameters = requireNonNull(sortParameters, "sortParameters is null");
+        this.positionDeleteCache = requireNonNull(positionDeleteCache, "positionDeleteCache is null");
     }
 
     private static ConnectorPageSourceWithRowPositions createParquetPageSource(
@@ -966,7 +974,7 @@ public class IcebergPageSourceProvider
 
         Slice targetPath = utf8Slice(dataFilePath);
         List<DeleteFilter> filters = new ArrayList<>();
-        LongBitmapDataProvider deletedRows = new Roaring64Bitmap();
+        Roaring64Bitmap deletedRows = new Roaring64Bitmap();
 
         IcebergColumnHandle deleteFilePath = IcebergColumnHandle.create(DELETE_FILE_PATH, typeManager, IcebergColumnHandle.ColumnType.REGULAR);
         IcebergColumnHandle deleteFilePos = IcebergColumnHandle.create(DELETE_FILE_POS, typeManager, IcebergColumnHandle.ColumnType.REGULAR);
@@ -995,6 +1003,18 @@ public class IcebergPageSourceProvider
                     }
                 }
 
+                if (positionDeleteCache.isEnabled()) {
+                    Roaring64Bitmap cachedRows = getCachedPositionDeletes(session, delete, deleteColumns).get(dataFilePath);
+                    if (storeDeleteFilePath) {
+                        // the cached bitmap is never modified, so it can be shared with the filter
+                        filters.add(new PositionDeleteFilter(cachedRows == null ? new Roaring64Bitmap() : cachedRows, delete.path()));
+                    }
+                    else if (cachedRows != null) {
+                        deletedRows.or(cachedRows);
+                    }
+                    continue;
+                }
+
                 try (ConnectorPageSource pageSource = openDeletes(session, delete, deleteColumns, deleteDomain)) {
                     readPositionDeletes(pageSource, targetPath, deletedRows);
                 }
@@ -1032,6 +1052,23 @@ public class IcebergPageSourceProvider
         return filters;
     }
 
+    private Map<String, Roaring64Bitmap> getCachedPositionDeletes(ConnectorSession session, DeleteFile delete, List<IcebergColumnHandle> deleteColumns)
+    {
+        try {
+            // concurrent splits referencing the same delete file wait for a single read
+            return positionDeleteCache.get(new PositionDeleteCacheKey(delete.path(), delete.fileSizeInBytes()), () -> {
+                positionDeleteCache.recordFileSize(delete.fileSizeInBytes());
+                try (ConnectorPageSource pageSource = openDeletes(session, delete, deleteColumns, TupleDomain.all())) {
+                    return readAllPositionDeletes(pageSource);
+                }
+            });
+        }
+        catch (ExecutionException | UncheckedExecutionException e) {
+            throwIfInstanceOf(e.getCause(), PrestoException.class);
+            throw new PrestoException(ICEBERG_CANNOT_OPEN_SPLIT, format("Cannot open Iceberg delete file: %s", delete.path()), e.getCause());
+        }
+    }
+
     private ConnectorPageSource openDeletes(
             ConnectorSession session,
             DeleteFile delete,
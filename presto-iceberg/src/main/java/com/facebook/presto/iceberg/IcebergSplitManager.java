@@ -54,17 +54,20 @@ public class IcebergSplitManager
     private final TypeManager typeManager;
     private final ExecutorService executor;
     private final ThreadPoolExecutorMBean executorServiceMBean;
+    private final ExecutorService splitLoaderExecutor;
 
     @Inject
     public IcebergSplitManager(
             IcebergTransactionManager transactionManager,
             TypeManager typeManager,
-            @ForIcebergSplitManager ExecutorService executor)
+            @ForIcebergSplitManager ExecutorService executor,
+            @ForIcebergSplitLoader ExecutorService splitLoaderExecutor)
     {
         this.transactionManager = requireNonNull(transactionManager, "transactionManager is null");
         this.typeManager = requireNonNull(typeManager, "typeManager is null");
         this.executor = requireNonNull(executor, "executor is null");
         this.executorServiceMBean = new ThreadPoolExecutorMBean((ThreadPoolExecutor) executor);
+        this.splitLoaderExecutor = requireNonNull(splitLoaderExecutor, "splitLoaderExecutor is null");
     }
 
     @Override
@@ -119,7 +122,8 @@ public class IcebergSplitManager
             IcebergSplitSource splitSource = new IcebergSplitSource(
                     session,
                     tableScan,
-                    getMetadataColumnConstraints(layoutHandle.getValidPredicate()));
+                    getMetadataColumnConstraints(layoutHandle.getValidPredicate()),
+                    splitLoaderExecutor);
             return splitSource;
         }
     }
@@ -14,6 +14,7 @@
 package com.facebook.presto.iceberg;
 
 import com.facebook.presto.common.predicate.TupleDomain;
+import com.facebook.presto.hive.util.AsyncQueue;
 import com.facebook.presto.iceberg.delete.DeleteFile;
 import com.facebook.presto.spi.ConnectorSession;
 import com.facebook.presto.spi.ConnectorSplit;
@@ -22,22 +23,25 @@ import com.facebook.presto.spi.PrestoException;
 import com.facebook.presto.spi.SplitWeight;
 import com.facebook.presto.spi.connector.ConnectorPartitionHandle;
 import com.facebook.presto.spi.schedule.NodeSelectionStrategy;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
 import com.google.common.io.Closer;
+import com.google.common.util.concurrent.ListenableFuture;
 import org.apache.iceberg.FileScanTask;
 import org.apache.iceberg.PartitionSpec;
 import org.apache.iceberg.PartitionSpecParser;
 import org.apache.iceberg.TableScan;
+import org.apache.iceberg.io.CloseableIterable;
 import org.apache.iceberg.io.CloseableIterator;
 
 import java.io.IOException;
-import java.io.UncheckedIOException;
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
+import static com.facebook.airlift.concurrent.MoreFutures.toCompletableFuture;
 import static com.facebook.presto.hive.HiveCommonSessionProperties.getAffinitySchedulingFileSectionSize;
 import static com.facebook.presto.hive.HiveCommonSessionProperties.getNodeSelectionStrategy;
 import static com.facebook.presto.iceberg.FileFormat.fromIcebergFileFormat;
@@ -48,16 +52,23 @@ import static com.facebook.presto.iceberg.IcebergUtil.getTargetSplitSize;
 import static com.facebook.presto.iceberg.IcebergUtil.metadataColumnsMatchPredicates;
 import static com.facebook.presto.iceberg.IcebergUtil.partitionDataFromStructLike;
 import static com.facebook.presto.spi.StandardErrorCode.NOT_SUPPORTED;
+import static com.google.common.base.Throwables.throwIfUnchecked;
 import static com.google.common.collect.ImmutableList.toImmutableList;
-import static com.google.common.collect.Iterators.limit;
+import static com.google.common.util.concurrent.Futures.transform;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import static java.util.Objects.requireNonNull;
-import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.apache.iceberg.util.TableScanUtil.splitFiles;
 
+/**
+ * Plans the splits of a table scan on a background thread, so that the manifests are read
+ * (in parallel, on the executor the scan plans with) while the scheduler assigns the first splits,
+ * rather than on the scheduler thread when it asks for the next batch. When the queue is full the
+ * loader gives its thread back, and resumes once the scheduler has taken splits.
+ */
 public class IcebergSplitSource
         implements ConnectorSplitSource
 {
-    private CloseableIterator<FileScanTask> fileScanTaskIterator;
+    private static final int MAX_OUTSTANDING_SPLITS = 1000;
 
     private final Closer closer = Closer.create();
     private final double minimumAssignedSplitWeight;
@@ -67,57 +78,132 @@ public class IcebergSplitSource
 
     private final TupleDomain<IcebergColumnHandle> metadataColumnConstraints;
 
+    private final Supplier<CloseableIterable<FileScanTask>> fileScanTaskSupplier;
+    private final Executor splitLoaderExecutor;
+    private final AsyncQueue<ConnectorSplit> queue;
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private volatile boolean closed;
+
+    // only accessed by the loader, which runs on one thread at a time
+    private CloseableIterator<FileScanTask> fileScanTasks;
+
     public IcebergSplitSource(
             ConnectorSession session,
             TableScan tableScan,
-            TupleDomain<IcebergColumnHandle> metadataColumnConstraints)
+            TupleDomain<IcebergColumnHandle> metadataColumnConstraints,
+            Executor splitLoaderExecutor)
+    {
+        this(
+                session,
+                requireNonNull(tableScan, "tableScan is null")::planFiles,
+                getTargetSplitSize(session, tableScan).toBytes(),
+                metadataColumnConstraints,
+                splitLoaderExecutor,
+                MAX_OUTSTANDING_SPLITS);
+    }
+
+    @VisibleForTesting
+    IcebergSplitSource(
+            ConnectorSession session,
+            Supplier<CloseableIterable<FileScanTask>> fileScanTaskSupplier,
+            long targetSplitSize,
+            TupleDomain<IcebergColumnHandle> metadataColumnConstraints,
+            Executor splitLoaderExecutor,
+            int maxOutstandingSplits)
     {
         requireNonNull(session, "session is null");
+        this.fileScanTaskSupplier = requireNonNull(fileScanTaskSupplier, "fileScanTaskSupplier is null");
+        this.splitLoaderExecutor = requireNonNull(splitLoaderExecutor, "splitLoaderExecutor is null");
         this.metadataColumnConstraints = requireNonNull(metadataColumnConstraints, "metadataColumnConstraints is null");
-        this.targetSplitSize = getTargetSplitSize(session, tableScan).toBytes();
+        this.targetSplitSize = targetSplitSize;
         this.minimumAssignedSplitWeight = getMinimumAssignedSplitWeight(session);
         this.nodeSelectionStrategy = getNodeSelectionStrategy(session);
         this.affinitySchedulingFileSectionSize = getAffinitySchedulingFileSectionSize(session).toBytes();
-        this.fileScanTaskIterator = closer.register(
-                splitFiles(
-                        closer.register(tableScan.planFiles()),
-                        targetSplitSize)
-                        .iterator());
+        this.queue = new AsyncQueue<>(maxOutstandingSplits, splitLoaderExecutor);
+        splitLoaderExecutor.execute(this::loadSplits);
     }
 
     @Override
     public CompletableFuture<ConnectorSplitBatch> getNextBatch(ConnectorPartitionHandle partitionHandle, int maxSize)
     {
-        // TODO: move this to a background thread
-        List<ConnectorSplit> splits = new ArrayList<>();
-        Iterator<FileScanTask> iterator = limit(fileScanTaskIterator, maxSize);
-        while (iterator.hasNext()) {
-            FileScanTask task = iterator.next();
-            IcebergSplit icebergSplit = (IcebergSplit) toIcebergSplit(task);
-            if (metadataColumnsMatchPredicates(metadataColumnConstraints, icebergSplit.getPath(), icebergSplit.getDataSequenceNumber())) {
-                splits.add(icebergSplit);
-            }
-        }
-        return completedFuture(new ConnectorSplitBatch(splits, isFinished()));
+        ListenableFuture<ConnectorSplitBatch> batch = transform(
+                queue.getBatchAsync(maxSize),
+                splits -> {
+                    throwIfFailed();
+                    return new ConnectorSplitBatch(splits, queue.isFinished());
+                },
+                directExecutor());
+        return toCompletableFuture(batch);
     }
 
     @Override
     public boolean isFinished()
     {
-        return !fileScanTaskIterator.hasNext();
+        throwIfFailed();
+        return queue.isFinished();
     }
 
     @Override
     public void close()
+    {
+        // the loader stops at the next split, and closes the scan
+        closed = true;
+        queue.finish();
+    }
+
+    private void loadSplits()
     {
+        try {
+            Optional<ListenableFuture<?>> queueFull = loadSplitsUntilQueueFull();
+            if (queueFull.isPresent()) {
+                queueFull.get().addListener(this::loadSplits, splitLoaderExecutor);
+                return;
+            }
+        }
+        catch (Throwable t) {
+            failure.compareAndSet(null, t);
+        }
+
         try {
             closer.close();
-            // TODO: remove this after org.apache.iceberg.io.CloseableIterator'withClose
-            //  correct release resources holds by iterator.
-            fileScanTaskIterator = CloseableIterator.empty();
         }
-        catch (IOException e) {
-            throw new UncheckedIOException(e);
+        catch (IOException | RuntimeException e) {
+            failure.compareAndSet(null, e);
+        }
+        queue.finish();
+    }
+
+    /**
+     * Queues splits until the scan is exhausted, the split source is closed, or the queue is full,
+     * in which case the returned future completes when there is room again.
+     */
+    private Optional<ListenableFuture<?>> loadSplitsUntilQueueFull()
+    {
+        if (fileScanTasks == null) {
+            fileScanTasks = closer.register(
+                    splitFiles(
+                            closer.register(fileScanTaskSupplier.get()),
+                            targetSplitSize)
+                            .iterator());
+        }
+        while (!closed && fileScanTasks.hasNext()) {
+            IcebergSplit icebergSplit = (IcebergSplit) toIcebergSplit(fileScanTasks.next());
+            if (metadataColumnsMatchPredicates(metadataColumnConstraints, icebergSplit.getPath(), icebergSplit.getDataSequenceNumber())) {
+                ListenableFuture<?> offered = queue.offer(icebergSplit);
+                if (!offered.isDone()) {
+                    return Optional.of(offered);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private void throwIfFailed()
+    {
+        Throwable throwable = failure.get();
+        if (throwable != null && !closed) {
+            throwIfUnchecked(throwable);
+            throw new RuntimeException(throwable);
         }
     }
 
@@ -37,6 +37,7 @@ import com.facebook.presto.spi.statistics.DisjointRangeDomainHistogram;
 import com.facebook.presto.spi.statistics.DoubleRange;
 import com.facebook.presto.spi.statistics.Estimate;
 import com.facebook.presto.spi.statistics.TableStatistics;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
@@ -46,12 +47,12 @@ import jakarta.annotation.Nullable;
 import org.apache.datasketches.memory.Memory;
 import org.apache.datasketches.theta.CompactSketch;
 import org.apache.iceberg.ContentFile;
-import org.apache.iceberg.ContentScanTask;
 import org.apache.iceberg.DeleteFile;
 import org.apache.iceberg.GenericBlobMetadata;
 import org.apache.iceberg.GenericStatisticsFile;
 import org.apache.iceberg.HasTableOperations;
 import org.apache.iceberg.PartitionField;
+import org.apache.iceberg.PartitionSpec;
 import org.apache.iceberg.Snapshot;
 import org.apache.iceberg.StatisticsFile;
 import org.apache.iceberg.Table;
@@ -78,6 +79,8 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -109,6 +112,7 @@ import static com.facebook.presto.spi.statistics.ColumnStatisticType.HISTOGRAM;
 import static com.facebook.presto.spi.statistics.ColumnStatisticType.NUMBER_OF_DISTINCT_VALUES;
 import static com.facebook.presto.spi.statistics.ColumnStatisticType.TOTAL_SIZE_IN_BYTES;
 import static com.facebook.presto.spi.statistics.SourceInfo.ConfidenceLevel.HIGH;
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.collect.ImmutableMap.toImmutableMap;
 import static com.google.common.collect.ImmutableSet.toImmutableSet;
@@ -211,11 +215,12 @@ public class TableStatisticsMaker
                 .collect(toImmutableList());
 
         Partition summary;
+        IdentityPartitionValues identityPartitionValues = new IdentityPartitionValues(icebergTable.spec());
         if (tableHandle.getIcebergTableName().getTableType() == IcebergTableType.EQUALITY_DELETES) {
             summary = getEqualityDeleteTableSummary(tableHandle, intersection, idToTypeMapping, nonPartitionPrimitiveColumns, partitionFields);
         }
         else {
-            summary = getDataTableSummary(tableHandle, selectedColumns, intersection, idToTypeMapping, nonPartitionPrimitiveColumns, partitionFields);
+            summary = getDataTableSummary(tableHandle, selectedColumns, intersection, idToTypeMapping, nonPartitionPrimitiveColumns, partitionFields, identityPartitionValues);
         }
 
         if (summary == null) {
@@ -226,7 +231,7 @@ public class TableStatisticsMaker
         // the total record count for the whole table
         Optional<Long> totalRecordCount = Optional.of(intersection)
                 .filter(domain -> !domain.isAll())
-                .map(domain -> getDataTableSummary(tableHandle, ImmutableList.of(), TupleDomain.all(), idToTypeMapping, nonPartitionPrimitiveColumns, partitionFields).getRecordCount());
+                .map(domain -> getDataTableSummary(tableHandle, ImmutableList.of(), TupleDomain.all(), idToTypeMapping, nonPartitionPrimitiveColumns, partitionFields, new IdentityPartitionValues(icebergTable.spec())).getRecordCount());
 
         double recordCount = summary.getRecordCount();
         TableStatistics.Builder result = TableStatistics.builder();
@@ -247,6 +252,11 @@ public class TableStatisticsMaker
         for (IcebergColumnHandle columnHandle : selectedColumns) {
             int fieldId = columnHandle.getId();
             ColumnStatistics.Builder columnBuilder = tableStats.getOrDefault(fieldId, ColumnStatistics.builder());
+            if (columnBuilder.getDistinctValuesCount().isUnknown()) {
+                // without an analyzed NDV, identity partition columns still have an exact one for the scanned files
+                identityPartitionValues.getDistinctValuesCount(fieldId)
+                        .ifPresent(count -> columnBuilder.setDistinctValuesCount(Estimate.of(count)));
+            }
 
             if (summary.hasValidColumnMetrics()) {
                 Long nullCount = summary.getNullCounts().get(fieldId);
@@ -281,7 +291,8 @@ public class TableStatisticsMaker
             TupleDomain<IcebergColumnHandle> intersection,
             Map<Integer, Type.PrimitiveType> idToTypeMapping,
             List<Types.NestedField> nonPartitionPrimitiveColumns,
-            List<PartitionField> partitionFields)
+            List<PartitionField> partitionFields,
+            IdentityPartitionValues identityPartitionValues)
     {
         TableScan tableScan = icebergTable.newScan()
                 .metricsReporter(new RuntimeStatsMetricsReporter(session.getRuntimeStats()))
@@ -290,7 +301,10 @@ public class TableStatisticsMaker
                 .useSnapshot(tableHandle.getIcebergTableName().getSnapshotId().get())
                 .includeColumnStats();
 
-        CloseableIterable<ContentFile<?>> files = CloseableIterable.transform(tableScan.planFiles(), ContentScanTask::file);
+        CloseableIterable<ContentFile<?>> files = CloseableIterable.transform(tableScan.planFiles(), task -> {
+            identityPartitionValues.add(task.file());
+            return task.file();
+        });
         return getSummaryFromFiles(files, idToTypeMapping, nonPartitionPrimitiveColumns, partitionFields);
     }
 
@@ -346,6 +360,77 @@ public class TableStatisticsMaker
         return summary;
     }
 
+    /**
+     * Collects the distinct values of the identity partition columns of the files of a scan.
+     * A column with more than {@code maxDistinctValues} values is no longer collected, and its NDV is unknown.
+     */
+    @VisibleForTesting
+    static class IdentityPartitionValues
+    {
+        private static final int MAX_DISTINCT_VALUES = 10_000;
+
+        private final int specId;
+        private final int maxDistinctValues;
+        private final Map<Integer, Integer> fieldPositions = new HashMap<>();
+        private final Map<Integer, Set<Object>> values = new HashMap<>();
+        private boolean valid = true;
+
+        public IdentityPartitionValues(PartitionSpec spec)
+        {
+            this(spec, MAX_DISTINCT_VALUES);
+        }
+
+        @VisibleForTesting
+        IdentityPartitionValues(PartitionSpec spec, int maxDistinctValues)
+        {
+            checkArgument(maxDistinctValues > 0, "maxDistinctValues must be positive");
+            this.specId = spec.specId();
+            this.maxDistinctValues = maxDistinctValues;
+            getIdentityPartitions(spec).forEach((field, position) -> {
+                fieldPositions.put(field.sourceId(), position);
+                values.put(field.sourceId(), new HashSet<>());
+            });
+        }
+
+        public void add(ContentFile<?> file)
+        {
+            if (!valid) {
+                return;
+            }
+            if (file.specId() != specId) {
+                // the partition values of files written with an older spec are not comparable
+                valid = false;
+                fieldPositions.clear();
+                values.clear();
+                return;
+            }
+            Iterator<Map.Entry<Integer, Integer>> fields = fieldPositions.entrySet().iterator();
+            while (fields.hasNext()) {
+                Map.Entry<Integer, Integer> field = fields.next();
+                Object value = file.partition().get(field.getValue(), Object.class);
+                if (value == null) {
+                    continue;
+                }
+                Set<Object> fieldValues = values.get(field.getKey());
+                fieldValues.add(value instanceof CharSequence ? value.toString() : value);
+                if (fieldValues.size() > maxDistinctValues) {
+                    fields.remove();
+                    values.remove(field.getKey());
+                }
+            }
+        }
+
+        public Optional<Long> getDistinctValuesCount(int fieldId)
+        {
+            Set<Object> fieldValues = values.get(fieldId);
+            // no files, only null partitions, or too many values say nothing about the values of the column
+            if (!valid || fieldValues == null || fieldValues.isEmpty()) {
+                return Optional.empty();
+            }
+            return Optional.of((long) fieldValues.size());
+        }
+    }
+
     public static void writeTableStatistics(NodeVersion nodeVersion, TypeManager typeManager, IcebergTableHandle tableHandle, Table icebergTable, ConnectorSession session, Collection<ComputedStatistics> computedStatistics)
     {
         new TableStatisticsMaker(icebergTable, session, typeManager).writeTableStatistics(nodeVersion, typeManager, tableHandle, computedStatistics);
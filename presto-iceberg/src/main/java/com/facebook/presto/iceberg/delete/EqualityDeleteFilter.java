@@ -17,29 +17,27 @@ import com.facebook.presto.common.Page;
 import com.facebook.presto.common.type.Type;
 import com.facebook.presto.iceberg.IcebergColumnHandle;
 import com.facebook.presto.spi.ConnectorPageSource;
+import com.google.common.collect.ImmutableList;
 import jakarta.annotation.Nullable;
-import org.apache.iceberg.Schema;
-import org.apache.iceberg.StructLike;
-import org.apache.iceberg.util.StructLikeSet;
-import org.apache.iceberg.util.StructProjection;
 
 import java.util.List;
 import java.util.Optional;
 
-import static com.facebook.presto.iceberg.IcebergUtil.schemaFromHandles;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static java.util.Objects.requireNonNull;
 
 public final class EqualityDeleteFilter
         implements DeleteFilter
 {
-    private final Schema schema;
-    private final StructLikeSet deleteSet;
+    private final List<Integer> fieldIds;
+    private final EqualityDeleteSet deleteSet;
     @Nullable
     private final String deleteFilePath;
 
-    private EqualityDeleteFilter(Schema schema, StructLikeSet deleteSet, @Nullable String deleteFilePath)
+    private EqualityDeleteFilter(List<Integer> fieldIds, EqualityDeleteSet deleteSet, @Nullable String deleteFilePath)
     {
-        this.schema = requireNonNull(schema, "schema is null");
+        this.fieldIds = ImmutableList.copyOf(requireNonNull(fieldIds, "fieldIds is null"));
         this.deleteSet = requireNonNull(deleteSet, "deleteSet is null");
         this.deleteFilePath = deleteFilePath;
     }
@@ -47,16 +45,24 @@ public final class EqualityDeleteFilter
     @Override
     public RowPredicate createPredicate(List<IcebergColumnHandle> columns)
     {
-        Type[] types = columns.stream()
-                .map(IcebergColumnHandle::getType)
-                .toArray(Type[]::new);
+        int[] channels = new int[fieldIds.size()];
+        for (int i = 0; i < fieldIds.size(); i++) {
+            channels[i] = equalityChannel(columns, fieldIds.get(i), deleteSet.getTypes().get(i));
+        }
 
-        Schema fileSchema = schemaFromHandles(columns);
-        StructProjection projection = StructProjection.create(fileSchema, schema);
+        return new RowPredicate()
+        {
+            @Override
+            public boolean test(Page page, int position)
+            {
+                return !deleteSet.contains(page, channels, position);
+            }
 
-        return (page, position) -> {
-            StructLike row = new LazyStructLikeRow(types, page, position);
-            return !deleteSet.contains(projection.wrap(row));
+            @Override
+            public void retain(Page page, boolean[] retained)
+            {
+                deleteSet.removeDeleted(page, channels, retained);
+            }
         };
     }
 
@@ -66,26 +72,35 @@ public final class EqualityDeleteFilter
         return Optional.ofNullable(deleteFilePath);
     }
 
+    private static int equalityChannel(List<IcebergColumnHandle> columns, int fieldId, Type type)
+    {
+        for (int i = 0; i < columns.size(); i++) {
+            if (columns.get(i).getId() == fieldId) {
+                checkArgument(columns.get(i).getType().equals(type), "Mismatched type for equality delete column %s", fieldId);
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("No column for equality delete field " + fieldId);
+    }
+
     public static DeleteFilter readEqualityDeletes(ConnectorPageSource pageSource, List<IcebergColumnHandle> columns, String deleteFilePath)
     {
-        Type[] types = columns.stream()
+        List<Type> types = columns.stream()
                 .map(IcebergColumnHandle::getType)
-                .toArray(Type[]::new);
-
-        Schema deleteSchema = schemaFromHandles(columns);
-        StructLikeSet deleteSet = StructLikeSet.create(deleteSchema.asStruct());
+                .collect(toImmutableList());
+        EqualityDeleteSet.Builder deleteSet = EqualityDeleteSet.builder(types);
 
         while (!pageSource.isFinished()) {
             Page page = pageSource.getNextPage();
             if (page == null) {
                 continue;
             }
-
-            for (int position = 0; position < page.getPositionCount(); position++) {
-                deleteSet.add(new StructLikeRow(types, page, position));
-            }
+            deleteSet.addPage(page);
         }
 
-        return new EqualityDeleteFilter(deleteSchema, deleteSet, deleteFilePath);
+        List<Integer> fieldIds = columns.stream()
+                .map(IcebergColumnHandle::getId)
+                .collect(toImmutableList());
+        return new EqualityDeleteFilter(fieldIds, deleteSet.build(), deleteFilePath);
     }
 }
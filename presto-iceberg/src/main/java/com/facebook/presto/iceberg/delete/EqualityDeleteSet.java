@@ -0,0 +1,232 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.iceberg.delete;
+
+import com.facebook.presto.common.Page;
+import com.facebook.presto.common.block.Block;
+import com.facebook.presto.common.block.BlockBuilder;
+import com.facebook.presto.common.type.Type;
+import com.google.common.collect.ImmutableList;
+import io.airlift.slice.XxHash64;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static com.facebook.presto.common.type.DoubleType.DOUBLE;
+import static com.facebook.presto.common.type.RealType.REAL;
+import static com.facebook.presto.common.type.TypeUtils.NULL_HASH_CODE;
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.lang.Double.doubleToLongBits;
+import static java.lang.Float.floatToIntBits;
+import static java.lang.Float.intBitsToFloat;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Set of the rows of an equality delete file, stored as one {@link Block} per equality column and
+ * indexed by an open addressing hash table, so that whole pages can be probed without materializing
+ * a row object per position.
+ * <p>
+ * Values are compared the way Iceberg compares them: nulls are equal to each other, and floating
+ * point values are equal only if their canonical bits are equal.
+ */
+final class EqualityDeleteSet
+{
+    private static final int EMPTY_SLOT = -1;
+
+    private final List<Type> types;
+    private final Block[] blocks;
+    private final int rowCount;
+    private final long[] rowHashes;
+    private final int[] slots;
+    private final int mask;
+
+    private EqualityDeleteSet(List<Type> types, Block[] blocks)
+    {
+        this.types = ImmutableList.copyOf(requireNonNull(types, "types is null"));
+        this.blocks = requireNonNull(blocks, "blocks is null");
+        checkArgument(types.size() == blocks.length, "mismatched types and blocks");
+
+        this.rowCount = blocks.length == 0 ? 0 : blocks[0].getPositionCount();
+        this.rowHashes = hashRows(types, blocks, rowCount);
+        int capacity = Integer.highestOneBit(Math.max(rowCount * 2 - 1, 1)) << 1;
+        this.slots = new int[capacity];
+        this.mask = capacity - 1;
+        Arrays.fill(slots, EMPTY_SLOT);
+        for (int row = 0; row < rowCount; row++) {
+            int slot = findSlot(blocks, row, rowHashes[row]);
+            // duplicate delete rows only need to be indexed once
+            if (slots[slot] == EMPTY_SLOT) {
+                slots[slot] = row;
+            }
+        }
+    }
+
+    public static Builder builder(List<Type> types)
+    {
+        return new Builder(types);
+    }
+
+    public List<Type> getTypes()
+    {
+        return types;
+    }
+
+    public boolean contains(Page page, int[] channels, int position)
+    {
+        checkArgument(channels.length == types.size(), "mismatched channels");
+        if (rowCount == 0) {
+            return false;
+        }
+
+        Block[] probeBlocks = getBlocks(page, channels);
+        long rowHash = 0;
+        for (int i = 0; i < types.size(); i++) {
+            rowHash = 31 * rowHash + valueHash(types.get(i), probeBlocks[i], position);
+        }
+        return slots[findSlot(probeBlocks, position, rowHash)] != EMPTY_SLOT;
+    }
+
+    /**
+     * Clears {@code retained[position]} for the retained positions whose values in {@code channels}
+     * of the page match a row of this set.
+     */
+    public void removeDeleted(Page page, int[] channels, boolean[] retained)
+    {
+        checkArgument(channels.length == types.size(), "mismatched channels");
+        int positionCount = page.getPositionCount();
+        if (positionCount == 0 || rowCount == 0) {
+            return;
+        }
+
+        Block[] probeBlocks = getBlocks(page, channels);
+        long[] hashes = hashRows(types, probeBlocks, positionCount);
+        for (int position = 0; position < positionCount; position++) {
+            if (retained[position] && slots[findSlot(probeBlocks, position, hashes[position])] != EMPTY_SLOT) {
+                retained[position] = false;
+            }
+        }
+    }
+
+    private static Block[] getBlocks(Page page, int[] channels)
+    {
+        Block[] blocks = new Block[channels.length];
+        for (int i = 0; i < channels.length; i++) {
+            blocks[i] = page.getBlock(channels[i]);
+        }
+        return blocks;
+    }
+
+    /**
+     * Returns the slot holding the row equal to the given position, or the empty slot where it would be inserted.
+     */
+    private int findSlot(Block[] probeBlocks, int position, long rowHash)
+    {
+        int slot = (int) XxHash64.hash(rowHash) & mask;
+        while (true) {
+            int row = slots[slot];
+            if (row == EMPTY_SLOT || (rowHashes[row] == rowHash && rowEquals(probeBlocks, position, row))) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private boolean rowEquals(Block[] probeBlocks, int position, int row)
+    {
+        for (int i = 0; i < types.size(); i++) {
+            if (!valueEquals(types.get(i), probeBlocks[i], position, blocks[i], row)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long[] hashRows(List<Type> types, Block[] blocks, int positionCount)
+    {
+        // hash one column at a time rather than one row at a time
+        long[] hashes = new long[positionCount];
+        for (int i = 0; i < types.size(); i++) {
+            Type type = types.get(i);
+            Block block = blocks[i];
+            for (int position = 0; position < positionCount; position++) {
+                hashes[position] = 31 * hashes[position] + valueHash(type, block, position);
+            }
+        }
+        return hashes;
+    }
+
+    private static long valueHash(Type type, Block block, int position)
+    {
+        if (block.isNull(position)) {
+            return NULL_HASH_CODE;
+        }
+        if (type.equals(DOUBLE)) {
+            return doubleToLongBits(DOUBLE.getDouble(block, position));
+        }
+        if (type.equals(REAL)) {
+            return floatToIntBits(intBitsToFloat((int) REAL.getLong(block, position)));
+        }
+        return type.hash(block, position);
+    }
+
+    private static boolean valueEquals(Type type, Block leftBlock, int leftPosition, Block rightBlock, int rightPosition)
+    {
+        boolean leftNull = leftBlock.isNull(leftPosition);
+        boolean rightNull = rightBlock.isNull(rightPosition);
+        if (leftNull || rightNull) {
+            return leftNull && rightNull;
+        }
+        if (type.equals(DOUBLE) || type.equals(REAL)) {
+            return valueHash(type, leftBlock, leftPosition) == valueHash(type, rightBlock, rightPosition);
+        }
+        return type.equalTo(leftBlock, leftPosition, rightBlock, rightPosition);
+    }
+
+    public static class Builder
+    {
+        private final List<Type> types;
+        private final BlockBuilder[] blockBuilders;
+
+        private Builder(List<Type> types)
+        {
+            this.types = ImmutableList.copyOf(requireNonNull(types, "types is null"));
+            this.blockBuilders = new BlockBuilder[types.size()];
+            for (int i = 0; i < types.size(); i++) {
+                blockBuilders[i] = types.get(i).createBlockBuilder(null, 1024);
+            }
+        }
+
+        public Builder addPage(Page page)
+        {
+            checkArgument(page.getChannelCount() == types.size(), "mismatched types for page");
+            for (int channel = 0; channel < types.size(); channel++) {
+                Type type = types.get(channel);
+                Block block = page.getBlock(channel);
+                for (int position = 0; position < page.getPositionCount(); position++) {
+                    type.appendTo(block, position, blockBuilders[channel]);
+                }
+            }
+            return this;
+        }
+
+        public EqualityDeleteSet build()
+        {
+            Block[] blocks = new Block[blockBuilders.length];
+            for (int i = 0; i < blockBuilders.length; i++) {
+                blocks[i] = blockBuilders[i].build();
+            }
+            return new EqualityDeleteSet(types, blocks);
+        }
+    }
+}
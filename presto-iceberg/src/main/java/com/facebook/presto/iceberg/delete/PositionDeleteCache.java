@@ -0,0 +1,77 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.iceberg.delete;
+
+import com.facebook.airlift.stats.DistributionStat;
+import com.facebook.presto.hive.CacheStatsMBean;
+import com.google.common.cache.Cache;
+import com.google.common.cache.ForwardingCache.SimpleForwardingCache;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.weakref.jmx.Managed;
+import org.weakref.jmx.Nested;
+
+import java.util.Map;
+
+/**
+ * Worker-level cache of the rows deleted by position delete files, indexed by the path of the
+ * data file they apply to. A delete file is read once for all the data files it references,
+ * and the bitmaps are shared, read-only, by all the splits of those data files.
+ */
+public class PositionDeleteCache
+        extends SimpleForwardingCache<PositionDeleteCacheKey, Map<String, Roaring64Bitmap>>
+{
+    private final boolean enabled;
+    private final DistributionStat fileSizes = new DistributionStat();
+    private final CacheStatsMBean cacheStats;
+
+    public PositionDeleteCache(Cache<PositionDeleteCacheKey, Map<String, Roaring64Bitmap>> delegate, boolean enabled)
+    {
+        super(delegate);
+        this.enabled = enabled;
+        this.cacheStats = new CacheStatsMBean(delegate);
+    }
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    @Managed
+    @Nested
+    public CacheStatsMBean getCacheStats()
+    {
+        return cacheStats;
+    }
+
+    @Managed
+    @Nested
+    public DistributionStat getFileSizeDistribution()
+    {
+        return fileSizes;
+    }
+
+    public void recordFileSize(long size)
+    {
+        fileSizes.add(size);
+    }
+
+    public static int estimateSizeInBytes(Map<String, Roaring64Bitmap> deletedRows)
+    {
+        long size = 0;
+        for (Map.Entry<String, Roaring64Bitmap> entry : deletedRows.entrySet()) {
+            size += entry.getKey().length() + entry.getValue().serializedSizeInBytes();
+        }
+        return (int) Math.min(size, Integer.MAX_VALUE);
+    }
+}
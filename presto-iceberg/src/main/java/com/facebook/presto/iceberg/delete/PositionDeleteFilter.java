@@ -21,8 +21,11 @@ import io.airlift.slice.Slice;
 import jakarta.annotation.Nullable;
 import org.roaringbitmap.longlong.ImmutableLongBitmapDataProvider;
 import org.roaringbitmap.longlong.LongBitmapDataProvider;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static com.facebook.presto.common.type.BigintType.BIGINT;
@@ -97,6 +100,38 @@ public final class PositionDeleteFilter
         }
     }
 
+    /**
+     * Reads the deleted rows of all the data files referenced by the delete file, indexed by data file path.
+     */
+    public static Map<String, Roaring64Bitmap> readAllPositionDeletes(ConnectorPageSource pageSource)
+    {
+        Map<String, Roaring64Bitmap> deletedRows = new HashMap<>();
+        Slice currentPath = null;
+        Roaring64Bitmap currentRows = null;
+        while (!pageSource.isFinished()) {
+            Page page = pageSource.getNextPage();
+            if (page == null) {
+                continue;
+            }
+
+            Block pathBlock = page.getBlock(0);
+            Block posBlock = page.getBlock(1);
+
+            for (int position = 0; position < page.getPositionCount(); position++) {
+                checkArgument(!pathBlock.isNull(position), "position is null");
+                Slice path = VARCHAR.getSlice(pathBlock, position);
+                // deletion files are sorted by path, so the path rarely changes from one row to the next
+                if (currentRows == null || !path.equals(currentPath)) {
+                    currentPath = path;
+                    currentRows = deletedRows.computeIfAbsent(path.toStringUtf8(), ignored -> new Roaring64Bitmap());
+                }
+                currentRows.addLong(BIGINT.getLong(posBlock, position));
+            }
+        }
+        deletedRows.values().forEach(Roaring64Bitmap::runOptimize);
+        return deletedRows;
+    }
+
     private static final class CachingVarcharComparator
     {
         private final Slice reference;
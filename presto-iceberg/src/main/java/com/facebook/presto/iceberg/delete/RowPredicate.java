@@ -18,6 +18,8 @@ import com.facebook.presto.common.block.Block;
 import com.facebook.presto.common.block.BlockBuilder;
 import com.facebook.presto.common.block.RunLengthEncodedBlock;
 
+import java.util.Arrays;
+
 import static com.facebook.presto.common.type.BooleanType.BOOLEAN;
 import static java.util.Objects.requireNonNull;
 
@@ -25,19 +27,48 @@ public interface RowPredicate
 {
     boolean test(Page page, int position);
 
+    /**
+     * Clears {@code retained[position]} for every position of the page which does not satisfy
+     * this predicate. Positions which are already cleared do not need to be evaluated.
+     */
+    default void retain(Page page, boolean[] retained)
+    {
+        for (int position = 0; position < page.getPositionCount(); position++) {
+            if (retained[position] && !test(page, position)) {
+                retained[position] = false;
+            }
+        }
+    }
+
     default RowPredicate and(RowPredicate other)
     {
         requireNonNull(other, "other is null");
-        return (page, position) -> test(page, position) && other.test(page, position);
+        RowPredicate self = this;
+        return new RowPredicate()
+        {
+            @Override
+            public boolean test(Page page, int position)
+            {
+                return self.test(page, position) && other.test(page, position);
+            }
+
+            @Override
+            public void retain(Page page, boolean[] retained)
+            {
+                self.retain(page, retained);
+                other.retain(page, retained);
+            }
+        };
     }
 
     default Page filterPage(Page page)
     {
         int positionCount = page.getPositionCount();
+        boolean[] retainedMask = retainedPositions(page);
         int[] retained = new int[positionCount];
         int retainedCount = 0;
         for (int position = 0; position < positionCount; position++) {
-            if (test(page, position)) {
+            if (retainedMask[position]) {
                 retained[retainedCount] = position;
                 retainedCount++;
             }
@@ -55,11 +86,12 @@ public interface RowPredicate
             return page;
         }
 
+        boolean[] retained = retainedPositions(page);
         boolean allSameValues = true;
-        boolean firstValue = !test(page, 0);
+        boolean firstValue = !retained[0];
         BlockBuilder blockBuilder = null;
         for (int position = 1; position < positionCount; position++) {
-            boolean deleted = !test(page, position);
+            boolean deleted = !retained[position];
             if (allSameValues && deleted != firstValue) {
                 blockBuilder = BOOLEAN.createFixedSizeBlockBuilder(positionCount);
                 for (int idx = 0; idx < position; idx++) {
@@ -83,4 +115,12 @@ public interface RowPredicate
 
         return page.replaceColumn(deletedDelegateColumnId, block);
     }
+
+    default boolean[] retainedPositions(Page page)
+    {
+        boolean[] retained = new boolean[page.getPositionCount()];
+        Arrays.fill(retained, true);
+        retain(page, retained);
+        return retained;
+    }
 }
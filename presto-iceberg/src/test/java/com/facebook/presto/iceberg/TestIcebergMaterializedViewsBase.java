@@ -14,11 +14,23 @@
 package com.facebook.presto.iceberg;
 
 import com.facebook.presto.Session;
+import com.facebook.presto.common.QualifiedObjectName;
+import com.facebook.presto.metadata.InsertTableHandle;
+import com.facebook.presto.metadata.Metadata;
+import com.facebook.presto.spi.MaterializedViewStatus.MaterializedDataPredicates;
+import com.facebook.presto.spi.SchemaTableName;
+import com.facebook.presto.spi.TableHandle;
+import com.facebook.presto.spi.security.AllowAllAccessControl;
 import com.facebook.presto.tests.AbstractTestQueryFramework;
+import com.google.common.collect.ImmutableMap;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
 import java.io.File;
+import java.util.Map;
+
+import static com.facebook.presto.transaction.TransactionBuilder.transaction;
+import static org.testng.Assert.assertEquals;
 
 @Test(singleThreaded = true)
 public abstract class TestIcebergMaterializedViewsBase
@@ -265,6 +277,93 @@ public abstract class TestIcebergMaterializedViewsBase
         assertUpdate("DROP TABLE test_mv_agg_refresh_base");
     }
 
+    @Test
+    public void testIncrementalRefreshMaterializedView()
+    {
+        assertUpdate("CREATE TABLE test_mv_incremental_base (category VARCHAR, value BIGINT, ds VARCHAR) " +
+                "WITH (partitioning = ARRAY['ds'])");
+        assertUpdate("INSERT INTO test_mv_incremental_base VALUES " +
+                "('A', 10, '2024-01-01'), ('B', 20, '2024-01-01'), ('A', 5, '2024-01-02')", 3);
+
+        assertUpdate("CREATE MATERIALIZED VIEW test_mv_incremental " +
+                "WITH (partitioning = ARRAY['ds'], refresh_type = 'INCREMENTAL') AS " +
+                "SELECT ds, category, SUM(value) as total FROM test_mv_incremental_base GROUP BY ds, category");
+
+        // the first refresh is always a full refresh
+        assertUpdate("REFRESH MATERIALIZED VIEW test_mv_incremental", 3);
+
+        assertUpdate("INSERT INTO test_mv_incremental_base VALUES ('A', 1, '2024-01-02'), ('C', 7, '2024-01-03')", 2);
+
+        // only the appended partitions are recomputed
+        assertUpdate("REFRESH MATERIALIZED VIEW test_mv_incremental", 2);
+        assertQuery("SELECT * FROM \"__mv_storage__test_mv_incremental\" ORDER BY ds, category",
+                "VALUES ('2024-01-01', 'A', 10), ('2024-01-01', 'B', 20), ('2024-01-02', 'A', 6), ('2024-01-03', 'C', 7)");
+
+        // deletes fall back to a full refresh
+        assertUpdate("DELETE FROM test_mv_incremental_base WHERE ds = '2024-01-01'", 2);
+        assertUpdate("REFRESH MATERIALIZED VIEW test_mv_incremental", 2);
+        assertQuery("SELECT * FROM \"__mv_storage__test_mv_incremental\" ORDER BY ds, category",
+                "VALUES ('2024-01-02', 'A', 6), ('2024-01-03', 'C', 7)");
+
+        assertUpdate("DROP MATERIALIZED VIEW test_mv_incremental");
+        assertUpdate("DROP TABLE test_mv_incremental_base");
+    }
+
+    @Test
+    public void testIncrementalRefreshWithConcurrentAppend()
+    {
+        assertUpdate("CREATE TABLE test_mv_concurrent_base (category VARCHAR, value BIGINT, ds VARCHAR) " +
+                "WITH (partitioning = ARRAY['ds'])");
+        assertUpdate("INSERT INTO test_mv_concurrent_base VALUES ('A', 10, '2024-01-01'), ('A', 5, '2024-01-02')", 2);
+        assertUpdate("CREATE MATERIALIZED VIEW test_mv_concurrent " +
+                "WITH (partitioning = ARRAY['ds'], refresh_type = 'INCREMENTAL') AS " +
+                "SELECT ds, category, SUM(value) as total FROM test_mv_concurrent_base GROUP BY ds, category");
+        assertUpdate("REFRESH MATERIALIZED VIEW test_mv_concurrent", 2);
+        assertUpdate("INSERT INTO test_mv_concurrent_base VALUES ('A', 1, '2024-01-02')", 1);
+
+        String catalog = getSession().getCatalog().get();
+        String schema = getSession().getSchema().get();
+        QualifiedObjectName viewName = new QualifiedObjectName(catalog, schema, "test_mv_concurrent");
+        QualifiedObjectName baseTableName = new QualifiedObjectName(catalog, schema, "test_mv_concurrent_base");
+        transaction(getQueryRunner().getTransactionManager(), new AllowAllAccessControl())
+                .singleStatement()
+                .execute(getSession(), session -> {
+                    Metadata metadata = getQueryRunner().getMetadata();
+                    Map<SchemaTableName, MaterializedDataPredicates> predicates = metadata.getMaterializedViewRefreshPredicates(session, viewName);
+                    assertEquals(predicates.get(new SchemaTableName(schema, "test_mv_concurrent_base")).getPredicateDisjuncts().size(), 1);
+                    long snapshotId = getSnapshotId(metadata, session, baseTableName);
+
+                    // an append committed while the refresh runs is neither read nor recorded by it
+                    getQueryRunner().execute("INSERT INTO test_mv_concurrent_base VALUES ('B', 7, '2024-01-03')");
+                    assertEquals(metadata.getMaterializedViewRefreshPredicates(session, viewName), predicates);
+                    assertEquals(getSnapshotId(metadata, session, baseTableName), snapshotId);
+
+                    TableHandle viewHandle = metadata.getMetadataResolver(session).getTableHandle(viewName).get();
+                    InsertTableHandle refreshHandle = metadata.beginRefreshMaterializedView(session, viewHandle);
+                    assertEquals(
+                            ((IcebergInsertTableHandle) refreshHandle.getConnectorHandle()).getMaterializedViewBaseSnapshots(),
+                            ImmutableMap.of("presto.materialized_view.base_snapshot." + schema + ".test_mv_concurrent_base", snapshotId));
+                });
+
+        // the changed partitions are not reported as missing, so reading the stale view does not count them twice
+        assertQuery("SELECT * FROM test_mv_concurrent ORDER BY ds, category",
+                "VALUES ('2024-01-01', 'A', 10), ('2024-01-02', 'A', 6), ('2024-01-03', 'B', 7)");
+
+        // the refresh above was never finished, so the next one replaces the partitions of both appends
+        assertUpdate("REFRESH MATERIALIZED VIEW test_mv_concurrent", 2);
+        assertQuery("SELECT * FROM \"__mv_storage__test_mv_concurrent\" ORDER BY ds, category",
+                "VALUES ('2024-01-01', 'A', 10), ('2024-01-02', 'A', 6), ('2024-01-03', 'B', 7)");
+
+        assertUpdate("DROP MATERIALIZED VIEW test_mv_concurrent");
+        assertUpdate("DROP TABLE test_mv_concurrent_base");
+    }
+
+    private static long getSnapshotId(Metadata metadata, Session session, QualifiedObjectName tableName)
+    {
+        TableHandle tableHandle = metadata.getMetadataResolver(session).getTableHandle(tableName).get();
+        return ((IcebergTableHandle) tableHandle.getConnectorHandle()).getIcebergTableName().getSnapshotId().get();
+    }
+
     @Test
     public void testPartitionedMaterializedViewWithStaleDataConstraints()
     {
@@ -0,0 +1,109 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.iceberg;
+
+import com.facebook.presto.Session;
+import com.facebook.presto.testing.MaterializedRow;
+import com.facebook.presto.testing.QueryRunner;
+import com.facebook.presto.tests.AbstractTestQueryFramework;
+import com.google.common.collect.ImmutableMap;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.OptionalInt;
+
+import static java.lang.String.format;
+import static org.testng.Assert.assertEquals;
+
+public class TestIcebergPositionDeleteCache
+        extends AbstractTestQueryFramework
+{
+    private static final String JMX_METRICS_QUERY = "SELECT sum(\"cachestats.size\"), sum(\"cachestats.hitcount\"), sum(\"cachestats.misscount\") " +
+            "FROM jmx.current.\"com.facebook.presto.iceberg.delete:name=iceberg,type=positiondeletecache\"";
+
+    @Override
+    protected QueryRunner createQueryRunner()
+            throws Exception
+    {
+        // a single worker, so that every split of a data file finds the deletes cached by the previous query
+        return IcebergQueryRunner.builder()
+                .setExtraConnectorProperties(ImmutableMap.of("iceberg.max-position-delete-cache-size", "16MB"))
+                .setNodeCount(OptionalInt.of(1))
+                .build()
+                .getQueryRunner();
+    }
+
+    @BeforeClass
+    public void setUp()
+    {
+        assertQuerySucceeds("CREATE SCHEMA iceberg.test_position_delete_cache");
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown()
+    {
+        assertQuerySucceeds("DROP SCHEMA IF EXISTS iceberg.test_position_delete_cache");
+    }
+
+    @DataProvider
+    public Object[][] fileFormats()
+    {
+        return new Object[][] {{"PARQUET"}, {"ORC"}};
+    }
+
+    @Test(dataProvider = "fileFormats")
+    public void testMergedPositionDeletes(String fileFormat)
+    {
+        String table = "nation_" + fileFormat.toLowerCase();
+        // a single writer, so that both deletes apply to the rows of one data file
+        Session session = Session.builder(getSession())
+                .setSystemProperty("task_writer_count", "1")
+                .setSchema("test_position_delete_cache")
+                .build();
+        try {
+            assertUpdate(session, format("CREATE TABLE %s WITH (format = '%s', \"format-version\" = '2', \"write.delete.mode\" = 'merge-on-read') " +
+                    "AS SELECT * FROM tpch.tiny.nation", table, fileFormat), 25);
+            assertUpdate(session, format("DELETE FROM %s WHERE regionkey = 1", table), 5);
+            assertUpdate(session, format("DELETE FROM %s WHERE nationkey IN (0, 10, 20)", table), 3);
+            assertQuery(session, format("SELECT content, count(*) FROM \"%s$files\" GROUP BY content", table), "VALUES (0, 1), (1, 2)");
+
+            String query = format("SELECT nationkey, name FROM %s", table);
+            String expected = "SELECT nationkey, name FROM nation WHERE regionkey <> 1 AND nationkey NOT IN (0, 10, 20)";
+            MaterializedRow before = computeActual(JMX_METRICS_QUERY).getMaterializedRows().get(0);
+
+            assertQuery(session, query, expected);
+            MaterializedRow afterFirstRead = computeActual(JMX_METRICS_QUERY).getMaterializedRows().get(0);
+            assertEquals(count(afterFirstRead, 0) - count(before, 0), 2);
+            assertEquals(count(afterFirstRead, 1) - count(before, 1), 0);
+            assertEquals(count(afterFirstRead, 2) - count(before, 2), 2);
+
+            // the deletes of both files are served from the cache and still merged
+            assertQuery(session, query, expected);
+            MaterializedRow afterSecondRead = computeActual(JMX_METRICS_QUERY).getMaterializedRows().get(0);
+            assertEquals(count(afterSecondRead, 1) - count(afterFirstRead, 1), 2);
+            assertEquals(count(afterSecondRead, 2) - count(afterFirstRead, 2), 0);
+        }
+        finally {
+            assertQuerySucceeds(session, "DROP TABLE IF EXISTS " + table);
+        }
+    }
+
+    private static long count(MaterializedRow row, int field)
+    {
+        Object value = row.getField(field);
+        return value == null ? 0 : (long) value;
+    }
+}
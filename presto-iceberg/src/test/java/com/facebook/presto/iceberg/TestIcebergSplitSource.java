@@ -0,0 +1,276 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.iceberg;
+
+import com.facebook.presto.cache.CacheConfig;
+import com.facebook.presto.common.predicate.TupleDomain;
+import com.facebook.presto.hive.OrcFileWriterConfig;
+import com.facebook.presto.hive.ParquetFileWriterConfig;
+import com.facebook.presto.spi.ConnectorSession;
+import com.facebook.presto.spi.ConnectorSplitSource.ConnectorSplitBatch;
+import com.facebook.presto.testing.TestingConnectorSession;
+import com.google.common.collect.ImmutableList;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.iceberg.DataFiles;
+import org.apache.iceberg.FileScanTask;
+import org.apache.iceberg.PartitionSpec;
+import org.apache.iceberg.Schema;
+import org.apache.iceberg.Table;
+import org.apache.iceberg.hadoop.HadoopTables;
+import org.apache.iceberg.io.CloseableIterable;
+import org.apache.iceberg.types.Types;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static com.facebook.airlift.concurrent.Threads.daemonThreadsNamed;
+import static com.facebook.presto.spi.connector.NotPartitionedPartitionHandle.NOT_PARTITIONED;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.io.MoreFiles.deleteRecursively;
+import static com.google.common.io.RecursiveDeleteOption.ALLOW_INSECURE;
+import static java.nio.file.Files.createTempDirectory;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+public class TestIcebergSplitSource
+{
+    private static final ConnectorSession SESSION = new TestingConnectorSession(
+            new IcebergSessionProperties(
+                    new IcebergConfig(),
+                    new ParquetFileWriterConfig(),
+                    new OrcFileWriterConfig(),
+                    new CacheConfig(),
+                    Optional.empty()).getSessionProperties());
+    private static final int FILE_COUNT = 10;
+
+    private File tableDirectory;
+    private Table table;
+
+    @BeforeClass
+    public void setUp()
+            throws Exception
+    {
+        tableDirectory = createTempDirectory("iceberg-split-source").toFile();
+        table = new HadoopTables(new Configuration()).create(
+                new Schema(Types.NestedField.required(1, "id", Types.LongType.get())),
+                PartitionSpec.unpartitioned(),
+                new File(tableDirectory, "table").toURI().toString());
+        // the files are only planned, never read
+        IntStream.range(0, FILE_COUNT).forEach(i -> table.newAppend()
+                .appendFile(DataFiles.builder(table.spec())
+                        .withPath(dataFilePath(i))
+                        .withFormat("PARQUET")
+                        .withFileSizeInBytes(100)
+                        .withRecordCount(1)
+                        .build())
+                .commit());
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown()
+            throws Exception
+    {
+        deleteRecursively(tableDirectory.toPath(), ALLOW_INSECURE);
+    }
+
+    @Test
+    public void testLoadAllSplits()
+            throws Exception
+    {
+        // the loader must not hold the only thread, which also completes the futures of the queue
+        ExecutorService executor = newFixedThreadPool(1, daemonThreadsNamed("test-iceberg-split-loader-%s"));
+        try {
+            TestingScan scan = new TestingScan();
+            IcebergSplitSource splitSource = createSplitSource(scan, executor, 2);
+
+            List<String> paths = new ArrayList<>();
+            while (!splitSource.isFinished()) {
+                paths.addAll(getPaths(splitSource.getNextBatch(NOT_PARTITIONED, 3).get()));
+            }
+            assertEquals(paths.stream().sorted().collect(toImmutableList()), allDataFilePaths());
+            assertTrue(scan.isClosed());
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testBackpressure()
+            throws Exception
+    {
+        TestingExecutor executor = new TestingExecutor();
+        TestingScan scan = new TestingScan();
+        IcebergSplitSource splitSource = createSplitSource(scan, executor, 2);
+
+        // the loader stops when the queue is full
+        executor.runAll();
+        assertEquals(scan.getPlannedTasks(), 2);
+
+        // and resumes when the scheduler takes a split
+        assertEquals(getPaths(splitSource.getNextBatch(NOT_PARTITIONED, 1).get()), ImmutableList.of(dataFilePath(0)));
+        assertEquals(scan.getPlannedTasks(), 2);
+        executor.runAll();
+        assertEquals(scan.getPlannedTasks(), 3);
+        assertFalse(splitSource.isFinished());
+        assertFalse(scan.isClosed());
+    }
+
+    @Test
+    public void testClose()
+    {
+        TestingExecutor executor = new TestingExecutor();
+        TestingScan scan = new TestingScan();
+        IcebergSplitSource splitSource = createSplitSource(scan, executor, 2);
+        executor.runAll();
+
+        // the blocked loader stops without planning more files, and closes the scan
+        splitSource.close();
+        executor.runAll();
+        assertEquals(scan.getPlannedTasks(), 2);
+        assertTrue(scan.isClosed());
+    }
+
+    @Test
+    public void testFailure()
+    {
+        TestingExecutor executor = new TestingExecutor();
+        TestingScan scan = new TestingScan(3);
+        IcebergSplitSource splitSource = createSplitSource(scan, executor, FILE_COUNT);
+        executor.runAll();
+
+        assertTrue(scan.isClosed());
+        expectThrows(RuntimeException.class, splitSource::isFinished);
+        ExecutionException failure = expectThrows(ExecutionException.class, () -> splitSource.getNextBatch(NOT_PARTITIONED, FILE_COUNT).get());
+        assertEquals(failure.getCause().getMessage(), "failed to read manifest");
+    }
+
+    private IcebergSplitSource createSplitSource(Supplier<CloseableIterable<FileScanTask>> scan, Executor executor, int maxOutstandingSplits)
+    {
+        return new IcebergSplitSource(SESSION, scan, 1024 * 1024, TupleDomain.all(), executor, maxOutstandingSplits);
+    }
+
+    private static List<String> getPaths(ConnectorSplitBatch batch)
+    {
+        return batch.getSplits().stream()
+                .map(split -> ((IcebergSplit) split).getPath())
+                .collect(toImmutableList());
+    }
+
+    private static List<String> allDataFilePaths()
+    {
+        return IntStream.range(0, FILE_COUNT)
+                .mapToObj(TestIcebergSplitSource::dataFilePath)
+                .collect(toImmutableList());
+    }
+
+    private static String dataFilePath(int index)
+    {
+        return "file:/data/file-" + index + ".parquet";
+    }
+
+    /**
+     * Plans the files of the test table in the order they were added, counting the planned files,
+     * and optionally failing when one more than the given count is planned.
+     */
+    private class TestingScan
+            implements Supplier<CloseableIterable<FileScanTask>>
+    {
+        private final int failAfter;
+        private final AtomicInteger plannedTasks = new AtomicInteger();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        public TestingScan()
+        {
+            this(Integer.MAX_VALUE);
+        }
+
+        public TestingScan(int failAfter)
+        {
+            this.failAfter = failAfter;
+        }
+
+        @Override
+        public CloseableIterable<FileScanTask> get()
+        {
+            List<FileScanTask> tasks = new ArrayList<>();
+            try (CloseableIterable<FileScanTask> planned = table.newScan().planFiles()) {
+                planned.forEach(tasks::add);
+            }
+            catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+            tasks.sort((left, right) -> left.file().path().toString().compareTo(right.file().path().toString()));
+            return CloseableIterable.combine(
+                    tasks.stream()
+                            .map(task -> {
+                                if (plannedTasks.get() == failAfter) {
+                                    throw new RuntimeException("failed to read manifest");
+                                }
+                                plannedTasks.incrementAndGet();
+                                return task;
+                            })::iterator,
+                    () -> closed.set(true));
+        }
+
+        public int getPlannedTasks()
+        {
+            return plannedTasks.get();
+        }
+
+        public boolean isClosed()
+        {
+            return closed.get();
+        }
+    }
+
+    /**
+     * Runs the tasks of the split loader and the futures of its queue on the test thread.
+     */
+    private static class TestingExecutor
+            implements Executor
+    {
+        private final Queue<Runnable> tasks = new ArrayDeque<>();
+
+        @Override
+        public void execute(Runnable task)
+        {
+            tasks.add(task);
+        }
+
+        public void runAll()
+        {
+            while (!tasks.isEmpty()) {
+                tasks.remove().run();
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.iceberg;
+
+import com.facebook.presto.iceberg.TableStatisticsMaker.IdentityPartitionValues;
+import org.apache.iceberg.DataFile;
+import org.apache.iceberg.DataFiles;
+import org.apache.iceberg.PartitionSpec;
+import org.apache.iceberg.Schema;
+import org.apache.iceberg.types.Types;
+import org.testng.annotations.Test;
+
+import java.util.Optional;
+
+import static org.testng.Assert.assertEquals;
+
+public class TestTableStatisticsMaker
+{
+    private static final Schema SCHEMA = new Schema(
+            Types.NestedField.required(1, "id", Types.LongType.get()),
+            Types.NestedField.optional(2, "region", Types.StringType.get()),
+            Types.NestedField.optional(3, "day", Types.IntegerType.get()),
+            Types.NestedField.optional(4, "comment", Types.StringType.get()));
+    private static final PartitionSpec SPEC = PartitionSpec.builderFor(SCHEMA)
+            .identity("region")
+            .identity("day")
+            .identity("comment")
+            .bucket("id", 4)
+            .build();
+
+    @Test
+    public void testIdentityPartitionValues()
+    {
+        IdentityPartitionValues values = new IdentityPartitionValues(SPEC);
+        values.add(dataFile(SPEC, "region=a/day=1/comment=null/id_bucket=0"));
+        values.add(dataFile(SPEC, "region=b/day=1/comment=null/id_bucket=1"));
+        values.add(dataFile(SPEC, "region=a/day=2/comment=null/id_bucket=2"));
+        values.add(dataFile(SPEC, "region=null/day=3/comment=null/id_bucket=3"));
+
+        // nulls are not distinct values
+        assertEquals(values.getDistinctValuesCount(2), Optional.of(2L));
+        assertEquals(values.getDistinctValuesCount(3), Optional.of(3L));
+        // a column with only null partitions has an unknown, not a zero, NDV
+        assertEquals(values.getDistinctValuesCount(4), Optional.empty());
+        // the values of a bucketed column are not known
+        assertEquals(values.getDistinctValuesCount(1), Optional.empty());
+    }
+
+    @Test
+    public void testNoFiles()
+    {
+        IdentityPartitionValues values = new IdentityPartitionValues(SPEC);
+        assertEquals(values.getDistinctValuesCount(2), Optional.empty());
+    }
+
+    @Test
+    public void testTooManyDistinctValues()
+    {
+        IdentityPartitionValues values = new IdentityPartitionValues(SPEC, 2);
+        values.add(dataFile(SPEC, "region=a/day=1/comment=null/id_bucket=0"));
+        values.add(dataFile(SPEC, "region=b/day=2/comment=null/id_bucket=1"));
+        values.add(dataFile(SPEC, "region=a/day=3/comment=null/id_bucket=2"));
+        values.add(dataFile(SPEC, "region=b/day=4/comment=null/id_bucket=3"));
+
+        // a column with more values than the limit has an unknown NDV
+        assertEquals(values.getDistinctValuesCount(2), Optional.of(2L));
+        assertEquals(values.getDistinctValuesCount(3), Optional.empty());
+    }
+
+    @Test
+    public void testPartitionSpecEvolution()
+    {
+        PartitionSpec previousSpec = PartitionSpec.builderFor(SCHEMA)
+                .identity("region")
+                .withSpecId(SPEC.specId() + 1)
+                .build();
+        IdentityPartitionValues values = new IdentityPartitionValues(SPEC);
+        values.add(dataFile(SPEC, "region=a/day=1/comment=x/id_bucket=0"));
+        values.add(dataFile(previousSpec, "region=b"));
+        values.add(dataFile(SPEC, "region=c/day=2/comment=y/id_bucket=1"));
+
+        // the files of another spec make every count unknown
+        assertEquals(values.getDistinctValuesCount(2), Optional.empty());
+        assertEquals(values.getDistinctValuesCount(3), Optional.empty());
+    }
+
+    private static DataFile dataFile(PartitionSpec spec, String partitionPath)
+    {
+        return DataFiles.builder(spec)
+                .withPath("file:/data/" + partitionPath + "/file.parquet")
+                .withFormat("PARQUET")
+                .withFileSizeInBytes(100)
+                .withRecordCount(10)
+                .withPartitionPath(partitionPath)
+                .build();
+    }
+}
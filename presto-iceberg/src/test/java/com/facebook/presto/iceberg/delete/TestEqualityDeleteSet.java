@@ -0,0 +1,146 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.iceberg.delete;
+
+import com.facebook.presto.common.Page;
+import com.facebook.presto.common.block.Block;
+import com.facebook.presto.common.block.BlockBuilder;
+import com.google.common.collect.ImmutableList;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+
+import static com.facebook.presto.common.type.BigintType.BIGINT;
+import static com.facebook.presto.common.type.DoubleType.DOUBLE;
+import static com.facebook.presto.common.type.VarcharType.VARCHAR;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestEqualityDeleteSet
+{
+    @Test
+    public void testRemoveDeleted()
+    {
+        EqualityDeleteSet deleteSet = EqualityDeleteSet.builder(ImmutableList.of(BIGINT, VARCHAR))
+                .addPage(new Page(longs(1L, 2L, null), strings("a", "b", "c")))
+                // duplicates and rows spread over several pages
+                .addPage(new Page(longs(1L, 3L), strings("a", null)))
+                .build();
+
+        // data page with the equality columns in a different order and an extra column
+        Page page = new Page(
+                strings("a", "a", "b", "c", null, "x"),
+                doubles(0.0, 1.0, 2.0, 3.0, 4.0, 5.0),
+                longs(1L, 2L, 2L, null, 3L, 1L));
+        int[] channels = {2, 0};
+
+        boolean[] retained = new boolean[page.getPositionCount()];
+        Arrays.fill(retained, true);
+        // positions which are already filtered out stay filtered out
+        retained[5] = false;
+        deleteSet.removeDeleted(page, channels, retained);
+        assertEquals(retained, new boolean[] {false, true, false, false, false, false});
+
+        assertTrue(deleteSet.contains(page, channels, 0));
+        assertFalse(deleteSet.contains(page, channels, 1));
+        assertTrue(deleteSet.contains(page, channels, 3));
+        assertFalse(deleteSet.contains(page, channels, 5));
+    }
+
+    @Test
+    public void testFloatingPoint()
+    {
+        EqualityDeleteSet deleteSet = EqualityDeleteSet.builder(ImmutableList.of(DOUBLE))
+                .addPage(new Page(doubles(Double.NaN, 0.0)))
+                .build();
+
+        Page page = new Page(doubles(Double.NaN, -0.0, 0.0, 1.0));
+        int[] channels = {0};
+        // NaN matches NaN, but -0.0 and 0.0 are different values
+        assertTrue(deleteSet.contains(page, channels, 0));
+        assertFalse(deleteSet.contains(page, channels, 1));
+        assertTrue(deleteSet.contains(page, channels, 2));
+        assertFalse(deleteSet.contains(page, channels, 3));
+    }
+
+    @Test
+    public void testEmpty()
+    {
+        EqualityDeleteSet deleteSet = EqualityDeleteSet.builder(ImmutableList.of(BIGINT)).build();
+
+        Page page = new Page(longs(1L, null));
+        boolean[] retained = {true, true};
+        deleteSet.removeDeleted(page, new int[] {0}, retained);
+        assertEquals(retained, new boolean[] {true, true});
+        assertFalse(deleteSet.contains(page, new int[] {0}, 1));
+    }
+
+    @Test
+    public void testRowPredicate()
+    {
+        RowPredicate evenValues = (page, position) -> BIGINT.getLong(page.getBlock(0), position) % 2 == 0;
+        RowPredicate notThree = (page, position) -> BIGINT.getLong(page.getBlock(0), position) != 3;
+        RowPredicate predicate = ((RowPredicate) (page, position) -> true).and(evenValues).and(notThree);
+
+        Page page = new Page(longs(1L, 2L, 3L, 4L));
+        assertEquals(predicate.retainedPositions(page), new boolean[] {false, true, false, true});
+        Page filtered = predicate.filterPage(page);
+        assertEquals(filtered.getPositionCount(), 2);
+        assertEquals(BIGINT.getLong(filtered.getBlock(0), 0), 2L);
+        assertEquals(BIGINT.getLong(filtered.getBlock(0), 1), 4L);
+
+        Page marked = predicate.markDeleted(new Page(longs(1L, 2L, 3L, 4L), longs(0L, 0L, 0L, 0L)), 1);
+        for (int position = 0; position < 4; position++) {
+            assertEquals(marked.getBlock(1).getByte(position) != 0, position % 2 == 0);
+        }
+    }
+
+    private static Block longs(Long... values)
+    {
+        BlockBuilder builder = BIGINT.createBlockBuilder(null, values.length);
+        for (Long value : values) {
+            if (value == null) {
+                builder.appendNull();
+            }
+            else {
+                BIGINT.writeLong(builder, value);
+            }
+        }
+        return builder.build();
+    }
+
+    private static Block doubles(double... values)
+    {
+        BlockBuilder builder = DOUBLE.createBlockBuilder(null, values.length);
+        for (double value : values) {
+            DOUBLE.writeDouble(builder, value);
+        }
+        return builder.build();
+    }
+
+    private static Block strings(String... values)
+    {
+        BlockBuilder builder = VARCHAR.createBlockBuilder(null, values.length);
+        for (String value : values) {
+            if (value == null) {
+                builder.appendNull();
+            }
+            else {
+                VARCHAR.writeString(builder, value);
+            }
+        }
+        return builder.build();
+    }
+}
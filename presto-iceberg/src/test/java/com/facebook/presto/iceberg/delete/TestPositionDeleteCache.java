@@ -0,0 +1,133 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.iceberg.delete;
+
+import com.facebook.presto.common.Page;
+import com.facebook.presto.common.block.Block;
+import com.facebook.presto.common.block.BlockBuilder;
+import com.facebook.presto.spi.FixedPageSource;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.testng.annotations.Test;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.facebook.presto.common.type.BigintType.BIGINT;
+import static com.facebook.presto.common.type.VarcharType.VARCHAR;
+import static com.facebook.presto.iceberg.delete.PositionDeleteFilter.readAllPositionDeletes;
+import static io.airlift.slice.Slices.utf8Slice;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+public class TestPositionDeleteCache
+{
+    @Test
+    public void testReadAllPositionDeletes()
+    {
+        // the rows of a data file may continue on the next page, and a path may appear again later
+        Map<String, Roaring64Bitmap> deletedRows = readAllPositionDeletes(new FixedPageSource(ImmutableList.of(
+                new Page(paths("a", "a", "b"), positions(0, 7, 3)),
+                new Page(paths("b", "a"), positions(1 << 40, 9)))));
+
+        assertEquals(deletedRows.keySet(), ImmutableSet.of("a", "b"));
+        assertEquals(deletedRows.get("a"), Roaring64Bitmap.bitmapOf(0, 7, 9));
+        assertEquals(deletedRows.get("b"), Roaring64Bitmap.bitmapOf(3, 1L << 40));
+    }
+
+    @Test
+    public void testHitAndMiss()
+            throws Exception
+    {
+        PositionDeleteCache cache = createCache(1024 * 1024);
+        assertTrue(cache.isEnabled());
+        AtomicInteger loads = new AtomicInteger();
+        PositionDeleteCacheKey key = new PositionDeleteCacheKey("delete.parquet", 100);
+
+        Map<String, Roaring64Bitmap> deletedRows = cache.get(key, () -> load(loads, "a", 1));
+        assertSame(cache.get(key, () -> load(loads, "a", 2)), deletedRows);
+        assertEquals(loads.get(), 1);
+        assertEquals(cache.getCacheStats().getMissCount(), 1);
+        assertEquals(cache.getCacheStats().getHitCount(), 1);
+
+        // a file of the same path with a different size is a different file
+        cache.get(new PositionDeleteCacheKey("delete.parquet", 200), () -> load(loads, "a", 3));
+        assertEquals(loads.get(), 2);
+        assertEquals(cache.getCacheStats().getMissCount(), 2);
+        assertEquals(cache.getCacheStats().getSize(), 2);
+    }
+
+    @Test
+    public void testEviction()
+            throws Exception
+    {
+        Map<String, Roaring64Bitmap> deletedRows = ImmutableMap.of("data.parquet", Roaring64Bitmap.bitmapOf(1, 2, 3));
+        // room for a single entry
+        PositionDeleteCache cache = createCache(PositionDeleteCache.estimateSizeInBytes(deletedRows) + 1);
+
+        cache.get(new PositionDeleteCacheKey("first.parquet", 100), () -> deletedRows);
+        cache.get(new PositionDeleteCacheKey("second.parquet", 100), () -> deletedRows);
+        assertEquals(cache.size(), 1);
+        assertFalse(cache.asMap().containsKey(new PositionDeleteCacheKey("first.parquet", 100)));
+        assertTrue(cache.asMap().containsKey(new PositionDeleteCacheKey("second.parquet", 100)));
+    }
+
+    @Test
+    public void testDisabled()
+    {
+        assertFalse(createCache(0).isEnabled());
+    }
+
+    private static PositionDeleteCache createCache(long maxSizeInBytes)
+    {
+        // a single segment, so that the whole weight is available to every entry
+        Cache<PositionDeleteCacheKey, Map<String, Roaring64Bitmap>> delegate = CacheBuilder.newBuilder()
+                .concurrencyLevel(1)
+                .maximumWeight(maxSizeInBytes)
+                .<PositionDeleteCacheKey, Map<String, Roaring64Bitmap>>weigher((key, entry) -> PositionDeleteCache.estimateSizeInBytes(entry))
+                .recordStats()
+                .build();
+        return new PositionDeleteCache(delegate, maxSizeInBytes > 0);
+    }
+
+    private static Map<String, Roaring64Bitmap> load(AtomicInteger loads, String path, long position)
+    {
+        loads.incrementAndGet();
+        return ImmutableMap.of(path, Roaring64Bitmap.bitmapOf(position));
+    }
+
+    private static Block paths(String... values)
+    {
+        BlockBuilder builder = VARCHAR.createBlockBuilder(null, values.length);
+        for (String value : values) {
+            VARCHAR.writeSlice(builder, utf8Slice(value));
+        }
+        return builder.build();
+    }
+
+    private static Block positions(long... values)
+    {
+        BlockBuilder builder = BIGINT.createBlockBuilder(null, values.length);
+        for (long value : values) {
+            BIGINT.writeLong(builder, value);
+        }
+        return builder.build();
+    }
+}
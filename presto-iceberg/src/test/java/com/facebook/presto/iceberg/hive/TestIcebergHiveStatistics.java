@@ -211,7 +211,11 @@ public class TestIcebergHiveStatistics
         TableStatistics statsNoPartition = meta.getTableStatistics(session, getAnalyzeTableHandle("statsNoPartitionAnalyze", session), noPartColumnHandles, Constraint.alwaysTrue());
         TableStatistics statsWithPartition = meta.getTableStatistics(session, getAnalyzeTableHandle("statsWithPartitionAnalyze", session), partColumnHandles, Constraint.alwaysTrue());
         assertNDVsPresent(statsNoPartition);
-        assertNDVsNotPresent(statsWithPartition);
+        // without the statistics file, only the partition column has an NDV, from the partitions of the scanned files
+        assertOnlyPartitionNDVsPresent(statsWithPartition);
+        assertEquals(
+                getColumnNameMap(statsWithPartition).get("orderdate").getDistinctValuesCount(),
+                Estimate.of((long) computeActual("SELECT count(DISTINCT orderdate) FROM statsNoPartitionAnalyze").getOnlyValue()));
         assertEquals(statsNoPartition.getRowCount(), statsWithPartition.getRowCount());
 
         // Test that with one column and no constraints that stats are equivalent
@@ -232,7 +236,7 @@ public class TestIcebergHiveStatistics
         assertEquals(statsNoPartition.getColumnStatistics().size(), noPartColumnHandles.size());
         assertEquals(statsWithPartition.getColumnStatistics().size(), partColumnHandles.size());
         assertNDVsPresent(statsNoPartition);
-        assertNDVsNotPresent(statsWithPartition);
+        assertOnlyPartitionNDVsPresent(statsWithPartition);
 
         // Test that with one column and a constraint on that column that the partitioned stats return less values
         Constraint<ColumnHandle> noPartConstraint = constraintWithMinValue(noPartColumns.get("totalprice"), 100000.0);
@@ -268,6 +272,21 @@ public class TestIcebergHiveStatistics
         assertQuerySucceeds("DROP TABLE statsWithPartitionAnalyze");
     }
 
+    @Test
+    public void testIdentityPartitionNDVs()
+    {
+        assertQuerySucceeds("CREATE TABLE identityPartitionNdvs (i bigint, region varchar, note varchar) WITH (partitioning = ARRAY['region', 'note'])");
+        assertQuerySucceeds("INSERT INTO identityPartitionNdvs VALUES (1, 'a', NULL), (2, 'b', NULL), (3, 'a', NULL), (4, NULL, NULL)");
+
+        Map<String, ColumnStatistics> columnStatistics = getColumnNameMap(getTableStatistics(getSession(), "identityPartitionNdvs"));
+        assertEquals(columnStatistics.get("region").getDistinctValuesCount(), Estimate.of(2));
+        // a partition column without a single non-null value has an unknown NDV, not 0
+        assertEquals(columnStatistics.get("note").getDistinctValuesCount(), Estimate.unknown());
+        assertEquals(columnStatistics.get("i").getDistinctValuesCount(), Estimate.unknown());
+
+        assertQuerySucceeds("DROP TABLE identityPartitionNdvs");
+    }
+
     @Test
     public void testStatsWithPartitionedTablesNoAnalyze()
     {
@@ -531,7 +550,8 @@ public class TestIcebergHiveStatistics
     {
         for (ColumnHandle handle : expectedStats.keySet()) {
             ColumnStatistics expected = expectedStats.get(handle);
-            if (((IcebergColumnHandle) handle).getColumnType() == PARTITION_KEY) {
+            boolean partitionKey = ((IcebergColumnHandle) handle).getColumnType() == PARTITION_KEY;
+            if (partitionKey) {
                 handle = new IcebergColumnHandle(
                         ((IcebergColumnHandle) handle).getColumnIdentity(),
                         ((IcebergColumnHandle) handle).getType(),
@@ -542,7 +562,14 @@ public class TestIcebergHiveStatistics
             ColumnStatistics actual = actualStats.get(handle);
             assertEquals(actual.getRange(), expected.getRange(), "range for col: " + handle);
             assertEquals(actual.getNullsFraction(), expected.getNullsFraction(), "nulls fraction for col: " + handle);
-            assertEquals(actual.getDistinctValuesCount(), expected.getDistinctValuesCount(), "NDVs for col: " + handle);
+            if (partitionKey) {
+                // the NDV of an identity partition column is known from the partitions of the scanned files
+                assertTrue(actual.getDistinctValuesCount().isUnknown(), "NDVs for col: " + handle);
+                assertFalse(expected.getDistinctValuesCount().isUnknown(), "NDVs for partition col: " + handle);
+            }
+            else {
+                assertEquals(actual.getDistinctValuesCount(), expected.getDistinctValuesCount(), "NDVs for col: " + handle);
+            }
         }
     }
 
@@ -691,4 +718,12 @@ public class TestIcebergHiveStatistics
             assertTrue(entry.getValue().getDistinctValuesCount().isUnknown(), entry.getKey() + " NDVs are not unknown");
         }
     }
+
+    static void assertOnlyPartitionNDVsPresent(TableStatistics stats)
+    {
+        for (Map.Entry<ColumnHandle, ColumnStatistics> entry : stats.getColumnStatistics().entrySet()) {
+            boolean partitionKey = ((IcebergColumnHandle) entry.getKey()).getColumnType() == PARTITION_KEY;
+            assertEquals(entry.getValue().getDistinctValuesCount().isUnknown(), !partitionKey, entry.getKey() + " NDVs");
+        }
+    }
 }
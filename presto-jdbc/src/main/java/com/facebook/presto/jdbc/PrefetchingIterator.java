@@ -0,0 +1,127 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.jdbc;
+
+import com.google.common.collect.AbstractIterator;
+
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Throwables.throwIfUnchecked;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * This {@code Iterator} consumes the given iterator on a background thread, keeping up to
+ * {@code bufferSize} elements ready for the reader, so that producing the next elements
+ * overlaps with the processing of the current ones. Failures of the underlying iterator
+ * are rethrown to the reader once the elements before them are read.
+ */
+final class PrefetchingIterator<T>
+        extends AbstractIterator<T>
+{
+    private final BlockingQueue<Element<T>> buffer;
+    private final Future<?> producer;
+
+    public PrefetchingIterator(Iterator<T> iterator, int bufferSize, ExecutorService executor)
+    {
+        requireNonNull(iterator, "iterator is null");
+        checkArgument(bufferSize > 0, "bufferSize must be positive");
+        requireNonNull(executor, "executor is null");
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        this.producer = executor.submit(() -> produce(iterator));
+    }
+
+    /**
+     * Returns an iterator prefetching up to {@code bufferSize} elements of the given iterator, or empty
+     * if {@code bufferSize} is zero, in which case the reader consumes the given iterator on its own thread.
+     */
+    public static <T> Optional<PrefetchingIterator<T>> prefetching(Iterator<T> iterator, int bufferSize, ExecutorService executor)
+    {
+        checkArgument(bufferSize >= 0, "bufferSize is negative");
+        if (bufferSize == 0) {
+            return Optional.empty();
+        }
+        return Optional.of(new PrefetchingIterator<>(iterator, bufferSize, executor));
+    }
+
+    private void produce(Iterator<T> iterator)
+    {
+        try {
+            Element<T> element;
+            try {
+                while (iterator.hasNext()) {
+                    buffer.put(new Element<>(iterator.next(), null));
+                }
+                element = new Element<>(null, null);
+            }
+            catch (RuntimeException | Error e) {
+                element = new Element<>(null, e);
+            }
+            buffer.put(element);
+        }
+        catch (InterruptedException e) {
+            // the reader is gone
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    protected T computeNext()
+    {
+        Element<T> element;
+        try {
+            element = buffer.take();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new RuntimeException(new SQLException("ResultSet thread was interrupted", e));
+        }
+
+        if (element.failure != null) {
+            throwIfUnchecked(element.failure);
+        }
+        if (element.value == null) {
+            return endOfData();
+        }
+        return element.value;
+    }
+
+    /**
+     * Stops the background thread. Elements that were already produced are dropped.
+     */
+    public void close()
+    {
+        producer.cancel(true);
+        buffer.clear();
+    }
+
+    private static class Element<T>
+    {
+        private final T value;
+        private final Throwable failure;
+
+        private Element(T value, Throwable failure)
+        {
+            this.value = value;
+            this.failure = failure;
+        }
+    }
+}
@@ -99,6 +99,8 @@ public class PrestoConnection
     private final WarningsManager warningsManager = new WarningsManager();
     private final List<QueryInterceptor> queryInterceptorInstances;
     private final boolean validateNextUriSource;
+    private final boolean binaryResults;
+    private final int prefetchPages;
 
     PrestoConnection(PrestoDriverUri uri, QueryExecutor queryExecutor)
             throws SQLException
@@ -118,6 +120,8 @@ public class PrestoConnection
         this.connectionProperties = uri.getProperties();
         this.queryExecutor = requireNonNull(queryExecutor, "queryExecutor is null");
         this.validateNextUriSource = uri.validateNextUriSource();
+        this.binaryResults = uri.isBinaryResults();
+        this.prefetchPages = uri.getPrefetchPages();
         uri.getClientTags().ifPresent(tags -> clientInfo.put("ClientTags", tags));
 
         timeZoneId.set(uri.getTimeZoneId());
@@ -705,6 +709,11 @@ public class PrestoConnection
         return ImmutableMap.copyOf(extraCredentials);
     }
 
+    int getPrefetchPages()
+    {
+        return prefetchPages;
+    }
+
     Map<String, String> getSessionProperties()
     {
         return ImmutableMap.copyOf(sessionProperties);
@@ -796,7 +805,8 @@ public class PrestoConnection
                 compressionDisabled,
                 ImmutableMap.of(),
                 customHeaders,
-                validateNextUriSource);
+                validateNextUriSource,
+                binaryResults);
 
         return queryExecutor.startQuery(session, sql);
     }
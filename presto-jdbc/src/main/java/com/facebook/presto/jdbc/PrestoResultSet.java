@@ -23,6 +23,7 @@ import com.facebook.presto.jdbc.ColumnInfo.Nullable;
 import com.google.common.collect.AbstractIterator;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.joda.time.DateTimeZone;
 import org.joda.time.format.DateTimeFormat;
 import org.joda.time.format.DateTimeFormatter;
@@ -56,12 +57,15 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 
 import static com.facebook.presto.common.type.TypeSignature.parseTypeSignature;
 import static com.facebook.presto.jdbc.ColumnInfo.setTypeInfo;
+import static com.facebook.presto.jdbc.PrefetchingIterator.prefetching;
 import static com.google.common.base.Verify.verify;
 import static com.google.common.collect.Iterables.getOnlyElement;
 import static com.google.common.collect.Iterators.concat;
@@ -70,6 +74,7 @@ import static java.lang.String.format;
 import static java.math.RoundingMode.HALF_UP;
 import static java.util.Locale.ENGLISH;
 import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.Executors.newCachedThreadPool;
 
 public class PrestoResultSet
         implements ResultSet
@@ -95,11 +100,18 @@ public class PrestoResultSet
             .toFormatter()
             .withOffsetParsed();
 
+    // result pages are fetched ahead on daemon threads, so that an abandoned result set does not prevent the application from exiting
+    private static final ExecutorService PREFETCH_EXECUTOR = newCachedThreadPool(new ThreadFactoryBuilder()
+            .setNameFormat("presto-jdbc-prefetch-%s")
+            .setDaemon(true)
+            .build());
+
     private final Statement statement;
     private final StatementClient client;
     private final DateTimeZone sessionTimeZone;
     private final String queryId;
     private final Iterator<List<Object>> results;
+    private final Optional<PrefetchingIterator<ResultsPage>> prefetchingPages;
     private final Map<String, Integer> fieldMap;
     private final List<ColumnInfo> columnInfoList;
     private final ResultSetMetaData resultSetMetaData;
@@ -108,7 +120,7 @@ public class PrestoResultSet
     private final AtomicBoolean closed = new AtomicBoolean();
     private final WarningsManager warningsManager;
 
-    PrestoResultSet(Statement statement, StatementClient client, long maxRows, Consumer<QueryStats> progressCallback, WarningsManager warningsManager)
+    PrestoResultSet(Statement statement, StatementClient client, long maxRows, int prefetchPages, Consumer<QueryStats> progressCallback, WarningsManager warningsManager)
             throws SQLException
     {
         this.statement = requireNonNull(statement, "statement is null");
@@ -124,7 +136,12 @@ public class PrestoResultSet
         this.resultSetMetaData = new PrestoResultSetMetaData(columnInfoList);
         this.warningsManager = requireNonNull(warningsManager, "warningsManager is null");
 
-        this.results = flatten(new ResultsPageIterator(client, progressCallback, warningsManager), maxRows);
+        Iterator<ResultsPage> pages = new ResultsFetchingIterator(client);
+        this.prefetchingPages = prefetching(pages, prefetchPages, PREFETCH_EXECUTOR);
+        if (prefetchingPages.isPresent()) {
+            pages = prefetchingPages.get();
+        }
+        this.results = flatten(new ResultsPageIterator(pages, ResultsPageIterator.isQuery(client), progressCallback, warningsManager), maxRows);
     }
 
     public String getQueryId()
@@ -163,6 +180,7 @@ public class PrestoResultSet
             throws SQLException
     {
         closed.set(true);
+        prefetchingPages.ifPresent(PrefetchingIterator::close);
         client.close();
     }
 
@@ -1760,17 +1778,17 @@ public class PrestoResultSet
     private static class ResultsPageIterator
             extends AbstractIterator<Iterable<List<Object>>>
     {
-        private final StatementClient client;
+        private final Iterator<ResultsPage> pages;
         private final Consumer<QueryStats> progressCallback;
         private final WarningsManager warningsManager;
         private final boolean isQuery;
 
-        private ResultsPageIterator(StatementClient client, Consumer<QueryStats> progressCallback, WarningsManager warningsManager)
+        private ResultsPageIterator(Iterator<ResultsPage> pages, boolean isQuery, Consumer<QueryStats> progressCallback, WarningsManager warningsManager)
         {
-            this.client = requireNonNull(client, "client is null");
+            this.pages = requireNonNull(pages, "pages is null");
+            this.isQuery = isQuery;
             this.progressCallback = requireNonNull(progressCallback, "progressCallback is null");
             this.warningsManager = requireNonNull(warningsManager, "warningsManager is null");
-            this.isQuery = isQuery(client);
         }
 
         private static boolean isQuery(StatementClient client)
@@ -1792,12 +1810,50 @@ public class PrestoResultSet
                 // Clear the warnings if this is a query, per ResultSet javadoc
                 warningsManager.clearWarnings();
             }
-            while (client.isRunning()) {
+            while (pages.hasNext()) {
+                ResultsPage page = pages.next();
+                QueryStatusInfo results = page.getStatusInfo();
+                progressCallback.accept(QueryStats.create(results.getId(), results.getStats()));
+                warningsManager.addWarnings(results.getWarnings());
+                if (page.isFinal()) {
+                    if (results.getError() != null) {
+                        throw new RuntimeException(resultsException(results));
+                    }
+                    break;
+                }
+                if (page.getData() != null) {
+                    return page.getData();
+                }
+            }
+            return endOfData();
+        }
+    }
+
+    /**
+     * Fetches the pages of results from the server. The status of each page is reported by
+     * {@link ResultsPageIterator}, which may consume the pages on another thread.
+     */
+    private static class ResultsFetchingIterator
+            extends AbstractIterator<ResultsPage>
+    {
+        private final StatementClient client;
+        private boolean finished;
+
+        private ResultsFetchingIterator(StatementClient client)
+        {
+            this.client = requireNonNull(client, "client is null");
+        }
+
+        @Override
+        protected ResultsPage computeNext()
+        {
+            if (finished) {
+                return endOfData();
+            }
+            if (client.isRunning()) {
                 checkInterruption(null);
 
                 QueryStatusInfo results = client.currentStatusInfo();
-                progressCallback.accept(QueryStats.create(results.getId(), results.getStats()));
-                warningsManager.addWarnings(results.getWarnings());
                 Iterable<List<Object>> data = client.currentData().getData();
 
                 try {
@@ -1808,20 +1864,12 @@ public class PrestoResultSet
                     throw e;
                 }
 
-                if (data != null) {
-                    return data;
-                }
+                return new ResultsPage(results, data, false);
             }
 
             verify(client.isFinished());
-            QueryStatusInfo results = client.finalStatusInfo();
-            progressCallback.accept(QueryStats.create(results.getId(), results.getStats()));
-            warningsManager.addWarnings(results.getWarnings());
-            if (results.getError() != null) {
-                throw new RuntimeException(resultsException(results));
-            }
-
-            return endOfData();
+            finished = true;
+            return new ResultsPage(client.finalStatusInfo(), null, true);
         }
 
         private void checkInterruption(Throwable t)
@@ -1833,6 +1881,35 @@ public class PrestoResultSet
         }
     }
 
+    private static class ResultsPage
+    {
+        private final QueryStatusInfo statusInfo;
+        private final Iterable<List<Object>> data;
+        private final boolean isFinal;
+
+        private ResultsPage(QueryStatusInfo statusInfo, Iterable<List<Object>> data, boolean isFinal)
+        {
+            this.statusInfo = requireNonNull(statusInfo, "statusInfo is null");
+            this.data = data;
+            this.isFinal = isFinal;
+        }
+
+        public QueryStatusInfo getStatusInfo()
+        {
+            return statusInfo;
+        }
+
+        public Iterable<List<Object>> getData()
+        {
+            return data;
+        }
+
+        public boolean isFinal()
+        {
+            return isFinal;
+        }
+    }
+
     static SQLException resultsException(QueryStatusInfo results)
     {
         QueryError error = requireNonNull(results.getError());
@@ -269,7 +269,7 @@ public class PrestoStatement
                 }
                 executingClient.set(client);
 
-                resultSet = new PrestoResultSet(this, client, maxRows.get(), progressConsumer, warningsManager);
+                resultSet = new PrestoResultSet(this, client, maxRows.get(), connection().getPrefetchPages(), progressConsumer, warningsManager);
 
                 for (Map.Entry<String, SelectedRole> entry : client.getSetRoles().entrySet()) {
                     connection.get().setRole(entry.getKey(), entry.getValue());
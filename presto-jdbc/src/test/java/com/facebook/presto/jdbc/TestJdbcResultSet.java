@@ -45,6 +45,7 @@ import java.time.LocalTime;
 import static com.facebook.presto.jdbc.TestPrestoDriver.closeQuietly;
 import static com.facebook.presto.spi.function.RoutineCharacteristics.Language.SQL;
 import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
 import static java.util.concurrent.TimeUnit.DAYS;
 import static java.util.concurrent.TimeUnit.HOURS;
 import static org.testng.Assert.assertEquals;
@@ -56,11 +57,26 @@ import static org.testng.Assert.assertTrue;
 @Test(singleThreaded = true)
 public class TestJdbcResultSet
 {
+    private final String urlParameters;
+
     private TestingPrestoServer server;
 
     private Connection connection;
     private Statement statement;
 
+    public TestJdbcResultSet()
+    {
+        this("");
+    }
+
+    /**
+     * @param urlParameters connection properties appended to the JDBC URL, such as {@code ?binaryResults=true}
+     */
+    public TestJdbcResultSet(String urlParameters)
+    {
+        this.urlParameters = requireNonNull(urlParameters, "urlParameters is null");
+    }
+
     @BeforeClass
     public void setupServer()
             throws Exception
@@ -367,7 +383,7 @@ public class TestJdbcResultSet
     private Connection createConnection()
             throws SQLException
     {
-        String url = format("jdbc:presto://%s", server.getAddress());
+        String url = format("jdbc:presto://%s%s", server.getAddress(), urlParameters);
         return DriverManager.getConnection(url, "test", null);
     }
 
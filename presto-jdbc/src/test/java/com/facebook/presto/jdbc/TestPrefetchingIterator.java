@@ -0,0 +1,171 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.jdbc;
+
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.ImmutableList;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+@Test(singleThreaded = true)
+public class TestPrefetchingIterator
+{
+    private ExecutorService executor;
+
+    @BeforeMethod
+    public void setUp()
+    {
+        executor = newSingleThreadExecutor();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown()
+    {
+        executor.shutdownNow();
+    }
+
+    @Test(timeOut = 10_000)
+    public void testPrefetching()
+    {
+        PrefetchingIterator<Integer> iterator = new PrefetchingIterator<>(ImmutableList.of(1, 2, 3).iterator(), 2, executor);
+        assertEquals(ImmutableList.copyOf(iterator), ImmutableList.of(1, 2, 3));
+    }
+
+    @Test(timeOut = 10_000)
+    public void testProducerFailure()
+    {
+        RuntimeException failure = new RuntimeException("failed");
+        Iterator<Integer> failing = new AbstractIterator<Integer>()
+        {
+            private int next;
+
+            @Override
+            protected Integer computeNext()
+            {
+                if (next == 2) {
+                    throw failure;
+                }
+                return next++;
+            }
+        };
+        PrefetchingIterator<Integer> iterator = new PrefetchingIterator<>(failing, 10, executor);
+
+        // the elements produced before the failure are read first
+        assertEquals(iterator.next(), (Integer) 0);
+        assertEquals(iterator.next(), (Integer) 1);
+        try {
+            iterator.hasNext();
+            fail("expected exception");
+        }
+        catch (RuntimeException e) {
+            assertSame(e, failure);
+        }
+    }
+
+    @Test(timeOut = 10_000)
+    public void testCloseWhileProducerBlocked()
+            throws Exception
+    {
+        AtomicInteger produced = new AtomicInteger();
+        Iterator<Integer> infinite = new AbstractIterator<Integer>()
+        {
+            @Override
+            protected Integer computeNext()
+            {
+                return produced.incrementAndGet();
+            }
+        };
+        PrefetchingIterator<Integer> iterator = new PrefetchingIterator<>(infinite, 1, executor);
+
+        // one element fills the buffer, and the producer blocks on putting the second one
+        while (produced.get() < 2) {
+            MILLISECONDS.sleep(10);
+        }
+        MILLISECONDS.sleep(100);
+        assertEquals(produced.get(), 2);
+
+        iterator.close();
+
+        // the producer ends, and its thread is released
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, SECONDS));
+        assertEquals(produced.get(), 2);
+    }
+
+    @Test(timeOut = 10_000)
+    public void testReaderInterrupted()
+            throws Exception
+    {
+        CountDownLatch producerStarted = new CountDownLatch(1);
+        CountDownLatch producerInterrupted = new CountDownLatch(1);
+        Iterator<Integer> blocking = new AbstractIterator<Integer>()
+        {
+            @Override
+            protected Integer computeNext()
+            {
+                producerStarted.countDown();
+                try {
+                    new CountDownLatch(1).await();
+                }
+                catch (InterruptedException e) {
+                    producerInterrupted.countDown();
+                }
+                return endOfData();
+            }
+        };
+        PrefetchingIterator<Integer> iterator = new PrefetchingIterator<>(blocking, 1, executor);
+        assertTrue(producerStarted.await(10, SECONDS));
+
+        Thread.currentThread().interrupt();
+        try {
+            iterator.hasNext();
+            fail("expected exception");
+        }
+        catch (RuntimeException e) {
+            assertTrue(e.getCause() instanceof SQLException);
+            assertEquals(e.getCause().getMessage(), "ResultSet thread was interrupted");
+        }
+        // the interrupt is kept for the reader
+        assertTrue(Thread.interrupted());
+
+        // the producer is stopped
+        assertTrue(producerInterrupted.await(10, SECONDS));
+    }
+
+    @Test
+    public void testNoPrefetching()
+    {
+        Iterator<Integer> iterator = ImmutableList.of(1, 2, 3).iterator();
+        // the reader consumes the iterator itself, without using the executor
+        assertFalse(PrefetchingIterator.prefetching(iterator, 0, executor).isPresent());
+        executor.shutdown();
+        assertTrue(executor.isTerminated());
+    }
+}
@@ -22,6 +22,7 @@ import java.nio.charset.StandardCharsets;
 import java.sql.SQLException;
 import java.util.Properties;
 
+import static com.facebook.presto.jdbc.ConnectionProperties.BINARY_RESULTS;
 import static com.facebook.presto.jdbc.ConnectionProperties.CLIENT_TAGS;
 import static com.facebook.presto.jdbc.ConnectionProperties.CUSTOM_HEADERS;
 import static com.facebook.presto.jdbc.ConnectionProperties.DISABLE_COMPRESSION;
@@ -29,6 +30,7 @@ import static com.facebook.presto.jdbc.ConnectionProperties.EXTRA_CREDENTIALS;
 import static com.facebook.presto.jdbc.ConnectionProperties.FOLLOW_REDIRECTS;
 import static com.facebook.presto.jdbc.ConnectionProperties.HTTP_PROTOCOLS;
 import static com.facebook.presto.jdbc.ConnectionProperties.HTTP_PROXY;
+import static com.facebook.presto.jdbc.ConnectionProperties.PREFETCH_PAGES;
 import static com.facebook.presto.jdbc.ConnectionProperties.QUERY_INTERCEPTORS;
 import static com.facebook.presto.jdbc.ConnectionProperties.SESSION_PROPERTIES;
 import static com.facebook.presto.jdbc.ConnectionProperties.SOCKS_PROXY;
@@ -348,6 +350,36 @@ public class TestPrestoDriverUri
         assertInvalid("presto://localhost:8080/blackhole?validateNextUriSource=ANOTHERVALUE", "Connection property 'validateNextUriSource' value is invalid: ANOTHERVALUE");
     }
 
+    @Test
+    public void testBinaryResults()
+            throws SQLException
+    {
+        PrestoDriverUri defaultParams = createDriverUri("presto://localhost:8080/blackhole");
+        assertFalse(defaultParams.isBinaryResults());
+        assertEquals(defaultParams.getProperties().getProperty(BINARY_RESULTS.getKey()), "false");
+
+        PrestoDriverUri parameters = createDriverUri("presto://localhost:8080/blackhole?binaryResults=true");
+        assertTrue(parameters.isBinaryResults());
+        assertEquals(parameters.getProperties().getProperty(BINARY_RESULTS.getKey()), "true");
+
+        assertInvalid("presto://localhost:8080/blackhole?binaryResults=ANOTHERVALUE", "Connection property 'binaryResults' value is invalid: ANOTHERVALUE");
+    }
+
+    @Test
+    public void testPrefetchPages()
+            throws SQLException
+    {
+        PrestoDriverUri defaultParams = createDriverUri("presto://localhost:8080/blackhole");
+        assertEquals(defaultParams.getPrefetchPages(), 0);
+        assertEquals(defaultParams.getProperties().getProperty(PREFETCH_PAGES.getKey()), "0");
+
+        PrestoDriverUri parameters = createDriverUri("presto://localhost:8080/blackhole?prefetchPages=4");
+        assertEquals(parameters.getPrefetchPages(), 4);
+
+        assertInvalid("presto://localhost:8080/blackhole?prefetchPages=-1", "Connection property 'prefetchPages' value is invalid: -1");
+        assertInvalid("presto://localhost:8080/blackhole?prefetchPages=many", "Connection property 'prefetchPages' value is invalid: many");
+    }
+
     public static class TestForUriQueryInterceptor
             implements QueryInterceptor
     {}
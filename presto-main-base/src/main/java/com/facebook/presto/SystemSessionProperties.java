@@ -219,6 +219,7 @@ public final class SystemSessionProperties
     public static final String PARTITIONING_PRECISION_STRATEGY = "partitioning_precision_strategy";
     public static final String EXPERIMENTAL_FUNCTIONS_ENABLED = "experimental_functions_enabled";
     public static final String OPTIMIZE_COMMON_SUB_EXPRESSIONS = "optimize_common_sub_expressions";
+    public static final String ADAPTIVE_FILTER_REORDERING_ENABLED = "adaptive_filter_reordering_enabled";
     public static final String PREFER_DISTRIBUTED_UNION = "prefer_distributed_union";
     public static final String WARNING_HANDLING = "warning_handling";
     public static final String OPTIMIZE_NULLS_IN_JOINS = "optimize_nulls_in_join";
@@ -240,6 +241,8 @@ public final class SystemSessionProperties
     public static final String MAX_UNACKNOWLEDGED_SPLITS_PER_TASK = "max_unacknowledged_splits_per_task";
     public static final String OPTIMIZE_JOINS_WITH_EMPTY_SOURCES = "optimize_joins_with_empty_sources";
     public static final String SPOOLING_OUTPUT_BUFFER_ENABLED = "spooling_output_buffer_enabled";
+    public static final String RESULT_SEGMENTS_ENABLED = "result_segments_enabled";
+    public static final String PLAN_CACHE_ENABLED = "plan_cache_enabled";
     public static final String SPARK_ASSIGN_BUCKET_TO_PARTITION_FOR_PARTITIONED_TABLE_WRITE_ENABLED = "spark_assign_bucket_to_partition_for_partitioned_table_write_enabled";
     public static final String LOG_FORMATTED_QUERY_ENABLED = "log_formatted_query_enabled";
     public static final String LOG_INVOKED_FUNCTION_NAMES_ENABLED = "log_invoked_function_names_enabled";
@@ -294,6 +297,7 @@ public final class SystemSessionProperties
     public static final String PUSH_REMOTE_EXCHANGE_THROUGH_GROUP_ID = "push_remote_exchange_through_group_id";
     public static final String OPTIMIZE_MULTIPLE_APPROX_PERCENTILE_ON_SAME_FIELD = "optimize_multiple_approx_percentile_on_same_field";
     public static final String OPTIMIZE_MULTIPLE_APPROX_DISTINCT_ON_SAME_TYPE = "optimize_multiple_approx_distinct_on_same_type";
+    public static final String OPTIMIZE_MULTIPLE_JSON_EXTRACT_SCALAR = "optimize_multiple_json_extract_scalar";
     public static final String RANDOMIZE_OUTER_JOIN_NULL_KEY = "randomize_outer_join_null_key";
     public static final String RANDOMIZE_OUTER_JOIN_NULL_KEY_STRATEGY = "randomize_outer_join_null_key_strategy";
     public static final String RANDOMIZE_OUTER_JOIN_NULL_KEY_NULL_RATIO_THRESHOLD = "randomize_outer_join_null_key_null_ratio_threshold";
@@ -1217,6 +1221,11 @@ public final class SystemSessionProperties
                         "Extract and compute common sub-expressions in projection",
                         featuresConfig.isOptimizeCommonSubExpressions(),
                         false),
+                booleanProperty(
+                        ADAPTIVE_FILTER_REORDERING_ENABLED,
+                        "Reorder the conjuncts of filters at runtime based on their observed cost and selectivity",
+                        featuresConfig.isAdaptiveFilterReorderingEnabled(),
+                        false),
                 booleanProperty(
                         PREFER_DISTRIBUTED_UNION,
                         "Prefer distributed union",
@@ -1336,6 +1345,16 @@ public final class SystemSessionProperties
                         "Enable spooling output buffer for terminal task",
                         featuresConfig.isSpoolingOutputBufferEnabled(),
                         false),
+                booleanProperty(
+                        RESULT_SEGMENTS_ENABLED,
+                        "Return result segments that the client reads directly from the workers instead of returning the results through the coordinator",
+                        featuresConfig.isResultSegmentsEnabled(),
+                        false),
+                booleanProperty(
+                        PLAN_CACHE_ENABLED,
+                        "Reuse the optimized plan of a query when the same query is run again with the same session",
+                        featuresConfig.isPlanCacheEnabled(),
+                        false),
                 booleanProperty(
                         SPARK_ASSIGN_BUCKET_TO_PARTITION_FOR_PARTITIONED_TABLE_WRITE_ENABLED,
                         "Assign bucket to partition map for partitioned table write when adding an exchange",
@@ -1701,6 +1720,11 @@ public final class SystemSessionProperties
                         "Combine individual approx_distinct calls on expressions of the same type using set_agg",
                         featuresConfig.isOptimizeMultipleApproxDistinctOnSameTypeEnabled(),
                         false),
+                booleanProperty(
+                        OPTIMIZE_MULTIPLE_JSON_EXTRACT_SCALAR,
+                        "Combine json_extract_scalar calls with different paths on the same JSON into a single extraction pass",
+                        featuresConfig.isOptimizeMultipleJsonExtractScalarEnabled(),
+                        false),
                 booleanProperty(
                         NATIVE_AGGREGATION_SPILL_ALL,
                         "Native Execution only. If true and spilling has been triggered during the input " +
@@ -2163,6 +2187,16 @@ public final class SystemSessionProperties
         return session.getSystemProperty(SPOOLING_OUTPUT_BUFFER_ENABLED, Boolean.class);
     }
 
+    public static boolean isResultSegmentsEnabled(Session session)
+    {
+        return session.getSystemProperty(RESULT_SEGMENTS_ENABLED, Boolean.class);
+    }
+
+    public static boolean isPlanCacheEnabled(Session session)
+    {
+        return session.getSystemProperty(PLAN_CACHE_ENABLED, Boolean.class);
+    }
+
     public static boolean isSkipRedundantSort(Session session)
     {
         return session.getSystemProperty(SKIP_REDUNDANT_SORT, Boolean.class);
@@ -2924,6 +2958,11 @@ public final class SystemSessionProperties
         return session.getSystemProperty(OPTIMIZE_COMMON_SUB_EXPRESSIONS, Boolean.class);
     }
 
+    public static boolean isAdaptiveFilterReorderingEnabled(Session session)
+    {
+        return session.getSystemProperty(ADAPTIVE_FILTER_REORDERING_ENABLED, Boolean.class);
+    }
+
     public static boolean isPreferDistributedUnion(Session session)
     {
         return session.getSystemProperty(PREFER_DISTRIBUTED_UNION, Boolean.class);
@@ -3162,6 +3201,11 @@ public final class SystemSessionProperties
         return session.getSystemProperty(OPTIMIZE_MULTIPLE_APPROX_DISTINCT_ON_SAME_TYPE, Boolean.class);
     }
 
+    public static boolean isCombineJsonExtractScalarEnabled(Session session)
+    {
+        return session.getSystemProperty(OPTIMIZE_MULTIPLE_JSON_EXTRACT_SCALAR, Boolean.class);
+    }
+
     public static AggregationIfToFilterRewriteStrategy getAggregationIfToFilterRewriteStrategy(Session session)
     {
         return session.getSystemProperty(AGGREGATION_IF_TO_FILTER_REWRITE_STRATEGY, AggregationIfToFilterRewriteStrategy.class);
@@ -16,6 +16,7 @@ package com.facebook.presto.execution;
 import com.facebook.airlift.log.Logger;
 import com.facebook.airlift.units.Duration;
 import com.facebook.presto.Session;
+import com.facebook.presto.SessionRepresentation;
 import com.facebook.presto.common.ErrorCode;
 import com.facebook.presto.common.resourceGroups.QueryType;
 import com.facebook.presto.common.transaction.TransactionId;
@@ -115,6 +116,8 @@ public class QueryStateMachine
     private final String query;
     private final Optional<String> preparedQuery;
     private final Session session;
+    // the session does not change during the query, and its representation is part of every query info
+    private final SessionRepresentation sessionRepresentation;
     private final URI self;
     private final Optional<QueryType> queryType;
     private final ResourceGroupId resourceGroup;
@@ -193,6 +196,7 @@ public class QueryStateMachine
         this.query = requireNonNull(query, "query is null");
         this.preparedQuery = requireNonNull(preparedQuery, "preparedQuery is null");
         this.session = requireNonNull(session, "session is null");
+        this.sessionRepresentation = session.toSessionRepresentation();
         this.queryId = session.getQueryId();
         this.self = requireNonNull(self, "self is null");
         this.resourceGroup = requireNonNull(resourceGroup, "resourceGroup is null");
@@ -423,7 +427,7 @@ public class QueryStateMachine
 
         return new BasicQueryInfo(
                 queryId,
-                session.toSessionRepresentation(),
+                sessionRepresentation,
                 Optional.of(resourceGroup),
                 state,
                 memoryPool.get().getId(),
@@ -474,7 +478,7 @@ public class QueryStateMachine
         QueryStats queryStats = getQueryStats(rootStage, allStages);
         return new QueryInfo(
                 queryId,
-                session.toSessionRepresentation(),
+                sessionRepresentation,
                 state,
                 memoryPool.get().getId(),
                 queryStats.isScheduled(),
@@ -53,11 +53,14 @@ import com.facebook.presto.spi.security.AccessControl;
 import com.facebook.presto.split.CloseableSplitSourceProvider;
 import com.facebook.presto.split.SplitManager;
 import com.facebook.presto.sql.Optimizer;
+import com.facebook.presto.sql.analyzer.BuiltInQueryPreparer.BuiltInPreparedQuery;
 import com.facebook.presto.sql.parser.SqlParser;
 import com.facebook.presto.sql.planner.CanonicalPlanWithInfo;
 import com.facebook.presto.sql.planner.InputExtractor;
 import com.facebook.presto.sql.planner.OutputExtractor;
 import com.facebook.presto.sql.planner.Plan;
+import com.facebook.presto.sql.planner.PlanCache;
+import com.facebook.presto.sql.planner.PlanCache.CachedPlan;
 import com.facebook.presto.sql.planner.PlanCanonicalInfoProvider;
 import com.facebook.presto.sql.planner.PlanFragmenter;
 import com.facebook.presto.sql.planner.PlanOptimizers;
@@ -85,6 +88,7 @@ import static com.facebook.presto.SystemSessionProperties.getExecutionPolicy;
 import static com.facebook.presto.SystemSessionProperties.getQueryAnalyzerTimeout;
 import static com.facebook.presto.SystemSessionProperties.isEagerPlanValidationEnabled;
 import static com.facebook.presto.SystemSessionProperties.isLogInvokedFunctionNamesEnabled;
+import static com.facebook.presto.SystemSessionProperties.isPlanCacheEnabled;
 import static com.facebook.presto.SystemSessionProperties.isSpoolingOutputBufferEnabled;
 import static com.facebook.presto.common.RuntimeMetricName.ANALYZE_TIME_NANOS;
 import static com.facebook.presto.common.RuntimeMetricName.CREATE_SCHEDULER_TIME_NANOS;
@@ -142,6 +146,8 @@ public class SqlQueryExecution
     private final AtomicReference<VariableAllocator> variableAllocator = new AtomicReference<>();
     private final PartialResultQueryManager partialResultQueryManager;
     private final AtomicReference<Optional<ResourceGroupQueryLimits>> resourceGroupQueryLimits = new AtomicReference<>(Optional.empty());
+    // the final query info only changes when it is pruned, so its summary is built once per final query info
+    private final AtomicReference<FinalBasicQueryInfo> finalBasicQueryInfo = new AtomicReference<>();
     private final PlanCanonicalInfoProvider planCanonicalInfoProvider;
     private final QueryAnalysis queryAnalysis;
     private final AnalyzerContext analyzerContext;
@@ -149,6 +155,8 @@ public class SqlQueryExecution
     private final AtomicBoolean planFutureLocked = new AtomicBoolean();
     private final AccessControl accessControl;
     private final String query;
+    private final PlanCache planCache;
+    private final Optional<PlanCache.Key> planCacheKey;
 
     private SqlQueryExecution(
             QueryAnalyzer queryAnalyzer,
@@ -177,7 +185,8 @@ public class SqlQueryExecution
             PartialResultQueryManager partialResultQueryManager,
             PlanCanonicalInfoProvider planCanonicalInfoProvider,
             AccessControl accessControl,
-            String query)
+            String query,
+            PlanCache planCache)
     {
         try (SetThreadName ignored = new SetThreadName("Query-%s", stateMachine.getQueryId())) {
             this.queryAnalyzer = requireNonNull(queryAnalyzer, "queryAnalyzer is null");
@@ -203,6 +212,7 @@ public class SqlQueryExecution
             this.planCanonicalInfoProvider = requireNonNull(planCanonicalInfoProvider, "planCanonicalInfoProvider is null");
             this.accessControl = requireNonNull(accessControl, "accessControl is null");
             this.query = requireNonNull(query, "query is null");
+            this.planCache = requireNonNull(planCache, "planCache is null");
             this.analyzerContext = getAnalyzerContext(queryAnalyzer, metadata.getMetadataResolver(stateMachine.getSession()), idAllocator, new VariableAllocator(), stateMachine.getSession(), query);
 
             // analyze query
@@ -220,6 +230,7 @@ public class SqlQueryExecution
             }
 
             stateMachine.setUpdateInfo(queryAnalysis.getUpdateInfo());
+            this.planCacheKey = getPlanCacheKey(preparedQuery, queryAnalysis, getSession());
             stateMachine.setExpandedQuery(queryAnalysis.getExpandedQuery());
 
             stateMachine.beginColumnAccessPermissionChecking();
@@ -449,10 +460,21 @@ public class SqlQueryExecution
     public BasicQueryInfo getBasicQueryInfo()
     {
         return stateMachine.getFinalQueryInfo()
-                .map(BasicQueryInfo::new)
+                .map(this::getFinalBasicQueryInfo)
                 .orElseGet(() -> stateMachine.getBasicQueryInfo(Optional.ofNullable(queryScheduler.get()).map(SqlQuerySchedulerInterface::getBasicStageStats)));
     }
 
+    private BasicQueryInfo getFinalBasicQueryInfo(QueryInfo finalQueryInfo)
+    {
+        FinalBasicQueryInfo cached = finalBasicQueryInfo.get();
+        if (cached != null && cached.getQueryInfo() == finalQueryInfo) {
+            return cached.getBasicQueryInfo();
+        }
+        BasicQueryInfo basicQueryInfo = new BasicQueryInfo(finalQueryInfo);
+        finalBasicQueryInfo.set(new FinalBasicQueryInfo(finalQueryInfo, basicQueryInfo));
+        return basicQueryInfo;
+    }
+
     /**
      * Gets the number of tasks associated with this query that are still running
      */
@@ -573,27 +595,40 @@ public class SqlQueryExecution
             // time analysis phase
             stateMachine.beginAnalysis();
 
-            PlanNode planNode = stateMachine.getSession()
-                    .getRuntimeStats()
-                    .recordWallAndCpuTime(
-                            LOGICAL_PLANNER_TIME_NANOS,
-                            () -> queryAnalyzer.plan(this.analyzerContext, queryAnalysis));
-
-            Optimizer optimizer = new Optimizer(
-                    stateMachine.getSession(),
-                    metadata,
-                    planOptimizers,
-                    planChecker,
-                    analyzerContext.getVariableAllocator(),
-                    idAllocator,
-                    stateMachine.getWarningCollector(),
-                    statsCalculator,
-                    costCalculator,
-                    false);
-
-            Plan plan = getSession().getRuntimeStats().recordWallAndCpuTime(
-                    OPTIMIZER_TIME_NANOS,
-                    () -> optimizer.validateAndOptimizePlan(planNode, OPTIMIZED_AND_VALIDATED));
+            Optional<CachedPlan> cachedPlan = planCacheKey.flatMap(key -> planCache.get(key, getSession()));
+            PlanNode logicalPlan = null;
+            Plan plan;
+            if (cachedPlan.isPresent()) {
+                plan = cachedPlan.get().getPlan();
+                // the nodes added to the plan from here on must not reuse the ids of the cached plan
+                for (int i = 0; i < cachedPlan.get().getPlanNodeIdCount(); i++) {
+                    idAllocator.getNextId();
+                }
+            }
+            else {
+                PlanNode planNode = stateMachine.getSession()
+                        .getRuntimeStats()
+                        .recordWallAndCpuTime(
+                                LOGICAL_PLANNER_TIME_NANOS,
+                                () -> queryAnalyzer.plan(this.analyzerContext, queryAnalysis));
+
+                Optimizer optimizer = new Optimizer(
+                        stateMachine.getSession(),
+                        metadata,
+                        planOptimizers,
+                        planChecker,
+                        analyzerContext.getVariableAllocator(),
+                        idAllocator,
+                        stateMachine.getWarningCollector(),
+                        statsCalculator,
+                        costCalculator,
+                        false);
+
+                logicalPlan = planNode;
+                plan = getSession().getRuntimeStats().recordWallAndCpuTime(
+                        OPTIMIZER_TIME_NANOS,
+                        () -> optimizer.validateAndOptimizePlan(planNode, OPTIMIZED_AND_VALIDATED));
+            }
 
             queryPlan.set(plan);
             stateMachine.setPlanStatsAndCosts(plan.getStatsAndCosts());
@@ -607,6 +642,10 @@ public class SqlQueryExecution
             List<Input> inputs = new InputExtractor(metadata, stateMachine.getSession()).extractInputs(plan.getRoot());
             stateMachine.setInputs(inputs);
 
+            if (logicalPlan != null && planCacheKey.isPresent()) {
+                planCache.put(planCacheKey.get(), getSession(), logicalPlan, plan);
+            }
+
             // extract output
             Optional<Output> output = new OutputExtractor().extractOutput(plan.getRoot());
             stateMachine.setOutput(output);
@@ -647,6 +686,19 @@ public class SqlQueryExecution
         }
     }
 
+    private static Optional<PlanCache.Key> getPlanCacheKey(PreparedQuery preparedQuery, QueryAnalysis queryAnalysis, Session session)
+    {
+        // only the plans of queries are cached, the plans of statements that modify tables are not reused
+        if (!isPlanCacheEnabled(session) ||
+                !(preparedQuery instanceof BuiltInPreparedQuery) ||
+                queryAnalysis.getUpdateInfo() != null ||
+                queryAnalysis.isExplainAnalyzeQuery()) {
+            return Optional.empty();
+        }
+        BuiltInPreparedQuery builtInPreparedQuery = (BuiltInPreparedQuery) preparedQuery;
+        return PlanCache.createKey(session, builtInPreparedQuery.getStatement(), builtInPreparedQuery.getParameters());
+    }
+
     private void createQueryScheduler(PlanRoot plan)
     {
         CloseableSplitSourceProvider splitSourceProvider = new CloseableSplitSourceProvider(splitManager);
@@ -904,6 +956,28 @@ public class SqlQueryExecution
         }
     }
 
+    private static class FinalBasicQueryInfo
+    {
+        private final QueryInfo queryInfo;
+        private final BasicQueryInfo basicQueryInfo;
+
+        public FinalBasicQueryInfo(QueryInfo queryInfo, BasicQueryInfo basicQueryInfo)
+        {
+            this.queryInfo = requireNonNull(queryInfo, "queryInfo is null");
+            this.basicQueryInfo = requireNonNull(basicQueryInfo, "basicQueryInfo is null");
+        }
+
+        public QueryInfo getQueryInfo()
+        {
+            return queryInfo;
+        }
+
+        public BasicQueryInfo getBasicQueryInfo()
+        {
+            return basicQueryInfo;
+        }
+    }
+
     public static class SqlQueryExecutionFactory
             implements QueryExecutionFactory<QueryExecution>
     {
@@ -927,6 +1001,7 @@ public class SqlQueryExecution
         private final PlanChecker planChecker;
         private final PartialResultQueryManager partialResultQueryManager;
         private final HistoryBasedPlanStatisticsManager historyBasedPlanStatisticsManager;
+        private final PlanCache planCache;
 
         @Inject
         SqlQueryExecutionFactory(
@@ -949,7 +1024,8 @@ public class SqlQueryExecution
                 CostCalculator costCalculator,
                 PlanChecker planChecker,
                 PartialResultQueryManager partialResultQueryManager,
-                HistoryBasedPlanStatisticsManager historyBasedPlanStatisticsManager)
+                HistoryBasedPlanStatisticsManager historyBasedPlanStatisticsManager,
+                PlanCache planCache)
         {
             requireNonNull(config, "config is null");
             this.schedulerStats = requireNonNull(schedulerStats, "schedulerStats is null");
@@ -973,6 +1049,7 @@ public class SqlQueryExecution
             this.planChecker = requireNonNull(planChecker, "planChecker is null");
             this.partialResultQueryManager = requireNonNull(partialResultQueryManager, "partialResultQueryManager is null");
             this.historyBasedPlanStatisticsManager = requireNonNull(historyBasedPlanStatisticsManager, "historyBasedPlanStatisticsManager is null");
+            this.planCache = requireNonNull(planCache, "planCache is null");
         }
 
         @Override
@@ -1018,7 +1095,8 @@ public class SqlQueryExecution
                     partialResultQueryManager,
                     historyBasedPlanStatisticsManager.getPlanCanonicalInfoProvider(),
                     accessControl,
-                    query);
+                    query,
+                    planCache);
         }
     }
 }
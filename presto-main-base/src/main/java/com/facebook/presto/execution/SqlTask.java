@@ -53,6 +53,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
+import static com.facebook.airlift.concurrent.MoreFutures.whenAnyCompleteCancelOthers;
 import static com.facebook.presto.execution.TaskState.ABORTED;
 import static com.facebook.presto.execution.TaskState.FAILED;
 import static com.facebook.presto.util.Failures.toFailures;
@@ -241,13 +242,27 @@ public class SqlTask
     }
 
     public TaskStatus getTaskStatus()
+    {
+        return getTaskStatus(0);
+    }
+
+    /**
+     * Gets the task status with only the driver groups that completed after the first
+     * {@code knownCompletedDriverGroups} ones, as the caller already has those.
+     */
+    public TaskStatus getTaskStatus(int knownCompletedDriverGroups)
     {
         try (SetThreadName ignored = new SetThreadName("Task-%s", taskId)) {
-            return createTaskStatus(taskHolderReference.get());
+            return createTaskStatus(taskHolderReference.get(), knownCompletedDriverGroups);
         }
     }
 
     private TaskStatus createTaskStatus(TaskHolder taskHolder)
+    {
+        return createTaskStatus(taskHolder, 0);
+    }
+
+    private TaskStatus createTaskStatus(TaskHolder taskHolder, int knownCompletedDriverGroups)
     {
         long taskStatusAgeInMillis = System.currentTimeMillis() - creationTimeInMillis;
         // Always return a new TaskInfo with a larger version number;
@@ -267,7 +282,6 @@ public class SqlTask
         long physicalWrittenDataSizeInBytes = 0L;
         long userMemoryReservationInBytes = 0L;
         long systemMemoryReservationInBytes = 0L;
-        // TODO: add a mechanism to avoid sending the whole completedDriverGroups set over the wire for every task status reply
         Set<Lifespan> completedDriverGroups = ImmutableSet.of();
         long fullGcCount = 0;
         long fullGcTimeInMillis = 0L;
@@ -300,7 +314,7 @@ public class SqlTask
             physicalWrittenDataSizeInBytes = physicalWrittenBytes;
             userMemoryReservationInBytes = taskContext.getMemoryReservation().toBytes();
             systemMemoryReservationInBytes = taskContext.getSystemMemoryReservation().toBytes();
-            completedDriverGroups = taskContext.getCompletedDriverGroups();
+            completedDriverGroups = taskStateMachine.getCompletedDriverGroups(knownCompletedDriverGroups);
             fullGcCount = taskContext.getFullGcCount();
             fullGcTimeInMillis = taskContext.getFullGcTime().toMillis();
         }
@@ -386,6 +400,25 @@ public class SqlTask
         return Futures.transform(futureTaskState, input -> getTaskStatus(), directExecutor());
     }
 
+    /**
+     * Gets future status for the task after the state changes from {@code callersCurrentState}
+     * or after more than {@code knownCompletedDriverGroups} driver groups have completed. The
+     * status only contains the driver groups the caller does not know about yet.
+     */
+    public ListenableFuture<TaskStatus> getTaskStatus(TaskState callersCurrentState, int knownCompletedDriverGroups)
+    {
+        requireNonNull(callersCurrentState, "callersCurrentState is null");
+
+        if (callersCurrentState.isDone()) {
+            return immediateFuture(getTaskStatus(knownCompletedDriverGroups));
+        }
+
+        ListenableFuture<?> futureTaskStatusChange = whenAnyCompleteCancelOthers(ImmutableList.of(
+                taskStateMachine.getStateChange(callersCurrentState),
+                taskStateMachine.getCompletedDriverGroupsChange(knownCompletedDriverGroups)));
+        return Futures.transform(futureTaskStatusChange, input -> getTaskStatus(knownCompletedDriverGroups), directExecutor());
+    }
+
     public ListenableFuture<TaskInfo> getTaskInfo(TaskState callersCurrentState)
     {
         requireNonNull(callersCurrentState, "callersCurrentState is null");
@@ -389,6 +389,27 @@ public class SqlTaskManager
         return sqlTask.getTaskStatus(currentState);
     }
 
+    @Override
+    public TaskStatus getTaskStatus(TaskId taskId, int knownCompletedDriverGroups)
+    {
+        requireNonNull(taskId, "taskId is null");
+
+        SqlTask sqlTask = tasks.getUnchecked(taskId);
+        sqlTask.recordHeartbeat();
+        return sqlTask.getTaskStatus(knownCompletedDriverGroups);
+    }
+
+    @Override
+    public ListenableFuture<TaskStatus> getTaskStatus(TaskId taskId, TaskState currentState, int knownCompletedDriverGroups)
+    {
+        requireNonNull(taskId, "taskId is null");
+        requireNonNull(currentState, "currentState is null");
+
+        SqlTask sqlTask = tasks.getUnchecked(taskId);
+        sqlTask.recordHeartbeat();
+        return sqlTask.getTaskStatus(currentState, knownCompletedDriverGroups);
+    }
+
     @Override
     public TaskInfo updateTask(
             Session session,
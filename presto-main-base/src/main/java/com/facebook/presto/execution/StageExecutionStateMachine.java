@@ -17,6 +17,7 @@ import com.facebook.airlift.log.Logger;
 import com.facebook.airlift.stats.Distribution;
 import com.facebook.presto.common.RuntimeMetricName;
 import com.facebook.presto.common.RuntimeStats;
+import com.facebook.presto.common.RuntimeUnit;
 import com.facebook.presto.execution.StateMachine.StateChangeListener;
 import com.facebook.presto.execution.scheduler.ScheduleResult;
 import com.facebook.presto.execution.scheduler.SplitSchedulerStats;
@@ -96,6 +97,12 @@ public class StageExecutionStateMachine
 
     private final RuntimeStats runtimeStats = new RuntimeStats();
 
+    // Incremented whenever stage level statistics change, so that snapshots built from
+    // the same task infos can be reused until the stage itself records something new
+    private final AtomicLong statsVersion = new AtomicLong();
+    private final AtomicReference<Snapshot<BasicStageExecutionStats>> basicStageStatsSnapshot = new AtomicReference<>();
+    private final AtomicReference<Snapshot<StageExecutionInfo>> stageExecutionInfoSnapshot = new AtomicReference<>();
+
     public StageExecutionStateMachine(
             StageExecutionId stageExecutionId,
             ExecutorService executor,
@@ -149,7 +156,9 @@ public class StageExecutionStateMachine
 
     public synchronized boolean transitionToScheduled()
     {
-        schedulingComplete.compareAndSet(0, currentTimeMillis());
+        if (schedulingComplete.compareAndSet(0, currentTimeMillis())) {
+            statsVersion.incrementAndGet();
+        }
         return state.setIf(SCHEDULED, currentState -> currentState == PLANNED || currentState == SCHEDULING || currentState == FINISHED_TASK_SCHEDULING || currentState == SCHEDULING_SPLITS);
     }
 
@@ -230,6 +239,7 @@ public class StageExecutionStateMachine
         currentUserMemory.addAndGet(deltaUserMemoryInBytes);
         peakUserMemory.updateAndGet(currentPeakValue -> max(currentUserMemory.get(), currentPeakValue));
         peakNodeTotalMemory.accumulateAndGet(peakNodeTotalMemoryReservationInBytes, Math::max);
+        statsVersion.incrementAndGet();
     }
 
     public BasicStageExecutionStats getBasicStageStats(Supplier<Iterable<TaskInfo>> taskInfosSupplier)
@@ -246,10 +256,23 @@ public class StageExecutionStateMachine
         // information, the stage could finish, and the task states would
         // never be visible.
         StageExecutionState state = this.state.get();
-        boolean isScheduled = (state == RUNNING) || state.isDone();
-
         List<TaskInfo> taskInfos = ImmutableList.copyOf(taskInfosSupplier.get());
 
+        // the basic stats only depend on the state and the task infos, so they do not change
+        // until one of the tasks reports a new task info
+        Snapshot<BasicStageExecutionStats> snapshot = basicStageStatsSnapshot.get();
+        if (snapshot != null && snapshot.matches(state, 0, taskInfos, 0, 0)) {
+            return snapshot.getValue();
+        }
+        BasicStageExecutionStats basicStageStats = createBasicStageStats(state, taskInfos);
+        basicStageStatsSnapshot.set(new Snapshot<>(state, 0, taskInfos, 0, 0, basicStageStats));
+        return basicStageStats;
+    }
+
+    private BasicStageExecutionStats createBasicStageStats(StageExecutionState state, List<TaskInfo> taskInfos)
+    {
+        boolean isScheduled = (state == RUNNING) || state.isDone();
+
         int totalDrivers = 0;
         int queuedDrivers = 0;
         int runningDrivers = 0;
@@ -376,13 +399,20 @@ public class StageExecutionStateMachine
         // information, the stage could finish, and the task states would
         // never be visible.
         StageExecutionState state = this.state.get();
+        // the version must be captured before the statistics it covers
+        long version = statsVersion.get();
 
         List<TaskInfo> taskInfos = ImmutableList.copyOf(taskInfosSupplier.get());
+        Snapshot<StageExecutionInfo> snapshot = stageExecutionInfoSnapshot.get();
+        if (snapshot != null && snapshot.matches(state, version, taskInfos, finishedLifespans, totalLifespans)) {
+            return snapshot.getValue();
+        }
+
         Optional<ExecutionFailureInfo> failureInfo = Optional.empty();
         if (state == FAILED) {
             failureInfo = Optional.of(failureCause.get());
         }
-        return StageExecutionInfo.create(
+        StageExecutionInfo stageExecutionInfo = StageExecutionInfo.create(
                 stageExecutionId,
                 state,
                 failureInfo,
@@ -394,6 +424,8 @@ public class StageExecutionStateMachine
                 peakNodeTotalMemory.get(),
                 finishedLifespans,
                 totalLifespans);
+        stageExecutionInfoSnapshot.set(new Snapshot<>(state, version, taskInfos, finishedLifespans, totalLifespans, stageExecutionInfo));
+        return stageExecutionInfo;
     }
 
     public void recordGetSplitTime(long startNanos)
@@ -401,71 +433,77 @@ public class StageExecutionStateMachine
         long elapsedNanos = System.nanoTime() - startNanos;
         getSplitDistribution.add(elapsedNanos);
         scheduledStats.getGetSplitTime().add(elapsedNanos, NANOSECONDS);
-        runtimeStats.addMetricValue(GET_SPLITS_TIME_NANOS, NANO, elapsedNanos);
+        addRuntimeMetric(GET_SPLITS_TIME_NANOS, NANO, elapsedNanos);
     }
 
     public void recordSchedulerRunningTime(long cpuTimeNanos, long wallTimeNanos)
     {
-        runtimeStats.addMetricValue(SCHEDULER_CPU_TIME_NANOS, NANO, max(cpuTimeNanos, 0));
-        runtimeStats.addMetricValue(SCHEDULER_WALL_TIME_NANOS, NANO, max(wallTimeNanos, 0));
+        addRuntimeMetric(SCHEDULER_CPU_TIME_NANOS, NANO, max(cpuTimeNanos, 0));
+        addRuntimeMetric(SCHEDULER_WALL_TIME_NANOS, NANO, max(wallTimeNanos, 0));
     }
 
     public void recordSchedulerBlockedTime(ScheduleResult.BlockedReason reason, long nanos)
     {
         requireNonNull(reason, "reason is null");
-        runtimeStats.addMetricValue(SCHEDULER_BLOCKED_TIME_NANOS + "-" + reason, NANO, max(nanos, 0));
+        addRuntimeMetric(SCHEDULER_BLOCKED_TIME_NANOS + "-" + reason, NANO, max(nanos, 0));
     }
 
     public void recordLeafStageSchedulerRunningTime(long cpuTimeNanos, long wallTimeNanos)
     {
-        runtimeStats.addMetricValue(SCAN_STAGE_SCHEDULER_CPU_TIME_NANOS, NANO, max(cpuTimeNanos, 0));
-        runtimeStats.addMetricValue(SCAN_STAGE_SCHEDULER_WALL_TIME_NANOS, NANO, max(wallTimeNanos, 0));
+        addRuntimeMetric(SCAN_STAGE_SCHEDULER_CPU_TIME_NANOS, NANO, max(cpuTimeNanos, 0));
+        addRuntimeMetric(SCAN_STAGE_SCHEDULER_WALL_TIME_NANOS, NANO, max(wallTimeNanos, 0));
     }
 
     public void recordLeafStageSchedulerBlockedTime(ScheduleResult.BlockedReason reason, long nanos)
     {
         requireNonNull(reason, "reason is null");
-        runtimeStats.addMetricValue(SCAN_STAGE_SCHEDULER_BLOCKED_TIME_NANOS + "-" + reason, NANO, max(nanos, 0));
+        addRuntimeMetric(SCAN_STAGE_SCHEDULER_BLOCKED_TIME_NANOS + "-" + reason, NANO, max(nanos, 0));
     }
 
     @Override
     public void recordTaskUpdateDeliveredTime(long nanos)
     {
-        runtimeStats.addMetricValue(TASK_UPDATE_DELIVERED_WALL_TIME_NANOS, NANO, max(nanos, 0));
+        addRuntimeMetric(TASK_UPDATE_DELIVERED_WALL_TIME_NANOS, NANO, max(nanos, 0));
     }
 
     @Override
     public void recordStartWaitForEventLoop(long nanos)
     {
-        runtimeStats.addMetricValue(TASK_START_WAIT_FOR_EVENT_LOOP, NANO, max(nanos, 0));
+        addRuntimeMetric(TASK_START_WAIT_FOR_EVENT_LOOP, NANO, max(nanos, 0));
     }
 
     public void recordDeliveredUpdates(int updates)
     {
-        runtimeStats.addMetricValue(RuntimeMetricName.TASK_UPDATE_DELIVERED_UPDATES, NONE, max(updates, 0));
+        addRuntimeMetric(RuntimeMetricName.TASK_UPDATE_DELIVERED_UPDATES, NONE, max(updates, 0));
     }
 
     public void recordRoundTripTime(long nanos)
     {
-        runtimeStats.addMetricValue(RuntimeMetricName.TASK_UPDATE_ROUND_TRIP_TIME, NANO, max(nanos, 0));
+        addRuntimeMetric(RuntimeMetricName.TASK_UPDATE_ROUND_TRIP_TIME, NANO, max(nanos, 0));
     }
 
     @Override
     public void recordTaskUpdateSerializedCpuTime(long nanos)
     {
-        runtimeStats.addMetricValue(TASK_UPDATE_SERIALIZED_CPU_TIME_NANOS, NANO, max(nanos, 0));
+        addRuntimeMetric(TASK_UPDATE_SERIALIZED_CPU_TIME_NANOS, NANO, max(nanos, 0));
     }
 
     @Override
     public void recordTaskPlanSerializedCpuTime(long nanos)
     {
-        runtimeStats.addMetricValue(TASK_PLAN_SERIALIZED_CPU_TIME_NANOS, NANO, max(nanos, 0));
+        addRuntimeMetric(TASK_PLAN_SERIALIZED_CPU_TIME_NANOS, NANO, max(nanos, 0));
     }
 
     @Override
     public void recordEventLoopMethodExecutionCpuTime(long nanos)
     {
-        runtimeStats.addMetricValue(EVENT_LOOP_METHOD_EXECUTION_CPU_TIME_NANOS, NANO, max(nanos, 0));
+        addRuntimeMetric(EVENT_LOOP_METHOD_EXECUTION_CPU_TIME_NANOS, NANO, max(nanos, 0));
+    }
+
+    private void addRuntimeMetric(String name, RuntimeUnit unit, long value)
+    {
+        runtimeStats.addMetricValue(name, unit, value);
+        statsVersion.incrementAndGet();
     }
 
     @Override
@@ -476,4 +514,46 @@ public class StageExecutionStateMachine
                 .add("state", state)
                 .toString();
     }
+
+    private static class Snapshot<T>
+    {
+        private final StageExecutionState state;
+        private final long version;
+        private final List<TaskInfo> taskInfos;
+        private final int finishedLifespans;
+        private final int totalLifespans;
+        private final T value;
+
+        private Snapshot(StageExecutionState state, long version, List<TaskInfo> taskInfos, int finishedLifespans, int totalLifespans, T value)
+        {
+            this.state = state;
+            this.version = version;
+            this.taskInfos = taskInfos;
+            this.finishedLifespans = finishedLifespans;
+            this.totalLifespans = totalLifespans;
+            this.value = value;
+        }
+
+        public boolean matches(StageExecutionState state, long version, List<TaskInfo> taskInfos, int finishedLifespans, int totalLifespans)
+        {
+            if (this.state != state || this.version != version || this.finishedLifespans != finishedLifespans || this.totalLifespans != totalLifespans) {
+                return false;
+            }
+            if (this.taskInfos.size() != taskInfos.size()) {
+                return false;
+            }
+            // task infos are immutable and replaced on every update, so identity is enough
+            for (int i = 0; i < taskInfos.size(); i++) {
+                if (this.taskInfos.get(i) != taskInfos.get(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        public T getValue()
+        {
+            return value;
+        }
+    }
 }
@@ -77,6 +77,29 @@ public interface TaskManager
      */
     ListenableFuture<TaskStatus> getTaskStatus(TaskId taskId, TaskState currentState);
 
+    /**
+     * Gets the status for the specified task, leaving out the first
+     * {@code knownCompletedDriverGroups} completed driver groups, which the
+     * caller already has. Implementations may return all completed driver
+     * groups, so callers must merge them with the ones they know about.
+     */
+    default TaskStatus getTaskStatus(TaskId taskId, int knownCompletedDriverGroups)
+    {
+        return getTaskStatus(taskId);
+    }
+
+    /**
+     * Gets future status for the task after the state changes from
+     * {@code current state} or after new driver groups complete, leaving out
+     * the first {@code knownCompletedDriverGroups} completed driver groups.
+     * Implementations may only wait for the state change and may return all
+     * completed driver groups.
+     */
+    default ListenableFuture<TaskStatus> getTaskStatus(TaskId taskId, TaskState currentState, int knownCompletedDriverGroups)
+    {
+        return getTaskStatus(taskId, currentState);
+    }
+
     void updateMemoryPoolAssignments(MemoryPoolAssignmentsRequest assignments);
 
     /**
@@ -15,15 +15,20 @@ package com.facebook.presto.execution;
 
 import com.facebook.airlift.log.Logger;
 import com.facebook.presto.execution.StateMachine.StateChangeListener;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.errorprone.annotations.ThreadSafe;
+import com.google.errorprone.annotations.concurrent.GuardedBy;
 
+import java.util.LinkedHashSet;
+import java.util.Set;
 import java.util.concurrent.Executor;
 import java.util.concurrent.LinkedBlockingQueue;
 
 import static com.facebook.presto.execution.TaskState.TERMINAL_TASK_STATES;
 import static com.google.common.base.MoreObjects.toStringHelper;
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.Iterables.skip;
 import static com.google.common.util.concurrent.Futures.immediateFuture;
 import static java.util.Objects.requireNonNull;
 
@@ -38,10 +43,16 @@ public class TaskStateMachine
     private final StateMachine<TaskState> taskState;
     private final LinkedBlockingQueue<Throwable> failureCauses = new LinkedBlockingQueue<>();
 
+    // in completion order, so that a client that has seen the first N driver groups only needs the rest
+    @GuardedBy("this")
+    private final Set<Lifespan> completedDriverGroups = new LinkedHashSet<>();
+    private final StateMachine<Integer> completedDriverGroupCount;
+
     public TaskStateMachine(TaskId taskId, Executor executor)
     {
         this.taskId = requireNonNull(taskId, "taskId is null");
         taskState = new StateMachine<>("task " + taskId, executor, TaskState.RUNNING, TERMINAL_TASK_STATES);
+        completedDriverGroupCount = new StateMachine<>("task " + taskId + " completed driver groups", executor, 0);
         taskState.addStateChangeListener(new StateChangeListener<TaskState>()
         {
             @Override
@@ -80,6 +91,43 @@ public class TaskStateMachine
         return future;
     }
 
+    /**
+     * Returns the completed driver groups, in the order they completed.
+     */
+    public synchronized Set<Lifespan> getCompletedDriverGroups()
+    {
+        return ImmutableSet.copyOf(completedDriverGroups);
+    }
+
+    /**
+     * Returns the driver groups that completed after the first {@code knownCount} ones.
+     */
+    public synchronized Set<Lifespan> getCompletedDriverGroups(int knownCount)
+    {
+        return ImmutableSet.copyOf(skip(completedDriverGroups, knownCount));
+    }
+
+    public void addCompletedDriverGroup(Lifespan driverGroup)
+    {
+        requireNonNull(driverGroup, "driverGroup is null");
+        int count;
+        synchronized (this) {
+            if (!completedDriverGroups.add(driverGroup)) {
+                return;
+            }
+            count = completedDriverGroups.size();
+        }
+        completedDriverGroupCount.setIf(count, currentCount -> currentCount < count);
+    }
+
+    /**
+     * Returns a future that completes once the number of completed driver groups differs from {@code knownCount}.
+     */
+    public ListenableFuture<Integer> getCompletedDriverGroupsChange(int knownCount)
+    {
+        return completedDriverGroupCount.getStateChange(knownCount);
+    }
+
     public LinkedBlockingQueue<Throwable> getFailureCauses()
     {
         return failureCauses;
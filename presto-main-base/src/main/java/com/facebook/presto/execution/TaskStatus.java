@@ -345,4 +345,30 @@ public class TaskStatus
                 taskStatus.getQueuedPartitionedSplitsWeight(),
                 taskStatus.getRunningPartitionedSplitsWeight());
     }
+
+    public static TaskStatus withCompletedDriverGroups(TaskStatus taskStatus, Set<Lifespan> completedDriverGroups)
+    {
+        return new TaskStatus(
+                taskStatus.getTaskInstanceIdLeastSignificantBits(),
+                taskStatus.getTaskInstanceIdMostSignificantBits(),
+                taskStatus.getVersion(),
+                taskStatus.getState(),
+                taskStatus.getSelf(),
+                completedDriverGroups,
+                taskStatus.getFailures(),
+                taskStatus.getQueuedPartitionedDrivers(),
+                taskStatus.getRunningPartitionedDrivers(),
+                taskStatus.getOutputBufferUtilization(),
+                taskStatus.isOutputBufferOverutilized(),
+                taskStatus.getPhysicalWrittenDataSizeInBytes(),
+                taskStatus.getMemoryReservationInBytes(),
+                taskStatus.getSystemMemoryReservationInBytes(),
+                taskStatus.getPeakNodeTotalMemoryReservationInBytes(),
+                taskStatus.getFullGcCount(),
+                taskStatus.getFullGcTimeInMillis(),
+                taskStatus.getTotalCpuTimeInNanos(),
+                taskStatus.getTaskAgeInMillis(),
+                taskStatus.getQueuedPartitionedSplitsWeight(),
+                taskStatus.getRunningPartitionedSplitsWeight());
+    }
 }
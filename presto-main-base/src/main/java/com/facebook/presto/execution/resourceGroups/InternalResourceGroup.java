@@ -799,6 +799,16 @@ public class InternalResourceGroup
             if (!parent.isPresent()) {
                 return;
             }
+            updateEligibilityInParent();
+            parent.get().updateEligibility();
+        }
+    }
+
+    // Updates only the entry of this group in the eligible sub groups of its parent. The caller is responsible for updating the ancestors.
+    private void updateEligibilityInParent()
+    {
+        checkState(Thread.holdsLock(root), "Must hold lock to update eligibility");
+        synchronized (root) {
             if (isEligibleToStartNext()) {
                 parent.get().addOrUpdateSubGroup(this);
             }
@@ -808,7 +818,6 @@ public class InternalResourceGroup
                     lastStartMillis = 0;
                 }
             }
-            parent.get().updateEligibility();
         }
     }
 
@@ -874,8 +883,10 @@ public class InternalResourceGroup
         }
     }
 
-    // Memory usage stats are expensive to maintain, so this method must be called periodically to update them
-    protected void internalRefreshStats()
+    // Memory usage stats are expensive to maintain, so this method must be called periodically to update them.
+    // Eligibility is updated bottom-up in the same pass: returns true if the entry of any sub group was updated,
+    // in which case the caller must update the entry of this group in its parent.
+    protected boolean internalRefreshStats()
     {
         checkState(Thread.holdsLock(root), "Must hold lock to refresh stats");
         synchronized (root) {
@@ -886,23 +897,28 @@ public class InternalResourceGroup
                 }
                 Optional<ResourceGroupRuntimeInfo> resourceGroupRuntimeInfo = getAdditionalRuntimeInfo();
                 resourceGroupRuntimeInfo.ifPresent(groupRuntimeInfo -> cachedMemoryUsageBytes += groupRuntimeInfo.getMemoryUsageBytes());
+                return false;
             }
-            else {
-                for (Iterator<InternalResourceGroup> iterator = dirtySubGroups.iterator(); iterator.hasNext(); ) {
-                    InternalResourceGroup subGroup = iterator.next();
-                    long oldMemoryUsageBytes = subGroup.cachedMemoryUsageBytes;
-                    cachedMemoryUsageBytes -= oldMemoryUsageBytes;
-                    subGroup.internalRefreshStats();
-                    cachedMemoryUsageBytes += subGroup.cachedMemoryUsageBytes;
-                    if (!subGroup.isDirty()) {
-                        iterator.remove();
-                    }
-                    if (oldMemoryUsageBytes != subGroup.cachedMemoryUsageBytes || subGroup.isDirty.get()) {
-                        subGroup.updateEligibility();
-                        subGroup.isDirty.set(false);
-                    }
+
+            boolean eligibilityUpdated = false;
+            for (Iterator<InternalResourceGroup> iterator = dirtySubGroups.iterator(); iterator.hasNext(); ) {
+                InternalResourceGroup subGroup = iterator.next();
+                long oldMemoryUsageBytes = subGroup.cachedMemoryUsageBytes;
+                cachedMemoryUsageBytes -= oldMemoryUsageBytes;
+                boolean descendantEligibilityUpdated = subGroup.internalRefreshStats();
+                cachedMemoryUsageBytes += subGroup.cachedMemoryUsageBytes;
+                if (!subGroup.isDirty()) {
+                    iterator.remove();
+                }
+                if (oldMemoryUsageBytes != subGroup.cachedMemoryUsageBytes || subGroup.isDirty.get() || descendantEligibilityUpdated) {
+                    // Walking up to the root for every changed group would repeat the same work for each of them,
+                    // so only this level is updated here and the levels above are updated as the recursion unwinds
+                    subGroup.updateEligibilityInParent();
+                    subGroup.isDirty.set(false);
+                    eligibilityUpdated = true;
                 }
             }
+            return eligibilityUpdated;
         }
     }
 
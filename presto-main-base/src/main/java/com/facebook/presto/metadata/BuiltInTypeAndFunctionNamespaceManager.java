@@ -111,6 +111,8 @@ import com.facebook.presto.operator.aggregation.sketch.kll.KllSketchAggregationF
 import com.facebook.presto.operator.aggregation.sketch.kll.KllSketchWithKAggregationFunction;
 import com.facebook.presto.operator.aggregation.sketch.theta.ThetaSketchAggregationFunction;
 import com.facebook.presto.operator.scalar.AbstractArraySortByKeyFunction;
+import com.facebook.presto.operator.scalar.AdaptiveRegexpFunctions;
+import com.facebook.presto.operator.scalar.AdaptiveRegexpReplaceLambdaFunction;
 import com.facebook.presto.operator.scalar.ArrayAllMatchFunction;
 import com.facebook.presto.operator.scalar.ArrayAnyMatchFunction;
 import com.facebook.presto.operator.scalar.ArrayCardinalityFunction;
@@ -169,6 +171,7 @@ import com.facebook.presto.operator.scalar.IpPrefixFunctions;
 import com.facebook.presto.operator.scalar.JoniRegexpCasts;
 import com.facebook.presto.operator.scalar.JoniRegexpFunctions;
 import com.facebook.presto.operator.scalar.JoniRegexpReplaceLambdaFunction;
+import com.facebook.presto.operator.scalar.JsonExtractScalarMultipleFunctions;
 import com.facebook.presto.operator.scalar.JsonFunctions;
 import com.facebook.presto.operator.scalar.JsonOperators;
 import com.facebook.presto.operator.scalar.KllSketchFunctions;
@@ -383,6 +386,8 @@ import static com.facebook.presto.operator.aggregation.noisyaggregation.NoisySum
 import static com.facebook.presto.operator.aggregation.noisyaggregation.NoisySumGaussianClippingAggregation.NOISY_SUM_GAUSSIAN_CLIPPING_AGGREGATION;
 import static com.facebook.presto.operator.aggregation.noisyaggregation.NoisySumGaussianClippingRandomSeedAggregation.NOISY_SUM_GAUSSIAN_CLIPPING_RANDOM_SEED_AGGREGATION;
 import static com.facebook.presto.operator.aggregation.noisyaggregation.NoisySumGaussianRandomSeedAggregation.NOISY_SUM_GAUSSIAN_RANDOM_SEED_AGGREGATION;
+import static com.facebook.presto.operator.scalar.AdaptiveCastToRegexpFunction.castCharToAdaptiveRegexp;
+import static com.facebook.presto.operator.scalar.AdaptiveCastToRegexpFunction.castVarcharToAdaptiveRegexp;
 import static com.facebook.presto.operator.scalar.ArrayConcatFunction.ARRAY_CONCAT_FUNCTION;
 import static com.facebook.presto.operator.scalar.ArrayConstructor.ARRAY_CONSTRUCTOR;
 import static com.facebook.presto.operator.scalar.ArrayFlattenFunction.ARRAY_FLATTEN_FUNCTION;
@@ -457,6 +462,7 @@ import static com.facebook.presto.spi.function.FunctionKind.SCALAR;
 import static com.facebook.presto.spi.function.FunctionKind.WINDOW;
 import static com.facebook.presto.spi.function.SqlFunctionVisibility.HIDDEN;
 import static com.facebook.presto.sql.planner.LiteralEncoder.MAGIC_LITERAL_FUNCTION_PREFIX;
+import static com.facebook.presto.type.AdaptiveRegexpType.ADAPTIVE_REGEXP;
 import static com.facebook.presto.type.ArrayParametricType.ARRAY;
 import static com.facebook.presto.type.CodePointsType.CODE_POINTS;
 import static com.facebook.presto.type.ColorType.COLOR;
@@ -654,6 +660,7 @@ public class BuiltInTypeAndFunctionNamespaceManager
         addType(SFM_SKETCH);
         addType(JONI_REGEXP);
         addType(RE2J_REGEXP);
+        addType(ADAPTIVE_REGEXP);
         addType(LIKE_PATTERN);
         addType(JSON_PATH);
         addType(COLOR);
@@ -783,6 +790,8 @@ public class BuiltInTypeAndFunctionNamespaceManager
                 .scalars(BitwiseFunctions.class)
                 .scalars(DateTimeFunctions.class)
                 .scalars(JsonFunctions.class)
+                .scalar(JsonExtractScalarMultipleFunctions.VarcharJsonExtractScalarMultiple.class)
+                .scalar(JsonExtractScalarMultipleFunctions.JsonExtractScalarMultiple.class)
                 .scalars(JsonPrestoQueryPlanFunctions.class)
                 .scalars(ColorFunctions.class)
                 .scalars(ColorOperators.class)
@@ -975,6 +984,8 @@ public class BuiltInTypeAndFunctionNamespaceManager
                 .function(DECIMAL_TO_DECIMAL_CAST)
                 .function(castVarcharToRe2JRegexp(functionsConfig.getRe2JDfaStatesLimit(), functionsConfig.getRe2JDfaRetries()))
                 .function(castCharToRe2JRegexp(functionsConfig.getRe2JDfaStatesLimit(), functionsConfig.getRe2JDfaRetries()))
+                .function(castVarcharToAdaptiveRegexp(functionsConfig.getRe2JDfaStatesLimit(), functionsConfig.getRe2JDfaRetries()))
+                .function(castCharToAdaptiveRegexp(functionsConfig.getRe2JDfaStatesLimit(), functionsConfig.getRe2JDfaRetries()))
                 .function(DECIMAL_AVERAGE_AGGREGATION)
                 .function(DECIMAL_SUM_AGGREGATION)
                 .function(DECIMAL_MOD_FUNCTION)
@@ -1024,6 +1035,10 @@ public class BuiltInTypeAndFunctionNamespaceManager
                 builder.scalars(Re2JRegexpFunctions.class);
                 builder.scalar(Re2JRegexpReplaceLambdaFunction.class);
                 break;
+            case ADAPTIVE:
+                builder.scalars(AdaptiveRegexpFunctions.class);
+                builder.scalar(AdaptiveRegexpReplaceLambdaFunction.class);
+                break;
         }
 
         if (functionsConfig.isLegacyLogFunction()) {
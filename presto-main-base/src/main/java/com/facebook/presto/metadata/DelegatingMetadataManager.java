@@ -27,8 +27,10 @@ import com.facebook.presto.spi.ConnectorTableMetadata;
 import com.facebook.presto.spi.Constraint;
 import com.facebook.presto.spi.MaterializedViewDefinition;
 import com.facebook.presto.spi.MaterializedViewStatus;
+import com.facebook.presto.spi.MaterializedViewStatus.MaterializedDataPredicates;
 import com.facebook.presto.spi.MergeHandle;
 import com.facebook.presto.spi.NewTableLayout;
+import com.facebook.presto.spi.SchemaTableName;
 import com.facebook.presto.spi.SystemTable;
 import com.facebook.presto.spi.TableHandle;
 import com.facebook.presto.spi.TableMetadata;
@@ -497,6 +499,12 @@ public abstract class DelegatingMetadataManager
         return delegate.getMaterializedViewStatus(session, viewName, baseQueryDomain);
     }
 
+    @Override
+    public Map<SchemaTableName, MaterializedDataPredicates> getMaterializedViewRefreshPredicates(Session session, QualifiedObjectName viewName)
+    {
+        return delegate.getMaterializedViewRefreshPredicates(session, viewName);
+    }
+
     @Override
     public void createView(Session session, String catalogName, ConnectorTableMetadata viewMetadata, String viewData, boolean replace)
     {
@@ -29,9 +29,11 @@ import com.facebook.presto.spi.ConnectorTableMetadata;
 import com.facebook.presto.spi.Constraint;
 import com.facebook.presto.spi.MaterializedViewDefinition;
 import com.facebook.presto.spi.MaterializedViewStatus;
+import com.facebook.presto.spi.MaterializedViewStatus.MaterializedDataPredicates;
 import com.facebook.presto.spi.MergeHandle;
 import com.facebook.presto.spi.NewTableLayout;
 import com.facebook.presto.spi.PrestoException;
+import com.facebook.presto.spi.SchemaTableName;
 import com.facebook.presto.spi.SystemTable;
 import com.facebook.presto.spi.TableHandle;
 import com.facebook.presto.spi.TableLayoutFilterCoverage;
@@ -474,6 +476,12 @@ public interface Metadata
      */
     MaterializedViewStatus getMaterializedViewStatus(Session session, QualifiedObjectName viewName, TupleDomain<String> baseQueryDomain);
 
+    /**
+     * Gets the predicates on the base tables that a refresh of the materialized view has to recompute,
+     * or an empty map to recompute the whole view
+     */
+    Map<SchemaTableName, MaterializedDataPredicates> getMaterializedViewRefreshPredicates(Session session, QualifiedObjectName viewName);
+
     /**
      * Try to locate a table index that can lookup results by indexableColumns and provide the requested outputColumns.
      */
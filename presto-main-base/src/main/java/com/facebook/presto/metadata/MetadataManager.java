@@ -45,6 +45,7 @@ import com.facebook.presto.spi.ConnectorViewDefinition;
 import com.facebook.presto.spi.Constraint;
 import com.facebook.presto.spi.MaterializedViewDefinition;
 import com.facebook.presto.spi.MaterializedViewStatus;
+import com.facebook.presto.spi.MaterializedViewStatus.MaterializedDataPredicates;
 import com.facebook.presto.spi.MergeHandle;
 import com.facebook.presto.spi.NewTableLayout;
 import com.facebook.presto.spi.PrestoException;
@@ -1351,6 +1352,19 @@ public class MetadataManager
                         baseQueryDomain));
     }
 
+    @Override
+    public Map<SchemaTableName, MaterializedDataPredicates> getMaterializedViewRefreshPredicates(Session session, QualifiedObjectName materializedViewName)
+    {
+        Optional<TableHandle> materializedViewHandle = getOptionalTableHandle(session, transactionManager, materializedViewName, Optional.empty());
+
+        ConnectorId connectorId = materializedViewHandle.get().getConnectorId();
+        ConnectorMetadata metadata = getMetadata(session, connectorId);
+
+        return metadata.getMaterializedViewRefreshPredicates(
+                session.toConnectorSession(connectorId),
+                toSchemaTableName(materializedViewName.getSchemaName(), materializedViewName.getObjectName()));
+    }
+
     @Override
     public InsertTableHandle beginRefreshMaterializedView(Session session, TableHandle tableHandle)
     {
@@ -1713,6 +1727,12 @@ public class MetadataManager
             {
                 return MetadataManager.this.getMaterializedViewStatus(session, materializedViewName, baseQueryDomain);
             }
+
+            @Override
+            public Map<SchemaTableName, MaterializedDataPredicates> getMaterializedViewRefreshPredicates(QualifiedObjectName materializedViewName)
+            {
+                return MetadataManager.this.getMaterializedViewRefreshPredicates(session, materializedViewName);
+            }
         };
     }
 
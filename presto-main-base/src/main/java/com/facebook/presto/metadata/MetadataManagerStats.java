@@ -93,6 +93,7 @@ public class MetadataManagerStats
     private final AtomicLong finishRefreshMaterializedViewCalls = new AtomicLong();
     private final AtomicLong getReferencedMaterializedViewsCalls = new AtomicLong();
     private final AtomicLong getMaterializedViewStatusCalls = new AtomicLong();
+    private final AtomicLong getMaterializedViewRefreshPredicatesCalls = new AtomicLong();
     private final AtomicLong resolveIndexCalls = new AtomicLong();
     private final AtomicLong createRoleCalls = new AtomicLong();
     private final AtomicLong dropRoleCalls = new AtomicLong();
@@ -203,6 +204,7 @@ public class MetadataManagerStats
     private final TimeStat finishRefreshMaterializedViewTime = new TimeStat(TimeUnit.NANOSECONDS);
     private final TimeStat getReferencedMaterializedViewsTime = new TimeStat(TimeUnit.NANOSECONDS);
     private final TimeStat getMaterializedViewStatusTime = new TimeStat(TimeUnit.NANOSECONDS);
+    private final TimeStat getMaterializedViewRefreshPredicatesTime = new TimeStat(TimeUnit.NANOSECONDS);
     private final TimeStat resolveIndexTime = new TimeStat(TimeUnit.NANOSECONDS);
     private final TimeStat createRoleTime = new TimeStat(TimeUnit.NANOSECONDS);
     private final TimeStat dropRoleTime = new TimeStat(TimeUnit.NANOSECONDS);
@@ -914,6 +916,13 @@ public class MetadataManagerStats
         return getMaterializedViewStatusTime;
     }
 
+    @Managed
+    @Nested
+    public TimeStat getGetMaterializedViewRefreshPredicatesTime()
+    {
+        return getMaterializedViewRefreshPredicatesTime;
+    }
+
     @Managed
     @Nested
     public TimeStat getResolveIndexTime()
@@ -1585,6 +1594,12 @@ public class MetadataManagerStats
         getMaterializedViewStatusTime.add(duration, TimeUnit.NANOSECONDS);
     }
 
+    public void recordGetMaterializedViewRefreshPredicatesCall(long duration)
+    {
+        getMaterializedViewRefreshPredicatesCalls.incrementAndGet();
+        getMaterializedViewRefreshPredicatesTime.add(duration, TimeUnit.NANOSECONDS);
+    }
+
     public void recordResolveIndexCall(long duration)
     {
         resolveIndexCalls.incrementAndGet();
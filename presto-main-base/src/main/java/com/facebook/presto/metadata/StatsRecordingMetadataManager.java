@@ -27,8 +27,10 @@ import com.facebook.presto.spi.ConnectorTableMetadata;
 import com.facebook.presto.spi.Constraint;
 import com.facebook.presto.spi.MaterializedViewDefinition;
 import com.facebook.presto.spi.MaterializedViewStatus;
+import com.facebook.presto.spi.MaterializedViewStatus.MaterializedDataPredicates;
 import com.facebook.presto.spi.MergeHandle;
 import com.facebook.presto.spi.NewTableLayout;
+import com.facebook.presto.spi.SchemaTableName;
 import com.facebook.presto.spi.SystemTable;
 import com.facebook.presto.spi.TableHandle;
 import com.facebook.presto.spi.TableLayoutFilterCoverage;
@@ -663,6 +665,18 @@ public class StatsRecordingMetadataManager
         }
     }
 
+    @Override
+    public Map<SchemaTableName, MaterializedDataPredicates> getMaterializedViewRefreshPredicates(Session session, QualifiedObjectName viewName)
+    {
+        long startTime = System.nanoTime();
+        try {
+            return delegate.getMaterializedViewRefreshPredicates(session, viewName);
+        }
+        finally {
+            stats.recordGetMaterializedViewRefreshPredicatesCall(System.nanoTime() - startTime);
+        }
+    }
+
     @Override
     public Optional<ResolvedIndex> resolveIndex(Session session, TableHandle tableHandle, Set<ColumnHandle> indexableColumns, Set<ColumnHandle> outputColumns, TupleDomain<ColumnHandle> tupleDomain)
     {
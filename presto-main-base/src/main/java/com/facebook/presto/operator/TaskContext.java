@@ -62,7 +62,6 @@ import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.collect.Iterables.getLast;
 import static com.google.common.collect.Iterables.transform;
-import static com.google.common.collect.Sets.newConcurrentHashSet;
 import static java.lang.Math.max;
 import static java.lang.Math.toIntExact;
 import static java.lang.System.currentTimeMillis;
@@ -97,8 +96,6 @@ public class TaskContext
     private final AtomicLong lastExecutionStartTime = new AtomicLong();
     private final AtomicLong executionEndTime = new AtomicLong();
 
-    private final Set<Lifespan> completedDriverGroups = newConcurrentHashSet();
-
     private final List<PipelineContext> pipelineContexts = new CopyOnWriteArrayList<>();
 
     private final boolean perOperatorCpuTimerEnabled;
@@ -300,13 +297,13 @@ public class TaskContext
      */
     public Set<Lifespan> getCompletedDriverGroups()
     {
-        return completedDriverGroups;
+        return taskStateMachine.getCompletedDriverGroups();
     }
 
     public void addCompletedDriverGroup(Lifespan driverGroup)
     {
         checkArgument(!driverGroup.isTaskWide(), "driverGroup is task-wide, not a driver group.");
-        completedDriverGroups.add(driverGroup);
+        taskStateMachine.addCompletedDriverGroup(driverGroup);
     }
 
     public List<PipelineContext> getPipelineContexts()
@@ -0,0 +1,254 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator.project;
+
+import com.facebook.airlift.concurrent.NotThreadSafe;
+import com.facebook.presto.common.Page;
+import com.facebook.presto.common.function.SqlFunctionProperties;
+import com.google.common.annotations.VisibleForTesting;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import static com.facebook.presto.operator.project.SelectedPositions.positionsList;
+import static com.facebook.presto.operator.project.SelectedPositions.positionsRange;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Evaluates a conjunction one conjunct at a time, each conjunct only seeing the positions
+ * that passed the conjuncts before it. The evaluation order is periodically re-ranked from
+ * the observed cost and selectivity of each conjunct, so that cheap and selective conjuncts
+ * run first. This is the page processor counterpart of the filter function ordering done by
+ * the selective readers.
+ */
+@NotThreadSafe
+public class AdaptivePageFilter
+        implements PageFilter
+{
+    // number of pages between two rankings of the conjuncts
+    @VisibleForTesting
+    static final int REORDER_INTERVAL_IN_PAGES = 16;
+    // weight of the statistics collected before the current interval, so that the order follows data changes
+    private static final double STATS_DECAY_FACTOR = 0.5;
+    // lower bound of the fraction of positions removed by a conjunct, to keep the rank of non-selective conjuncts finite
+    private static final double MIN_DROP_RATE = 0.001;
+
+    private final PageFilter originalFilter;
+    private final Conjunct[] conjuncts;
+
+    private int pagesSinceReorder;
+    private boolean reorderDisabled;
+
+    /**
+     * @param originalFilter the whole conjunction compiled as one filter; used to define the input channels
+     * and to re-evaluate pages on which a re-ordered conjunct fails
+     * @param conjunctFilters the conjuncts of {@code originalFilter} compiled individually, in their original order
+     */
+    public AdaptivePageFilter(PageFilter originalFilter, List<PageFilter> conjunctFilters)
+    {
+        this.originalFilter = requireNonNull(originalFilter, "originalFilter is null");
+        requireNonNull(conjunctFilters, "conjunctFilters is null");
+        checkArgument(originalFilter.isDeterministic(), "filter must be deterministic");
+        checkArgument(conjunctFilters.size() > 1, "at least two conjuncts are required");
+
+        List<Integer> inputChannels = originalFilter.getInputChannels().getInputChannels();
+        this.conjuncts = new Conjunct[conjunctFilters.size()];
+        for (int i = 0; i < conjunctFilters.size(); i++) {
+            PageFilter conjunctFilter = conjunctFilters.get(i);
+            checkArgument(conjunctFilter.isDeterministic(), "conjunct filters must be deterministic");
+
+            List<Integer> conjunctChannels = conjunctFilter.getInputChannels().getInputChannels();
+            int[] channels = new int[conjunctChannels.size()];
+            for (int j = 0; j < channels.length; j++) {
+                channels[j] = inputChannels.indexOf(conjunctChannels.get(j));
+                checkArgument(channels[j] >= 0, "conjunct channel %s is not an input of the filter", conjunctChannels.get(j));
+            }
+            conjuncts[i] = new Conjunct(i, conjunctFilter, channels);
+        }
+    }
+
+    @Override
+    public boolean isDeterministic()
+    {
+        return true;
+    }
+
+    @Override
+    public InputChannels getInputChannels()
+    {
+        return originalFilter.getInputChannels();
+    }
+
+    @Override
+    public SelectedPositions filter(SqlFunctionProperties properties, Page page)
+    {
+        SelectedPositions selectedPositions;
+        try {
+            selectedPositions = filterConjuncts(properties, page);
+        }
+        catch (RuntimeException e) {
+            // A conjunct that was moved ahead of a guarding conjunct (e.g. "x <> 0 AND 10 / x > 1") can fail on positions
+            // the original order never evaluates it on. Go back to the original order for good, so that the following
+            // pages are not evaluated twice, and evaluate the page with the original filter, which either succeeds or
+            // fails with the same error as the non-adaptive filter.
+            restoreOriginalOrder();
+            return originalFilter.filter(properties, page);
+        }
+
+        if (reorderDisabled) {
+            return selectedPositions;
+        }
+        pagesSinceReorder++;
+        if (pagesSinceReorder >= REORDER_INTERVAL_IN_PAGES) {
+            reorder();
+        }
+        return selectedPositions;
+    }
+
+    private SelectedPositions filterConjuncts(SqlFunctionProperties properties, Page page)
+    {
+        int positionCount = page.getPositionCount();
+        SelectedPositions selectedPositions = positionsRange(0, positionCount);
+        for (Conjunct conjunct : conjuncts) {
+            if (selectedPositions.isEmpty()) {
+                break;
+            }
+
+            Page conjunctPage = page.extractChannels(conjunct.getChannels());
+            if (selectedPositions.isList()) {
+                conjunctPage = conjunctPage.getPositions(selectedPositions.getPositions(), selectedPositions.getOffset(), selectedPositions.size());
+            }
+            else if (selectedPositions.size() != positionCount) {
+                conjunctPage = conjunctPage.getRegion(selectedPositions.getOffset(), selectedPositions.size());
+            }
+
+            long start = System.nanoTime();
+            SelectedPositions conjunctPositions = conjunct.getFilter().filter(properties, conjunctPage);
+            conjunct.record(selectedPositions.size(), conjunctPositions.size(), System.nanoTime() - start);
+
+            selectedPositions = translate(selectedPositions, conjunctPositions);
+        }
+        return selectedPositions;
+    }
+
+    /**
+     * Maps positions selected within the positions of {@code outer} back to positions of the whole page.
+     */
+    private static SelectedPositions translate(SelectedPositions outer, SelectedPositions inner)
+    {
+        if (inner.isEmpty()) {
+            return positionsRange(0, 0);
+        }
+        if (!inner.isList() && inner.getOffset() == 0 && inner.size() == outer.size()) {
+            return outer;
+        }
+        if (!outer.isList() && !inner.isList()) {
+            return positionsRange(outer.getOffset() + inner.getOffset(), inner.size());
+        }
+
+        int[] positions = new int[inner.size()];
+        for (int i = 0; i < positions.length; i++) {
+            int innerPosition = inner.isList() ? inner.getPositions()[inner.getOffset() + i] : inner.getOffset() + i;
+            positions[i] = outer.isList() ? outer.getPositions()[outer.getOffset() + innerPosition] : outer.getOffset() + innerPosition;
+        }
+        return positionsList(positions, 0, positions.length);
+    }
+
+    private void reorder()
+    {
+        for (Conjunct conjunct : conjuncts) {
+            conjunct.updateRank();
+        }
+        // stable sort keeps the current order among conjuncts with the same rank
+        Arrays.sort(conjuncts, Comparator.comparingDouble(Conjunct::getRank));
+        pagesSinceReorder = 0;
+    }
+
+    private void restoreOriginalOrder()
+    {
+        Arrays.sort(conjuncts, Comparator.comparingInt(Conjunct::getIndex));
+        reorderDisabled = true;
+    }
+
+    @VisibleForTesting
+    public List<Integer> getConjunctOrder()
+    {
+        return Arrays.stream(conjuncts)
+                .map(Conjunct::getIndex)
+                .collect(toImmutableList());
+    }
+
+    private static class Conjunct
+    {
+        private final int index;
+        private final PageFilter filter;
+        private final int[] channels;
+
+        private double inputPositions;
+        private double outputPositions;
+        private double elapsedNanos;
+        private double rank;
+
+        private Conjunct(int index, PageFilter filter, int[] channels)
+        {
+            this.index = index;
+            this.filter = requireNonNull(filter, "filter is null");
+            this.channels = requireNonNull(channels, "channels is null");
+        }
+
+        public int getIndex()
+        {
+            return index;
+        }
+
+        public PageFilter getFilter()
+        {
+            return filter;
+        }
+
+        public int[] getChannels()
+        {
+            return channels;
+        }
+
+        public double getRank()
+        {
+            return rank;
+        }
+
+        public void record(int inputPositionCount, int outputPositionCount, long nanos)
+        {
+            inputPositions += inputPositionCount;
+            outputPositions += outputPositionCount;
+            elapsedNanos += nanos;
+        }
+
+        public void updateRank()
+        {
+            // a conjunct that has not seen any position yet keeps its rank
+            if (inputPositions > 0) {
+                // the classic predicate ordering rank: cost per position divided by the fraction of positions it removes
+                double costPerPosition = elapsedNanos / inputPositions;
+                double dropRate = Math.max(1 - outputPositions / inputPositions, MIN_DROP_RATE);
+                rank = costPerPosition / dropRate;
+            }
+            inputPositions *= STATS_DECAY_FACTOR;
+            outputPositions *= STATS_DECAY_FACTOR;
+            elapsedNanos *= STATS_DECAY_FACTOR;
+        }
+    }
+}
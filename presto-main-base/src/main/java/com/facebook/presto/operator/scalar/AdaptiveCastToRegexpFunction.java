@@ -0,0 +1,119 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator.scalar;
+
+import com.facebook.airlift.units.DataSize;
+import com.facebook.presto.metadata.BoundVariables;
+import com.facebook.presto.metadata.FunctionAndTypeManager;
+import com.facebook.presto.metadata.SqlOperator;
+import com.facebook.presto.type.AdaptiveRegexp;
+import com.facebook.presto.type.AdaptiveRegexpType;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.Weigher;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import io.airlift.slice.Slice;
+import io.airlift.slice.Slices;
+
+import java.lang.invoke.MethodHandle;
+
+import static com.facebook.airlift.units.DataSize.Unit.MEGABYTE;
+import static com.facebook.presto.common.function.OperatorType.CAST;
+import static com.facebook.presto.common.type.Chars.padSpaces;
+import static com.facebook.presto.common.type.TypeSignature.parseTypeSignature;
+import static com.facebook.presto.operator.scalar.ScalarFunctionImplementationChoice.ArgumentProperty.valueTypeArgumentProperty;
+import static com.facebook.presto.operator.scalar.ScalarFunctionImplementationChoice.NullConvention.RETURN_NULL_ON_NULL;
+import static com.facebook.presto.util.Reflection.methodHandle;
+import static java.lang.Math.min;
+import static java.lang.Math.toIntExact;
+import static java.lang.invoke.MethodHandles.insertArguments;
+import static java.util.Collections.emptyList;
+
+public class AdaptiveCastToRegexpFunction
+        extends SqlOperator
+{
+    private static final MethodHandle METHOD_HANDLE = methodHandle(AdaptiveCastToRegexpFunction.class, "castToRegexp", PatternCache.class, boolean.class, long.class, Slice.class);
+    // the cache is bounded by size rather than by entries, as a literal alternation holds a transition table of up to 1MB
+    private static final long MAX_CACHED_PATTERNS_SIZE_IN_BYTES = new DataSize(32, MEGABYTE).toBytes();
+
+    private final boolean padSpaces;
+    private final PatternCache cache;
+
+    public static SqlOperator castVarcharToAdaptiveRegexp(int dfaStatesLimit, int dfaRetries)
+    {
+        return new AdaptiveCastToRegexpFunction("varchar(x)", dfaStatesLimit, dfaRetries, false);
+    }
+
+    public static SqlOperator castCharToAdaptiveRegexp(int dfaStatesLimit, int dfaRetries)
+    {
+        return new AdaptiveCastToRegexpFunction("char(x)", dfaStatesLimit, dfaRetries, true);
+    }
+
+    private AdaptiveCastToRegexpFunction(String sourceType, int dfaStatesLimit, int dfaRetries, boolean padSpaces)
+    {
+        super(CAST, emptyList(), emptyList(), parseTypeSignature(AdaptiveRegexpType.NAME), ImmutableList.of(parseTypeSignature(sourceType, ImmutableSet.of("x"))));
+        this.padSpaces = padSpaces;
+        this.cache = new PatternCache(dfaStatesLimit, dfaRetries);
+    }
+
+    @Override
+    public BuiltInScalarFunctionImplementation specialize(BoundVariables boundVariables, int arity, FunctionAndTypeManager functionAndTypeManager)
+    {
+        return new BuiltInScalarFunctionImplementation(
+                false,
+                ImmutableList.of(valueTypeArgumentProperty(RETURN_NULL_ON_NULL)),
+                insertArguments(METHOD_HANDLE, 0, cache, padSpaces, boundVariables.getLongVariable("x")));
+    }
+
+    public static AdaptiveRegexp castToRegexp(PatternCache cache, boolean padSpaces, long typeLength, Slice pattern)
+    {
+        if (padSpaces) {
+            pattern = padSpaces(pattern, (int) typeLength);
+        }
+        return cache.get(pattern);
+    }
+
+    /**
+     * Compiled patterns are immutable and thread safe, so a pattern that is not a constant of the query,
+     * and is cast for every row, is only classified and compiled once.
+     */
+    public static final class PatternCache
+    {
+        private final int dfaStatesLimit;
+        private final int dfaRetries;
+        private final Cache<Slice, AdaptiveRegexp> patterns = CacheBuilder.newBuilder()
+                .maximumWeight(MAX_CACHED_PATTERNS_SIZE_IN_BYTES)
+                .weigher((Weigher<Slice, AdaptiveRegexp>) (pattern, regexp) -> toIntExact(min(pattern.length() + regexp.getEstimatedSizeInBytes(), Integer.MAX_VALUE)))
+                .build();
+
+        private PatternCache(int dfaStatesLimit, int dfaRetries)
+        {
+            this.dfaStatesLimit = dfaStatesLimit;
+            this.dfaRetries = dfaRetries;
+        }
+
+        public AdaptiveRegexp get(Slice pattern)
+        {
+            AdaptiveRegexp regexp = patterns.getIfPresent(pattern);
+            if (regexp != null) {
+                return regexp;
+            }
+            regexp = new AdaptiveRegexp(dfaStatesLimit, dfaRetries, pattern);
+            // the pattern may be a view of a larger block, so the key is copied
+            patterns.put(Slices.copyOf(pattern), regexp);
+            return regexp;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator.scalar;
+
+import com.facebook.presto.spi.function.Description;
+import com.facebook.presto.spi.function.LiteralParameters;
+import com.facebook.presto.spi.function.ScalarFunction;
+import com.facebook.presto.spi.function.SqlNullable;
+import com.facebook.presto.spi.function.SqlType;
+import com.facebook.presto.sql.gen.lambda.UnaryFunctionInterface;
+import com.facebook.presto.type.AdaptiveRegexp;
+import com.facebook.presto.type.AdaptiveRegexpType;
+import io.airlift.slice.Slice;
+
+@ScalarFunction("regexp_replace")
+@Description("replaces substrings matching a regular expression using a lambda function")
+public final class AdaptiveRegexpReplaceLambdaFunction
+{
+    private final JoniRegexpReplaceLambdaFunction joniFunction = new JoniRegexpReplaceLambdaFunction();
+    private final Re2JRegexpReplaceLambdaFunction re2jFunction = new Re2JRegexpReplaceLambdaFunction();
+
+    @LiteralParameters("x")
+    @SqlType("varchar")
+    @SqlNullable
+    public Slice regexpReplace(
+            @SqlType("varchar") Slice source,
+            @SqlType(AdaptiveRegexpType.NAME) AdaptiveRegexp pattern,
+            @SqlType("function(array(varchar), varchar(x))") UnaryFunctionInterface replaceFunction)
+    {
+        if (pattern.isRe2J()) {
+            return re2jFunction.regexpReplace(source, pattern.getRe2JRegexp(), replaceFunction);
+        }
+        return joniFunction.regexpReplace(source, pattern.getJoniRegexp(), replaceFunction);
+    }
+}
@@ -134,7 +134,7 @@ public final class JsonExtract
     {
         requireNonNull(jsonInput, "jsonInput is null");
         try {
-            return jsonExtractor.extract(jsonInput.getInput(), properties);
+            return jsonExtractor.extract(jsonInput, properties);
         }
         catch (JsonParseException e) {
             // Return null if we failed to parse something
@@ -165,6 +165,12 @@ public final class JsonExtract
     {
         T extract(InputStream inputStream, SqlFunctionProperties properties)
                 throws IOException;
+
+        default T extract(Slice json, SqlFunctionProperties properties)
+                throws IOException
+        {
+            return extract(json.getInput(), properties);
+        }
     }
 
     public abstract static class PrestoJsonExtractor<T>
@@ -0,0 +1,136 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator.scalar;
+
+import com.facebook.presto.common.block.Block;
+import com.facebook.presto.common.block.BlockBuilder;
+import com.facebook.presto.common.function.SqlFunctionProperties;
+import com.facebook.presto.common.type.StandardTypes;
+import com.facebook.presto.spi.PrestoException;
+import com.facebook.presto.spi.function.Description;
+import com.facebook.presto.spi.function.LiteralParameters;
+import com.facebook.presto.spi.function.ScalarFunction;
+import com.facebook.presto.spi.function.SqlType;
+import com.google.common.collect.ImmutableList;
+import io.airlift.slice.Slice;
+
+import java.util.List;
+import java.util.Optional;
+
+import static com.facebook.presto.common.type.VarcharType.VARCHAR;
+import static com.facebook.presto.spi.StandardErrorCode.INVALID_FUNCTION_ARGUMENT;
+import static com.facebook.presto.spi.function.SqlFunctionVisibility.HIDDEN;
+import static com.facebook.presto.util.Failures.checkCondition;
+
+/**
+ * Evaluates several json_extract_scalar paths on the same JSON with a single pass over the document.
+ * Element {@code i} of the result is the value of {@code json_extract_scalar(json, paths[i])}.
+ * The calls are generated by {@link com.facebook.presto.sql.planner.iterative.rule.CombineJsonExtractScalarFunctions}.
+ */
+public final class JsonExtractScalarMultipleFunctions
+{
+    public static final String NAME = "$internal$json_extract_scalar_multiple";
+
+    private JsonExtractScalarMultipleFunctions() {}
+
+    @ScalarFunction(value = NAME, visibility = HIDDEN)
+    @Description("extracts the scalar values of several JSON paths from a JSON string")
+    public static final class VarcharJsonExtractScalarMultiple
+    {
+        private final MultiplePathExtractor extractor = new MultiplePathExtractor();
+
+        @LiteralParameters("x")
+        @SqlType("array(varchar(x))")
+        public Block extract(SqlFunctionProperties properties, @SqlType("varchar(x)") Slice json, @SqlType("array(varchar)") Block paths)
+        {
+            return extractor.extract(properties, json, paths);
+        }
+    }
+
+    @ScalarFunction(value = NAME, visibility = HIDDEN)
+    @Description("extracts the scalar values of several JSON paths from a JSON value")
+    public static final class JsonExtractScalarMultiple
+    {
+        private final MultiplePathExtractor extractor = new MultiplePathExtractor();
+
+        @SqlType("array(varchar)")
+        public Block extract(SqlFunctionProperties properties, @SqlType(StandardTypes.JSON) Slice json, @SqlType("array(varchar)") Block paths)
+        {
+            return extractor.extract(properties, json, paths);
+        }
+    }
+
+    private static class MultiplePathExtractor
+    {
+        // the paths are a constant, so the compiled paths are kept for the block seen last
+        private Block cachedPaths;
+        private JsonPath[] jsonPaths;
+        private Optional<JsonPathScanner> scanner;
+
+        public Block extract(SqlFunctionProperties properties, Slice json, Block paths)
+        {
+            if (paths != cachedPaths) {
+                compilePaths(paths);
+            }
+
+            Slice[] values = new Slice[jsonPaths.length];
+            if (!scanner.isPresent() || !scanner.get().extract(json, values)) {
+                for (int i = 0; i < jsonPaths.length; i++) {
+                    values[i] = JsonExtract.extract(json, jsonPaths[i].getScalarExtractor(), properties);
+                }
+            }
+
+            BlockBuilder blockBuilder = VARCHAR.createBlockBuilder(null, values.length);
+            for (Slice value : values) {
+                if (value == null) {
+                    blockBuilder.appendNull();
+                }
+                else {
+                    VARCHAR.writeSlice(blockBuilder, value);
+                }
+            }
+            return blockBuilder.build();
+        }
+
+        private void compilePaths(Block paths)
+        {
+            ImmutableList.Builder<String> patterns = ImmutableList.builder();
+            JsonPath[] jsonPaths = new JsonPath[paths.getPositionCount()];
+            for (int i = 0; i < jsonPaths.length; i++) {
+                checkCondition(!paths.isNull(i), INVALID_FUNCTION_ARGUMENT, "JSON path must not be null");
+                String pattern = VARCHAR.getSlice(paths, i).toStringUtf8();
+                jsonPaths[i] = JsonPath.build(pattern);
+                patterns.add(pattern);
+            }
+
+            this.jsonPaths = jsonPaths;
+            this.scanner = createScanner(patterns.build());
+            this.cachedPaths = paths;
+        }
+
+        private static Optional<JsonPathScanner> createScanner(List<String> patterns)
+        {
+            if (patterns.isEmpty()) {
+                return Optional.empty();
+            }
+            try {
+                return JsonPathScanner.createScalarScanner(patterns);
+            }
+            catch (PrestoException e) {
+                // paths only supported by the Jayway implementation are extracted one at a time
+                return Optional.empty();
+            }
+        }
+    }
+}
@@ -17,6 +17,7 @@ import com.facebook.presto.common.function.SqlFunctionProperties;
 import com.facebook.presto.spi.PrestoException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
 import com.jayway.jsonpath.Configuration;
 import com.jayway.jsonpath.InvalidJsonException;
 import com.jayway.jsonpath.InvalidPathException;
@@ -26,6 +27,7 @@ import io.airlift.slice.Slice;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Optional;
 
 import static com.facebook.presto.spi.StandardErrorCode.INVALID_FUNCTION_ARGUMENT;
 import static io.airlift.slice.Slices.utf8Slice;
@@ -130,11 +132,73 @@ public class JsonPath
         }
     }
 
+    private static JsonExtract.JsonExtractor<Slice> getScalarExtractorForScanner(JsonPathScanner scanner, JsonExtract.JsonExtractor<Slice> fallback)
+    {
+        return new JsonExtract.JsonExtractor<Slice>()
+        {
+            @Override
+            public Slice extract(Slice json, SqlFunctionProperties properties)
+                    throws IOException
+            {
+                Slice[] values = new Slice[1];
+                if (scanner.extract(json, values)) {
+                    return values[0];
+                }
+                return fallback.extract(json, properties);
+            }
+
+            @Override
+            public Slice extract(InputStream inputStream, SqlFunctionProperties properties)
+                    throws IOException
+            {
+                return fallback.extract(inputStream, properties);
+            }
+        };
+    }
+
+    private static JsonExtract.JsonExtractor<Slice> getObjectExtractorForScanner(JsonPathScanner scanner, JsonExtract.JsonExtractor<Slice> fallback)
+    {
+        JsonExtract.JsonExtractor<Slice> valueExtractor = new JsonExtract.JsonValueJsonExtractor();
+        return new JsonExtract.JsonExtractor<Slice>()
+        {
+            @Override
+            public Slice extract(Slice json, SqlFunctionProperties properties)
+                    throws IOException
+            {
+                // the canonicalized form also validates the content following the value, which needs the full parser
+                if (!properties.isCanonicalizedJsonExtract()) {
+                    Slice[] values = new Slice[1];
+                    if (scanner.extract(json, values)) {
+                        return values[0] == null ? null : valueExtractor.extract(values[0], properties);
+                    }
+                }
+                return fallback.extract(json, properties);
+            }
+
+            @Override
+            public Slice extract(InputStream inputStream, SqlFunctionProperties properties)
+                    throws IOException
+            {
+                return fallback.extract(inputStream, properties);
+            }
+        };
+    }
+
     private static JsonPath buildPresto(String pattern)
     {
-        return new JsonPath(JsonExtract.generateExtractor(pattern, new JsonExtract.ScalarValueJsonExtractor()),
-                JsonExtract.generateExtractor(pattern, new JsonExtract.JsonValueJsonExtractor()),
-                JsonExtract.generateExtractor(pattern, new JsonExtract.JsonSizeExtractor()));
+        JsonExtract.JsonExtractor<Slice> scalarExtractor = JsonExtract.generateExtractor(pattern, new JsonExtract.ScalarValueJsonExtractor());
+        JsonExtract.JsonExtractor<Slice> objectExtractor = JsonExtract.generateExtractor(pattern, new JsonExtract.JsonValueJsonExtractor());
+        JsonExtract.JsonExtractor<Long> sizeExtractor = JsonExtract.generateExtractor(pattern, new JsonExtract.JsonSizeExtractor());
+
+        Optional<JsonPathScanner> scalarScanner = JsonPathScanner.createScalarScanner(ImmutableList.of(pattern));
+        if (scalarScanner.isPresent()) {
+            scalarExtractor = getScalarExtractorForScanner(scalarScanner.get(), scalarExtractor);
+        }
+        Optional<JsonPathScanner> jsonScanner = JsonPathScanner.createJsonScanner(ImmutableList.of(pattern));
+        if (jsonScanner.isPresent()) {
+            objectExtractor = getObjectExtractorForScanner(jsonScanner.get(), objectExtractor);
+        }
+        return new JsonPath(scalarExtractor, objectExtractor, sizeExtractor);
     }
 
     private static JsonPath buildJayway(String pattern)
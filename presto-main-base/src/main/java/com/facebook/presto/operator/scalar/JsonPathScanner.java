@@ -0,0 +1,843 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator.scalar;
+
+import com.google.common.collect.ImmutableList;
+import io.airlift.slice.Slice;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.airlift.slice.Slices.wrappedBuffer;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Evaluates one or more JSON paths (as accepted by {@link JsonPathTokenizer}) directly on the UTF-8
+ * bytes of a document, in a single pass and without creating a parser. Values that are not on any
+ * of the paths are skipped without being decoded, and the scan stops as soon as every path has been
+ * resolved.
+ * <p/>
+ * The scanner only produces a result when the part of the document it read is strictly valid JSON.
+ * Otherwise {@link #extract} returns false, and the caller must fall back to the Jackson based
+ * extractors in {@link JsonExtract}, so that the handling of malformed documents stays exactly the
+ * same.
+ */
+public final class JsonPathScanner
+{
+    // stay well below the default stream read constraints of Jackson, so that documents failing those are handled by the fallback
+    private static final int MAX_NESTING_DEPTH = 500;
+    private static final int MAX_NUMBER_LENGTH = 500;
+    private static final int MAX_STRING_LENGTH = 50_000;
+
+    // paths are tracked with a bit mask for each trie node
+    private static final int MAX_CHILDREN = Long.SIZE;
+
+    private static final int FAILED = -1;
+    // every path has been resolved, the rest of the document has not been scanned
+    private static final int COMPLETED = -2;
+
+    private final PathNode root;
+    private final int pathCount;
+    private final boolean scalarValues;
+
+    private JsonPathScanner(PathNode root, int pathCount, boolean scalarValues)
+    {
+        this.root = requireNonNull(root, "root is null");
+        this.pathCount = pathCount;
+        this.scalarValues = scalarValues;
+    }
+
+    /**
+     * Creates a scanner producing the values of {@code json_extract_scalar} for each of the paths,
+     * or empty if the paths cannot be evaluated together.
+     */
+    public static Optional<JsonPathScanner> createScalarScanner(List<String> paths)
+    {
+        return create(paths, true);
+    }
+
+    /**
+     * Creates a scanner producing the unparsed text of the JSON value at each of the paths,
+     * or empty if the paths cannot be evaluated together.
+     */
+    public static Optional<JsonPathScanner> createJsonScanner(List<String> paths)
+    {
+        return create(paths, false);
+    }
+
+    private static Optional<JsonPathScanner> create(List<String> paths, boolean scalarValues)
+    {
+        requireNonNull(paths, "paths is null");
+        checkArgument(!paths.isEmpty(), "paths is empty");
+
+        PathNodeBuilder root = new PathNodeBuilder(null);
+        for (int path = 0; path < paths.size(); path++) {
+            PathNodeBuilder node = root;
+            for (String token : ImmutableList.copyOf(new JsonPathTokenizer(paths.get(path)))) {
+                // malformed field names are decoded to the replacement character by the fallback, raw bytes can not match those
+                if (token.indexOf('\uFFFD') >= 0) {
+                    return Optional.empty();
+                }
+                node = node.getOrAddChild(token);
+            }
+            node.addPath(path);
+        }
+
+        return root.build().map(node -> new JsonPathScanner(node, paths.size(), scalarValues));
+    }
+
+    public int getPathCount()
+    {
+        return pathCount;
+    }
+
+    /**
+     * Extracts the value of every path into {@code values}; a value is null when the path does not exist
+     * or, for scalar scanners, when the value is not a scalar.
+     *
+     * @return false if the scanner could not evaluate the document, in which case {@code values} must be ignored
+     */
+    public boolean extract(Slice json, Slice[] values)
+    {
+        requireNonNull(json, "json is null");
+        checkArgument(values.length == pathCount, "expected %s values, got %s", pathCount, values.length);
+        Arrays.fill(values, null);
+
+        int position = skipWhitespace(json, 0);
+        if (position == json.length()) {
+            return true;
+        }
+        return scanValue(json, position, 0, root, true, values) != FAILED;
+    }
+
+    private int scanValue(Slice json, int position, int depth, PathNode node, boolean mayComplete, Slice[] values)
+    {
+        if (depth > MAX_NESTING_DEPTH || position >= json.length()) {
+            return FAILED;
+        }
+
+        byte current = json.getByte(position);
+        int end;
+        if (node.hasChildren() && current == '{') {
+            end = scanObject(json, position, depth, node, mayComplete, values);
+        }
+        else if (node.hasChildren() && current == '[') {
+            end = scanArray(json, position, depth, node, mayComplete, values);
+        }
+        else {
+            // the remaining path does not exist in a scalar value
+            end = skipValue(json, position, depth);
+        }
+        if (end == FAILED || end == COMPLETED) {
+            return end;
+        }
+
+        if (node.hasPaths()) {
+            Slice value;
+            if (!scalarValues) {
+                value = json.slice(position, end - position);
+            }
+            else if (current == '"') {
+                value = decodeString(json, position, end);
+                if (value == null) {
+                    return FAILED;
+                }
+            }
+            else if (current == '{' || current == '[' || current == 'n') {
+                value = null;
+            }
+            else {
+                // number or boolean, the text is the value
+                value = json.slice(position, end - position);
+            }
+            for (int path : node.getPaths()) {
+                values[path] = value;
+            }
+        }
+        return mayComplete ? COMPLETED : end;
+    }
+
+    private int scanObject(Slice json, int position, int depth, PathNode node, boolean mayComplete, Slice[] values)
+    {
+        PathNode[] children = node.getChildren();
+        int pendingChildren = children.length;
+        long visitedChildren = 0;
+        // the value of the object itself is needed, so the object must be scanned until its end
+        boolean needsEnd = node.hasPaths() && !scalarValues;
+
+        position = skipWhitespace(json, position + 1);
+        if (position < json.length() && json.getByte(position) == '}') {
+            return position + 1;
+        }
+        while (true) {
+            if (position >= json.length() || json.getByte(position) != '"') {
+                return FAILED;
+            }
+            int keyEnd = skipString(json, position);
+            if (keyEnd == FAILED) {
+                return FAILED;
+            }
+            int child = -1;
+            if (pendingChildren > 0) {
+                child = matchField(json, position + 1, keyEnd - 1, children, visitedChildren);
+                if (child == FAILED) {
+                    return FAILED;
+                }
+            }
+
+            position = skipWhitespace(json, keyEnd);
+            if (position >= json.length() || json.getByte(position) != ':') {
+                return FAILED;
+            }
+            position = skipWhitespace(json, position + 1);
+
+            if (child >= 0) {
+                visitedChildren |= 1L << child;
+                pendingChildren--;
+                // duplicate fields are not looked at again, so this child is fully resolved by its value
+                boolean childMayComplete = mayComplete && pendingChildren == 0 && !needsEnd;
+                position = scanValue(json, position, depth + 1, children[child], childMayComplete, values);
+            }
+            else {
+                position = skipValue(json, position, depth + 1);
+            }
+            if (position == FAILED || position == COMPLETED) {
+                return position;
+            }
+
+            position = skipWhitespace(json, position);
+            if (position >= json.length()) {
+                return FAILED;
+            }
+            byte next = json.getByte(position);
+            if (next == '}') {
+                return position + 1;
+            }
+            if (next != ',') {
+                return FAILED;
+            }
+            position = skipWhitespace(json, position + 1);
+        }
+    }
+
+    private int scanArray(Slice json, int position, int depth, PathNode node, boolean mayComplete, Slice[] values)
+    {
+        PathNode[] children = node.getChildren();
+        int pendingChildren = node.getIndexedChildCount();
+        boolean needsEnd = node.hasPaths() && !scalarValues;
+
+        position = skipWhitespace(json, position + 1);
+        if (position < json.length() && json.getByte(position) == ']') {
+            return position + 1;
+        }
+        for (int index = 0; ; index++) {
+            int child = -1;
+            if (pendingChildren > 0) {
+                for (int i = 0; i < children.length; i++) {
+                    if (children[i].getIndex() == index) {
+                        child = i;
+                        break;
+                    }
+                }
+            }
+
+            if (child >= 0) {
+                pendingChildren--;
+                boolean childMayComplete = mayComplete && pendingChildren == 0 && !needsEnd;
+                position = scanValue(json, position, depth + 1, children[child], childMayComplete, values);
+            }
+            else {
+                position = skipValue(json, position, depth + 1);
+            }
+            if (position == FAILED || position == COMPLETED) {
+                return position;
+            }
+
+            position = skipWhitespace(json, position);
+            if (position >= json.length()) {
+                return FAILED;
+            }
+            byte next = json.getByte(position);
+            if (next == ']') {
+                return position + 1;
+            }
+            if (next != ',') {
+                return FAILED;
+            }
+            position = skipWhitespace(json, position + 1);
+        }
+    }
+
+    /**
+     * @return the index of the unvisited child with the name of the field, -1 if none matches, or FAILED if the field can not be compared
+     */
+    private static int matchField(Slice json, int start, int end, PathNode[] children, long visitedChildren)
+    {
+        int length = end - start;
+        for (int i = start; i < end; i++) {
+            if (json.getByte(i) == '\\') {
+                // escaped field names are left to the fallback
+                return FAILED;
+            }
+        }
+        for (int child = 0; child < children.length; child++) {
+            if ((visitedChildren & (1L << child)) != 0) {
+                continue;
+            }
+            byte[] name = children[child].getName();
+            if (name.length == length && json.equals(start, length, wrappedBuffer(name), 0, length)) {
+                return child;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Skips a value and validates it the same way a tokenizing parser would.
+     *
+     * @return the position after the value, or FAILED
+     */
+    private static int skipValue(Slice json, int position, int depth)
+    {
+        if (depth > MAX_NESTING_DEPTH || position >= json.length()) {
+            return FAILED;
+        }
+        int end;
+        switch (json.getByte(position)) {
+            case '{':
+                return skipObject(json, position, depth);
+            case '[':
+                return skipArray(json, position, depth);
+            case '"':
+                return skipString(json, position);
+            case 't':
+                end = skipLiteral(json, position, "true");
+                break;
+            case 'f':
+                end = skipLiteral(json, position, "false");
+                break;
+            case 'n':
+                end = skipLiteral(json, position, "null");
+                break;
+            default:
+                end = skipNumber(json, position);
+                break;
+        }
+        if (end == FAILED || end == json.length()) {
+            return end;
+        }
+        // numbers and literals must be followed by a delimiter; a value at the root must be followed by whitespace
+        byte next = json.getByte(end);
+        if (isWhitespace(next) || (depth > 0 && (next == ',' || next == '}' || next == ']'))) {
+            return end;
+        }
+        return FAILED;
+    }
+
+    private static int skipObject(Slice json, int position, int depth)
+    {
+        position = skipWhitespace(json, position + 1);
+        if (position < json.length() && json.getByte(position) == '}') {
+            return position + 1;
+        }
+        while (true) {
+            if (position >= json.length() || json.getByte(position) != '"') {
+                return FAILED;
+            }
+            position = skipString(json, position);
+            if (position == FAILED) {
+                return FAILED;
+            }
+            position = skipWhitespace(json, position);
+            if (position >= json.length() || json.getByte(position) != ':') {
+                return FAILED;
+            }
+            position = skipValue(json, skipWhitespace(json, position + 1), depth + 1);
+            if (position == FAILED) {
+                return FAILED;
+            }
+            position = skipWhitespace(json, position);
+            if (position >= json.length()) {
+                return FAILED;
+            }
+            byte next = json.getByte(position);
+            if (next == '}') {
+                return position + 1;
+            }
+            if (next != ',') {
+                return FAILED;
+            }
+            position = skipWhitespace(json, position + 1);
+        }
+    }
+
+    private static int skipArray(Slice json, int position, int depth)
+    {
+        position = skipWhitespace(json, position + 1);
+        if (position < json.length() && json.getByte(position) == ']') {
+            return position + 1;
+        }
+        while (true) {
+            position = skipValue(json, position, depth + 1);
+            if (position == FAILED) {
+                return FAILED;
+            }
+            position = skipWhitespace(json, position);
+            if (position >= json.length()) {
+                return FAILED;
+            }
+            byte next = json.getByte(position);
+            if (next == ']') {
+                return position + 1;
+            }
+            if (next != ',') {
+                return FAILED;
+            }
+            position = skipWhitespace(json, position + 1);
+        }
+    }
+
+    /**
+     * @return the position after the closing quote, or FAILED
+     */
+    private static int skipString(Slice json, int position)
+    {
+        int start = position;
+        position++;
+        while (position < json.length()) {
+            byte current = json.getByte(position);
+            if (current == '"') {
+                return position - start > MAX_STRING_LENGTH ? FAILED : position + 1;
+            }
+            if (current == '\\') {
+                if (position + 1 >= json.length()) {
+                    return FAILED;
+                }
+                byte escaped = json.getByte(position + 1);
+                if (escaped == 'u') {
+                    if (position + 5 >= json.length()) {
+                        return FAILED;
+                    }
+                    for (int i = position + 2; i < position + 6; i++) {
+                        if (hexValue(json.getByte(i)) < 0) {
+                            return FAILED;
+                        }
+                    }
+                    position += 6;
+                    continue;
+                }
+                if (unescape(escaped) < 0) {
+                    return FAILED;
+                }
+                position += 2;
+                continue;
+            }
+            if ((current & 0xFF) < 0x20) {
+                // unescaped control characters are not allowed
+                return FAILED;
+            }
+            position++;
+        }
+        return FAILED;
+    }
+
+    private static int skipLiteral(Slice json, int position, String literal)
+    {
+        if (position + literal.length() > json.length()) {
+            return FAILED;
+        }
+        for (int i = 0; i < literal.length(); i++) {
+            if (json.getByte(position + i) != literal.charAt(i)) {
+                return FAILED;
+            }
+        }
+        return position + literal.length();
+    }
+
+    private static int skipNumber(Slice json, int position)
+    {
+        int start = position;
+        if (position < json.length() && json.getByte(position) == '-') {
+            position++;
+        }
+        if (position >= json.length() || !isDigit(json.getByte(position))) {
+            return FAILED;
+        }
+        if (json.getByte(position) == '0') {
+            // no leading zeros
+            position++;
+        }
+        else {
+            position = skipDigits(json, position);
+        }
+        if (position < json.length() && json.getByte(position) == '.') {
+            position++;
+            if (position >= json.length() || !isDigit(json.getByte(position))) {
+                return FAILED;
+            }
+            position = skipDigits(json, position);
+        }
+        if (position < json.length() && (json.getByte(position) == 'e' || json.getByte(position) == 'E')) {
+            position++;
+            if (position < json.length() && (json.getByte(position) == '+' || json.getByte(position) == '-')) {
+                position++;
+            }
+            if (position >= json.length() || !isDigit(json.getByte(position))) {
+                return FAILED;
+            }
+            position = skipDigits(json, position);
+        }
+        return position - start > MAX_NUMBER_LENGTH ? FAILED : position;
+    }
+
+    private static int skipDigits(Slice json, int position)
+    {
+        while (position < json.length() && isDigit(json.getByte(position))) {
+            position++;
+        }
+        return position;
+    }
+
+    private static int skipWhitespace(Slice json, int position)
+    {
+        while (position < json.length() && isWhitespace(json.getByte(position))) {
+            position++;
+        }
+        return position;
+    }
+
+    /**
+     * Decodes the string between {@code start} (the opening quote) and {@code end} (after the closing quote).
+     *
+     * @return the decoded string, or null if it can not be decoded exactly like the fallback would
+     */
+    private static Slice decodeString(Slice json, int start, int end)
+    {
+        int contentStart = start + 1;
+        int contentEnd = end - 1;
+
+        boolean escaped = false;
+        boolean ascii = true;
+        for (int i = contentStart; i < contentEnd; i++) {
+            byte current = json.getByte(i);
+            if (current == '\\') {
+                escaped = true;
+            }
+            else if (current < 0) {
+                ascii = false;
+            }
+        }
+        if (!ascii && !isValidUtf8(json, contentStart, contentEnd)) {
+            // the fallback replaces malformed sequences
+            return null;
+        }
+        if (!escaped) {
+            return json.slice(contentStart, contentEnd - contentStart);
+        }
+
+        // unescaping never makes the string longer
+        byte[] decoded = new byte[contentEnd - contentStart];
+        int length = 0;
+        int position = contentStart;
+        while (position < contentEnd) {
+            byte current = json.getByte(position);
+            if (current != '\\') {
+                decoded[length++] = current;
+                position++;
+                continue;
+            }
+            byte escape = json.getByte(position + 1);
+            if (escape != 'u') {
+                decoded[length++] = (byte) unescape(escape);
+                position += 2;
+                continue;
+            }
+            int codePoint = decodeHex(json, position + 2);
+            position += 6;
+            if (Character.isHighSurrogate((char) codePoint)) {
+                if (position + 6 > contentEnd || json.getByte(position) != '\\' || json.getByte(position + 1) != 'u') {
+                    return null;
+                }
+                int low = decodeHex(json, position + 2);
+                if (!Character.isLowSurrogate((char) low)) {
+                    return null;
+                }
+                codePoint = Character.toCodePoint((char) codePoint, (char) low);
+                position += 6;
+            }
+            else if (Character.isLowSurrogate((char) codePoint)) {
+                return null;
+            }
+            length = writeUtf8(decoded, length, codePoint);
+        }
+        return wrappedBuffer(decoded, 0, length);
+    }
+
+    private static int writeUtf8(byte[] output, int offset, int codePoint)
+    {
+        if (codePoint < 0x80) {
+            output[offset++] = (byte) codePoint;
+        }
+        else if (codePoint < 0x800) {
+            output[offset++] = (byte) (0xC0 | (codePoint >>> 6));
+            output[offset++] = (byte) (0x80 | (codePoint & 0x3F));
+        }
+        else if (codePoint < 0x10000) {
+            output[offset++] = (byte) (0xE0 | (codePoint >>> 12));
+            output[offset++] = (byte) (0x80 | ((codePoint >>> 6) & 0x3F));
+            output[offset++] = (byte) (0x80 | (codePoint & 0x3F));
+        }
+        else {
+            output[offset++] = (byte) (0xF0 | (codePoint >>> 18));
+            output[offset++] = (byte) (0x80 | ((codePoint >>> 12) & 0x3F));
+            output[offset++] = (byte) (0x80 | ((codePoint >>> 6) & 0x3F));
+            output[offset++] = (byte) (0x80 | (codePoint & 0x3F));
+        }
+        return offset;
+    }
+
+    private static boolean isValidUtf8(Slice json, int start, int end)
+    {
+        int position = start;
+        while (position < end) {
+            int first = json.getByte(position) & 0xFF;
+            if (first < 0x80) {
+                position++;
+                continue;
+            }
+            int length;
+            int minCodePoint;
+            int codePoint;
+            if ((first & 0xE0) == 0xC0) {
+                length = 2;
+                minCodePoint = 0x80;
+                codePoint = first & 0x1F;
+            }
+            else if ((first & 0xF0) == 0xE0) {
+                length = 3;
+                minCodePoint = 0x800;
+                codePoint = first & 0x0F;
+            }
+            else if ((first & 0xF8) == 0xF0) {
+                length = 4;
+                minCodePoint = 0x10000;
+                codePoint = first & 0x07;
+            }
+            else {
+                return false;
+            }
+            if (position + length > end) {
+                return false;
+            }
+            for (int i = 1; i < length; i++) {
+                int next = json.getByte(position + i) & 0xFF;
+                if ((next & 0xC0) != 0x80) {
+                    return false;
+                }
+                codePoint = (codePoint << 6) | (next & 0x3F);
+            }
+            if (codePoint < minCodePoint || codePoint > Character.MAX_CODE_POINT || (codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE)) {
+                return false;
+            }
+            position += length;
+        }
+        return true;
+    }
+
+    private static int decodeHex(Slice json, int position)
+    {
+        int value = 0;
+        for (int i = position; i < position + 4; i++) {
+            value = (value << 4) | hexValue(json.getByte(i));
+        }
+        return value;
+    }
+
+    private static int hexValue(byte value)
+    {
+        if (value >= '0' && value <= '9') {
+            return value - '0';
+        }
+        if (value >= 'a' && value <= 'f') {
+            return value - 'a' + 10;
+        }
+        if (value >= 'A' && value <= 'F') {
+            return value - 'A' + 10;
+        }
+        return -1;
+    }
+
+    private static int unescape(byte escaped)
+    {
+        switch (escaped) {
+            case '"':
+                return '"';
+            case '\\':
+                return '\\';
+            case '/':
+                return '/';
+            case 'b':
+                return '\b';
+            case 'f':
+                return '\f';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 't':
+                return '\t';
+            default:
+                return -1;
+        }
+    }
+
+    private static boolean isDigit(byte value)
+    {
+        return value >= '0' && value <= '9';
+    }
+
+    private static boolean isWhitespace(byte value)
+    {
+        return value == ' ' || value == '\n' || value == '\r' || value == '\t';
+    }
+
+    private static final class PathNode
+    {
+        private static final PathNode[] NO_CHILDREN = new PathNode[0];
+
+        private final byte[] name;
+        private final int index;
+        private final int[] paths;
+        private final PathNode[] children;
+        private final int indexedChildCount;
+
+        private PathNode(byte[] name, int index, int[] paths, PathNode[] children)
+        {
+            this.name = name;
+            this.index = index;
+            this.paths = requireNonNull(paths, "paths is null");
+            this.children = children.length == 0 ? NO_CHILDREN : children;
+            this.indexedChildCount = (int) Arrays.stream(children).filter(child -> child.getIndex() >= 0).count();
+        }
+
+        public byte[] getName()
+        {
+            return name;
+        }
+
+        public int getIndex()
+        {
+            return index;
+        }
+
+        public boolean hasPaths()
+        {
+            return paths.length > 0;
+        }
+
+        public int[] getPaths()
+        {
+            return paths;
+        }
+
+        public boolean hasChildren()
+        {
+            return children.length > 0;
+        }
+
+        public PathNode[] getChildren()
+        {
+            return children;
+        }
+
+        public int getIndexedChildCount()
+        {
+            return indexedChildCount;
+        }
+    }
+
+    private static final class PathNodeBuilder
+    {
+        private final String token;
+        private final List<Integer> paths = new ArrayList<>();
+        private final List<PathNodeBuilder> children = new ArrayList<>();
+
+        private PathNodeBuilder(String token)
+        {
+            this.token = token;
+        }
+
+        public PathNodeBuilder getOrAddChild(String childToken)
+        {
+            for (PathNodeBuilder child : children) {
+                if (child.token.equals(childToken)) {
+                    return child;
+                }
+            }
+            PathNodeBuilder child = new PathNodeBuilder(childToken);
+            children.add(child);
+            return child;
+        }
+
+        public void addPath(int path)
+        {
+            paths.add(path);
+        }
+
+        public Optional<PathNode> build()
+        {
+            if (children.size() > MAX_CHILDREN) {
+                return Optional.empty();
+            }
+            ImmutableList.Builder<PathNode> builtChildren = ImmutableList.builder();
+            Set<Integer> indexes = new HashSet<>();
+            for (PathNodeBuilder child : children) {
+                int index = child.getIndex();
+                // tokens like "1" and "01" address the same array element, which is left to separate scans
+                if (index >= 0 && !indexes.add(index)) {
+                    return Optional.empty();
+                }
+                Optional<PathNode> builtChild = child.build();
+                if (!builtChild.isPresent()) {
+                    return Optional.empty();
+                }
+                builtChildren.add(builtChild.get());
+            }
+            return Optional.of(new PathNode(
+                    token == null ? null : token.getBytes(UTF_8),
+                    getIndex(),
+                    paths.stream().mapToInt(Integer::intValue).toArray(),
+                    builtChildren.build().toArray(new PathNode[0])));
+        }
+
+        private int getIndex()
+        {
+            if (token == null) {
+                return -1;
+            }
+            try {
+                return Integer.parseInt(token);
+            }
+            catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+    }
+}
@@ -29,6 +29,7 @@ public class RemoteTaskStats
     private final IncrementalAverage statusRoundTripMillis = new IncrementalAverage();
     private final DistributionStat updateWithPlanSize = new DistributionStat();
     private final DistributionStat updateWithoutPlanSize = new DistributionStat();
+    private final DistributionStat updateBytesPerSplit = new DistributionStat();
 
     public void statusRoundTripMillis(long roundTripMillis)
     {
@@ -55,6 +56,11 @@ public class RemoteTaskStats
         updateWithoutPlanSize.add(bytes);
     }
 
+    public void updateBytesPerSplit(long bytes)
+    {
+        updateBytesPerSplit.add(bytes);
+    }
+
     @Managed
     @Flatten
     public SimpleHttpResponseHandlerStats getHttpResponseStats()
@@ -111,4 +117,11 @@ public class RemoteTaskStats
     {
         return updateWithoutPlanSize;
     }
+
+    @Managed
+    @Nested
+    public DistributionStat getUpdateBytesPerSplit()
+    {
+        return updateBytesPerSplit;
+    }
 }
@@ -201,6 +201,7 @@ public class FeaturesConfig
     private boolean experimentalFunctionsEnabled;
     private boolean useConnectorProvidedSerializationCodecs;
     private boolean optimizeCommonSubExpressions = true;
+    private boolean adaptiveFilterReorderingEnabled;
     private boolean preferDistributedUnion = true;
     private boolean optimizeNullsInJoin;
     private boolean optimizePayloadJoins;
@@ -217,6 +218,8 @@ public class FeaturesConfig
     private boolean spoolingOutputBufferEnabled;
     private DataSize spoolingOutputBufferThreshold = new DataSize(8, MEGABYTE);
     private String spoolingOutputBufferTempStorage = "local";
+    private boolean resultSegmentsEnabled;
+    private boolean planCacheEnabled;
 
     private String warnOnNoTableLayoutFilter = "";
 
@@ -257,6 +260,7 @@ public class FeaturesConfig
     private boolean pushRemoteExchangeThroughGroupId;
     private boolean isOptimizeMultipleApproxPercentileOnSameFieldEnabled = true;
     private boolean isOptimizeMultipleApproxDistinctOnSameTypeEnabled;
+    private boolean isOptimizeMultipleJsonExtractScalarEnabled;
     private boolean nativeExecutionEnabled;
     private boolean disableTimeStampWithTimeZoneForNative;
     private boolean disableIPAddressForNative;
@@ -1968,6 +1972,19 @@ public class FeaturesConfig
         return this;
     }
 
+    public boolean isAdaptiveFilterReorderingEnabled()
+    {
+        return adaptiveFilterReorderingEnabled;
+    }
+
+    @Config("adaptive-filter-reordering-enabled")
+    @ConfigDescription("Reorder the conjuncts of filters at runtime based on their observed cost and selectivity")
+    public FeaturesConfig setAdaptiveFilterReorderingEnabled(boolean adaptiveFilterReorderingEnabled)
+    {
+        this.adaptiveFilterReorderingEnabled = adaptiveFilterReorderingEnabled;
+        return this;
+    }
+
     public boolean isPreferDistributedUnion()
     {
         return preferDistributedUnion;
@@ -2162,6 +2179,32 @@ public class FeaturesConfig
         return this;
     }
 
+    public boolean isResultSegmentsEnabled()
+    {
+        return resultSegmentsEnabled;
+    }
+
+    @Config("result-segments-enabled")
+    @ConfigDescription("Let clients read query results directly from the output buffers of the workers instead of through the coordinator")
+    public FeaturesConfig setResultSegmentsEnabled(boolean resultSegmentsEnabled)
+    {
+        this.resultSegmentsEnabled = resultSegmentsEnabled;
+        return this;
+    }
+
+    public boolean isPlanCacheEnabled()
+    {
+        return planCacheEnabled;
+    }
+
+    @Config("plan-cache.enabled")
+    @ConfigDescription("Reuse the optimized plan of a query when the same query is run again with the same session")
+    public FeaturesConfig setPlanCacheEnabled(boolean planCacheEnabled)
+    {
+        this.planCacheEnabled = planCacheEnabled;
+        return this;
+    }
+
     public boolean isPrestoSparkAssignBucketToPartitionForPartitionedTableWriteEnabled()
     {
         return prestoSparkAssignBucketToPartitionForPartitionedTableWriteEnabled;
@@ -2530,6 +2573,19 @@ public class FeaturesConfig
         return this;
     }
 
+    public boolean isOptimizeMultipleJsonExtractScalarEnabled()
+    {
+        return isOptimizeMultipleJsonExtractScalarEnabled;
+    }
+
+    @Config("optimizer.optimize-multiple-json-extract-scalar")
+    @ConfigDescription("Enable combining json_extract_scalar calls with different paths on the same JSON into a single extraction pass")
+    public FeaturesConfig setOptimizeMultipleJsonExtractScalarEnabled(boolean isOptimizeMultipleJsonExtractScalarEnabled)
+    {
+        this.isOptimizeMultipleJsonExtractScalarEnabled = isOptimizeMultipleJsonExtractScalarEnabled;
+        return this;
+    }
+
     @Config("native-execution-enabled")
     @ConfigDescription("Enable execution on native engine")
     public FeaturesConfig setNativeExecutionEnabled(boolean nativeExecutionEnabled)
@@ -1010,6 +1010,11 @@ class StatementAnalyzer
                     throw new SemanticException(NOT_SUPPORTED, node, "WHERE clause in REFRESH MATERIALIZED VIEW is not supported. " +
                             "Connectors automatically determine which data needs refreshing based on staleness detection.");
                 }
+                // connectors which can refresh incrementally report the base table partitions changed since the last refresh
+                Map<SchemaTableName, MaterializedViewStatus.MaterializedDataPredicates> refreshPredicates = metadataResolver.getMaterializedViewRefreshPredicates(viewName);
+                if (!refreshPredicates.isEmpty()) {
+                    return MaterializedViewUtils.generatePredicatesForMissingPartitions(refreshPredicates, metadata);
+                }
                 return ImmutableMap.of();
             }
         }
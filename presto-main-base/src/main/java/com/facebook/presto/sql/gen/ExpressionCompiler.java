@@ -18,6 +18,7 @@ import com.facebook.presto.bytecode.ClassDefinition;
 import com.facebook.presto.bytecode.CompilationException;
 import com.facebook.presto.common.function.SqlFunctionProperties;
 import com.facebook.presto.metadata.Metadata;
+import com.facebook.presto.operator.project.AdaptivePageFilter;
 import com.facebook.presto.operator.project.CursorProcessor;
 import com.facebook.presto.operator.project.PageFilter;
 import com.facebook.presto.operator.project.PageProcessor;
@@ -48,6 +49,7 @@ import static com.facebook.presto.bytecode.Access.PUBLIC;
 import static com.facebook.presto.bytecode.Access.a;
 import static com.facebook.presto.bytecode.ParameterizedType.type;
 import static com.facebook.presto.common.type.BooleanType.BOOLEAN;
+import static com.facebook.presto.expressions.LogicalRowExpressions.extractConjuncts;
 import static com.facebook.presto.spi.StandardErrorCode.COMPILER_ERROR;
 import static com.facebook.presto.sql.gen.BytecodeUtils.invoke;
 import static com.facebook.presto.sql.relational.Expressions.constant;
@@ -149,7 +151,19 @@ public class ExpressionCompiler
             Map<SqlFunctionId, SqlInvokedFunction> sessionFunctions,
             Optional<String> classNameSuffix)
     {
-        return compilePageProcessor(sqlFunctionProperties, filter, projections, isOptimizeCommonSubExpression, sessionFunctions, classNameSuffix, OptionalInt.empty());
+        return compilePageProcessor(sqlFunctionProperties, filter, projections, isOptimizeCommonSubExpression, false, sessionFunctions, classNameSuffix);
+    }
+
+    public Supplier<PageProcessor> compilePageProcessor(
+            SqlFunctionProperties sqlFunctionProperties,
+            Optional<RowExpression> filter,
+            List<? extends RowExpression> projections,
+            boolean isOptimizeCommonSubExpression,
+            boolean isAdaptiveFilterReordering,
+            Map<SqlFunctionId, SqlInvokedFunction> sessionFunctions,
+            Optional<String> classNameSuffix)
+    {
+        return compilePageProcessor(sqlFunctionProperties, filter, projections, isOptimizeCommonSubExpression, isAdaptiveFilterReordering, sessionFunctions, classNameSuffix, OptionalInt.empty());
     }
 
     private Supplier<PageProcessor> compilePageProcessor(
@@ -157,12 +171,31 @@ public class ExpressionCompiler
             Optional<RowExpression> filter,
             List<? extends RowExpression> projections,
             boolean isOptimizeCommonSubExpression,
+            boolean isAdaptiveFilterReordering,
             Map<SqlFunctionId, SqlInvokedFunction> sessionFunctions,
             Optional<String> classNameSuffix,
             OptionalInt initialBatchSize)
     {
-        Optional<Supplier<PageFilter>> filterFunctionSupplier = filter.map(expression ->
-                pageFunctionCompiler.compileFilter(sqlFunctionProperties, sessionFunctions, expression, isOptimizeCommonSubExpression, classNameSuffix));
+        Optional<Supplier<PageFilter>> filterFunctionSupplier = filter.map(expression -> {
+            Supplier<PageFilter> filterSupplier = pageFunctionCompiler.compileFilter(sqlFunctionProperties, sessionFunctions, expression, isOptimizeCommonSubExpression, classNameSuffix);
+            List<RowExpression> conjuncts = extractConjuncts(expression);
+            if (!isAdaptiveFilterReordering || conjuncts.size() < 2) {
+                return filterSupplier;
+            }
+            // compile each conjunct on its own so that the evaluation order can be adapted at runtime
+            List<Supplier<PageFilter>> conjunctSuppliers = conjuncts.stream()
+                    .map(conjunct -> pageFunctionCompiler.compileFilter(sqlFunctionProperties, sessionFunctions, conjunct, isOptimizeCommonSubExpression, classNameSuffix))
+                    .collect(toImmutableList());
+            return () -> {
+                PageFilter pageFilter = filterSupplier.get();
+                if (!pageFilter.isDeterministic()) {
+                    return pageFilter;
+                }
+                return new AdaptivePageFilter(pageFilter, conjunctSuppliers.stream()
+                        .map(Supplier::get)
+                        .collect(toImmutableList()));
+            };
+        });
         List<Supplier<PageProjectionWithOutputs>> pageProjectionSuppliers = pageFunctionCompiler.compileProjections(
                 sqlFunctionProperties,
                 sessionFunctions,
@@ -188,7 +221,13 @@ public class ExpressionCompiler
     @VisibleForTesting
     public Supplier<PageProcessor> compilePageProcessor(SqlFunctionProperties sqlFunctionProperties, Optional<RowExpression> filter, List<? extends RowExpression> projections, boolean isOptimizeCommonSubExpression, int initialBatchSize)
     {
-        return compilePageProcessor(sqlFunctionProperties, filter, projections, isOptimizeCommonSubExpression, emptyMap(), Optional.empty(), OptionalInt.of(initialBatchSize));
+        return compilePageProcessor(sqlFunctionProperties, filter, projections, isOptimizeCommonSubExpression, false, emptyMap(), Optional.empty(), OptionalInt.of(initialBatchSize));
+    }
+
+    @VisibleForTesting
+    public Supplier<PageProcessor> compilePageProcessor(SqlFunctionProperties sqlFunctionProperties, Optional<RowExpression> filter, List<? extends RowExpression> projections, boolean isOptimizeCommonSubExpression, boolean isAdaptiveFilterReordering, int initialBatchSize)
+    {
+        return compilePageProcessor(sqlFunctionProperties, filter, projections, isOptimizeCommonSubExpression, isAdaptiveFilterReordering, emptyMap(), Optional.empty(), OptionalInt.of(initialBatchSize));
     }
 
     @VisibleForTesting
@@ -280,6 +280,7 @@ import static com.facebook.presto.SystemSessionProperties.getIndexLoaderTimeout;
 import static com.facebook.presto.SystemSessionProperties.getTaskConcurrency;
 import static com.facebook.presto.SystemSessionProperties.getTaskPartitionedWriterCount;
 import static com.facebook.presto.SystemSessionProperties.getTaskWriterCount;
+import static com.facebook.presto.SystemSessionProperties.isAdaptiveFilterReorderingEnabled;
 import static com.facebook.presto.SystemSessionProperties.isAdaptivePartialAggregationEnabled;
 import static com.facebook.presto.SystemSessionProperties.isEnableDynamicFiltering;
 import static com.facebook.presto.SystemSessionProperties.isExchangeChecksumEnabled;
@@ -1634,6 +1635,7 @@ public class LocalExecutionPlanner
                             filterExpression,
                             projections,
                             isOptimizeCommonSubExpressions(session),
+                            isAdaptiveFilterReorderingEnabled(session),
                             session.getSessionFunctions(),
                             Optional.of(context.getStageExecutionId() + "_" + planNodeId));
 
@@ -1659,6 +1661,7 @@ public class LocalExecutionPlanner
                             filterExpression,
                             projections,
                             isOptimizeCommonSubExpressions(session),
+                            isAdaptiveFilterReorderingEnabled(session),
                             session.getSessionFunctions(),
                             Optional.of(context.getStageExecutionId() + "_" + planNodeId));
 
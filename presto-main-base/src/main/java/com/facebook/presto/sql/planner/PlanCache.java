@@ -0,0 +1,529 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.sql.planner;
+
+import com.facebook.airlift.stats.CounterStat;
+import com.facebook.presto.Session;
+import com.facebook.presto.common.QualifiedObjectName;
+import com.facebook.presto.common.type.TimeZoneKey;
+import com.facebook.presto.execution.Output;
+import com.facebook.presto.execution.QueryInfo;
+import com.facebook.presto.expressions.DefaultRowExpressionTraversalVisitor;
+import com.facebook.presto.metadata.BuiltInFunctionHandle;
+import com.facebook.presto.metadata.Metadata;
+import com.facebook.presto.metadata.TableLayoutResult;
+import com.facebook.presto.spi.ColumnHandle;
+import com.facebook.presto.spi.ConnectorId;
+import com.facebook.presto.spi.Constraint;
+import com.facebook.presto.spi.SchemaTableName;
+import com.facebook.presto.spi.TableHandle;
+import com.facebook.presto.spi.analyzer.UpdateInfo;
+import com.facebook.presto.spi.function.FunctionHandle;
+import com.facebook.presto.spi.plan.AggregationNode;
+import com.facebook.presto.spi.plan.DistinctLimitNode;
+import com.facebook.presto.spi.plan.ExceptNode;
+import com.facebook.presto.spi.plan.FilterNode;
+import com.facebook.presto.spi.plan.IntersectNode;
+import com.facebook.presto.spi.plan.JoinNode;
+import com.facebook.presto.spi.plan.LimitNode;
+import com.facebook.presto.spi.plan.MarkDistinctNode;
+import com.facebook.presto.spi.plan.OutputNode;
+import com.facebook.presto.spi.plan.PlanNode;
+import com.facebook.presto.spi.plan.PlanNodeId;
+import com.facebook.presto.spi.plan.ProjectNode;
+import com.facebook.presto.spi.plan.SemiJoinNode;
+import com.facebook.presto.spi.plan.SortNode;
+import com.facebook.presto.spi.plan.TableScanNode;
+import com.facebook.presto.spi.plan.TopNNode;
+import com.facebook.presto.spi.plan.TopNRowNumberNode;
+import com.facebook.presto.spi.plan.UnionNode;
+import com.facebook.presto.spi.plan.UnnestNode;
+import com.facebook.presto.spi.plan.ValuesNode;
+import com.facebook.presto.spi.plan.WindowNode;
+import com.facebook.presto.spi.relation.CallExpression;
+import com.facebook.presto.spi.relation.RowExpression;
+import com.facebook.presto.spi.security.SelectedRole;
+import com.facebook.presto.sql.planner.plan.ApplyNode;
+import com.facebook.presto.sql.planner.plan.AssignUniqueId;
+import com.facebook.presto.sql.planner.plan.EnforceSingleRowNode;
+import com.facebook.presto.sql.planner.plan.ExchangeNode;
+import com.facebook.presto.sql.planner.plan.GroupIdNode;
+import com.facebook.presto.sql.planner.plan.LateralJoinNode;
+import com.facebook.presto.sql.planner.plan.OffsetNode;
+import com.facebook.presto.sql.planner.plan.RowNumberNode;
+import com.facebook.presto.sql.planner.plan.SampleNode;
+import com.facebook.presto.sql.planner.plan.SimplePlanRewriter;
+import com.facebook.presto.sql.tree.Expression;
+import com.facebook.presto.sql.tree.Statement;
+import com.facebook.presto.sql.tree.Table;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.primitives.Ints;
+import jakarta.inject.Inject;
+import org.weakref.jmx.Managed;
+import org.weakref.jmx.Nested;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.facebook.presto.sql.SqlFormatter.formatSql;
+import static com.facebook.presto.sql.planner.optimizations.PlanNodeSearcher.searchFrom;
+import static com.facebook.presto.sql.util.AstUtils.preOrder;
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Optimized plans of read-only statements, reused by later executions of the same statement
+ * with the same parameter values and session. Analysis, including the access control checks,
+ * still runs for every execution; only logical planning and optimization are skipped.
+ * <p>
+ * The table handles and layouts of the scans are resolved again for every execution, so that a
+ * reused plan reads the current version of its tables, such as the current snapshot or the
+ * current partitions, and a plan is forgotten when a table it reads is dropped or its layout no
+ * longer enforces the predicate the plan relies on. The statistics the plan was optimized with
+ * are not versioned, so a plan is also forgotten when a statement that may modify a table it
+ * reads completes on this coordinator, and otherwise after the configured time to live.
+ * Plans are only cached when they are made of plan nodes whose reuse is known to be safe, only
+ * call built-in functions, and do not depend on the start time of the query.
+ */
+public class PlanCache
+{
+    // functions that are constant folded to the start time of the query
+    private static final Set<String> QUERY_TIME_FUNCTIONS = ImmutableSet.of("now", "current_date", "current_time", "current_timestamp", "localtime", "localtimestamp");
+
+    // statements with an update type that do not modify tables
+    private static final Set<String> READ_ONLY_UPDATE_TYPES = ImmutableSet.of("SET SESSION", "RESET SESSION", "PREPARE", "DEALLOCATE", "START TRANSACTION", "ROLLBACK", "USE", "SET ROLE");
+
+    private static final Set<Class<? extends PlanNode>> CACHEABLE_PLAN_NODES = ImmutableSet.of(
+            AggregationNode.class,
+            ApplyNode.class,
+            AssignUniqueId.class,
+            DistinctLimitNode.class,
+            EnforceSingleRowNode.class,
+            ExceptNode.class,
+            ExchangeNode.class,
+            FilterNode.class,
+            GroupIdNode.class,
+            IntersectNode.class,
+            JoinNode.class,
+            LateralJoinNode.class,
+            LimitNode.class,
+            MarkDistinctNode.class,
+            OffsetNode.class,
+            OutputNode.class,
+            ProjectNode.class,
+            RowNumberNode.class,
+            SampleNode.class,
+            SemiJoinNode.class,
+            SortNode.class,
+            TableScanNode.class,
+            TopNNode.class,
+            TopNRowNumberNode.class,
+            UnionNode.class,
+            UnnestNode.class,
+            ValuesNode.class,
+            WindowNode.class);
+
+    private final Metadata metadata;
+    private final Cache<Key, CachedPlan> cache;
+
+    private final CounterStat hits = new CounterStat();
+    private final CounterStat misses = new CounterStat();
+    private final CounterStat uncacheable = new CounterStat();
+    private final CounterStat invalidations = new CounterStat();
+
+    @Inject
+    public PlanCache(PlanCacheConfig config, Metadata metadata)
+    {
+        requireNonNull(config, "config is null");
+        this.metadata = requireNonNull(metadata, "metadata is null");
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(config.getMaxSize())
+                .expireAfterWrite(config.getTtl().toMillis(), MILLISECONDS)
+                .build();
+    }
+
+    /**
+     * Returns the key of a statement, or empty if the plans of the session cannot be cached.
+     */
+    public static Optional<Key> createKey(Session session, Statement statement, List<Expression> parameters)
+    {
+        if (!session.getSessionFunctions().isEmpty()) {
+            return Optional.empty();
+        }
+        // a scan of an explicit table version cannot be resolved again from the name of the table
+        if (preOrder(statement).anyMatch(node -> node instanceof Table && ((Table) node).getTableVersionExpression().isPresent())) {
+            return Optional.empty();
+        }
+        return Optional.of(new Key(
+                formatSql(statement, Optional.of(parameters)),
+                session.getUser(),
+                session.getIdentity().getRoles(),
+                session.getIdentity().getExtraCredentials(),
+                session.getCatalog(),
+                session.getSchema(),
+                session.getTimeZoneKey(),
+                session.getLocale(),
+                session.getSystemProperties(),
+                session.getConnectorProperties()));
+    }
+
+    /**
+     * Returns the cached plan of the statement, with the tables it scans resolved again in the
+     * transaction of the session.
+     */
+    public Optional<CachedPlan> get(Key key, Session session)
+    {
+        CachedPlan cachedPlan = cache.getIfPresent(key);
+        if (cachedPlan == null) {
+            misses.update(1);
+            return Optional.empty();
+        }
+
+        ImmutableMap.Builder<PlanNodeId, TableScanNode> tableScans = ImmutableMap.builder();
+        for (TableScanNode tableScan : searchFrom(cachedPlan.getPlan().getRoot()).where(TableScanNode.class::isInstance).<TableScanNode>findAll()) {
+            Optional<TableScanNode> boundTableScan = bindTableScan(session, tableScan, cachedPlan.getTableScans().get(tableScan.getId()));
+            if (!boundTableScan.isPresent()) {
+                if (cache.asMap().remove(key, cachedPlan)) {
+                    invalidations.update(1);
+                }
+                misses.update(1);
+                return Optional.empty();
+            }
+            tableScans.put(tableScan.getId(), boundTableScan.get());
+        }
+
+        hits.update(1);
+        PlanNode root = SimplePlanRewriter.rewriteWith(new TableScanRewriter(tableScans.build()), cachedPlan.getPlan().getRoot());
+        Plan plan = new Plan(root, cachedPlan.getPlan().getTypes(), cachedPlan.getPlan().getStatsAndCosts());
+        return Optional.of(new CachedPlan(plan, cachedPlan.getPlanNodeIdCount(), cachedPlan.getTableScans()));
+    }
+
+    /**
+     * Caches the optimized plan of a statement if it can be reused. The logical plan is the plan
+     * before optimization, in which the functions that depend on the start time of the query are
+     * not folded into constants yet.
+     */
+    public void put(Key key, Session session, PlanNode logicalPlan, Plan plan)
+    {
+        if (!isCacheable(logicalPlan, true) || !isCacheable(plan.getRoot(), false)) {
+            uncacheable.update(1);
+            return;
+        }
+
+        ImmutableMap.Builder<PlanNodeId, QualifiedObjectName> tableScans = ImmutableMap.builder();
+        for (TableScanNode tableScan : searchFrom(plan.getRoot()).where(TableScanNode.class::isInstance).<TableScanNode>findAll()) {
+            TableHandle table = tableScan.getTable();
+            // the layout of the scan must be resolved again for every execution
+            if (!table.getLayout().isPresent() || !metadata.isLegacyGetLayoutSupported(session, table)) {
+                uncacheable.update(1);
+                return;
+            }
+            SchemaTableName tableName = metadata.getTableMetadata(session, table).getTable();
+            tableScans.put(tableScan.getId(), new QualifiedObjectName(table.getConnectorId().getCatalogName(), tableName.getSchemaName(), tableName.getTableName()));
+        }
+
+        int planNodeIdCount = plan.getPlanIdNodeMap().keySet().stream()
+                .map(id -> Ints.tryParse(id.toString()))
+                .filter(Objects::nonNull)
+                .mapToInt(id -> id + 1)
+                .max()
+                .orElse(0);
+        cache.put(key, new CachedPlan(plan, planNodeIdCount, tableScans.build()));
+    }
+
+    /**
+     * Forgets the plans that read a table that the completed query may have modified.
+     */
+    public void queryCompleted(QueryInfo queryInfo)
+    {
+        UpdateInfo updateInfo = queryInfo.getUpdateInfo();
+        if (updateInfo == null || READ_ONLY_UPDATE_TYPES.contains(updateInfo.getUpdateType())) {
+            return;
+        }
+        Optional<Output> output = queryInfo.getOutput();
+        if (!output.isPresent()) {
+            // data definition statements do not report the table they change
+            invalidateAll();
+            return;
+        }
+        QualifiedObjectName table = new QualifiedObjectName(output.get().getConnectorId().getCatalogName(), output.get().getSchema(), output.get().getTable());
+        cache.asMap().entrySet().removeIf(entry -> {
+            if (entry.getValue().getInputs().contains(table)) {
+                invalidations.update(1);
+                return true;
+            }
+            return false;
+        });
+    }
+
+    @Managed
+    public void invalidateAll()
+    {
+        invalidations.update(cache.size());
+        cache.invalidateAll();
+    }
+
+    @Managed
+    public long getSize()
+    {
+        return cache.size();
+    }
+
+    @Managed
+    public double getHitRate()
+    {
+        long hitCount = hits.getTotalCount();
+        long requestCount = hitCount + misses.getTotalCount();
+        return requestCount == 0 ? 0.0 : (double) hitCount / requestCount;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getHits()
+    {
+        return hits;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getMisses()
+    {
+        return misses;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getUncacheable()
+    {
+        return uncacheable;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getInvalidations()
+    {
+        return invalidations;
+    }
+
+    private static boolean isCacheable(PlanNode root, boolean checkQueryTimeFunctions)
+    {
+        List<PlanNode> nodes = searchFrom(root).findAll();
+        for (PlanNode node : nodes) {
+            if (!CACHEABLE_PLAN_NODES.contains(node.getClass())) {
+                return false;
+            }
+        }
+
+        ImmutableList.Builder<RowExpression> expressions = ImmutableList.builder();
+        for (PlanNode node : nodes) {
+            expressions.addAll(ExpressionExtractor.extractExpressionsNonRecursive(node));
+            if (node instanceof AggregationNode) {
+                ((AggregationNode) node).getAggregations().values().forEach(aggregation -> expressions.add(aggregation.getCall()));
+            }
+            if (node instanceof WindowNode) {
+                ((WindowNode) node).getWindowFunctions().values().forEach(function -> expressions.add(function.getFunctionCall()));
+            }
+        }
+
+        ImmutableList.Builder<FunctionHandle> functionHandles = ImmutableList.builder();
+        DefaultRowExpressionTraversalVisitor<ImmutableList.Builder<FunctionHandle>> functionCollector = new DefaultRowExpressionTraversalVisitor<ImmutableList.Builder<FunctionHandle>>()
+        {
+            @Override
+            public Void visitCall(CallExpression call, ImmutableList.Builder<FunctionHandle> context)
+            {
+                context.add(call.getFunctionHandle());
+                return super.visitCall(call, context);
+            }
+        };
+        expressions.build().forEach(expression -> expression.accept(functionCollector, functionHandles));
+
+        for (FunctionHandle functionHandle : functionHandles.build()) {
+            // functions of other namespaces may change, and may live in a transaction
+            if (!(functionHandle instanceof BuiltInFunctionHandle)) {
+                return false;
+            }
+            if (checkQueryTimeFunctions && QUERY_TIME_FUNCTIONS.contains(((BuiltInFunctionHandle) functionHandle).getSignature().getName().getObjectName())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Resolves the table and the layout of a cached scan again, so that the scan reads the
+     * current version of the table. Returns empty if the table no longer exists, or if its new
+     * layout does not enforce the predicate that the plan expects the scan to enforce.
+     */
+    private Optional<TableScanNode> bindTableScan(Session session, TableScanNode tableScan, QualifiedObjectName tableName)
+    {
+        Optional<TableHandle> table = metadata.getMetadataResolver(session).getTableHandle(tableName);
+        if (!table.isPresent() || !metadata.isLegacyGetLayoutSupported(session, table.get())) {
+            return Optional.empty();
+        }
+        TableLayoutResult layout = metadata.getLayout(
+                session,
+                table.get(),
+                new Constraint<>(tableScan.getEnforcedConstraint()),
+                Optional.of(tableScan.getOutputVariables().stream()
+                        .map(variable -> tableScan.getAssignments().get(variable))
+                        .collect(toImmutableSet())));
+        if (!layout.getUnenforcedConstraint().isAll() || layout.getLayout().getPredicate().isNone()) {
+            return Optional.empty();
+        }
+        return Optional.of(new TableScanNode(
+                tableScan.getSourceLocation(),
+                tableScan.getId(),
+                tableScan.getStatsEquivalentPlanNode(),
+                layout.getLayout().getNewTableHandle(),
+                tableScan.getOutputVariables(),
+                tableScan.getAssignments(),
+                tableScan.getTableConstraints(),
+                layout.getLayout().getPredicate(),
+                tableScan.getEnforcedConstraint(),
+                tableScan.getCteMaterializationInfo()));
+    }
+
+    private static class TableScanRewriter
+            extends SimplePlanRewriter<Void>
+    {
+        private final Map<PlanNodeId, TableScanNode> tableScans;
+
+        private TableScanRewriter(Map<PlanNodeId, TableScanNode> tableScans)
+        {
+            this.tableScans = ImmutableMap.copyOf(requireNonNull(tableScans, "tableScans is null"));
+        }
+
+        @Override
+        public PlanNode visitTableScan(TableScanNode node, RewriteContext<Void> context)
+        {
+            return tableScans.get(node.getId());
+        }
+    }
+
+    public static class CachedPlan
+    {
+        private final Plan plan;
+        private final int planNodeIdCount;
+        private final Map<PlanNodeId, QualifiedObjectName> tableScans;
+
+        private CachedPlan(Plan plan, int planNodeIdCount, Map<PlanNodeId, QualifiedObjectName> tableScans)
+        {
+            this.plan = requireNonNull(plan, "plan is null");
+            this.planNodeIdCount = planNodeIdCount;
+            this.tableScans = ImmutableMap.copyOf(requireNonNull(tableScans, "tableScans is null"));
+        }
+
+        public Plan getPlan()
+        {
+            return plan;
+        }
+
+        /**
+         * Returns the number of plan node ids used by the plan, which must not be allocated again
+         * for the nodes added to the plan later.
+         */
+        public int getPlanNodeIdCount()
+        {
+            return planNodeIdCount;
+        }
+
+        /**
+         * Returns the tables read by the scans of the plan.
+         */
+        public Map<PlanNodeId, QualifiedObjectName> getTableScans()
+        {
+            return tableScans;
+        }
+
+        public Set<QualifiedObjectName> getInputs()
+        {
+            return ImmutableSet.copyOf(tableScans.values());
+        }
+    }
+
+    public static final class Key
+    {
+        private final String sql;
+        private final String user;
+        private final Map<String, SelectedRole> roles;
+        private final Map<String, String> extraCredentials;
+        private final Optional<String> catalog;
+        private final Optional<String> schema;
+        private final TimeZoneKey timeZoneKey;
+        private final Locale locale;
+        private final Map<String, String> systemProperties;
+        private final Map<ConnectorId, Map<String, String>> connectorProperties;
+
+        private Key(
+                String sql,
+                String user,
+                Map<String, SelectedRole> roles,
+                Map<String, String> extraCredentials,
+                Optional<String> catalog,
+                Optional<String> schema,
+                TimeZoneKey timeZoneKey,
+                Locale locale,
+                Map<String, String> systemProperties,
+                Map<ConnectorId, Map<String, String>> connectorProperties)
+        {
+            this.sql = requireNonNull(sql, "sql is null");
+            this.user = requireNonNull(user, "user is null");
+            this.roles = ImmutableMap.copyOf(requireNonNull(roles, "roles is null"));
+            this.extraCredentials = ImmutableMap.copyOf(requireNonNull(extraCredentials, "extraCredentials is null"));
+            this.catalog = requireNonNull(catalog, "catalog is null");
+            this.schema = requireNonNull(schema, "schema is null");
+            this.timeZoneKey = requireNonNull(timeZoneKey, "timeZoneKey is null");
+            this.locale = requireNonNull(locale, "locale is null");
+            this.systemProperties = ImmutableMap.copyOf(requireNonNull(systemProperties, "systemProperties is null"));
+            this.connectorProperties = ImmutableMap.copyOf(requireNonNull(connectorProperties, "connectorProperties is null"));
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key other = (Key) o;
+            return sql.equals(other.sql) &&
+                    user.equals(other.user) &&
+                    roles.equals(other.roles) &&
+                    extraCredentials.equals(other.extraCredentials) &&
+                    catalog.equals(other.catalog) &&
+                    schema.equals(other.schema) &&
+                    timeZoneKey.equals(other.timeZoneKey) &&
+                    locale.equals(other.locale) &&
+                    systemProperties.equals(other.systemProperties) &&
+                    connectorProperties.equals(other.connectorProperties);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(sql, user, roles, extraCredentials, catalog, schema, timeZoneKey, locale, systemProperties, connectorProperties);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.sql.planner;
+
+import com.facebook.airlift.configuration.Config;
+import com.facebook.airlift.configuration.ConfigDescription;
+import com.facebook.airlift.units.Duration;
+import com.facebook.airlift.units.MinDuration;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+import static java.util.concurrent.TimeUnit.MINUTES;
+
+public class PlanCacheConfig
+{
+    private long maxSize = 1_000;
+    private Duration ttl = new Duration(5, MINUTES);
+
+    @Min(0)
+    public long getMaxSize()
+    {
+        return maxSize;
+    }
+
+    @Config("plan-cache.max-size")
+    @ConfigDescription("Maximum number of optimized plans kept by the coordinator")
+    public PlanCacheConfig setMaxSize(long maxSize)
+    {
+        this.maxSize = maxSize;
+        return this;
+    }
+
+    @NotNull
+    @MinDuration("0s")
+    public Duration getTtl()
+    {
+        return ttl;
+    }
+
+    @Config("plan-cache.ttl")
+    @ConfigDescription("Time after which a cached plan is planned again, which bounds how long changes made outside of the cluster go unnoticed")
+    public PlanCacheConfig setTtl(Duration ttl)
+    {
+        this.ttl = ttl;
+        return this;
+    }
+}
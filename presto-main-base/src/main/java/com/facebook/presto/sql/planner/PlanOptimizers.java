@@ -35,6 +35,7 @@ import com.facebook.presto.sql.planner.iterative.rule.AddIntermediateAggregation
 import com.facebook.presto.sql.planner.iterative.rule.AddNotNullFiltersToJoinNode;
 import com.facebook.presto.sql.planner.iterative.rule.CombineApproxDistinctFunctions;
 import com.facebook.presto.sql.planner.iterative.rule.CombineApproxPercentileFunctions;
+import com.facebook.presto.sql.planner.iterative.rule.CombineJsonExtractScalarFunctions;
 import com.facebook.presto.sql.planner.iterative.rule.CreatePartialTopN;
 import com.facebook.presto.sql.planner.iterative.rule.CrossJoinWithArrayContainsToInnerJoin;
 import com.facebook.presto.sql.planner.iterative.rule.CrossJoinWithArrayNotContainsToAntiJoin;
@@ -1068,6 +1069,15 @@ public class PlanOptimizers
                         costCalculator,
                         new ExtractSystemTableFilterRuleSet(metadata.getFunctionAndTypeManager()).rules()));
 
+        // Run after projections are final, as the combined extractions rely on the common sub-expressions of a single projection
+        builder.add(
+                new IterativeOptimizer(
+                        metadata,
+                        ruleStats,
+                        statsCalculator,
+                        costCalculator,
+                        ImmutableSet.of(new CombineJsonExtractScalarFunctions(metadata.getFunctionAndTypeManager()))));
+
         // DO NOT add optimizers that change the plan shape (computations) after this point
 
         // Precomputed hashes - this assumes that partitioning will not change
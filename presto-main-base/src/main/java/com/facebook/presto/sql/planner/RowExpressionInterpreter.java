@@ -46,10 +46,10 @@ import com.facebook.presto.sql.InterpretedFunctionInvoker;
 import com.facebook.presto.sql.planner.Interpreters.LambdaVariableResolver;
 import com.facebook.presto.sql.relational.FunctionResolution;
 import com.facebook.presto.sql.relational.RowExpressionDeterminismEvaluator;
+import com.facebook.presto.type.LikeMatcher;
 import com.facebook.presto.util.Failures;
 import com.google.common.collect.ImmutableList;
 import com.google.common.primitives.Primitives;
-import io.airlift.joni.Regex;
 import io.airlift.slice.Slice;
 
 import java.lang.invoke.MethodHandle;
@@ -905,8 +905,8 @@ public class RowExpressionInterpreter
 
             if (!hasUnresolvedValue(value) && !hasUnresolvedValue(nonCompiledPattern) && (!hasEscape || !hasUnresolvedValue(escape))) {
                 // fast path when we know the pattern and escape are constants
-                if (possibleCompiledPattern instanceof Regex) {
-                    return changed(interpretLikePredicate(argumentTypes.get(0), (Slice) value, (Regex) possibleCompiledPattern));
+                if (possibleCompiledPattern instanceof LikeMatcher) {
+                    return changed(interpretLikePredicate(argumentTypes.get(0), (Slice) value, (LikeMatcher) possibleCompiledPattern));
                 }
                 if (possibleCompiledPattern == null) {
                     return changed(null);
@@ -923,8 +923,8 @@ public class RowExpressionInterpreter
                     possibleCompiledPattern = functionInvoker.invoke(((CallExpression) possibleCompiledPattern).getFunctionHandle(), session.getSqlFunctionProperties(), nonCompiledPattern);
                 }
 
-                checkState(possibleCompiledPattern instanceof Regex, "unexpected like pattern type " + possibleCompiledPattern.getClass());
-                return changed(interpretLikePredicate(argumentTypes.get(0), (Slice) value, (Regex) possibleCompiledPattern));
+                checkState(possibleCompiledPattern instanceof LikeMatcher, "unexpected like pattern type " + possibleCompiledPattern.getClass());
+                return changed(interpretLikePredicate(argumentTypes.get(0), (Slice) value, (LikeMatcher) possibleCompiledPattern));
             }
 
             // if pattern is a constant without % or _ replace with a comparison
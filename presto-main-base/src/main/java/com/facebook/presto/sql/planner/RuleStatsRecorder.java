@@ -39,6 +39,11 @@ public class RuleStatsRecorder
         }
     }
 
+    public void recordMatchAttempt(Rule<?> rule)
+    {
+        stats.get(rule.getClass()).recordMatchAttempt();
+    }
+
     public void record(Rule<?> rule, long nanos, boolean match)
     {
         stats.get(rule.getClass()).record(nanos, match);
@@ -42,8 +42,9 @@ import com.google.common.base.Splitter;
 import com.google.common.collect.ImmutableList;
 
 import java.util.HashSet;
-import java.util.Iterator;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Stream;
@@ -146,6 +147,12 @@ public class IterativeOptimizer
 
     private boolean exploreGroup(int group, Context context, Matcher matcher)
     {
+        // rules only look at a group and the groups below it, so a group that did not
+        // change since it was explored cannot match any rule that it did not match before
+        if (context.memo.isExplored(group)) {
+            return false;
+        }
+
         // tracks whether this group or any children groups change as
         // this method executes
         boolean progress = exploreNode(group, context, matcher);
@@ -161,6 +168,7 @@ public class IterativeOptimizer
             }
         }
 
+        context.memo.markExplored(group);
         return progress;
     }
 
@@ -175,11 +183,8 @@ public class IterativeOptimizer
             context.checkTimeoutNotExhausted();
 
             done = true;
-            Iterator<Rule<?>> possiblyMatchingRules = ruleIndex.getCandidates(node).iterator();
-            while (possiblyMatchingRules.hasNext()) {
-                Rule<?> rule = possiblyMatchingRules.next();
-
-                if (!rule.isEnabled(context.session)) {
+            for (Rule<?> rule : ruleIndex.getCandidates(node)) {
+                if (!context.isEnabled(rule)) {
                     if (isVerboseOptimizerInfoEnabled(context.session) && isApplicable(node, rule, matcher, context)) {
                         context.addRulesApplicable(getNameOfOptimizerRule(rule));
                     }
@@ -225,6 +230,7 @@ public class IterativeOptimizer
     {
         Rule.Result result;
 
+        stats.recordMatchAttempt(rule);
         Match<T> match = matcher.match(rule.getPattern(), node);
 
         if (match.isEmpty()) {
@@ -403,6 +409,8 @@ public class IterativeOptimizer
         private final StatsProvider statsProvider;
         private final Set<RuleTriggered> rulesTriggered;
         private final Set<String> rulesApplicable;
+        // whether the rules are enabled, which is costly to look up in the session for every plan node
+        private final Map<Rule<?>, Boolean> enabledRules = new IdentityHashMap<>();
         private final Metadata metadata;
         private final TypeProvider types;
 
@@ -445,6 +453,11 @@ public class IterativeOptimizer
             }
         }
 
+        public boolean isEnabled(Rule<?> rule)
+        {
+            return enabledRules.computeIfAbsent(rule, enabledRule -> enabledRule.isEnabled(session));
+        }
+
         public void addRulesTriggered(String rule, PlanNode oldNode, PlanNode newNode, boolean isCostBased, String statsSource)
         {
             Optional<String> before = Optional.empty();
@@ -144,6 +144,7 @@ public class Memo
 
         incrementReferenceCounts(node, group);
         getGroup(group).membership = node;
+        markUnexplored(group);
 
         if (logicalPropertiesProvider.isPresent()) {
             // for now, we replace existing group logical properties with those computed for the new node
@@ -158,6 +159,38 @@ public class Memo
         return node;
     }
 
+    /**
+     * Returns whether the group was explored, that is whether {@link #markExplored} was called after
+     * the last change of the group and of the groups below it.
+     */
+    public boolean isExplored(int group)
+    {
+        return getGroup(group).explored;
+    }
+
+    /**
+     * Marks the group as explored. The groups below it must have been explored as well.
+     */
+    public void markExplored(int group)
+    {
+        getGroup(group).explored = true;
+    }
+
+    private void markUnexplored(int group)
+    {
+        Group changed = getGroup(group);
+        if (!changed.explored) {
+            // the groups above a group that was not explored were not explored either
+            return;
+        }
+        changed.explored = false;
+        for (int parentGroup : changed.incomingReferences.elementSet()) {
+            if (parentGroup != ROOT_GROUP_REF) {
+                markUnexplored(parentGroup);
+            }
+        }
+    }
+
     public void assignStatsEquivalentPlanNode(GroupReference reference, Optional<PlanNode> statsEquivalentPlanNode)
     {
         getGroup(reference.getGroupId()).assignStatsEquivalentPlanNode(statsEquivalentPlanNode);
@@ -282,6 +315,7 @@ public class Memo
         private final Multiset<Integer> incomingReferences = HashMultiset.create();
         private PlanNode membership;
         private Optional<LogicalProperties> logicalProperties;
+        private boolean explored;
         @Nullable
         private PlanNodeStatsEstimate stats;
         @Nullable
@@ -20,22 +20,35 @@ import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ListMultimap;
 import com.google.common.reflect.TypeToken;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
 
+import static com.google.common.collect.ImmutableList.toImmutableList;
+
 public class RuleIndex
 {
     private final ListMultimap<Class<?>, Rule<?>> rulesByRootType;
+    // the candidates of each class of objects, which are expensive to compute from the supertypes of the class
+    private final Map<Class<?>, List<Rule<?>>> candidatesByType = new ConcurrentHashMap<>();
 
     private RuleIndex(ListMultimap<Class<?>, Rule<?>> rulesByRootType)
     {
         this.rulesByRootType = ImmutableListMultimap.copyOf(rulesByRootType);
     }
 
-    public Stream<Rule<?>> getCandidates(Object object)
+    public List<Rule<?>> getCandidates(Object object)
+    {
+        return candidatesByType.computeIfAbsent(object.getClass(), this::findCandidates);
+    }
+
+    private List<Rule<?>> findCandidates(Class<?> type)
     {
-        return supertypes(object.getClass())
-                .flatMap(clazz -> rulesByRootType.get(clazz).stream());
+        return supertypes(type)
+                .flatMap(clazz -> rulesByRootType.get(clazz).stream())
+                .collect(toImmutableList());
     }
 
     private static Stream<Class<?>> supertypes(Class<?> type)
@@ -22,10 +22,16 @@ import java.util.concurrent.atomic.AtomicLong;
 
 public class RuleStats
 {
+    private final AtomicLong matchAttempts = new AtomicLong();
     private final AtomicLong hits = new AtomicLong();
     private final TimeDistribution time = new TimeDistribution(TimeUnit.MICROSECONDS);
     private final AtomicLong failures = new AtomicLong();
 
+    public void recordMatchAttempt()
+    {
+        matchAttempts.incrementAndGet();
+    }
+
     public void record(long nanos, boolean match)
     {
         if (match) {
@@ -40,6 +46,15 @@ public class RuleStats
         failures.incrementAndGet();
     }
 
+    /**
+     * Number of plan nodes the pattern of the rule was matched against.
+     */
+    @Managed
+    public long getMatchAttempts()
+    {
+        return matchAttempts.get();
+    }
+
     @Managed
     public long getHits()
     {
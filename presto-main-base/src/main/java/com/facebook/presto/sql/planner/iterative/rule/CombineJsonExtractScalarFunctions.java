@@ -0,0 +1,238 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.sql.planner.iterative.rule;
+
+import com.facebook.presto.Session;
+import com.facebook.presto.common.block.BlockBuilder;
+import com.facebook.presto.common.type.ArrayType;
+import com.facebook.presto.common.type.Type;
+import com.facebook.presto.common.type.VarcharType;
+import com.facebook.presto.expressions.RowExpressionRewriter;
+import com.facebook.presto.expressions.RowExpressionTreeRewriter;
+import com.facebook.presto.matching.Captures;
+import com.facebook.presto.matching.Pattern;
+import com.facebook.presto.metadata.FunctionAndTypeManager;
+import com.facebook.presto.operator.scalar.JsonPath;
+import com.facebook.presto.spi.PrestoException;
+import com.facebook.presto.spi.plan.Assignments;
+import com.facebook.presto.spi.plan.ProjectNode;
+import com.facebook.presto.spi.relation.CallExpression;
+import com.facebook.presto.spi.relation.ConstantExpression;
+import com.facebook.presto.spi.relation.LambdaDefinitionExpression;
+import com.facebook.presto.spi.relation.RowExpression;
+import com.facebook.presto.spi.relation.SpecialFormExpression;
+import com.facebook.presto.spi.relation.SpecialFormExpression.Form;
+import com.facebook.presto.spi.relation.VariableReferenceExpression;
+import com.facebook.presto.sql.planner.iterative.Rule;
+import com.facebook.presto.sql.relational.FunctionResolution;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import io.airlift.slice.Slice;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.facebook.presto.SystemSessionProperties.isCombineJsonExtractScalarEnabled;
+import static com.facebook.presto.SystemSessionProperties.isNativeExecutionEnabled;
+import static com.facebook.presto.SystemSessionProperties.isOptimizeCommonSubExpressions;
+import static com.facebook.presto.common.function.OperatorType.SUBSCRIPT;
+import static com.facebook.presto.common.type.BigintType.BIGINT;
+import static com.facebook.presto.common.type.VarcharType.VARCHAR;
+import static com.facebook.presto.operator.scalar.JsonExtractScalarMultipleFunctions.NAME;
+import static com.facebook.presto.spi.relation.SpecialFormExpression.Form.DEREFERENCE;
+import static com.facebook.presto.spi.relation.SpecialFormExpression.Form.IS_NULL;
+import static com.facebook.presto.spi.relation.SpecialFormExpression.Form.ROW_CONSTRUCTOR;
+import static com.facebook.presto.sql.planner.plan.Patterns.project;
+import static com.facebook.presto.sql.relational.Expressions.call;
+import static com.facebook.presto.sql.relational.Expressions.callOperator;
+import static com.facebook.presto.sql.relational.Expressions.constant;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.Lists.partition;
+import static io.airlift.slice.Slices.utf8Slice;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Combines json_extract_scalar calls extracting different paths from the same JSON into a single
+ * extraction, so that the document is scanned once per row instead of once per path.
+ * <p>
+ * From:
+ * <pre>
+ *   Project (a <- json_extract_scalar(json, '$.a'), b <- CAST(json_extract_scalar(json, '$.b') AS bigint))
+ * </pre>
+ * To:
+ * <pre>
+ *   Project (a <- $internal$json_extract_scalar_multiple(json, ARRAY['$.a', '$.b'])[1],
+ *            b <- CAST($internal$json_extract_scalar_multiple(json, ARRAY['$.a', '$.b'])[2] AS bigint))
+ * </pre>
+ * The repeated extraction is then evaluated once per row by the common sub-expression optimization of the
+ * page projections, hence the rule only runs when that optimization is enabled.
+ * <p>
+ * Only paths of calls that are evaluated for every row are combined, so that the combined extraction does not
+ * extract paths that are guarded by a conditional expression (IF, CASE, AND, OR, COALESCE) or used in a lambda.
+ * Guarded calls on a combined path reuse the combined extraction.
+ */
+public class CombineJsonExtractScalarFunctions
+        implements Rule<ProjectNode>
+{
+    // matches the number of projections compiled together with common sub-expressions by PageFunctionCompiler
+    private static final int MAX_PATHS_PER_EXTRACTION = 10;
+    private static final Set<Form> UNCONDITIONAL_FORMS = ImmutableSet.of(DEREFERENCE, IS_NULL, ROW_CONSTRUCTOR);
+    private static final ArrayType PATHS_TYPE = new ArrayType(VARCHAR);
+
+    private static final Pattern<ProjectNode> PATTERN = project();
+
+    private final FunctionAndTypeManager functionAndTypeManager;
+    private final FunctionResolution functionResolution;
+
+    public CombineJsonExtractScalarFunctions(FunctionAndTypeManager functionAndTypeManager)
+    {
+        this.functionAndTypeManager = requireNonNull(functionAndTypeManager, "functionAndTypeManager is null");
+        this.functionResolution = new FunctionResolution(functionAndTypeManager.getFunctionAndTypeResolver());
+    }
+
+    @Override
+    public Pattern<ProjectNode> getPattern()
+    {
+        return PATTERN;
+    }
+
+    @Override
+    public boolean isEnabled(Session session)
+    {
+        // the combined extraction is a Java function, which native workers do not provide
+        return isCombineJsonExtractScalarEnabled(session) && isOptimizeCommonSubExpressions(session) && !isNativeExecutionEnabled(session);
+    }
+
+    @Override
+    public Result apply(ProjectNode node, Captures captures, Context context)
+    {
+        Map<RowExpression, Set<String>> pathsByJson = new LinkedHashMap<>();
+        for (RowExpression expression : node.getAssignments().getExpressions()) {
+            collectUnconditionalExtractions(expression, pathsByJson);
+        }
+
+        Map<RowExpression, Map<String, RowExpression>> extractions = new HashMap<>();
+        pathsByJson.forEach((json, paths) -> {
+            if (paths.size() > 1) {
+                extractions.put(json, createExtractions(json, paths));
+            }
+        });
+        if (extractions.isEmpty()) {
+            return Result.empty();
+        }
+
+        ExtractionRewriter rewriter = new ExtractionRewriter(extractions);
+        Assignments.Builder assignments = Assignments.builder();
+        for (Map.Entry<VariableReferenceExpression, RowExpression> assignment : node.getAssignments().entrySet()) {
+            assignments.put(assignment.getKey(), RowExpressionTreeRewriter.rewriteWith(rewriter, assignment.getValue()));
+        }
+        return Result.ofPlanNode(new ProjectNode(node.getSourceLocation(), node.getId(), node.getSource(), assignments.build(), node.getLocality()));
+    }
+
+    private void collectUnconditionalExtractions(RowExpression expression, Map<RowExpression, Set<String>> pathsByJson)
+    {
+        if (expression instanceof CallExpression) {
+            CallExpression call = (CallExpression) expression;
+            getConstantPath(call).ifPresent(path -> pathsByJson.computeIfAbsent(call.getArguments().get(0), json -> new LinkedHashSet<>()).add(path));
+            call.getArguments().forEach(argument -> collectUnconditionalExtractions(argument, pathsByJson));
+        }
+        else if (expression instanceof SpecialFormExpression && UNCONDITIONAL_FORMS.contains(((SpecialFormExpression) expression).getForm())) {
+            ((SpecialFormExpression) expression).getArguments().forEach(argument -> collectUnconditionalExtractions(argument, pathsByJson));
+        }
+    }
+
+    private Map<String, RowExpression> createExtractions(RowExpression json, Set<String> paths)
+    {
+        ImmutableMap.Builder<String, RowExpression> extractions = ImmutableMap.builder();
+        Type valueType = getValueType(json);
+        for (List<String> chunk : partition(paths.stream().collect(toImmutableList()), MAX_PATHS_PER_EXTRACTION)) {
+            if (chunk.size() == 1) {
+                // a single remaining path is cheaper to extract with json_extract_scalar
+                continue;
+            }
+            BlockBuilder pathsBlock = VARCHAR.createBlockBuilder(null, chunk.size());
+            chunk.forEach(path -> VARCHAR.writeSlice(pathsBlock, utf8Slice(path)));
+            CallExpression extraction = call(functionAndTypeManager, NAME, new ArrayType(valueType), json, constant(pathsBlock.build(), PATHS_TYPE));
+            for (int i = 0; i < chunk.size(); i++) {
+                extractions.put(chunk.get(i), callOperator(functionAndTypeManager.getFunctionAndTypeResolver(), SUBSCRIPT, valueType, extraction, constant((long) i + 1, BIGINT)));
+            }
+        }
+        return extractions.build();
+    }
+
+    private static Type getValueType(RowExpression json)
+    {
+        // json_extract_scalar returns the type of a varchar input, and an unbounded varchar for a json input
+        return json.getType() instanceof VarcharType ? json.getType() : VARCHAR;
+    }
+
+    private Optional<String> getConstantPath(CallExpression call)
+    {
+        if (!functionResolution.isJsonExtractScalarFunction(call.getFunctionHandle()) || call.getArguments().size() != 2) {
+            return Optional.empty();
+        }
+        RowExpression pattern = call.getArguments().get(1);
+        if (pattern instanceof CallExpression && functionResolution.isCastFunction(((CallExpression) pattern).getFunctionHandle())) {
+            pattern = ((CallExpression) pattern).getArguments().get(0);
+        }
+        if (!(pattern instanceof ConstantExpression) || ((ConstantExpression) pattern).isNull() || !(pattern.getType() instanceof VarcharType)) {
+            return Optional.empty();
+        }
+
+        String value = ((Slice) ((ConstantExpression) pattern).getValue()).toStringUtf8();
+        try {
+            JsonPath.build(value);
+        }
+        catch (PrestoException e) {
+            // keep the failure of an invalid path in the original call
+            return Optional.empty();
+        }
+        return Optional.of(value);
+    }
+
+    private class ExtractionRewriter
+            extends RowExpressionRewriter<Void>
+    {
+        private final Map<RowExpression, Map<String, RowExpression>> extractions;
+
+        public ExtractionRewriter(Map<RowExpression, Map<String, RowExpression>> extractions)
+        {
+            this.extractions = requireNonNull(extractions, "extractions is null");
+        }
+
+        @Override
+        public RowExpression rewriteCall(CallExpression node, Void context, RowExpressionTreeRewriter<Void> treeRewriter)
+        {
+            Optional<String> path = getConstantPath(node);
+            if (path.isPresent()) {
+                RowExpression extraction = extractions.getOrDefault(node.getArguments().get(0), ImmutableMap.of()).get(path.get());
+                if (extraction != null) {
+                    return extraction;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public RowExpression rewriteLambda(LambdaDefinitionExpression node, Void context, RowExpressionTreeRewriter<Void> treeRewriter)
+        {
+            return node;
+        }
+    }
+}
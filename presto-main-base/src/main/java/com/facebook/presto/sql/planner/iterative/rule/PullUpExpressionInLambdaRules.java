@@ -34,6 +34,7 @@ import com.facebook.presto.sql.planner.PlannerUtils;
 import com.facebook.presto.sql.planner.iterative.Rule;
 import com.facebook.presto.sql.relational.FunctionResolution;
 import com.facebook.presto.sql.relational.RowExpressionDeterminismEvaluator;
+import com.facebook.presto.type.LikeMatcher;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
@@ -279,11 +280,11 @@ public class PullUpExpressionInLambdaRules
             return expression;
         }
 
-        // If the input is a CAST expression to cast to JoniRegexType or LikePatternType (underlying Java type is Regex.class) or is a like_pattern function, return the argument
+        // If the input is a CAST expression to cast to JoniRegexType (underlying Java type is Regex.class) or LikePatternType (underlying Java type is LikeMatcher.class) or is a like_pattern function, return the argument
         // Still return even if it's not a cast/like_pattern expression, as these types will be filtered by the isSupportedExpression later
         private RowExpression getArgumentForRegexTypeExpression(RowExpression rowExpression)
         {
-            if (rowExpression.getType().getJavaType() == Regex.class && rowExpression instanceof CallExpression
+            if ((rowExpression.getType().getJavaType() == Regex.class || rowExpression.getType().getJavaType() == LikeMatcher.class) && rowExpression instanceof CallExpression
                     && (functionResolution.isCastFunction(((CallExpression) rowExpression).getFunctionHandle())
                     || functionResolution.isLikePatternFunction(((CallExpression) rowExpression).getFunctionHandle()))) {
                 CallExpression castExpression = (CallExpression) rowExpression;
@@ -344,7 +345,7 @@ public class PullUpExpressionInLambdaRules
         }
 
         // WHEN expression should only exist within SWITCH expression, and will throw exception in RowExpressionInterpreter, also no byte code generator for standalone WHEN expression
-        // Pull out LikePatternType and JoniRegexpType out can lead to byte code generation failure because of the underlying Regex type.
+        // Pull out LikePatternType and JoniRegexpType out can lead to byte code generation failure because of the underlying LikeMatcher and Regex types.
         private static boolean isSupportedExpression(RowExpression expression)
         {
             return (expression instanceof CallExpression || (expression instanceof SpecialFormExpression && !((SpecialFormExpression) expression).getForm().equals(SpecialFormExpression.Form.WHEN)))
@@ -0,0 +1,324 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.type;
+
+import com.facebook.presto.common.block.Block;
+import com.facebook.presto.operator.scalar.JoniRegexpFunctions;
+import com.google.common.collect.ImmutableList;
+import io.airlift.joni.Regex;
+import io.airlift.slice.DynamicSliceOutput;
+import io.airlift.slice.Slice;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static com.facebook.presto.operator.scalar.JoniRegexpCasts.joniRegexp;
+import static com.google.common.base.Preconditions.checkState;
+import static io.airlift.slice.SliceUtf8.lengthOfCodePoint;
+import static io.airlift.slice.SliceUtf8.tryGetCodePointAt;
+
+/**
+ * A regular expression compiled with the engine that suits its pattern best:
+ * <ul>
+ * <li>a plain literal is searched as a substring</li>
+ * <li>an alternation of plain literals is searched with an Aho-Corasick automaton</li>
+ * <li>a pattern with nested quantifiers, which may backtrack exponentially in Joni, is matched by the linear time Re2J engine</li>
+ * <li>any other pattern is matched by Joni</li>
+ * </ul>
+ * The literal searches only serve regexp_like. The other functions run on Joni for literal patterns, as they need match positions and groups.
+ */
+public final class AdaptiveRegexp
+{
+    public enum Engine
+    {
+        LITERAL,
+        LITERAL_ALTERNATION,
+        RE2J,
+        JONI,
+    }
+
+    private static final String METACHARACTERS = "\\^$.|?*+()[]{}";
+    private static final String QUANTIFIERS = "*+{";
+    // bounds the size of the dense Aho-Corasick transition table
+    private static final int MAX_LITERAL_ALTERNATION_LENGTH = 1024;
+    // rough size of the program compiled by Joni or Re2J for each byte of the pattern, their sizes are not exposed
+    private static final int COMPILED_SIZE_PER_PATTERN_BYTE = 64;
+    private static final int COMPILED_BASE_SIZE = 1024;
+
+    private final Engine engine;
+    private final Slice literal;
+    private final AhoCorasickMatcher literalAlternationMatcher;
+    private final Regex joniRegexp;
+    private final Re2JRegexp re2jRegexp;
+    private final long estimatedSizeInBytes;
+
+    public AdaptiveRegexp(int dfaStatesLimit, int dfaRetries, Slice pattern)
+    {
+        Optional<List<Slice>> literals = isValidUtf8(pattern) ? getLiteralAlternatives(pattern) : Optional.empty();
+        if (literals.isPresent() && literals.get().size() == 1) {
+            engine = Engine.LITERAL;
+            literal = literals.get().get(0);
+            literalAlternationMatcher = null;
+            joniRegexp = joniRegexp(pattern);
+            re2jRegexp = null;
+        }
+        else if (literals.isPresent() && literals.get().stream().mapToInt(Slice::length).sum() <= MAX_LITERAL_ALTERNATION_LENGTH) {
+            engine = Engine.LITERAL_ALTERNATION;
+            literal = null;
+            literalAlternationMatcher = new AhoCorasickMatcher(literals.get());
+            joniRegexp = joniRegexp(pattern);
+            re2jRegexp = null;
+        }
+        else {
+            literal = null;
+            literalAlternationMatcher = null;
+            Optional<Re2JRegexp> re2j = Optional.empty();
+            if (isValidUtf8(pattern) && hasNestedQuantifier(pattern) && isRe2JCompatible(pattern)) {
+                re2j = tryCompileRe2J(dfaStatesLimit, dfaRetries, pattern);
+            }
+            if (re2j.isPresent()) {
+                engine = Engine.RE2J;
+                joniRegexp = null;
+                re2jRegexp = re2j.get();
+            }
+            else {
+                engine = Engine.JONI;
+                joniRegexp = joniRegexp(pattern);
+                re2jRegexp = null;
+            }
+        }
+
+        long compiledSize = COMPILED_BASE_SIZE + (long) COMPILED_SIZE_PER_PATTERN_BYTE * pattern.length();
+        if (literal != null) {
+            compiledSize += literal.getRetainedSize();
+        }
+        if (literalAlternationMatcher != null) {
+            compiledSize += literalAlternationMatcher.getRetainedSizeInBytes();
+        }
+        estimatedSizeInBytes = compiledSize;
+    }
+
+    public Engine getEngine()
+    {
+        return engine;
+    }
+
+    /**
+     * Returns an estimate of the memory retained by the compiled pattern, dominated by the
+     * transition table of a literal alternation.
+     */
+    public long getEstimatedSizeInBytes()
+    {
+        return estimatedSizeInBytes;
+    }
+
+    public boolean isRe2J()
+    {
+        return engine == Engine.RE2J;
+    }
+
+    public Regex getJoniRegexp()
+    {
+        checkState(joniRegexp != null, "pattern is not compiled with Joni");
+        return joniRegexp;
+    }
+
+    public Re2JRegexp getRe2JRegexp()
+    {
+        checkState(re2jRegexp != null, "pattern is not compiled with Re2J");
+        return re2jRegexp;
+    }
+
+    public boolean matches(Slice source)
+    {
+        switch (engine) {
+            case LITERAL:
+                // Slice.indexOf does not find an empty slice
+                return literal.length() == 0 || source.indexOf(literal) >= 0;
+            case LITERAL_ALTERNATION:
+                return literalAlternationMatcher.find(source);
+            case RE2J:
+                return re2jRegexp.matches(source);
+            default:
+                return JoniRegexpFunctions.regexpLike(source, joniRegexp);
+        }
+    }
+
+    public Slice replace(Slice source, Slice replacement)
+    {
+        if (isRe2J()) {
+            return re2jRegexp.replace(source, replacement);
+        }
+        return JoniRegexpFunctions.regexpReplace(source, joniRegexp, replacement);
+    }
+
+    public Block extractAll(Slice source, long groupIndex)
+    {
+        if (isRe2J()) {
+            return re2jRegexp.extractAll(source, groupIndex);
+        }
+        return JoniRegexpFunctions.regexpExtractAll(source, joniRegexp, groupIndex);
+    }
+
+    public Slice extract(Slice source, long groupIndex)
+    {
+        if (isRe2J()) {
+            return re2jRegexp.extract(source, groupIndex);
+        }
+        return JoniRegexpFunctions.regexpExtract(source, joniRegexp, groupIndex);
+    }
+
+    public Block split(Slice source)
+    {
+        if (isRe2J()) {
+            return re2jRegexp.split(source);
+        }
+        return JoniRegexpFunctions.regexpSplit(source, joniRegexp);
+    }
+
+    /**
+     * Returns the literals of a pattern made of plain literals separated by '|', with metacharacters
+     * only allowed when escaped. A single empty literal is returned for an empty pattern.
+     */
+    static Optional<List<Slice>> getLiteralAlternatives(Slice pattern)
+    {
+        ImmutableList.Builder<Slice> literals = ImmutableList.builder();
+        DynamicSliceOutput current = new DynamicSliceOutput(pattern.length());
+        boolean alternation = false;
+        for (int i = 0; i < pattern.length(); i++) {
+            byte value = pattern.getByte(i);
+            if (value == '\\') {
+                // only escaped metacharacters are literals, other escapes are character classes, anchors or back references
+                if (i + 1 == pattern.length() || METACHARACTERS.indexOf(pattern.getByte(i + 1)) < 0) {
+                    return Optional.empty();
+                }
+                current.appendByte(pattern.getByte(++i));
+            }
+            else if (value == '|') {
+                if (current.size() == 0) {
+                    return Optional.empty();
+                }
+                literals.add(current.copySlice());
+                current.reset();
+                alternation = true;
+            }
+            else if (METACHARACTERS.indexOf(value) >= 0) {
+                return Optional.empty();
+            }
+            else {
+                current.appendByte(value);
+            }
+        }
+        if (alternation && current.size() == 0) {
+            return Optional.empty();
+        }
+        literals.add(current.copySlice());
+        return Optional.of(literals.build());
+    }
+
+    /**
+     * Returns whether the pattern has a quantified group that contains a quantifier or an alternation, such as
+     * {@code (a+)+} or {@code (a|aa)*}, which are the patterns that make a backtracking engine take exponential time.
+     */
+    static boolean hasNestedQuantifier(Slice pattern)
+    {
+        // for each open group, whether it contains a quantifier or an alternation
+        List<Boolean> groups = new ArrayList<>();
+        boolean inCharacterClass = false;
+        for (int i = 0; i < pattern.length(); i++) {
+            byte value = pattern.getByte(i);
+            if (value == '\\') {
+                i++;
+            }
+            else if (inCharacterClass) {
+                inCharacterClass = value != ']';
+            }
+            else if (value == '[') {
+                inCharacterClass = true;
+            }
+            else if (value == '(') {
+                groups.add(false);
+            }
+            else if (value == ')' && !groups.isEmpty()) {
+                boolean repeating = groups.remove(groups.size() - 1);
+                boolean quantified = i + 1 < pattern.length() && QUANTIFIERS.indexOf(pattern.getByte(i + 1)) >= 0;
+                if (repeating && quantified) {
+                    return true;
+                }
+                if ((repeating || quantified) && !groups.isEmpty()) {
+                    groups.set(groups.size() - 1, true);
+                }
+            }
+            else if ((value == '|' || QUANTIFIERS.indexOf(value) >= 0) && !groups.isEmpty()) {
+                groups.set(groups.size() - 1, true);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns whether Re2J matches the pattern the same way Joni does. Re2J has no back references,
+     * lookarounds, atomic groups or possessive quantifiers, and its character class escapes are ASCII only.
+     */
+    static boolean isRe2JCompatible(Slice pattern)
+    {
+        for (int i = 0; i < pattern.length(); i++) {
+            byte value = pattern.getByte(i);
+            if (value == '\\') {
+                if (i + 1 == pattern.length()) {
+                    return false;
+                }
+                byte escaped = pattern.getByte(++i);
+                if (Character.isLetterOrDigit(escaped) && "tnrf".indexOf(escaped) < 0) {
+                    return false;
+                }
+            }
+            else if (value == '(' && i + 2 < pattern.length() && pattern.getByte(i + 1) == '?') {
+                byte kind = pattern.getByte(i + 2);
+                if (kind == '=' || kind == '!' || kind == '<' || kind == '>') {
+                    return false;
+                }
+            }
+            else if ((value == '*' || value == '+' || value == '?' || value == '}') && i + 1 < pattern.length() && pattern.getByte(i + 1) == '+') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Optional<Re2JRegexp> tryCompileRe2J(int dfaStatesLimit, int dfaRetries, Slice pattern)
+    {
+        try {
+            return Optional.of(new Re2JRegexp(dfaStatesLimit, dfaRetries, pattern));
+        }
+        catch (RuntimeException e) {
+            // a syntax Re2J does not support, the pattern is left to Joni
+            return Optional.empty();
+        }
+    }
+
+    private static boolean isValidUtf8(Slice pattern)
+    {
+        int position = 0;
+        while (position < pattern.length()) {
+            int codePoint = tryGetCodePointAt(pattern, position);
+            if (codePoint < 0) {
+                return false;
+            }
+            position += lengthOfCodePoint(codePoint);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.type;
+
+import io.airlift.slice.Slice;
+import org.openjdk.jol.info.ClassLayout;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.airlift.slice.SizeOf.sizeOf;
+
+/**
+ * Finds whether any of a set of byte strings occurs in a slice, with a single pass over the slice.
+ * The automaton is compiled into a dense transition table, so each input byte costs one array lookup.
+ */
+public final class AhoCorasickMatcher
+{
+    private static final int INSTANCE_SIZE = ClassLayout.parseClass(AhoCorasickMatcher.class).instanceSize();
+    private static final int ALPHABET_SIZE = 256;
+
+    // transitions[state * ALPHABET_SIZE + byte] is the next state, with the failure links already resolved
+    private final int[] transitions;
+    private final boolean[] accepting;
+
+    public AhoCorasickMatcher(List<Slice> needles)
+    {
+        checkArgument(!needles.isEmpty(), "needles is empty");
+
+        int maxStates = 1 + needles.stream().mapToInt(Slice::length).sum();
+        int[] transitions = new int[maxStates * ALPHABET_SIZE];
+        Arrays.fill(transitions, -1);
+        boolean[] accepting = new boolean[maxStates];
+
+        // build the trie
+        int states = 1;
+        for (Slice needle : needles) {
+            checkArgument(needle.length() > 0, "needle is empty");
+            int state = 0;
+            for (int i = 0; i < needle.length(); i++) {
+                int index = state * ALPHABET_SIZE + (needle.getByte(i) & 0xFF);
+                if (transitions[index] == -1) {
+                    transitions[index] = states++;
+                }
+                state = transitions[index];
+            }
+            accepting[state] = true;
+        }
+
+        // resolve the failure links breadth first, so that every state has a transition for every byte
+        int[] failure = new int[states];
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int value = 0; value < ALPHABET_SIZE; value++) {
+            int next = transitions[value];
+            if (next == -1) {
+                transitions[value] = 0;
+            }
+            else {
+                failure[next] = 0;
+                queue.add(next);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            accepting[state] |= accepting[failure[state]];
+            for (int value = 0; value < ALPHABET_SIZE; value++) {
+                int index = state * ALPHABET_SIZE + value;
+                int fallback = transitions[failure[state] * ALPHABET_SIZE + value];
+                if (transitions[index] == -1) {
+                    transitions[index] = fallback;
+                }
+                else {
+                    failure[transitions[index]] = fallback;
+                    queue.add(transitions[index]);
+                }
+            }
+        }
+
+        this.transitions = Arrays.copyOf(transitions, states * ALPHABET_SIZE);
+        this.accepting = Arrays.copyOf(accepting, states);
+    }
+
+    public long getRetainedSizeInBytes()
+    {
+        return INSTANCE_SIZE + sizeOf(transitions) + sizeOf(accepting);
+    }
+
+    public boolean find(Slice source)
+    {
+        int state = 0;
+        int length = source.length();
+        if (source.hasByteArray()) {
+            byte[] bytes = source.byteArray();
+            int offset = source.byteArrayOffset();
+            for (int i = offset; i < offset + length; i++) {
+                state = transitions[state * ALPHABET_SIZE + (bytes[i] & 0xFF)];
+                if (accepting[state]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            state = transitions[state * ALPHABET_SIZE + (source.getByte(i) & 0xFF)];
+            if (accepting[state]) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
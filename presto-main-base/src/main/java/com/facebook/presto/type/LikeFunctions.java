@@ -21,14 +21,16 @@ import com.facebook.presto.spi.function.LiteralParameters;
 import com.facebook.presto.spi.function.ScalarFunction;
 import com.facebook.presto.spi.function.ScalarOperator;
 import com.facebook.presto.spi.function.SqlType;
+import com.google.common.collect.ImmutableList;
 import io.airlift.jcodings.specific.NonStrictUTF8Encoding;
-import io.airlift.joni.Matcher;
 import io.airlift.joni.Option;
 import io.airlift.joni.Regex;
 import io.airlift.joni.Syntax;
 import io.airlift.slice.Slice;
 import io.airlift.slice.Slices;
 
+import java.util.Optional;
+
 import static com.facebook.presto.common.type.Chars.padSpaces;
 import static com.facebook.presto.spi.StandardErrorCode.INVALID_FUNCTION_ARGUMENT;
 import static com.facebook.presto.spi.function.SqlFunctionVisibility.HIDDEN;
@@ -59,7 +61,7 @@ public final class LikeFunctions
     @ScalarFunction(value = "like", visibility = HIDDEN)
     @LiteralParameters("x")
     @SqlType(StandardTypes.BOOLEAN)
-    public static boolean likeChar(@LiteralParameter("x") Long x, @SqlType("char(x)") Slice value, @SqlType(LikePatternType.NAME) Regex pattern)
+    public static boolean likeChar(@LiteralParameter("x") Long x, @SqlType("char(x)") Slice value, @SqlType(LikePatternType.NAME) LikeMatcher pattern)
     {
         return likeVarchar(padSpaces(value, x.intValue()), pattern);
     }
@@ -68,27 +70,15 @@ public final class LikeFunctions
     @ScalarFunction(value = "like", visibility = HIDDEN)
     @LiteralParameters("x")
     @SqlType(StandardTypes.BOOLEAN)
-    public static boolean likeVarchar(@SqlType("varchar(x)") Slice value, @SqlType(LikePatternType.NAME) Regex pattern)
+    public static boolean likeVarchar(@SqlType("varchar(x)") Slice value, @SqlType(LikePatternType.NAME) LikeMatcher pattern)
     {
-        // Joni can infinite loop with UTF8Encoding when invalid UTF-8 is encountered.
-        // NonStrictUTF8Encoding must be used to avoid this issue.
-        Matcher matcher;
-        int offset;
-        if (value.hasByteArray()) {
-            offset = value.byteArrayOffset();
-            matcher = pattern.matcher(value.byteArray(), offset, offset + value.length());
-        }
-        else {
-            offset = 0;
-            matcher = pattern.matcher(value.getBytes());
-        }
-        return matcher.match(offset, offset + value.length(), Option.NONE) != -1;
+        return pattern.matches(value);
     }
 
     @ScalarOperator(OperatorType.CAST)
     @LiteralParameters("x")
     @SqlType(LikePatternType.NAME)
-    public static Regex castVarcharToLikePattern(@SqlType("varchar(x)") Slice pattern)
+    public static LikeMatcher castVarcharToLikePattern(@SqlType("varchar(x)") Slice pattern)
     {
         return likePattern(pattern);
     }
@@ -96,12 +86,12 @@ public final class LikeFunctions
     @ScalarOperator(OperatorType.CAST)
     @LiteralParameters("x")
     @SqlType(LikePatternType.NAME)
-    public static Regex castCharToLikePattern(@LiteralParameter("x") Long charLength, @SqlType("char(x)") Slice pattern)
+    public static LikeMatcher castCharToLikePattern(@LiteralParameter("x") Long charLength, @SqlType("char(x)") Slice pattern)
     {
         return likePattern(padSpaces(pattern, charLength.intValue()));
     }
 
-    public static Regex likePattern(Slice pattern)
+    public static LikeMatcher likePattern(Slice pattern)
     {
         return likePattern(pattern.toStringUtf8(), '0', false);
     }
@@ -109,7 +99,7 @@ public final class LikeFunctions
     @ScalarFunction(visibility = HIDDEN)
     @LiteralParameters({"x", "y"})
     @SqlType(LikePatternType.NAME)
-    public static Regex likePattern(@SqlType("varchar(x)") Slice pattern, @SqlType("varchar(y)") Slice escape)
+    public static LikeMatcher likePattern(@SqlType("varchar(x)") Slice pattern, @SqlType("varchar(y)") Slice escape)
     {
         return likePattern(pattern.toStringUtf8(), getEscapeChar(escape), true);
     }
@@ -173,9 +163,13 @@ public final class LikeFunctions
     }
 
     @SuppressWarnings("NestedSwitchStatement")
-    private static Regex likePattern(String patternString, char escapeChar, boolean shouldEscape)
+    private static LikeMatcher likePattern(String patternString, char escapeChar, boolean shouldEscape)
     {
         StringBuilder regex = new StringBuilder(patternString.length() * 2);
+        // the literals between '%' wildcards, as long as the pattern has no '_' wildcard
+        ImmutableList.Builder<String> literals = ImmutableList.builder();
+        StringBuilder literal = new StringBuilder(patternString.length());
+        boolean hasSingleCharacterWildcard = false;
 
         regex.append('^');
         boolean escaped = false;
@@ -188,10 +182,19 @@ public final class LikeFunctions
                 switch (currentChar) {
                     case '%':
                         regex.append(escaped ? "%" : ".*");
+                        if (escaped) {
+                            literal.append(currentChar);
+                        }
+                        else {
+                            literals.add(literal.toString());
+                            literal.setLength(0);
+                        }
                         escaped = false;
                         break;
                     case '_':
                         regex.append(escaped ? "_" : ".");
+                        literal.append(currentChar);
+                        hasSingleCharacterWildcard |= !escaped;
                         escaped = false;
                         break;
                     default:
@@ -206,18 +209,21 @@ public final class LikeFunctions
                         }
 
                         regex.append(currentChar);
+                        literal.append(currentChar);
                         escaped = false;
                 }
             }
         }
         checkEscape(!escaped);
         regex.append('$');
+        literals.add(literal.toString());
 
         byte[] bytes = regex.toString().getBytes(UTF_8);
         // Option.MULTILINE specifies that wildcard characters (. and *) should match newlines
         // Option.SINGLELINE specifies that anchors (^ and $) should match the beginning and end of
         // input rather than the beginning and end of the line
-        return new Regex(bytes, 0, bytes.length, Option.MULTILINE | Option.SINGLELINE, NonStrictUTF8Encoding.INSTANCE, SYNTAX);
+        Regex compiled = new Regex(bytes, 0, bytes.length, Option.MULTILINE | Option.SINGLELINE, NonStrictUTF8Encoding.INSTANCE, SYNTAX);
+        return new LikeMatcher(compiled, hasSingleCharacterWildcard ? Optional.empty() : Optional.of(literals.build()));
     }
 
     @SuppressWarnings("NumericCastThatLosesPrecision")
@@ -0,0 +1,130 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.type;
+
+import io.airlift.joni.Matcher;
+import io.airlift.joni.Option;
+import io.airlift.joni.Regex;
+import io.airlift.slice.Slice;
+
+import java.util.List;
+import java.util.Optional;
+
+import static io.airlift.slice.Slices.utf8Slice;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A compiled LIKE pattern. Patterns made of literals and '%' wildcards only, such as 'abc%', '%abc',
+ * '%abc%' or 'a%b%c', are matched directly on the UTF-8 bytes of the value: the first literal is a prefix,
+ * the last literal is a suffix, and the literals in between are searched for from left to right.
+ * Patterns with '_' wildcards are matched by the regular expression the pattern translates to.
+ */
+public final class LikeMatcher
+{
+    private final Regex regex;
+    private final Optional<LiteralSequence> literals;
+
+    LikeMatcher(Regex regex, Optional<List<String>> literals)
+    {
+        this.regex = requireNonNull(regex, "regex is null");
+        this.literals = requireNonNull(literals, "literals is null").map(LiteralSequence::new);
+    }
+
+    public Regex getRegex()
+    {
+        return regex;
+    }
+
+    public boolean isLiteralSequence()
+    {
+        return literals.isPresent();
+    }
+
+    public boolean matches(Slice value)
+    {
+        if (literals.isPresent()) {
+            return literals.get().matches(value);
+        }
+
+        // Joni can infinite loop with UTF8Encoding when invalid UTF-8 is encountered.
+        // NonStrictUTF8Encoding must be used to avoid this issue.
+        Matcher matcher;
+        int offset;
+        if (value.hasByteArray()) {
+            offset = value.byteArrayOffset();
+            matcher = regex.matcher(value.byteArray(), offset, offset + value.length());
+        }
+        else {
+            offset = 0;
+            matcher = regex.matcher(value.getBytes());
+        }
+        return matcher.match(offset, offset + value.length(), Option.NONE) != -1;
+    }
+
+    private static final class LiteralSequence
+    {
+        private final boolean exact;
+        private final Slice prefix;
+        private final Slice suffix;
+        private final Slice[] infixes;
+        private final int minLength;
+
+        private LiteralSequence(List<String> literals)
+        {
+            // literals are the parts of the pattern between '%' wildcards, so the pattern has no wildcard when there is a single one
+            exact = literals.size() == 1;
+            prefix = utf8Slice(literals.get(0));
+            suffix = exact ? prefix : utf8Slice(literals.get(literals.size() - 1));
+            infixes = literals.subList(1, Math.max(1, literals.size() - 1)).stream()
+                    .filter(literal -> !literal.isEmpty())
+                    .map(literal -> utf8Slice(literal))
+                    .toArray(Slice[]::new);
+
+            int length = exact ? prefix.length() : prefix.length() + suffix.length();
+            for (Slice infix : infixes) {
+                length += infix.length();
+            }
+            minLength = length;
+        }
+
+        public boolean matches(Slice value)
+        {
+            int length = value.length();
+            if (exact) {
+                return prefix.equals(value);
+            }
+            if (length < minLength) {
+                return false;
+            }
+            if (!value.equals(0, prefix.length(), prefix, 0, prefix.length())) {
+                return false;
+            }
+            int end = length - suffix.length();
+            if (!value.equals(end, suffix.length(), suffix, 0, suffix.length())) {
+                return false;
+            }
+
+            // the leftmost occurrence of each literal leaves the most room for the following ones
+            int position = prefix.length();
+            for (Slice infix : infixes) {
+                int index = value.indexOf(infix, position);
+                if (index < 0 || index + infix.length() > end) {
+                    return false;
+                }
+                position = index + infix.length();
+            }
+            return true;
+        }
+    }
+}
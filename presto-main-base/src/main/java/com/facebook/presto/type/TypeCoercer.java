@@ -48,6 +48,7 @@ import static com.facebook.presto.common.type.TimestampType.TIMESTAMP;
 import static com.facebook.presto.common.type.TimestampWithTimeZoneType.TIMESTAMP_WITH_TIME_ZONE;
 import static com.facebook.presto.common.type.VarcharType.createUnboundedVarcharType;
 import static com.facebook.presto.common.type.VarcharType.createVarcharType;
+import static com.facebook.presto.type.AdaptiveRegexpType.ADAPTIVE_REGEXP;
 import static com.facebook.presto.type.CodePointsType.CODE_POINTS;
 import static com.facebook.presto.type.JoniRegexpType.JONI_REGEXP;
 import static com.facebook.presto.type.JsonPathType.JSON_PATH;
@@ -157,6 +158,7 @@ public class TypeCoercer
                     case StandardTypes.INTERVAL_DAY_TO_SECOND:
                     case StandardTypes.K_HYPER_LOG_LOG:
                     case JoniRegexpType.NAME:
+                    case AdaptiveRegexpType.NAME:
                     case LikePatternType.NAME:
                     case JsonPathType.NAME:
                     case ColorType.NAME:
@@ -293,6 +295,8 @@ public class TypeCoercer
                         return Optional.of(JONI_REGEXP);
                     case Re2JRegexpType.NAME:
                         return Optional.of(RE2J_REGEXP);
+                    case AdaptiveRegexpType.NAME:
+                        return Optional.of(ADAPTIVE_REGEXP);
                     case LikePatternType.NAME:
                         return Optional.of(LIKE_PATTERN);
                     case JsonPathType.NAME:
@@ -316,6 +320,8 @@ public class TypeCoercer
                         return Optional.of(JONI_REGEXP);
                     case Re2JRegexpType.NAME:
                         return Optional.of(RE2J_REGEXP);
+                    case AdaptiveRegexpType.NAME:
+                        return Optional.of(ADAPTIVE_REGEXP);
                     case LikePatternType.NAME:
                         return Optional.of(LIKE_PATTERN);
                     case JsonPathType.NAME:
@@ -14,18 +14,25 @@
 package com.facebook.presto.execution;
 
 import com.facebook.presto.execution.scheduler.SplitSchedulerStats;
+import com.facebook.presto.operator.TaskStats;
 import com.facebook.presto.spi.QueryId;
 import com.google.common.collect.ImmutableList;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.Test;
 
 import java.io.IOException;
+import java.net.URI;
 import java.sql.SQLException;
+import java.util.List;
 import java.util.concurrent.ExecutorService;
 
+import static com.facebook.presto.common.RuntimeMetricName.SCHEDULER_CPU_TIME_NANOS;
+import static java.lang.System.currentTimeMillis;
 import static java.util.concurrent.Executors.newCachedThreadPool;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
 import static org.testng.Assert.assertTrue;
 
 public class TestStageExecutionStateMachine
@@ -238,6 +245,40 @@ public class TestStageExecutionStateMachine
         assertFinalState(stateMachine, StageExecutionState.CANCELED);
     }
 
+    @Test
+    public void testSnapshotsReusedUntilChanged()
+    {
+        StageExecutionStateMachine stateMachine = createStageStateMachine();
+        List<TaskInfo> taskInfos = ImmutableList.of(createTaskInfo(0), createTaskInfo(1));
+
+        StageExecutionInfo stageExecutionInfo = stateMachine.getStageExecutionInfo(() -> taskInfos, 0, 1);
+        assertSame(stateMachine.getStageExecutionInfo(() -> ImmutableList.copyOf(taskInfos), 0, 1), stageExecutionInfo);
+        BasicStageExecutionStats basicStageStats = stateMachine.getBasicStageStats(() -> taskInfos);
+        assertSame(stateMachine.getBasicStageStats(() -> taskInfos), basicStageStats);
+
+        // a new task info
+        List<TaskInfo> updatedTaskInfos = ImmutableList.of(taskInfos.get(0), createTaskInfo(1));
+        assertNotSame(stateMachine.getStageExecutionInfo(() -> updatedTaskInfos, 0, 1), stageExecutionInfo);
+        assertNotSame(stateMachine.getBasicStageStats(() -> updatedTaskInfos), basicStageStats);
+
+        // stage level statistics
+        stageExecutionInfo = stateMachine.getStageExecutionInfo(() -> updatedTaskInfos, 0, 1);
+        stateMachine.recordSchedulerRunningTime(10, 20);
+        StageExecutionInfo withRuntimeStats = stateMachine.getStageExecutionInfo(() -> updatedTaskInfos, 0, 1);
+        assertNotSame(withRuntimeStats, stageExecutionInfo);
+        assertTrue(withRuntimeStats.getStats().getRuntimeStats().getMetrics().containsKey(SCHEDULER_CPU_TIME_NANOS));
+        stateMachine.updateMemoryUsage(1, 2, 3);
+        assertNotSame(stateMachine.getStageExecutionInfo(() -> updatedTaskInfos, 0, 1), withRuntimeStats);
+
+        // lifespans and state
+        stageExecutionInfo = stateMachine.getStageExecutionInfo(() -> updatedTaskInfos, 0, 1);
+        assertNotSame(stateMachine.getStageExecutionInfo(() -> updatedTaskInfos, 1, 1), stageExecutionInfo);
+        basicStageStats = stateMachine.getBasicStageStats(() -> updatedTaskInfos);
+        assertTrue(stateMachine.transitionToRunning());
+        assertNotSame(stateMachine.getBasicStageStats(() -> updatedTaskInfos), basicStageStats);
+        assertEquals(stateMachine.getStageExecutionInfo(() -> updatedTaskInfos, 1, 1).getState(), StageExecutionState.RUNNING);
+    }
+
     private static void assertFinalState(StageExecutionStateMachine stateMachine, StageExecutionState expectedState)
     {
         assertTrue(expectedState.isDone());
@@ -287,6 +328,16 @@ public class TestStageExecutionStateMachine
         }
     }
 
+    private static TaskInfo createTaskInfo(int taskId)
+    {
+        return TaskInfo.createInitialTask(
+                new TaskId(STAGE_ID, taskId, 0),
+                URI.create("http://localhost/v1/task/" + taskId),
+                ImmutableList.of(),
+                new TaskStats(currentTimeMillis(), 0),
+                "node");
+    }
+
     private StageExecutionStateMachine createStageStateMachine()
     {
         return new StageExecutionStateMachine(STAGE_ID, executor, new SplitSchedulerStats(), false);
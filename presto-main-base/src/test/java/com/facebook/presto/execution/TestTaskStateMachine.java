@@ -0,0 +1,67 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.execution;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.ListenableFuture;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.ExecutorService;
+
+import static com.facebook.presto.execution.Lifespan.driverGroup;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestTaskStateMachine
+{
+    private final ExecutorService executor = newCachedThreadPool();
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown()
+    {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testCompletedDriverGroups()
+            throws Exception
+    {
+        TaskStateMachine stateMachine = new TaskStateMachine(new TaskId("query", 0, 0, 0, 0), executor);
+        assertEquals(stateMachine.getCompletedDriverGroups(), ImmutableSet.of());
+
+        ListenableFuture<Integer> change = stateMachine.getCompletedDriverGroupsChange(0);
+        assertFalse(change.isDone());
+
+        stateMachine.addCompletedDriverGroup(driverGroup(5));
+        assertEquals(change.get(10, SECONDS), Integer.valueOf(1));
+
+        stateMachine.addCompletedDriverGroup(driverGroup(1));
+        stateMachine.addCompletedDriverGroup(driverGroup(5));
+        stateMachine.addCompletedDriverGroup(driverGroup(3));
+
+        // in completion order, without duplicates
+        assertEquals(ImmutableList.copyOf(stateMachine.getCompletedDriverGroups()), ImmutableList.of(driverGroup(5), driverGroup(1), driverGroup(3)));
+        assertEquals(ImmutableList.copyOf(stateMachine.getCompletedDriverGroups(1)), ImmutableList.of(driverGroup(1), driverGroup(3)));
+        assertEquals(stateMachine.getCompletedDriverGroups(3), ImmutableSet.of());
+        assertEquals(stateMachine.getCompletedDriverGroups(4), ImmutableSet.of());
+
+        assertTrue(stateMachine.getCompletedDriverGroupsChange(1).isDone());
+        assertFalse(stateMachine.getCompletedDriverGroupsChange(3).isDone());
+    }
+}
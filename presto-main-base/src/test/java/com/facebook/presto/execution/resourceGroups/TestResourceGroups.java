@@ -304,6 +304,55 @@ public class TestResourceGroups
         assertEquals(query3.getState(), RUNNING);
     }
 
+    @Test(timeOut = 10_000)
+    public void testNestedSubgroupMemoryLimit()
+    {
+        RootInternalResourceGroup root = new RootInternalResourceGroup("root", (group, export) -> {}, directExecutor(), ignored -> Optional.empty(), rg -> false, createNodeManager(), createClusterResourceChecker(), QueryPacingContext.NOOP);
+        root.setSoftMemoryLimit(new DataSize(10, BYTE));
+        root.setMaxQueuedQueries(4);
+        root.setHardConcurrencyLimit(4);
+        InternalResourceGroup middle = root.getOrCreateSubGroup("middle", true);
+        middle.setSoftMemoryLimit(new DataSize(10, BYTE));
+        middle.setMaxQueuedQueries(4);
+        middle.setHardConcurrencyLimit(4);
+        InternalResourceGroup first = middle.getOrCreateSubGroup("first", true);
+        first.setSoftMemoryLimit(new DataSize(1, BYTE));
+        first.setMaxQueuedQueries(4);
+        first.setHardConcurrencyLimit(3);
+        InternalResourceGroup second = middle.getOrCreateSubGroup("second", true);
+        second.setSoftMemoryLimit(new DataSize(1, BYTE));
+        second.setMaxQueuedQueries(4);
+        second.setHardConcurrencyLimit(3);
+
+        MockManagedQueryExecution query1 = new MockManagedQueryExecution(2);
+        query1.startWaitingForPrerequisites();
+        first.run(query1);
+        MockManagedQueryExecution query2 = new MockManagedQueryExecution(2);
+        query2.startWaitingForPrerequisites();
+        second.run(query2);
+        // Process the group to refresh stats
+        root.processQueuedQueries();
+        assertEquals(query1.getState(), RUNNING);
+        assertEquals(query2.getState(), RUNNING);
+
+        MockManagedQueryExecution query3 = new MockManagedQueryExecution(0);
+        query3.startWaitingForPrerequisites();
+        first.run(query3);
+        MockManagedQueryExecution query4 = new MockManagedQueryExecution(0);
+        query4.startWaitingForPrerequisites();
+        second.run(query4);
+        root.processQueuedQueries();
+        assertEquals(query3.getState(), QUEUED);
+        assertEquals(query4.getState(), QUEUED);
+
+        // both leaves become eligible again in the same refresh
+        query1.complete();
+        query2.complete();
+        root.processQueuedQueries();
+        assertEquals(query3.getState(), RUNNING);
+        assertEquals(query4.getState(), RUNNING);
+    }
+
     @Test(timeOut = 10_000)
     public void testSoftCpuLimit()
     {
@@ -0,0 +1,240 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator.project;
+
+import com.facebook.presto.common.Page;
+import com.facebook.presto.common.block.Block;
+import com.facebook.presto.common.function.SqlFunctionProperties;
+import com.google.common.collect.ImmutableList;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.function.LongPredicate;
+
+import static com.facebook.presto.block.BlockAssertions.createLongSequenceBlock;
+import static com.facebook.presto.block.BlockAssertions.createLongsBlock;
+import static com.facebook.presto.common.type.BigintType.BIGINT;
+import static com.facebook.presto.operator.project.AdaptivePageFilter.REORDER_INTERVAL_IN_PAGES;
+import static com.facebook.presto.testing.TestingConnectorSession.SESSION;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertThrows;
+
+public class TestAdaptivePageFilter
+{
+    private static final SqlFunctionProperties PROPERTIES = SESSION.getSqlFunctionProperties();
+
+    @Test
+    public void testSameResultAsConjunction()
+    {
+        LongPredicateFilter even = new LongPredicateFilter(0, value -> value % 2 == 0);
+        LongPredicateFilter small = new LongPredicateFilter(2, value -> value < 700);
+        LongPredicateFilter notMultipleOfThree = new LongPredicateFilter(0, value -> value % 3 != 0);
+        List<PageFilter> conjuncts = ImmutableList.of(even, small, notMultipleOfThree);
+        ConjunctionFilter conjunction = new ConjunctionFilter(conjuncts);
+        AdaptivePageFilter filter = new AdaptivePageFilter(conjunction, conjuncts);
+
+        assertEquals(filter.getInputChannels().getInputChannels(), ImmutableList.of(0, 2));
+        for (int i = 0; i < REORDER_INTERVAL_IN_PAGES * 3; i++) {
+            Page page = new Page(createLongSequenceBlock(i * 100, i * 100 + 1000), createLongSequenceBlock(0, 1000));
+            assertSelectedPositions(filter.filter(PROPERTIES, page), conjunction.filter(PROPERTIES, page));
+        }
+    }
+
+    @Test
+    public void testSelectiveConjunctMovesFirst()
+    {
+        LongPredicateFilter passAll = new LongPredicateFilter(0, value -> value >= 0);
+        LongPredicateFilter selective = new LongPredicateFilter(0, value -> value % 100 == 0);
+        List<PageFilter> conjuncts = ImmutableList.of(passAll, selective);
+        AdaptivePageFilter filter = new AdaptivePageFilter(new ConjunctionFilter(conjuncts), conjuncts);
+
+        assertEquals(filter.getConjunctOrder(), ImmutableList.of(0, 1));
+        Page page = new Page(createLongSequenceBlock(0, 1000));
+        for (int i = 0; i < REORDER_INTERVAL_IN_PAGES; i++) {
+            assertEquals(filter.filter(PROPERTIES, page).size(), 10);
+        }
+        assertEquals(filter.getConjunctOrder(), ImmutableList.of(1, 0));
+
+        // the pass-all conjunct now only sees the positions left by the selective one
+        passAll.resetPositionCount();
+        assertEquals(filter.filter(PROPERTIES, page).size(), 10);
+        assertEquals(passAll.getPositionCount(), 10);
+    }
+
+    @Test
+    public void testFailureFallsBackToOriginalOrder()
+    {
+        LongPredicateFilter nonZero = new LongPredicateFilter(0, value -> value != 0);
+        LongPredicateFilter division = new LongPredicateFilter(0, value -> 10 / value > 1);
+        List<PageFilter> conjuncts = ImmutableList.of(nonZero, division);
+        AdaptivePageFilter filter = new AdaptivePageFilter(new ConjunctionFilter(conjuncts), conjuncts);
+
+        // make the division the first conjunct
+        Page positivePage = new Page(createLongSequenceBlock(1, 1001));
+        for (int i = 0; i < REORDER_INTERVAL_IN_PAGES; i++) {
+            assertEquals(filter.filter(PROPERTIES, positivePage).size(), 5);
+        }
+        assertEquals(filter.getConjunctOrder(), ImmutableList.of(1, 0));
+
+        Page pageWithZero = new Page(createLongsBlock(0L, 3L, 0L, 20L, 1L));
+        SelectedPositions selectedPositions = filter.filter(PROPERTIES, pageWithZero);
+        assertSelectedPositions(selectedPositions, SelectedPositions.positionsList(new int[] {1, 4}, 0, 2));
+        assertEquals(filter.getConjunctOrder(), ImmutableList.of(0, 1));
+
+        // the original order is kept, so the following pages with a zero are only evaluated once
+        division.resetPositionCount();
+        for (int i = 0; i < REORDER_INTERVAL_IN_PAGES * 2; i++) {
+            assertEquals(filter.filter(PROPERTIES, positivePage).size(), 5);
+            assertSelectedPositions(filter.filter(PROPERTIES, pageWithZero), SelectedPositions.positionsList(new int[] {1, 4}, 0, 2));
+        }
+        assertEquals(filter.getConjunctOrder(), ImmutableList.of(0, 1));
+        assertEquals(division.getPositionCount(), REORDER_INTERVAL_IN_PAGES * 2 * (1000 + 3));
+
+        // failures of the original order are still reported
+        List<PageFilter> unguarded = ImmutableList.of(division, nonZero);
+        AdaptivePageFilter unguardedFilter = new AdaptivePageFilter(new ConjunctionFilter(unguarded), unguarded);
+        assertThrows(ArithmeticException.class, () -> unguardedFilter.filter(PROPERTIES, pageWithZero));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testRequiresMultipleConjuncts()
+    {
+        LongPredicateFilter conjunct = new LongPredicateFilter(0, value -> true);
+        new AdaptivePageFilter(conjunct, ImmutableList.of(conjunct));
+    }
+
+    private static void assertSelectedPositions(SelectedPositions actual, SelectedPositions expected)
+    {
+        assertEquals(actual.size(), expected.size());
+        for (int i = 0; i < actual.size(); i++) {
+            assertEquals(getPosition(actual, i), getPosition(expected, i));
+        }
+    }
+
+    private static int getPosition(SelectedPositions selectedPositions, int index)
+    {
+        if (selectedPositions.isList()) {
+            return selectedPositions.getPositions()[selectedPositions.getOffset() + index];
+        }
+        return selectedPositions.getOffset() + index;
+    }
+
+    private static class LongPredicateFilter
+            implements PageFilter
+    {
+        private final int channel;
+        private final LongPredicate predicate;
+        private long positionCount;
+
+        public LongPredicateFilter(int channel, LongPredicate predicate)
+        {
+            this.channel = channel;
+            this.predicate = predicate;
+        }
+
+        public long getPositionCount()
+        {
+            return positionCount;
+        }
+
+        public void resetPositionCount()
+        {
+            positionCount = 0;
+        }
+
+        @Override
+        public boolean isDeterministic()
+        {
+            return true;
+        }
+
+        @Override
+        public InputChannels getInputChannels()
+        {
+            return new InputChannels(channel);
+        }
+
+        @Override
+        public SelectedPositions filter(SqlFunctionProperties properties, Page page)
+        {
+            assertEquals(page.getChannelCount(), 1);
+            Block block = page.getBlock(0);
+            boolean[] selected = new boolean[page.getPositionCount()];
+            for (int position = 0; position < selected.length; position++) {
+                selected[position] = predicate.test(BIGINT.getLong(block, position));
+            }
+            positionCount += selected.length;
+            return PageFilter.positionsArrayToSelectedPositions(selected, selected.length);
+        }
+    }
+
+    private static class ConjunctionFilter
+            implements PageFilter
+    {
+        private final List<PageFilter> conjuncts;
+        private final int[] channels;
+
+        public ConjunctionFilter(List<PageFilter> conjuncts)
+        {
+            this.conjuncts = conjuncts;
+            this.channels = conjuncts.stream()
+                    .map(PageFilter::getInputChannels)
+                    .flatMap(inputChannels -> inputChannels.getInputChannels().stream())
+                    .distinct()
+                    .sorted()
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        }
+
+        @Override
+        public boolean isDeterministic()
+        {
+            return true;
+        }
+
+        @Override
+        public InputChannels getInputChannels()
+        {
+            return new InputChannels(channels);
+        }
+
+        @Override
+        public SelectedPositions filter(SqlFunctionProperties properties, Page page)
+        {
+            boolean[] selected = new boolean[page.getPositionCount()];
+            for (int position = 0; position < selected.length; position++) {
+                selected[position] = true;
+                for (PageFilter conjunct : conjuncts) {
+                    int channel = conjunct.getInputChannels().getInputChannels().get(0);
+                    Page conjunctPage = new Page(page.getBlock(indexOf(channel)).getRegion(position, 1));
+                    if (conjunct.filter(properties, conjunctPage).isEmpty()) {
+                        selected[position] = false;
+                        break;
+                    }
+                }
+            }
+            return PageFilter.positionsArrayToSelectedPositions(selected, selected.length);
+        }
+
+        private int indexOf(int channel)
+        {
+            for (int i = 0; i < channels.length; i++) {
+                if (channels[i] == channel) {
+                    return i;
+                }
+            }
+            throw new IllegalArgumentException("unknown channel " + channel);
+        }
+    }
+}
@@ -98,6 +98,9 @@ public class BenchmarkJsonExtract
     @Param({"true", "false"})
     boolean isCanonicalizedJsonExtract;
 
+    @Param({"json_extract", "json_extract_scalar"})
+    String functionName;
+
     @Setup
     public void setup()
     {
@@ -105,7 +108,10 @@ public class BenchmarkJsonExtract
         symbolTypes = ImmutableMap.of(variable.getName(), VARCHAR);
         sourceLayout = ImmutableMap.of(variable, 0);
         inputPage = new Page(createChannel());
-        List<RowExpression> projections = ImmutableList.of(rowExpression("json_extract(varchar0, '$.key1')"), rowExpression("json_extract(varchar0, '$.key2')"));
+        String pathSuffix = functionName.equals("json_extract_scalar") ? ".id" : "";
+        List<RowExpression> projections = ImmutableList.of(
+                rowExpression(functionName + "(varchar0, '$.key1" + pathSuffix + "')"),
+                rowExpression(functionName + "(varchar0, '$.key2" + pathSuffix + "')"));
         MetadataManager metadata = createTestMetadataManager();
         PageFunctionCompiler pageFunctionCompiler = new PageFunctionCompiler(metadata, 0);
         ExpressionCompiler expressionCompiler = new ExpressionCompiler(metadata, pageFunctionCompiler);
@@ -215,10 +221,9 @@ public class BenchmarkJsonExtract
             String key = generateRandomKey(ThreadLocalRandom.current().nextInt(5) + 2);
             builder.append("\"").append(key).append("\":");
             builder.append(generateRandomJsonValue());
-            if (i < size - 1) {
-                builder.append(",");
-            }
+            builder.append(",");
         }
+        builder.append("\"id\":").append(generateRandomJsonValue());
         builder.append('}');
         return builder.toString();
     }
@@ -0,0 +1,62 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator.scalar;
+
+import com.facebook.presto.common.type.ArrayType;
+import com.google.common.collect.ImmutableList;
+import org.testng.annotations.Test;
+
+import static com.facebook.presto.common.type.BooleanType.BOOLEAN;
+import static com.facebook.presto.common.type.VarcharType.createVarcharType;
+import static com.facebook.presto.sql.analyzer.RegexLibrary.ADAPTIVE;
+
+public class TestAdaptiveRegexpFunctions
+        extends AbstractTestRegexpFunctions
+{
+    public TestAdaptiveRegexpFunctions()
+    {
+        super(ADAPTIVE);
+    }
+
+    @Test
+    public void testLiteralPatterns()
+    {
+        assertFunction("REGEXP_LIKE('hello world', 'o w')", BOOLEAN, true);
+        assertFunction("REGEXP_LIKE('hello world', 'world!')", BOOLEAN, false);
+        assertFunction("REGEXP_LIKE('a.b', 'a\\.b')", BOOLEAN, true);
+        assertFunction("REGEXP_LIKE('axb', 'a\\.b')", BOOLEAN, false);
+        assertFunction("REGEXP_LIKE('', '')", BOOLEAN, true);
+        assertFunction("REGEXP_LIKE('café au lait', 'é a')", BOOLEAN, true);
+
+        assertFunction("REGEXP_LIKE('special requests', 'pending|special|unusual')", BOOLEAN, true);
+        assertFunction("REGEXP_LIKE('regular deposits', 'pending|special|unusual')", BOOLEAN, false);
+        assertFunction("REGEXP_LIKE('she sells', 'he|she|his|hers')", BOOLEAN, true);
+        assertFunction("REGEXP_LIKE('ushers', 'hers|sh')", BOOLEAN, true);
+        assertFunction("REGEXP_LIKE('a|b', 'x\\|b')", BOOLEAN, false);
+
+        // the other functions keep the positions and groups of the match
+        assertFunction("REGEXP_EXTRACT('special requests', 'pending|requests')", createVarcharType(16), "requests");
+        assertFunction("REGEXP_SPLIT('a--b--c', '--')", new ArrayType(createVarcharType(7)), ImmutableList.of("a", "b", "c"));
+    }
+
+    @Test
+    public void testNestedQuantifierPatterns()
+    {
+        // exponential for a backtracking engine
+        assertFunction("REGEXP_LIKE('aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa!', '^(a+)+$')", BOOLEAN, false);
+        assertFunction("REGEXP_LIKE('aaaa', '^(a|aa)+$')", BOOLEAN, true);
+        assertFunction("REGEXP_EXTRACT('xaaay', '(a+)+', 1)", createVarcharType(5), "aaa");
+        assertFunction("REGEXP_REPLACE('xaaay', '(a|b)+', '<$1>')", createVarcharType(65), "x<a>y");
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator.scalar;
+
+import com.facebook.presto.Session;
+import com.facebook.presto.common.block.Block;
+import com.facebook.presto.common.block.BlockBuilder;
+import com.facebook.presto.sql.query.QueryAssertions;
+import com.google.common.collect.ImmutableList;
+import io.airlift.slice.Slice;
+import io.airlift.slice.Slices;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+import static com.facebook.presto.SystemSessionProperties.OPTIMIZE_MULTIPLE_JSON_EXTRACT_SCALAR;
+import static com.facebook.presto.common.type.VarcharType.VARCHAR;
+import static com.facebook.presto.operator.scalar.TestJsonExtract.PROPERTIES_CANONICALIZED_EXTRACT_DISABLED;
+import static com.facebook.presto.testing.TestingSession.testSessionBuilder;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class TestJsonExtractScalarMultipleFunctions
+{
+    private static final List<String> PATHS = ImmutableList.of("$.a", "$.b.c", "$.b", "$[\"d\"][1]", "$.missing", "$[\"b\"][\"c\"]");
+
+    private QueryAssertions assertions;
+
+    @BeforeClass
+    public void init()
+    {
+        Session session = testSessionBuilder()
+                .setSystemProperty(OPTIMIZE_MULTIPLE_JSON_EXTRACT_SCALAR, "true")
+                .build();
+        assertions = new QueryAssertions(session);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void teardown()
+    {
+        assertions.close();
+        assertions = null;
+    }
+
+    @Test
+    public void testSameResultAsJsonExtractScalar()
+    {
+        JsonExtractScalarMultipleFunctions.VarcharJsonExtractScalarMultiple function = new JsonExtractScalarMultipleFunctions.VarcharJsonExtractScalarMultiple();
+        Block paths = createPaths(PATHS);
+        for (String json : ImmutableList.of(
+                "{\"a\": 1, \"b\": {\"c\": \"x\"}, \"d\": [1, 2]}",
+                "{\"d\": [true, null], \"a\": \"caf\\u00e9\"}",
+                "{\"a\": 1, \"b\": {\"c\": [1 2]}}",
+                "{\"a\": 1,",
+                "[]",
+                "")) {
+            Slice input = Slices.utf8Slice(json);
+            Block values = function.extract(PROPERTIES_CANONICALIZED_EXTRACT_DISABLED, input, paths);
+            assertEquals(values.getPositionCount(), PATHS.size());
+            for (int i = 0; i < PATHS.size(); i++) {
+                Slice expected = JsonFunctions.varcharJsonExtractScalar(PROPERTIES_CANONICALIZED_EXTRACT_DISABLED, input, JsonPath.build(PATHS.get(i)));
+                if (expected == null) {
+                    assertTrue(values.isNull(i), "json: " + json + ", path: " + PATHS.get(i));
+                }
+                else {
+                    assertEquals(VARCHAR.getSlice(values, i), expected, "json: " + json + ", path: " + PATHS.get(i));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testQuery()
+    {
+        assertions.assertQuery(
+                "SELECT json_extract_scalar(j, '$.a'), CAST(json_extract_scalar(j, '$.b') AS bigint), json_extract_scalar(j, '$.c'), " +
+                        "IF(j IS NULL, 'none', json_extract_scalar(j, '$.a')) " +
+                        "FROM (VALUES '{\"a\": \"x\", \"b\": 1}', '{\"b\": 2, \"c\": [1]}', 'not json', NULL) t(j)",
+                "VALUES " +
+                        "(CAST('x' AS varchar(18)), BIGINT '1', CAST(NULL AS varchar(18)), CAST('x' AS varchar(18))), " +
+                        "(NULL, 2, NULL, NULL), " +
+                        "(NULL, NULL, NULL, NULL), " +
+                        "(NULL, NULL, NULL, CAST('none' AS varchar(18)))");
+    }
+
+    private static Block createPaths(List<String> paths)
+    {
+        BlockBuilder blockBuilder = VARCHAR.createBlockBuilder(null, paths.size());
+        paths.forEach(path -> VARCHAR.writeSlice(blockBuilder, Slices.utf8Slice(path)));
+        return blockBuilder.build();
+    }
+}
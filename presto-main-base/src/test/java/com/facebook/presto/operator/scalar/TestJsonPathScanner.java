@@ -0,0 +1,175 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.operator.scalar;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import io.airlift.slice.Slice;
+import io.airlift.slice.Slices;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+import static com.facebook.presto.operator.scalar.JsonExtract.generateExtractor;
+import static com.facebook.presto.operator.scalar.TestJsonExtract.PROPERTIES_CANONICALIZED_EXTRACT_DISABLED;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestJsonPathScanner
+{
+    private static final List<String> PATHS = ImmutableList.of(
+            "$",
+            "$.a",
+            "$.a.b",
+            "$.a[0]",
+            "$.a[1]",
+            "$.a[1].c",
+            "$[\"a\"][\"b\"]",
+            "$.b",
+            "$[0]",
+            "$[2]",
+            "$.missing",
+            "$.a.missing.deeper",
+            "$.0");
+
+    private static final List<String> DOCUMENTS = ImmutableList.of(
+            "",
+            "   ",
+            "{}",
+            "[]",
+            "{\"a\": 1}",
+            "{\"a\": -1.5e+10, \"b\": true}",
+            "{\"a\": {\"b\": \"x\"}, \"b\": false}",
+            "{\"a\": {\"b\": null}}",
+            "{\"a\": [1, {\"c\": \"y\"}], \"b\": [1, 2, 3]}",
+            "{\"a\": [[1, 2], {\"c\": [\"z\"]}]}",
+            "[1, 2, \"three\", {\"a\": 4}]",
+            "{\"a\": \"esc\\\"aped\\\\ \\/ \\b\\f\\n\\r\\t \\u00e9 \\ud83d\\ude00\"}",
+            "{\"a\": \"caf\u00e9 \u65e5\u672c \ud83d\ude00\"}",
+            "{\"a\": 1, \"a\": 2}",
+            "{\"a\": {\"b\": 1}, \"a\": {\"b\": 2}}",
+            "{\"0\": \"zero\"}",
+            "{\"b\": [1, 2, 3], \"a\": {\"b\": \"found\"}}",
+            "  {  \"a\"  :  {  \"b\"  :  \"spaces\"  }  }  ",
+            "\"root string\"",
+            "123",
+            "123 456",
+            "true",
+            "null",
+            // malformed documents
+            "{",
+            "{\"a\"",
+            "{\"a\": }",
+            "{\"a\": 1,}",
+            "{\"a\" 1}",
+            "{\"x\": [1, 2 3], \"a\": 1}",
+            "{\"x\": {\"y\" 1}, \"a\": 1}",
+            "{\"x\": 01, \"a\": 1}",
+            "{\"x\": 1., \"a\": 1}",
+            "{\"x\": tru, \"a\": 1}",
+            "{\"x\": \"bad \\x escape\", \"a\": 1}",
+            "{\"x\": \"control \u0001 char\", \"a\": 1}",
+            "{\"a\": 1x}",
+            "{\"a\": truex}",
+            "{\"a\": \"x\"y}",
+            "{\"a\": \"lone \\ud83d surrogate\"}",
+            "{\"a\\u0062\": 1, \"a\": 2}",
+            "{\"a\": 1} trailing",
+            "1,",
+            "true]",
+            "[1 2]",
+            "{'a': 1}",
+            "{\"a\": NaN}",
+            "// comment\n{\"a\": 1}");
+
+    @Test
+    public void testScalarExtractMatchesJackson()
+    {
+        for (String document : DOCUMENTS) {
+            for (String path : PATHS) {
+                assertScalarExtract(document, path);
+            }
+        }
+    }
+
+    @Test
+    public void testJsonExtractMatchesJackson()
+    {
+        for (String document : DOCUMENTS) {
+            for (String path : PATHS) {
+                JsonPath jsonPath = JsonPath.build(path);
+                Slice json = Slices.utf8Slice(document);
+                assertEquals(
+                        toString(JsonExtract.extract(json, jsonPath.getObjectExtractor(), PROPERTIES_CANONICALIZED_EXTRACT_DISABLED)),
+                        toString(JsonExtract.extract(json, generateExtractor(path, new JsonExtract.JsonValueJsonExtractor()), PROPERTIES_CANONICALIZED_EXTRACT_DISABLED)),
+                        "document: " + document + ", path: " + path);
+            }
+        }
+    }
+
+    @Test
+    public void testMultiplePaths()
+    {
+        JsonPathScanner scanner = JsonPathScanner.createScalarScanner(PATHS).get();
+        assertEquals(scanner.getPathCount(), PATHS.size());
+        for (String document : DOCUMENTS) {
+            Slice[] values = new Slice[PATHS.size()];
+            if (!scanner.extract(Slices.utf8Slice(document), values)) {
+                continue;
+            }
+            for (int i = 0; i < PATHS.size(); i++) {
+                assertEquals(toString(values[i]), jacksonScalarExtract(document, PATHS.get(i)), "document: " + document + ", path: " + PATHS.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void testFallback()
+    {
+        JsonPathScanner scanner = JsonPathScanner.createScalarScanner(ImmutableList.of("$.a")).get();
+        Slice[] values = new Slice[1];
+
+        assertTrue(scanner.extract(Slices.utf8Slice("{\"a\": \"x\"}"), values));
+        assertEquals(toString(values[0]), "x");
+        // stops after the value
+        assertTrue(scanner.extract(Slices.utf8Slice("{\"a\": \"x\", garbage"), values));
+        assertEquals(toString(values[0]), "x");
+
+        assertFalse(scanner.extract(Slices.utf8Slice("{\"x\": [1 2], \"a\": 1}"), values));
+        assertFalse(scanner.extract(Slices.utf8Slice("{\"a\": \"\\ud83d\"}"), values));
+        assertFalse(scanner.extract(Slices.utf8Slice("{\"x\": " + Strings.repeat("[", 1000) + Strings.repeat("]", 1000) + ", \"a\": 1}"), values));
+        assertFalse(scanner.extract(Slices.wrappedBuffer(new byte[] {'{', '"', 'a', '"', ':', '"', (byte) 0xC3, '"', '}'}), values));
+
+        // ambiguous array indexes are not combined
+        assertFalse(JsonPathScanner.createScalarScanner(ImmutableList.of("$[1]", "$[01]")).isPresent());
+    }
+
+    private static void assertScalarExtract(String document, String path)
+    {
+        JsonPath jsonPath = JsonPath.build(path);
+        Slice actual = JsonExtract.extract(Slices.utf8Slice(document), jsonPath.getScalarExtractor(), PROPERTIES_CANONICALIZED_EXTRACT_DISABLED);
+        assertEquals(toString(actual), jacksonScalarExtract(document, path), "document: " + document + ", path: " + path);
+    }
+
+    private static String jacksonScalarExtract(String document, String path)
+    {
+        return toString(JsonExtract.extract(Slices.utf8Slice(document), generateExtractor(path, new JsonExtract.ScalarValueJsonExtractor()), PROPERTIES_CANONICALIZED_EXTRACT_DISABLED));
+    }
+
+    private static String toString(Slice value)
+    {
+        return value == null ? null : value.toStringUtf8();
+    }
+}
@@ -15,7 +15,8 @@ package com.facebook.presto.sql;
 
 import com.facebook.presto.operator.scalar.AbstractTestFunctions;
 import com.facebook.presto.spi.PrestoException;
-import io.airlift.joni.Regex;
+import com.facebook.presto.type.LikeMatcher;
+import io.airlift.joni.Option;
 import io.airlift.slice.Slice;
 import io.airlift.slice.Slices;
 import org.testng.annotations.Test;
@@ -47,7 +48,7 @@ public class TestLikeFunctions
     @Test
     public void testLikeBasic()
     {
-        Regex regex = likePattern(utf8Slice("f%b__"));
+        LikeMatcher regex = likePattern(utf8Slice("f%b__"));
         assertTrue(likeVarchar(utf8Slice("foobar"), regex));
         assertTrue(likeVarchar(offsetHeapSlice("foobar"), regex));
 
@@ -58,7 +59,7 @@ public class TestLikeFunctions
     @Test
     public void testLikeChar()
     {
-        Regex regex = likePattern(utf8Slice("f%b__"));
+        LikeMatcher regex = likePattern(utf8Slice("f%b__"));
         assertTrue(likeChar(6L, utf8Slice("foobar"), regex));
         assertTrue(likeChar(6L, offsetHeapSlice("foobar"), regex));
         assertTrue(likeChar(6L, utf8Slice("foob"), regex));
@@ -73,7 +74,7 @@ public class TestLikeFunctions
     @Test
     public void testLikeSpacesInPattern()
     {
-        Regex regex = likePattern(utf8Slice("ala  "));
+        LikeMatcher regex = likePattern(utf8Slice("ala  "));
         assertTrue(likeVarchar(utf8Slice("ala  "), regex));
         assertFalse(likeVarchar(utf8Slice("ala"), regex));
 
@@ -85,48 +86,48 @@ public class TestLikeFunctions
     @Test
     public void testLikeNewlineInPattern()
     {
-        Regex regex = likePattern(utf8Slice("%o\nbar"));
+        LikeMatcher regex = likePattern(utf8Slice("%o\nbar"));
         assertTrue(likeVarchar(utf8Slice("foo\nbar"), regex));
     }
 
     @Test
     public void testLikeNewlineBeforeMatch()
     {
-        Regex regex = likePattern(utf8Slice("%b%"));
+        LikeMatcher regex = likePattern(utf8Slice("%b%"));
         assertTrue(likeVarchar(utf8Slice("foo\nbar"), regex));
     }
 
     @Test
     public void testLikeNewlineNoWildcard()
     {
-        Regex regex = likePattern(utf8Slice("foo\nbar"));
+        LikeMatcher regex = likePattern(utf8Slice("foo\nbar"));
         assertTrue(likeVarchar(utf8Slice("foo\nbar"), regex));
     }
 
     @Test
     public void testLikeNoMatchAfterNewline()
     {
-        Regex regex = likePattern(utf8Slice("foo"));
+        LikeMatcher regex = likePattern(utf8Slice("foo"));
         assertFalse(likeVarchar(utf8Slice("foo\nbar"), regex));
     }
 
     @Test
     public void testLikeNewlineInMatch()
     {
-        Regex regex = likePattern(utf8Slice("f%b%"));
+        LikeMatcher regex = likePattern(utf8Slice("f%b%"));
         assertTrue(likeVarchar(utf8Slice("foo\nbar"), regex));
     }
     @Test
     public void testLikeNewlineInSingleWildcardMatch()
     {
-        Regex regex = likePattern(utf8Slice("foo_bar"));
+        LikeMatcher regex = likePattern(utf8Slice("foo_bar"));
         assertTrue(likeVarchar(utf8Slice("foo\nbar"), regex));
     }
 
     @Test(timeOut = 1000)
     public void testLikeUtf8Pattern()
     {
-        Regex regex = likePattern(utf8Slice("%\u540d\u8a89%"), utf8Slice("\\"));
+        LikeMatcher regex = likePattern(utf8Slice("%\u540d\u8a89%"), utf8Slice("\\"));
         assertFalse(likeVarchar(utf8Slice("foo"), regex));
     }
 
@@ -135,28 +136,73 @@ public class TestLikeFunctions
     public void testLikeInvalidUtf8Value()
     {
         Slice value = Slices.wrappedBuffer(new byte[] {'a', 'b', 'c', (byte) 0xFF, 'x', 'y'});
-        Regex regex = likePattern(utf8Slice("%b%"), utf8Slice("\\"));
+        LikeMatcher regex = likePattern(utf8Slice("%b%"), utf8Slice("\\"));
         assertTrue(likeVarchar(value, regex));
     }
 
+    @Test
+    public void testLikeLiteralSequence()
+    {
+        assertTrue(likePattern(utf8Slice("abc%")).isLiteralSequence());
+        assertTrue(likePattern(utf8Slice("%abc")).isLiteralSequence());
+        assertTrue(likePattern(utf8Slice("%abc%")).isLiteralSequence());
+        assertTrue(likePattern(utf8Slice("a%b%c")).isLiteralSequence());
+        assertTrue(likePattern(utf8Slice("a#_b%"), utf8Slice("#")).isLiteralSequence());
+        assertFalse(likePattern(utf8Slice("a_b%")).isLiteralSequence());
+
+        assertLiteralSequence("abc%", "abc", true);
+        assertLiteralSequence("abc%", "abcdef", true);
+        assertLiteralSequence("abc%", "xabc", false);
+        assertLiteralSequence("%abc", "xyzabc", true);
+        assertLiteralSequence("%abc", "abcx", false);
+        assertLiteralSequence("%abc%", "xxabcxx", true);
+        assertLiteralSequence("%abc%", "xxabxcx", false);
+        assertLiteralSequence("a%b%c", "abc", true);
+        assertLiteralSequence("a%b%c", "axxbxxc", true);
+        assertLiteralSequence("a%b%c", "acb", false);
+        assertLiteralSequence("a%a", "a", false);
+        assertLiteralSequence("a%a", "aa", true);
+        assertLiteralSequence("%ab%ab%", "xabx", false);
+        assertLiteralSequence("%ab%ab%", "abab", true);
+        assertLiteralSequence("%ly%ly%", "only slyly", true);
+        // the infix must not overlap the suffix
+        assertLiteralSequence("%b%bc", "xbc", false);
+        assertLiteralSequence("%%", "", true);
+        assertLiteralSequence("", "", true);
+        assertLiteralSequence("", "a", false);
+        assertLiteralSequence("foo", "foo", true);
+        assertLiteralSequence("%\u540d\u8a89%", "x\u540d\u8a89y", true);
+    }
+
+    private static void assertLiteralSequence(String pattern, String value, boolean expected)
+    {
+        LikeMatcher matcher = likePattern(utf8Slice(pattern));
+        assertTrue(matcher.isLiteralSequence());
+        assertEquals(likeVarchar(utf8Slice(value), matcher), expected);
+        assertEquals(likeVarchar(offsetHeapSlice(value), matcher), expected);
+        // the regular expression the pattern translates to must agree
+        Slice slice = utf8Slice(value);
+        assertEquals(matcher.getRegex().matcher(slice.getBytes()).match(0, slice.length(), Option.NONE) != -1, expected);
+    }
+
     @Test
     public void testBackslashesNoSpecialTreatment()
     {
-        Regex regex = likePattern(utf8Slice("\\abc\\/\\\\"));
+        LikeMatcher regex = likePattern(utf8Slice("\\abc\\/\\\\"));
         assertTrue(likeVarchar(utf8Slice("\\abc\\/\\\\"), regex));
     }
 
     @Test
     public void testSelfEscaping()
     {
-        Regex regex = likePattern(utf8Slice("\\\\abc\\%"), utf8Slice("\\"));
+        LikeMatcher regex = likePattern(utf8Slice("\\\\abc\\%"), utf8Slice("\\"));
         assertTrue(likeVarchar(utf8Slice("\\abc%"), regex));
     }
 
     @Test
     public void testAlternateEscapedCharacters()
     {
-        Regex regex = likePattern(utf8Slice("xxx%x_abcxx"), utf8Slice("x"));
+        LikeMatcher regex = likePattern(utf8Slice("xxx%x_abcxx"), utf8Slice("x"));
         assertTrue(likeVarchar(utf8Slice("x%_abcx"), regex));
     }
 
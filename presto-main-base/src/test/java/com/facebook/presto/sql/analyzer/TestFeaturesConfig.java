@@ -169,6 +169,7 @@ public class TestFeaturesConfig
                 .setPartitioningPrecisionStrategy(PartitioningPrecisionStrategy.AUTOMATIC)
                 .setExperimentalFunctionsEnabled(false)
                 .setOptimizeCommonSubExpressions(true)
+                .setAdaptiveFilterReorderingEnabled(false)
                 .setPreferDistributedUnion(true)
                 .setOptimizeNullsInJoin(false)
                 .setOptimizePayloadJoins(false)
@@ -186,6 +187,8 @@ public class TestFeaturesConfig
                 .setSpoolingOutputBufferEnabled(false)
                 .setSpoolingOutputBufferThreshold(new DataSize(8, MEGABYTE))
                 .setSpoolingOutputBufferTempStorage("local")
+                .setResultSegmentsEnabled(false)
+                .setPlanCacheEnabled(false)
                 .setPrestoSparkAssignBucketToPartitionForPartitionedTableWriteEnabled(false)
                 .setPartialResultsEnabled(false)
                 .setPartialResultsCompletionRatioThreshold(0.5)
@@ -214,6 +217,7 @@ public class TestFeaturesConfig
                 .setPushRemoteExchangeThroughGroupId(false)
                 .setOptimizeMultipleApproxPercentileOnSameFieldEnabled(true)
                 .setOptimizeMultipleApproxDistinctOnSameTypeEnabled(false)
+                .setOptimizeMultipleJsonExtractScalarEnabled(false)
                 .setNativeExecutionEnabled(false)
                 .setBuiltInSidecarFunctionsEnabled(false)
                 .setDisableTimeStampWithTimeZoneForNative(false)
@@ -407,6 +411,7 @@ public class TestFeaturesConfig
                 .put("partitioning-precision-strategy", "PREFER_EXACT_PARTITIONING")
                 .put("experimental-functions-enabled", "true")
                 .put("optimize-common-sub-expressions", "false")
+                .put("adaptive-filter-reordering-enabled", "true")
                 .put("prefer-distributed-union", "false")
                 .put("optimize-nulls-in-join", "true")
                 .put("optimize-payload-joins", "true")
@@ -424,6 +429,8 @@ public class TestFeaturesConfig
                 .put("spooling-output-buffer-enabled", "true")
                 .put("spooling-output-buffer-threshold", "16MB")
                 .put("spooling-output-buffer-temp-storage", "tempfs")
+                .put("result-segments-enabled", "true")
+                .put("plan-cache.enabled", "true")
                 .put("spark.assign-bucket-to-partition-for-partitioned-table-write-enabled", "true")
                 .put("partial-results-enabled", "true")
                 .put("partial-results-completion-ratio-threshold", "0.9")
@@ -452,6 +459,7 @@ public class TestFeaturesConfig
                 .put("optimizer.push-remote-exchange-through-group-id", "true")
                 .put("optimizer.optimize-multiple-approx-percentile-on-same-field", "false")
                 .put("optimizer.optimize-multiple-approx-distinct-on-same-type", "true")
+                .put("optimizer.optimize-multiple-json-extract-scalar", "true")
                 .put("native-execution-enabled", "true")
                 .put("built-in-sidecar-functions-enabled", "true")
                 .put("disable-timestamp-with-timezone-for-native-execution", "true")
@@ -641,6 +649,7 @@ public class TestFeaturesConfig
                 .setPartitioningPrecisionStrategy(PartitioningPrecisionStrategy.PREFER_EXACT_PARTITIONING)
                 .setExperimentalFunctionsEnabled(true)
                 .setOptimizeCommonSubExpressions(false)
+                .setAdaptiveFilterReorderingEnabled(true)
                 .setPreferDistributedUnion(false)
                 .setOptimizeNullsInJoin(true)
                 .setOptimizePayloadJoins(true)
@@ -659,6 +668,8 @@ public class TestFeaturesConfig
                 .setSpoolingOutputBufferEnabled(true)
                 .setSpoolingOutputBufferThreshold(new DataSize(16, MEGABYTE))
                 .setSpoolingOutputBufferTempStorage("tempfs")
+                .setResultSegmentsEnabled(true)
+                .setPlanCacheEnabled(true)
                 .setPrestoSparkAssignBucketToPartitionForPartitionedTableWriteEnabled(true)
                 .setPartialResultsEnabled(true)
                 .setPartialResultsCompletionRatioThreshold(0.9)
@@ -687,6 +698,7 @@ public class TestFeaturesConfig
                 .setPushRemoteExchangeThroughGroupId(true)
                 .setOptimizeMultipleApproxPercentileOnSameFieldEnabled(false)
                 .setOptimizeMultipleApproxDistinctOnSameTypeEnabled(true)
+                .setOptimizeMultipleJsonExtractScalarEnabled(true)
                 .setNativeExecutionEnabled(true)
                 .setBuiltInSidecarFunctionsEnabled(true)
                 .setDisableTimeStampWithTimeZoneForNative(true)
@@ -16,9 +16,12 @@ package com.facebook.presto.sql.planner;
 import com.facebook.presto.Session;
 import com.facebook.presto.spi.WarningCollector;
 import com.facebook.presto.sql.Optimizer;
+import com.facebook.presto.sql.parser.SqlParser;
+import com.facebook.presto.sql.planner.PlanCache.CachedPlan;
 import com.facebook.presto.testing.LocalQueryRunner;
 import com.facebook.presto.tpch.ColumnNaming;
 import com.facebook.presto.tpch.TpchConnectorFactory;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.io.Resources;
 import io.airlift.tpch.Customer;
@@ -44,11 +47,13 @@ import java.io.IOException;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.IntStream;
 
 import static com.facebook.presto.testing.TestingSession.testSessionBuilder;
 import static com.facebook.presto.tpch.TpchConnectorFactory.TPCH_COLUMN_NAMING_PROPERTY;
+import static com.facebook.presto.util.AnalyzerUtil.createParsingOptions;
 import static com.google.common.collect.ImmutableList.toImmutableList;
 
 @SuppressWarnings("MethodMayBeStatic")
@@ -73,6 +78,8 @@ public class BenchmarkPlanner
         private LocalQueryRunner queryRunner;
         private List<String> queries;
         private Session session;
+        private PlanCache planCache;
+        private List<PlanCache.Key> planCacheKeys;
 
         @Setup
         public void setup()
@@ -93,6 +100,12 @@ public class BenchmarkPlanner
                     .filter(i -> i != 15) // q15 has two queries in it
                     .map(i -> readResource(String.format("/io/airlift/tpch/queries/q%d.sql", i)))
                     .collect(toImmutableList());
+
+            planCache = new PlanCache(new PlanCacheConfig(), queryRunner.getMetadata());
+            SqlParser sqlParser = new SqlParser();
+            planCacheKeys = queries.stream()
+                    .map(query -> PlanCache.createKey(session, sqlParser.createStatement(query, createParsingOptions(session)), ImmutableList.of()).get())
+                    .collect(toImmutableList());
         }
 
         @TearDown
@@ -125,6 +138,30 @@ public class BenchmarkPlanner
         });
     }
 
+    @Benchmark
+    public List<Plan> planQueriesWithPlanCache(BenchmarkData benchmarkData)
+    {
+        LocalQueryRunner queryRunner = benchmarkData.queryRunner;
+        return queryRunner.inTransaction(transactionSession -> {
+            Optimizer.PlanStage stage = Optimizer.PlanStage.valueOf(benchmarkData.stage.toUpperCase());
+            ImmutableList.Builder<Plan> plans = ImmutableList.builder();
+            for (int i = 0; i < benchmarkData.queries.size(); i++) {
+                String query = benchmarkData.queries.get(i);
+                PlanCache.Key key = benchmarkData.planCacheKeys.get(i);
+                Optional<CachedPlan> cachedPlan = benchmarkData.planCache.get(key, transactionSession);
+                if (cachedPlan.isPresent()) {
+                    plans.add(cachedPlan.get().getPlan());
+                    continue;
+                }
+                Plan logicalPlan = queryRunner.createPlan(transactionSession, query, ImmutableList.of(), Optimizer.PlanStage.CREATED, WarningCollector.NOOP);
+                Plan plan = queryRunner.createPlan(transactionSession, query, stage, false, WarningCollector.NOOP);
+                benchmarkData.planCache.put(key, transactionSession, logicalPlan.getRoot(), plan);
+                plans.add(plan);
+            }
+            return plans.build();
+        });
+    }
+
     public static void main(String[] args)
             throws Throwable
     {
@@ -133,6 +170,9 @@ public class BenchmarkPlanner
         data.setup();
         try {
             new BenchmarkPlanner().planQueries(data);
+            new BenchmarkPlanner().planQueriesWithPlanCache(data);
+            new BenchmarkPlanner().planQueriesWithPlanCache(data);
+            System.out.printf("Plan cache hit rate: %.2f (%s of %s plans cached)%n", data.planCache.getHitRate(), data.planCache.getSize(), data.queries.size());
         }
         finally {
             data.tearDown();
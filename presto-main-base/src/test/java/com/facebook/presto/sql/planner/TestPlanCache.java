@@ -0,0 +1,180 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.sql.planner;
+
+import com.facebook.presto.Session;
+import com.facebook.presto.common.QualifiedObjectName;
+import com.facebook.presto.spi.WarningCollector;
+import com.facebook.presto.spi.plan.TableScanNode;
+import com.facebook.presto.sql.Optimizer;
+import com.facebook.presto.sql.parser.SqlParser;
+import com.facebook.presto.sql.planner.PlanCache.CachedPlan;
+import com.facebook.presto.sql.tree.Expression;
+import com.facebook.presto.sql.tree.LongLiteral;
+import com.facebook.presto.testing.LocalQueryRunner;
+import com.facebook.presto.tpch.TpchConnectorFactory;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+import static com.facebook.presto.sql.planner.optimizations.PlanNodeSearcher.searchFrom;
+import static com.facebook.presto.testing.TestingSession.testSessionBuilder;
+import static com.facebook.presto.util.AnalyzerUtil.createParsingOptions;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertTrue;
+
+public class TestPlanCache
+{
+    private static final SqlParser SQL_PARSER = new SqlParser();
+
+    private LocalQueryRunner queryRunner;
+
+    @BeforeClass
+    public void setUp()
+    {
+        queryRunner = new LocalQueryRunner(testSessionBuilder()
+                .setCatalog("tpch")
+                .setSchema("tiny")
+                .build());
+        queryRunner.createCatalog("tpch", new TpchConnectorFactory(1), ImmutableMap.of());
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown()
+    {
+        queryRunner.close();
+        queryRunner = null;
+    }
+
+    @Test
+    public void testCachedPlanIsBoundToTransaction()
+    {
+        PlanCache planCache = createPlanCache();
+        assertEquals(planCache.getHitRate(), 0.0);
+        String sql = "SELECT name FROM nation WHERE regionkey = 1";
+        PlanCache.Key key = createKey(queryRunner.getDefaultSession(), sql, ImmutableList.of());
+        queryRunner.inTransaction(session -> cache(planCache, key, session, sql));
+        assertEquals(planCache.getSize(), 1);
+
+        queryRunner.inTransaction(session -> {
+            CachedPlan cachedPlan = planCache.get(key, session).orElseThrow(AssertionError::new);
+            TableScanNode tableScan = getTableScan(cachedPlan.getPlan());
+            assertEquals(
+                    tableScan.getTable().getTransaction(),
+                    queryRunner.getTransactionManager().getConnectorTransaction(session.getRequiredTransactionId(), tableScan.getTable().getConnectorId()));
+            assertTrue(cachedPlan.getPlanNodeIdCount() > 0);
+            assertEquals(cachedPlan.getInputs(), ImmutableSet.of(new QualifiedObjectName("tpch", "sf0.01", "nation")));
+            return null;
+        });
+        assertEquals(planCache.getHits().getTotalCount(), 1);
+        assertEquals(planCache.getHitRate(), 1.0);
+
+        planCache.invalidateAll();
+        assertEquals(planCache.getSize(), 0);
+        queryRunner.inTransaction(session -> {
+            assertFalse(planCache.get(key, session).isPresent());
+            return null;
+        });
+        assertEquals(planCache.getHitRate(), 0.5);
+    }
+
+    @Test
+    public void testLayoutIsResolvedAgain()
+    {
+        PlanCache planCache = createPlanCache();
+        String sql = "SELECT orderkey FROM orders WHERE orderstatus = 'F'";
+        PlanCache.Key key = createKey(queryRunner.getDefaultSession(), sql, ImmutableList.of());
+        TableScanNode cachedTableScan = queryRunner.inTransaction(session -> {
+            cache(planCache, key, session, sql);
+            return getTableScan(queryRunner.createPlan(session, sql, WarningCollector.NOOP));
+        });
+
+        queryRunner.inTransaction(session -> {
+            TableScanNode tableScan = getTableScan(planCache.get(key, session).orElseThrow(AssertionError::new).getPlan());
+            TableScanNode plannedTableScan = getTableScan(queryRunner.createPlan(session, sql, WarningCollector.NOOP));
+            // the layout is not the one the plan was cached with, but the one planning the query again picks
+            assertNotSame(tableScan.getTable().getLayout().get(), cachedTableScan.getTable().getLayout().get());
+            assertEquals(tableScan.getTable().getConnectorHandle(), plannedTableScan.getTable().getConnectorHandle());
+            assertEquals(tableScan.getCurrentConstraint(), plannedTableScan.getCurrentConstraint());
+            assertEquals(tableScan.getEnforcedConstraint(), plannedTableScan.getEnforcedConstraint());
+            return null;
+        });
+        assertEquals(planCache.getHits().getTotalCount(), 1);
+    }
+
+    @Test
+    public void testQueryTimeFunctionsAreNotCached()
+    {
+        PlanCache planCache = createPlanCache();
+        for (String sql : ImmutableList.of("SELECT now()", "SELECT name FROM nation WHERE current_date > DATE '2020-01-01'")) {
+            PlanCache.Key key = createKey(queryRunner.getDefaultSession(), sql, ImmutableList.of());
+            queryRunner.inTransaction(session -> cache(planCache, key, session, sql));
+        }
+        assertEquals(planCache.getSize(), 0);
+        assertEquals(planCache.getUncacheable().getTotalCount(), 2);
+    }
+
+    @Test
+    public void testKey()
+    {
+        Session session = queryRunner.getDefaultSession();
+        assertEquals(
+                createKey(session, "SELECT name FROM nation WHERE regionkey = ?", ImmutableList.of(new LongLiteral("1"))),
+                createKey(session, "select name  from nation where regionkey = ?", ImmutableList.of(new LongLiteral("1"))));
+        assertNotEquals(
+                createKey(session, "SELECT name FROM nation WHERE regionkey = ?", ImmutableList.of(new LongLiteral("1"))),
+                createKey(session, "SELECT name FROM nation WHERE regionkey = ?", ImmutableList.of(new LongLiteral("2"))));
+        assertNotEquals(
+                createKey(session, "SELECT name FROM nation", ImmutableList.of()),
+                createKey(Session.builder(session).setSchema("sf1").build(), "SELECT name FROM nation", ImmutableList.of()));
+        assertNotEquals(
+                createKey(session, "SELECT name FROM nation", ImmutableList.of()),
+                createKey(Session.builder(session).setSystemProperty("join_distribution_type", "BROADCAST").build(), "SELECT name FROM nation", ImmutableList.of()));
+        assertFalse(PlanCache.createKey(session, SQL_PARSER.createStatement("SELECT name FROM nation FOR VERSION AS OF 1", createParsingOptions(session)), ImmutableList.of()).isPresent());
+    }
+
+    private PlanCache createPlanCache()
+    {
+        return new PlanCache(new PlanCacheConfig(), queryRunner.getMetadata());
+    }
+
+    private Void cache(PlanCache planCache, PlanCache.Key key, Session session, String sql)
+    {
+        Plan logicalPlan = queryRunner.createPlan(session, sql, ImmutableList.of(), Optimizer.PlanStage.CREATED, WarningCollector.NOOP);
+        Plan plan = queryRunner.createPlan(session, sql, WarningCollector.NOOP);
+        planCache.put(key, session, logicalPlan.getRoot(), plan);
+        return null;
+    }
+
+    private static TableScanNode getTableScan(Plan plan)
+    {
+        return (TableScanNode) searchFrom(plan.getRoot())
+                .where(TableScanNode.class::isInstance)
+                .findOnlyElement();
+    }
+
+    private static PlanCache.Key createKey(Session session, String sql, List<Expression> parameters)
+    {
+        return PlanCache.createKey(session, SQL_PARSER.createStatement(sql, createParsingOptions(session)), parameters)
+                .orElseThrow(AssertionError::new);
+    }
+}
@@ -264,7 +264,7 @@ public class TestRowExpressionFormatter
         assertEquals(format(callExpression), "c_varchar LIKE VARCHAR'prefix%'");
 
         callExpression = OPTIMIZER.optimize(callExpression, OPTIMIZED, SESSION);
-        assertTrue(format(callExpression).startsWith("c_varchar LIKE LIKEPATTERN'io.airlift.joni.Regex@"));
+        assertTrue(format(callExpression).startsWith("c_varchar LIKE LIKEPATTERN'com.facebook.presto.type.LikeMatcher@"));
 
         // like escape
         callExpression = call(
@@ -281,7 +281,7 @@ public class TestRowExpressionFormatter
         assertEquals(format(callExpression), "c_varchar LIKE VARCHAR'%escaped$_' ESCAPE VARCHAR'$'");
 
         callExpression = OPTIMIZER.optimize(callExpression, OPTIMIZED, SESSION);
-        assertTrue(format(callExpression).startsWith("c_varchar LIKE LIKEPATTERN'io.airlift.joni.Regex@"));
+        assertTrue(format(callExpression).startsWith("c_varchar LIKE LIKEPATTERN'com.facebook.presto.type.LikeMatcher@"));
     }
 
     @Test
@@ -17,10 +17,19 @@ import com.facebook.presto.Session;
 import com.facebook.presto.matching.Captures;
 import com.facebook.presto.matching.Pattern;
 import com.facebook.presto.spi.PrestoException;
+import com.facebook.presto.spi.VariableAllocator;
 import com.facebook.presto.spi.WarningCollector;
+import com.facebook.presto.spi.plan.LimitNode;
+import com.facebook.presto.spi.plan.OutputNode;
 import com.facebook.presto.spi.plan.PlanNode;
+import com.facebook.presto.spi.plan.PlanNodeIdAllocator;
 import com.facebook.presto.spi.plan.ProjectNode;
+import com.facebook.presto.spi.plan.ValuesNode;
+import com.facebook.presto.spi.relation.VariableReferenceExpression;
 import com.facebook.presto.sql.planner.RuleStatsRecorder;
+import com.facebook.presto.sql.planner.TypeProvider;
+import com.facebook.presto.sql.planner.iterative.rule.RemoveRedundantIdentityProjections;
+import com.facebook.presto.sql.planner.iterative.rule.test.PlanBuilder;
 import com.facebook.presto.sql.planner.optimizations.PlanOptimizer;
 import com.facebook.presto.testing.LocalQueryRunner;
 import com.facebook.presto.tpch.TpchConnectorFactory;
@@ -31,11 +40,17 @@ import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
+import static com.facebook.presto.SessionTestUtils.TEST_SESSION;
 import static com.facebook.presto.spi.StandardErrorCode.OPTIMIZER_TIMEOUT;
+import static com.facebook.presto.spi.plan.LimitNode.Step.FINAL;
 import static com.facebook.presto.sql.planner.plan.AssignmentUtils.identityAssignments;
+import static com.facebook.presto.sql.planner.plan.Patterns.output;
 import static com.facebook.presto.sql.planner.plan.Patterns.project;
+import static com.facebook.presto.sql.planner.plan.Patterns.source;
+import static com.facebook.presto.sql.planner.plan.Patterns.values;
 import static com.facebook.presto.testing.TestingSession.testSessionBuilder;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
 import static org.testng.Assert.fail;
 
 public class TestIterativeOptimizer
@@ -90,6 +105,69 @@ public class TestIterativeOptimizer
         }
     }
 
+    @Test
+    public void testUnchangedGroupsAreNotExploredAgain()
+    {
+        PlanBuilder p = new PlanBuilder(TEST_SESSION, new PlanNodeIdAllocator(), queryRunner.getMetadata());
+        VariableReferenceExpression a = p.variable("a");
+        PlanNode plan = p.output(ImmutableList.of("a"), ImmutableList.of(a), p.project(identityAssignments(a), p.values(a)));
+
+        CountingValuesRule countingRule = new CountingValuesRule();
+        PlanOptimizer optimizer = new IterativeOptimizer(
+                queryRunner.getMetadata(),
+                new RuleStatsRecorder(),
+                queryRunner.getStatsCalculator(),
+                queryRunner.getCostCalculator(),
+                ImmutableSet.of(new RemoveRedundantIdentityProjections(), new AddLimitOverValues(), countingRule));
+
+        PlanNode optimized = optimizer.optimize(plan, TEST_SESSION, TypeProvider.empty(), new VariableAllocator(), new PlanNodeIdAllocator(), WarningCollector.NOOP).getPlanNode();
+
+        assertTrue(((OutputNode) optimized).getSource() instanceof LimitNode);
+        // the values are not matched again when the output above them changes
+        assertEquals(countingRule.getInvocations(), 1);
+    }
+
+    private static class AddLimitOverValues
+            implements Rule<OutputNode>
+    {
+        @Override
+        public Pattern<OutputNode> getPattern()
+        {
+            return output().with(source().matching(values()));
+        }
+
+        @Override
+        public Result apply(OutputNode output, Captures captures, Context context)
+        {
+            PlanNode limit = new LimitNode(output.getSourceLocation(), context.getIdAllocator().getNextId(), output.getSource(), 1, FINAL);
+            return Result.ofPlanNode(output.replaceChildren(ImmutableList.of(limit)));
+        }
+    }
+
+    private static class CountingValuesRule
+            implements Rule<ValuesNode>
+    {
+        private int invocations;
+
+        @Override
+        public Pattern<ValuesNode> getPattern()
+        {
+            return values();
+        }
+
+        @Override
+        public Result apply(ValuesNode values, Captures captures, Context context)
+        {
+            invocations++;
+            return Result.empty();
+        }
+
+        public int getInvocations()
+        {
+            return invocations;
+        }
+    }
+
     private static class NonConvergingRule
             implements Rule<ProjectNode>
     {
@@ -30,7 +30,6 @@ import static com.facebook.presto.SessionTestUtils.TEST_SESSION;
 import static com.facebook.presto.expressions.LogicalRowExpressions.TRUE_CONSTANT;
 import static com.facebook.presto.metadata.AbstractMockMetadata.dummyMetadata;
 import static com.google.common.base.MoreObjects.toStringHelper;
-import static java.util.stream.Collectors.toSet;
 import static org.testng.Assert.assertEquals;
 
 public class TestRuleIndex
@@ -57,13 +56,13 @@ public class TestRuleIndex
         ValuesNode valuesNode = planBuilder.values();
 
         assertEquals(
-                ruleIndex.getCandidates(projectNode).collect(toSet()),
+                ImmutableSet.copyOf(ruleIndex.getCandidates(projectNode)),
                 ImmutableSet.of(projectRule1, projectRule2, anyRule));
         assertEquals(
-                ruleIndex.getCandidates(filterNode).collect(toSet()),
+                ImmutableSet.copyOf(ruleIndex.getCandidates(filterNode)),
                 ImmutableSet.of(filterRule, anyRule));
         assertEquals(
-                ruleIndex.getCandidates(valuesNode).collect(toSet()),
+                ImmutableSet.copyOf(ruleIndex.getCandidates(valuesNode)),
                 ImmutableSet.of(anyRule));
     }
 
@@ -81,13 +80,13 @@ public class TestRuleIndex
                 .build();
 
         assertEquals(
-                ruleIndex.getCandidates(new A() {}).collect(toSet()),
+                ImmutableSet.copyOf(ruleIndex.getCandidates(new A() {})),
                 ImmutableSet.of(a));
         assertEquals(
-                ruleIndex.getCandidates(new B() {}).collect(toSet()),
+                ImmutableSet.copyOf(ruleIndex.getCandidates(new B() {})),
                 ImmutableSet.of(b));
         assertEquals(
-                ruleIndex.getCandidates(new AB()).collect(toSet()),
+                ImmutableSet.copyOf(ruleIndex.getCandidates(new AB())),
                 ImmutableSet.of(ab, a, b));
     }
 
@@ -0,0 +1,211 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.sql.planner.iterative.rule;
+
+import com.facebook.presto.common.block.Block;
+import com.facebook.presto.spi.plan.Assignments;
+import com.facebook.presto.spi.plan.PlanNode;
+import com.facebook.presto.spi.plan.ProjectNode;
+import com.facebook.presto.spi.relation.CallExpression;
+import com.facebook.presto.spi.relation.ConstantExpression;
+import com.facebook.presto.spi.relation.RowExpression;
+import com.facebook.presto.spi.relation.VariableReferenceExpression;
+import com.facebook.presto.sql.planner.iterative.rule.test.BaseRuleTest;
+import com.google.common.collect.ImmutableList;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static com.facebook.presto.SystemSessionProperties.OPTIMIZE_COMMON_SUB_EXPRESSIONS;
+import static com.facebook.presto.SystemSessionProperties.OPTIMIZE_MULTIPLE_JSON_EXTRACT_SCALAR;
+import static com.facebook.presto.common.type.BigintType.BIGINT;
+import static com.facebook.presto.common.type.VarcharType.VARCHAR;
+import static com.facebook.presto.common.type.VarcharType.createVarcharType;
+import static com.facebook.presto.operator.scalar.JsonExtractScalarMultipleFunctions.NAME;
+import static com.facebook.presto.sql.planner.iterative.rule.test.PlanBuilder.assignment;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class TestCombineJsonExtractScalarFunctions
+        extends BaseRuleTest
+{
+    @Test
+    public void testCombinePaths()
+    {
+        PlanNode plan = tester().assertThat(new CombineJsonExtractScalarFunctions(getFunctionManager()))
+                .setSystemProperty(OPTIMIZE_MULTIPLE_JSON_EXTRACT_SCALAR, "true")
+                .on(p -> {
+                    VariableReferenceExpression json = p.variable("json", createVarcharType(100));
+                    return p.project(
+                            Assignments.builder()
+                                    .put(p.variable("a", createVarcharType(100)), p.rowExpression("json_extract_scalar(json, '$.a')"))
+                                    .put(p.variable("b", BIGINT), p.rowExpression("CAST(json_extract_scalar(json, '$.b') AS bigint)"))
+                                    .put(p.variable("c", createVarcharType(100)), p.rowExpression("IF(json IS NULL, NULL, json_extract_scalar(json, '$.a'))"))
+                                    .build(),
+                            p.values(json));
+                })
+                .get();
+
+        Assignments assignments = ((ProjectNode) plan).getAssignments();
+        CallExpression a = (CallExpression) getAssignment(assignments, "a");
+        CallExpression b = (CallExpression) ((CallExpression) getAssignment(assignments, "b")).getArguments().get(0);
+        CallExpression extraction = (CallExpression) a.getArguments().get(0);
+        assertEquals(extraction.getDisplayName(), NAME);
+        assertEquals(getPaths(extraction), ImmutableList.of("$.a", "$.b"));
+        assertEquals(a.getArguments().get(1), new ConstantExpression(1L, BIGINT));
+        assertEquals(b.getArguments().get(0), extraction);
+        assertEquals(b.getArguments().get(1), new ConstantExpression(2L, BIGINT));
+        // the guarded call reuses the combined extraction
+        assertTrue(getAssignment(assignments, "c").toString().contains(NAME));
+    }
+
+    @Test
+    public void testJsonInput()
+    {
+        PlanNode plan = tester().assertThat(new CombineJsonExtractScalarFunctions(getFunctionManager()))
+                .setSystemProperty(OPTIMIZE_MULTIPLE_JSON_EXTRACT_SCALAR, "true")
+                .on(p -> {
+                    VariableReferenceExpression json = p.variable("json", VARCHAR);
+                    return p.project(
+                            Assignments.builder()
+                                    .put(p.variable("a", VARCHAR), p.rowExpression("json_extract_scalar(json_parse(json), '$.a')"))
+                                    .put(p.variable("b", VARCHAR), p.rowExpression("json_extract_scalar(json_parse(json), '$[\"b\"]')"))
+                                    .build(),
+                            p.values(json));
+                })
+                .get();
+
+        CallExpression a = (CallExpression) getAssignment(((ProjectNode) plan).getAssignments(), "a");
+        assertEquals(a.getType(), VARCHAR);
+        assertEquals(getPaths((CallExpression) a.getArguments().get(0)), ImmutableList.of("$.a", "$[\"b\"]"));
+    }
+
+    @Test
+    public void testDoesNotFire()
+    {
+        // a single path
+        tester().assertThat(new CombineJsonExtractScalarFunctions(getFunctionManager()))
+                .setSystemProperty(OPTIMIZE_MULTIPLE_JSON_EXTRACT_SCALAR, "true")
+                .on(p -> {
+                    VariableReferenceExpression json = p.variable("json", VARCHAR);
+                    return p.project(
+                            Assignments.builder()
+                                    .put(p.variable("a", VARCHAR), p.rowExpression("json_extract_scalar(json, '$.a')"))
+                                    .put(p.variable("b", BIGINT), p.rowExpression("CAST(json_extract_scalar(json, '$.a') AS bigint)"))
+                                    .build(),
+                            p.values(json));
+                })
+                .doesNotFire();
+
+        // paths of different documents
+        tester().assertThat(new CombineJsonExtractScalarFunctions(getFunctionManager()))
+                .setSystemProperty(OPTIMIZE_MULTIPLE_JSON_EXTRACT_SCALAR, "true")
+                .on(p -> {
+                    VariableReferenceExpression json1 = p.variable("json1", VARCHAR);
+                    VariableReferenceExpression json2 = p.variable("json2", VARCHAR);
+                    return p.project(
+                            Assignments.builder()
+                                    .put(p.variable("a", VARCHAR), p.rowExpression("json_extract_scalar(json1, '$.a')"))
+                                    .put(p.variable("b", VARCHAR), p.rowExpression("json_extract_scalar(json2, '$.b')"))
+                                    .build(),
+                            p.values(json1, json2));
+                })
+                .doesNotFire();
+
+        // conditionally evaluated paths
+        tester().assertThat(new CombineJsonExtractScalarFunctions(getFunctionManager()))
+                .setSystemProperty(OPTIMIZE_MULTIPLE_JSON_EXTRACT_SCALAR, "true")
+                .on(p -> {
+                    VariableReferenceExpression json = p.variable("json", VARCHAR);
+                    return p.project(
+                            assignment(p.variable("a", VARCHAR), p.rowExpression("COALESCE(json_extract_scalar(json, '$.a'), json_extract_scalar(json, '$.b'))")),
+                            p.values(json));
+                })
+                .doesNotFire();
+
+        // invalid paths keep failing in json_extract_scalar
+        tester().assertThat(new CombineJsonExtractScalarFunctions(getFunctionManager()))
+                .setSystemProperty(OPTIMIZE_MULTIPLE_JSON_EXTRACT_SCALAR, "true")
+                .on(p -> {
+                    VariableReferenceExpression json = p.variable("json", VARCHAR);
+                    return p.project(
+                            Assignments.builder()
+                                    .put(p.variable("a", VARCHAR), p.rowExpression("json_extract_scalar(json, '$.a')"))
+                                    .put(p.variable("b", VARCHAR), p.rowExpression("json_extract_scalar(json, '$.[')"))
+                                    .build(),
+                            p.values(json));
+                })
+                .doesNotFire();
+
+        // the combined extraction is shared through common sub-expressions only
+        tester().assertThat(new CombineJsonExtractScalarFunctions(getFunctionManager()))
+                .setSystemProperty(OPTIMIZE_MULTIPLE_JSON_EXTRACT_SCALAR, "true")
+                .setSystemProperty(OPTIMIZE_COMMON_SUB_EXPRESSIONS, "false")
+                .on(p -> {
+                    VariableReferenceExpression json = p.variable("json", VARCHAR);
+                    return p.project(
+                            Assignments.builder()
+                                    .put(p.variable("a", VARCHAR), p.rowExpression("json_extract_scalar(json, '$.a')"))
+                                    .put(p.variable("b", VARCHAR), p.rowExpression("json_extract_scalar(json, '$.b')"))
+                                    .build(),
+                            p.values(json));
+                })
+                .doesNotFire();
+    }
+
+    @Test
+    public void testManyPaths()
+    {
+        PlanNode plan = tester().assertThat(new CombineJsonExtractScalarFunctions(getFunctionManager()))
+                .setSystemProperty(OPTIMIZE_MULTIPLE_JSON_EXTRACT_SCALAR, "true")
+                .on(p -> {
+                    VariableReferenceExpression json = p.variable("json", VARCHAR);
+                    Assignments.Builder assignments = Assignments.builder();
+                    for (int i = 0; i < 21; i++) {
+                        assignments.put(p.variable("field" + i, VARCHAR), p.rowExpression("json_extract_scalar(json, '$.field" + i + "')"));
+                    }
+                    return p.project(assignments.build(), p.values(json));
+                })
+                .get();
+
+        Assignments assignments = ((ProjectNode) plan).getAssignments();
+        RowExpression first = ((CallExpression) getAssignment(assignments, "field0")).getArguments().get(0);
+        RowExpression second = ((CallExpression) getAssignment(assignments, "field10")).getArguments().get(0);
+        assertEquals(getPaths((CallExpression) first).size(), 10);
+        assertEquals(getPaths((CallExpression) second).size(), 10);
+        assertEquals(((CallExpression) getAssignment(assignments, "field9")).getArguments().get(0), first);
+        // the last path is not combined
+        assertEquals(((CallExpression) getAssignment(assignments, "field20")).getDisplayName(), "json_extract_scalar");
+    }
+
+    private static RowExpression getAssignment(Assignments assignments, String name)
+    {
+        return assignments.getMap().entrySet().stream()
+                .filter(entry -> entry.getKey().getName().equals(name))
+                .map(Map.Entry::getValue)
+                .findFirst()
+                .get();
+    }
+
+    private static List<String> getPaths(CallExpression extraction)
+    {
+        Block paths = (Block) ((ConstantExpression) extraction.getArguments().get(1)).getValue();
+        return IntStream.range(0, paths.getPositionCount())
+                .mapToObj(position -> VARCHAR.getSlice(paths, position).toStringUtf8())
+                .collect(toImmutableList());
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.type;
+
+import com.facebook.presto.type.AdaptiveRegexp.Engine;
+import com.google.common.collect.ImmutableList;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import static com.facebook.presto.type.AdaptiveRegexp.Engine.JONI;
+import static com.facebook.presto.type.AdaptiveRegexp.Engine.LITERAL;
+import static com.facebook.presto.type.AdaptiveRegexp.Engine.LITERAL_ALTERNATION;
+import static com.facebook.presto.type.AdaptiveRegexp.Engine.RE2J;
+import static com.facebook.presto.type.AdaptiveRegexp.getLiteralAlternatives;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.airlift.slice.Slices.utf8Slice;
+import static java.lang.String.format;
+import static java.util.stream.Collectors.joining;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestAdaptiveRegexp
+{
+    @Test
+    public void testEngineSelection()
+    {
+        assertEngine("abc", LITERAL);
+        assertEngine("", LITERAL);
+        assertEngine("a\\.b\\(c\\)", LITERAL);
+        assertEngine("foo|bar|baz", LITERAL_ALTERNATION);
+        assertEngine("(a+)+$", RE2J);
+        assertEngine("^(a|aa)*b", RE2J);
+        assertEngine("(?:x*y)+", RE2J);
+
+        assertEngine("a.c", JONI);
+        assertEngine("foo||bar", JONI);
+        assertEngine("^abc", JONI);
+        assertEngine("abc$", JONI);
+        assertEngine("\\bfoo", JONI);
+        assertEngine("(ab)+", JONI);
+        assertEngine("[(a+)]+", JONI);
+        // nested quantifiers that Re2J does not support or matches differently
+        assertEngine("(\\w+)+", JONI);
+        assertEngine("(a+)+\\1", JONI);
+        assertEngine("(?=a)(a+)+", JONI);
+        assertEngine("(a++)+", JONI);
+    }
+
+    @Test
+    public void testLiteralAlternatives()
+    {
+        assertEquals(literals("abc"), Optional.of(ImmutableList.of("abc")));
+        assertEquals(literals("a\\|b|c\\\\"), Optional.of(ImmutableList.of("a|b", "c\\")));
+        assertEquals(literals("a|"), Optional.empty());
+        assertEquals(literals("|a"), Optional.empty());
+        assertEquals(literals("a\\d"), Optional.empty());
+        assertEquals(literals("a\\"), Optional.empty());
+    }
+
+    @Test
+    public void testMatches()
+    {
+        assertMatches("needle", "haystack with a needle in it", true);
+        assertMatches("needle", "haystack", false);
+        assertMatches("", "", true);
+        assertMatches("he|she|his|hers", "ushers", true);
+        assertMatches("abcd|bcx", "abcx", true);
+        assertMatches("abcd|bcx", "abcbcd", false);
+        assertMatches("für|straße", "Hauptstraße", true);
+        assertMatches("(a+)+$", "aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaab", false);
+        assertMatches("x(a+)+$", "xaaa", true);
+    }
+
+    @Test
+    public void testAhoCorasickMatcher()
+    {
+        AhoCorasickMatcher matcher = new AhoCorasickMatcher(ImmutableList.of(utf8Slice("abab"), utf8Slice("bac"), utf8Slice("c")));
+        assertTrue(matcher.find(utf8Slice("ababab")));
+        assertTrue(matcher.find(utf8Slice("abbac")));
+        assertTrue(matcher.find(utf8Slice("xxc")));
+        assertFalse(matcher.find(utf8Slice("abaab")));
+        assertFalse(matcher.find(utf8Slice("")));
+        assertTrue(matcher.find(utf8Slice("zzababzz").slice(2, 4)));
+        assertFalse(matcher.find(utf8Slice("zzababzz").slice(1, 4)));
+    }
+
+    @Test
+    public void testEstimatedSize()
+    {
+        String alternation = IntStream.range(0, 200)
+                .mapToObj(i -> format("w%04d", i))
+                .collect(joining("|"));
+        AdaptiveRegexp literalAlternation = new AdaptiveRegexp(Integer.MAX_VALUE, 5, utf8Slice(alternation));
+        assertEquals(literalAlternation.getEngine(), LITERAL_ALTERNATION);
+        // the dense transition table has 256 entries for every state of the trie
+        assertTrue(literalAlternation.getEstimatedSizeInBytes() > 200 * 256 * Integer.BYTES);
+
+        AdaptiveRegexp literal = new AdaptiveRegexp(Integer.MAX_VALUE, 5, utf8Slice("abc"));
+        assertTrue(literal.getEstimatedSizeInBytes() < literalAlternation.getEstimatedSizeInBytes() / 100);
+    }
+
+    private static void assertEngine(String pattern, Engine engine)
+    {
+        assertEquals(new AdaptiveRegexp(Integer.MAX_VALUE, 5, utf8Slice(pattern)).getEngine(), engine, pattern);
+    }
+
+    private static void assertMatches(String pattern, String source, boolean expected)
+    {
+        assertEquals(new AdaptiveRegexp(Integer.MAX_VALUE, 5, utf8Slice(pattern)).matches(utf8Slice(source)), expected, pattern + " on " + source);
+    }
+
+    private static Optional<List<String>> literals(String pattern)
+    {
+        return getLiteralAlternatives(utf8Slice(pattern))
+                .map(literals -> literals.stream().map(literal -> literal.toStringUtf8()).collect(toImmutableList()));
+    }
+}
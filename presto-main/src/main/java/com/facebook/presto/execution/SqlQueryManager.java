@@ -35,6 +35,7 @@ import com.facebook.presto.spi.PrestoException;
 import com.facebook.presto.spi.QueryId;
 import com.facebook.presto.spi.resourceGroups.ResourceGroupQueryLimits;
 import com.facebook.presto.sql.planner.Plan;
+import com.facebook.presto.sql.planner.PlanCache;
 import com.facebook.presto.version.EmbedVersion;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Ordering;
@@ -102,6 +103,7 @@ public class SqlQueryManager
     private final QueryManagerStats stats = new QueryManagerStats();
 
     private final HistoryBasedPlanStatisticsTracker historyBasedPlanStatisticsTracker;
+    private final PlanCache planCache;
 
     @Inject
     public SqlQueryManager(
@@ -111,6 +113,7 @@ public class SqlQueryManager
             QueryManagerConfig queryManagerConfig,
             WarningCollectorFactory warningCollectorFactory,
             HistoryBasedPlanStatisticsManager historyBasedPlanStatisticsManager,
+            PlanCache planCache,
             Optional<ClusterQueryTrackerService> clusterQueryTrackerService)
     {
         this.memoryManager = requireNonNull(memoryManager, "memoryManager is null");
@@ -129,6 +132,7 @@ public class SqlQueryManager
         this.queryTracker = new QueryTracker<>(queryManagerConfig, queryManagementExecutor, clusterQueryTrackerService);
         requireNonNull(historyBasedPlanStatisticsManager, "historyBasedPlanStatisticsManager is null");
         this.historyBasedPlanStatisticsTracker = historyBasedPlanStatisticsManager.getHistoryBasedPlanStatisticsTracker();
+        this.planCache = requireNonNull(planCache, "planCache is null");
     }
 
     @PostConstruct
@@ -318,6 +322,8 @@ public class SqlQueryManager
                 queryTracker.expireQuery(queryExecution.getQueryId());
             }
         });
+        // writes made by the query invalidate the cached plans reading the written tables
+        queryExecution.addFinalQueryInfoListener(planCache::queryCompleted);
 
         stats.trackQueryStats(queryExecution);
         // TODO(pranjalssh): Support plan statistics tracking for other query managers
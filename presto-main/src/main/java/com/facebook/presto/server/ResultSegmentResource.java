@@ -0,0 +1,178 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.server;
+
+import com.facebook.airlift.concurrent.BoundedExecutor;
+import com.facebook.airlift.units.DataSize;
+import com.facebook.airlift.units.Duration;
+import com.facebook.presto.execution.TaskId;
+import com.facebook.presto.execution.TaskManager;
+import com.facebook.presto.execution.buffer.BufferResult;
+import com.facebook.presto.execution.buffer.OutputBuffers.OutputBufferId;
+import com.facebook.presto.spi.page.SerializedPage;
+import com.google.common.util.concurrent.ListenableFuture;
+import io.airlift.slice.OutputStreamSliceOutput;
+import io.airlift.slice.SliceOutput;
+import jakarta.annotation.security.RolesAllowed;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.container.AsyncResponse;
+import jakarta.ws.rs.container.Suspended;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static com.facebook.airlift.concurrent.MoreFutures.addTimeout;
+import static com.facebook.airlift.http.server.AsyncResponseHandler.bindAsyncResponse;
+import static com.facebook.airlift.units.DataSize.Unit.MEGABYTE;
+import static com.facebook.presto.PrestoMediaTypes.PRESTO_PAGES;
+import static com.facebook.presto.client.PrestoHeaders.PRESTO_BUFFER_COMPLETE;
+import static com.facebook.presto.client.PrestoHeaders.PRESTO_MAX_SIZE;
+import static com.facebook.presto.client.PrestoHeaders.PRESTO_PAGE_NEXT_TOKEN;
+import static com.facebook.presto.client.PrestoHeaders.PRESTO_PAGE_TOKEN;
+import static com.facebook.presto.client.PrestoHeaders.PRESTO_TASK_INSTANCE_ID;
+import static com.facebook.presto.server.security.RoleType.USER;
+import static com.facebook.presto.spi.page.PagesSerdeUtil.writeSerializedPages;
+import static com.facebook.presto.sql.planner.PlanFragmenterUtils.ROOT_FRAGMENT_ID;
+import static com.facebook.presto.util.TaskUtils.DEFAULT_MAX_WAIT_TIME;
+import static com.facebook.presto.util.TaskUtils.randomizeWaitTime;
+import static com.google.common.util.concurrent.Futures.transform;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Serves result segments, the output buffers of the tasks of the root stage, to the clients of the
+ * queries, so that large results do not have to pass through the coordinator. The protocol follows
+ * the one of the task results: a request for a token acknowledges the pages before it, and deleting
+ * the segment destroys the buffer, which lets the task finish.
+ */
+@Path("/v1/segment")
+@RolesAllowed(USER)
+public class ResultSegmentResource
+{
+    private static final OutputBufferId ROOT_BUFFER_ID = new OutputBufferId(0);
+    private static final DataSize MAX_RESPONSE_SIZE = new DataSize(32, MEGABYTE);
+    private static final Duration ADDITIONAL_WAIT_TIME = new Duration(5, SECONDS);
+
+    private final TaskManager taskManager;
+    private final ResultSegmentSigner resultSegmentSigner;
+    private final Executor responseExecutor;
+    private final ScheduledExecutorService timeoutExecutor;
+
+    @Inject
+    public ResultSegmentResource(
+            TaskManager taskManager,
+            ResultSegmentSigner resultSegmentSigner,
+            @ForAsyncRpc BoundedExecutor responseExecutor,
+            @ForAsyncRpc ScheduledExecutorService timeoutExecutor)
+    {
+        this.taskManager = requireNonNull(taskManager, "taskManager is null");
+        this.resultSegmentSigner = requireNonNull(resultSegmentSigner, "resultSegmentSigner is null");
+        this.responseExecutor = requireNonNull(responseExecutor, "responseExecutor is null");
+        this.timeoutExecutor = requireNonNull(timeoutExecutor, "timeoutExecutor is null");
+    }
+
+    @GET
+    @Path("{taskId}/{token}")
+    @Produces(PRESTO_PAGES)
+    public void getResults(
+            @PathParam("taskId") TaskId taskId,
+            @PathParam("token") long token,
+            @QueryParam("key") String key,
+            @HeaderParam(PRESTO_MAX_SIZE) DataSize maxSize,
+            @Suspended AsyncResponse asyncResponse)
+    {
+        checkSegment(taskId, key);
+        if (maxSize == null || maxSize.compareTo(MAX_RESPONSE_SIZE) > 0) {
+            maxSize = MAX_RESPONSE_SIZE;
+        }
+
+        Duration waitTime = randomizeWaitTime(DEFAULT_MAX_WAIT_TIME);
+        ListenableFuture<BufferResult> bufferResult = addTimeout(
+                taskManager.getTaskResults(taskId, ROOT_BUFFER_ID, token, maxSize.toBytes()),
+                () -> BufferResult.emptyResults(taskManager.getTaskInstanceId(taskId), token, false),
+                waitTime,
+                timeoutExecutor);
+
+        // For hard timeout, add an additional time to max wait for thread scheduling contention and GC
+        Duration timeout = new Duration(waitTime.toMillis() + ADDITIONAL_WAIT_TIME.toMillis(), MILLISECONDS);
+        bindAsyncResponse(asyncResponse, transform(bufferResult, ResultSegmentResource::createResponse, directExecutor()), responseExecutor)
+                .withTimeout(timeout);
+    }
+
+    @GET
+    @Path("{taskId}/{token}/acknowledge")
+    public void acknowledgeResults(
+            @PathParam("taskId") TaskId taskId,
+            @PathParam("token") long token,
+            @QueryParam("key") String key)
+    {
+        checkSegment(taskId, key);
+        taskManager.acknowledgeTaskResults(taskId, ROOT_BUFFER_ID, token);
+    }
+
+    @DELETE
+    @Path("{taskId}")
+    public void deleteSegment(
+            @PathParam("taskId") TaskId taskId,
+            @QueryParam("key") String key)
+    {
+        checkSegment(taskId, key);
+        taskManager.abortTaskResults(taskId, ROOT_BUFFER_ID);
+    }
+
+    private void checkSegment(TaskId taskId, String key)
+    {
+        requireNonNull(taskId, "taskId is null");
+        // the buffers of the other stages are read by the tasks of the query and must not be drained by clients
+        if (taskId.getStageExecutionId().getStageId().getId() != ROOT_FRAGMENT_ID || !resultSegmentSigner.isValid(taskId, key)) {
+            throw new WebApplicationException(Response.Status.FORBIDDEN);
+        }
+    }
+
+    private static Response createResponse(BufferResult bufferResult)
+    {
+        List<SerializedPage> pages = bufferResult.getSerializedPages();
+        Response.ResponseBuilder response;
+        if (pages.isEmpty()) {
+            response = Response.noContent();
+        }
+        else {
+            StreamingOutput output = stream -> {
+                SliceOutput sliceOutput = new OutputStreamSliceOutput(stream);
+                writeSerializedPages(sliceOutput, pages);
+                sliceOutput.flush();
+            };
+            response = Response.ok(output, PRESTO_PAGES);
+        }
+        return response
+                .header(PRESTO_TASK_INSTANCE_ID, bufferResult.getTaskInstanceId())
+                .header(PRESTO_PAGE_TOKEN, bufferResult.getToken())
+                .header(PRESTO_PAGE_NEXT_TOKEN, bufferResult.getNextToken())
+                .header(PRESTO_BUFFER_COMPLETE, bufferResult.isBufferComplete())
+                .build();
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.server;
+
+import com.facebook.presto.execution.TaskId;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import jakarta.inject.Inject;
+
+import java.security.MessageDigest;
+import java.util.Optional;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Signs the result segments the coordinator hands out to clients, so that workers only serve the output
+ * buffer of a task to the client of the query. The key is an HMAC of the task id with the internal
+ * communication shared secret. Without a shared secret the segments cannot be signed, so the coordinator
+ * returns the results itself and the workers refuse to serve any segment.
+ */
+public class ResultSegmentSigner
+{
+    private final Optional<HashFunction> hmac;
+
+    @Inject
+    public ResultSegmentSigner(InternalCommunicationConfig internalCommunicationConfig)
+    {
+        this(internalCommunicationConfig.getSharedSecret());
+    }
+
+    public ResultSegmentSigner(Optional<String> sharedSecret)
+    {
+        requireNonNull(sharedSecret, "sharedSecret is null");
+        this.hmac = sharedSecret.map(secret -> Hashing.hmacSha256(secret.getBytes(UTF_8)));
+    }
+
+    public boolean isEnabled()
+    {
+        return hmac.isPresent();
+    }
+
+    public Optional<String> sign(TaskId taskId)
+    {
+        return hmac.map(function -> function.hashString(taskId.toString(), UTF_8).toString());
+    }
+
+    public boolean isValid(TaskId taskId, String key)
+    {
+        Optional<String> expected = sign(taskId);
+        if (!expected.isPresent()) {
+            return false;
+        }
+        return key != null && MessageDigest.isEqual(expected.get().getBytes(UTF_8), key.getBytes(UTF_8));
+    }
+}
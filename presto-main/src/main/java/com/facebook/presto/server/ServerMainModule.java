@@ -454,6 +454,8 @@ public class ServerMainModule
         jaxrsBinder(binder).bind(DecompressionFilter.class);
 
         newExporter(binder).export(TaskResource.class).withGeneratedName();
+        jaxrsBinder(binder).bind(ResultSegmentResource.class);
+        binder.bind(ResultSegmentSigner.class).in(Scopes.SINGLETON);
         jaxrsBinder(binder).bind(TaskExecutorResource.class);
         newExporter(binder).export(TaskExecutorResource.class).withGeneratedName();
         binder.bind(TaskManagementExecutor.class).in(Scopes.SINGLETON);
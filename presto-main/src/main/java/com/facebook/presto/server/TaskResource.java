@@ -62,6 +62,7 @@ import static com.facebook.airlift.http.server.AsyncResponseHandler.bindAsyncRes
 import static com.facebook.presto.PrestoMediaTypes.APPLICATION_JACKSON_SMILE;
 import static com.facebook.presto.client.PrestoHeaders.PRESTO_BUFFER_COMPLETE;
 import static com.facebook.presto.client.PrestoHeaders.PRESTO_BUFFER_REMAINING_BYTES;
+import static com.facebook.presto.client.PrestoHeaders.PRESTO_COMPLETED_DRIVER_GROUP_COUNT;
 import static com.facebook.presto.client.PrestoHeaders.PRESTO_CURRENT_STATE;
 import static com.facebook.presto.client.PrestoHeaders.PRESTO_MAX_WAIT;
 import static com.facebook.presto.server.security.RoleType.INTERNAL;
@@ -187,24 +188,25 @@ public class TaskResource
             @PathParam("taskId") TaskId taskId,
             @HeaderParam(PRESTO_CURRENT_STATE) TaskState currentState,
             @HeaderParam(PRESTO_MAX_WAIT) Duration maxWait,
+            @HeaderParam(PRESTO_COMPLETED_DRIVER_GROUP_COUNT) Integer knownCompletedDriverGroups,
             @Context UriInfo uriInfo,
             @Suspended AsyncResponse asyncResponse)
     {
         requireNonNull(taskId, "taskId is null");
 
+        // clients that send the number of completed driver groups they have seen only get the new ones
+        int completedDriverGroupCount = knownCompletedDriverGroups == null ? 0 : knownCompletedDriverGroups;
         if (currentState == null || maxWait == null) {
-            TaskStatus taskStatus = taskManager.getTaskStatus(taskId);
+            TaskStatus taskStatus = taskManager.getTaskStatus(taskId, completedDriverGroupCount);
             asyncResponse.resume(taskStatus);
             return;
         }
 
         Duration waitTime = randomizeWaitTime(maxWait);
-        // TODO: With current implementation, a newly completed driver group won't trigger immediate HTTP response,
-        // leading to a slight delay of approx 1 second, which is not a major issue for any query that are heavy weight enough
-        // to justify group-by-group execution. In order to fix this, REST endpoint /v1/{task}/status will need change.
+        // a newly completed driver group ends the wait as well, so that the next lifespan can be scheduled right away
         ListenableFuture<TaskStatus> futureTaskStatus = addTimeout(
-                taskManager.getTaskStatus(taskId, currentState),
-                () -> taskManager.getTaskStatus(taskId),
+                taskManager.getTaskStatus(taskId, currentState, completedDriverGroupCount),
+                () -> taskManager.getTaskStatus(taskId, completedDriverGroupCount),
                 waitTime,
                 timeoutExecutor);
 
@@ -48,6 +48,7 @@ public interface ExecutingQueryResponseProvider
      * @param compressionEnabled enable compression
      * @param nestedDataSerializationEnabled enable nested data serialization
      * @param binaryResults generate results in binary format, rather than JSON
+     * @param resultSegmentsSupported the client can read the results as segments from the workers
      * @param retryUrl optional retry URL for cross-cluster retry
      * @param retryExpirationEpochTime optional retry expiration time
      * @param isRetryQuery true if this query is already a retry query
@@ -65,6 +66,7 @@ public interface ExecutingQueryResponseProvider
             boolean compressionEnabled,
             boolean nestedDataSerializationEnabled,
             boolean binaryResults,
+            boolean resultSegmentsSupported,
             long durationUntilExpirationMs,
             Optional<URI> retryUrl,
             OptionalLong retryExpirationEpochTime,
@@ -46,6 +46,7 @@ import org.weakref.jmx.Nested;
 import static com.facebook.airlift.http.server.AsyncResponseHandler.bindAsyncResponse;
 import static com.facebook.airlift.units.DataSize.Unit.MEGABYTE;
 import static com.facebook.presto.client.PrestoHeaders.PRESTO_PREFIX_URL;
+import static com.facebook.presto.client.PrestoHeaders.PRESTO_RESULT_SEGMENTS;
 import static com.facebook.presto.server.protocol.QueryResourceUtil.abortIfPrefixUrlInvalid;
 import static com.facebook.presto.server.protocol.QueryResourceUtil.toResponse;
 import static com.facebook.presto.server.security.RoleType.USER;
@@ -106,6 +107,7 @@ public class ExecutingStatementResource
             @QueryParam("maxWait") Duration maxWait,
             @QueryParam("targetResultSize") DataSize targetResultSize,
             @DefaultValue("false") @QueryParam("binaryResults") boolean binaryResults,
+            @DefaultValue("false") @HeaderParam(PRESTO_RESULT_SEGMENTS) boolean resultSegmentsSupported,
             @HeaderParam(X_FORWARDED_PROTO) String proto,
             @HeaderParam(PRESTO_PREFIX_URL) String xPrestoPrefixUrl,
             @Context UriInfo uriInfo,
@@ -124,7 +126,7 @@ public class ExecutingStatementResource
 
         abortIfPrefixUrlInvalid(xPrestoPrefixUrl);
 
-        Query query = queryProvider.getQuery(queryId, slug);
+        Query query = queryProvider.getQuery(queryId, slug, resultSegmentsSupported);
         ListenableFuture<Double> acquirePermitAsync = queryRateLimiter.acquire(queryId);
         String effectiveFinalProto = proto;
         DataSize effectiveFinalTargetResultSize = targetResultSize;
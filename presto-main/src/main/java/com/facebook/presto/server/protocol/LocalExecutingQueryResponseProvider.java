@@ -56,6 +56,7 @@ public class LocalExecutingQueryResponseProvider
             boolean compressionEnabled,
             boolean nestedDataSerializationEnabled,
             boolean binaryResults,
+            boolean resultSegmentsSupported,
             long durationUntilExpirationMs,
             Optional<URI> retryUrl,
             OptionalLong retryExpirationEpochTime,
@@ -63,7 +64,7 @@ public class LocalExecutingQueryResponseProvider
     {
         Query query;
         try {
-            query = queryProvider.getQuery(queryId, slug, retryUrl, retryExpirationEpochTime, isRetryQuery);
+            query = queryProvider.getQuery(queryId, slug, resultSegmentsSupported, retryUrl, retryExpirationEpochTime, isRetryQuery);
         }
         catch (WebApplicationException e) {
             return Optional.empty();
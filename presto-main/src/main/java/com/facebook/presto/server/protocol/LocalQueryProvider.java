@@ -22,6 +22,7 @@ import com.facebook.presto.memory.context.SimpleLocalMemoryContext;
 import com.facebook.presto.operator.ExchangeClient;
 import com.facebook.presto.operator.ExchangeClientSupplier;
 import com.facebook.presto.server.ForStatementResource;
+import com.facebook.presto.server.ResultSegmentSigner;
 import com.facebook.presto.server.RetryConfig;
 import com.facebook.presto.spi.QueryId;
 import com.facebook.presto.transaction.TransactionManager;
@@ -60,6 +61,7 @@ public class LocalQueryProvider
     private final ScheduledExecutorService timeoutExecutor;
     private final RetryCircuitBreaker retryCircuitBreaker;
     private final RetryConfig retryConfig;
+    private final ResultSegmentSigner resultSegmentSigner;
 
     private final ConcurrentMap<QueryId, Query> queries = new ConcurrentHashMap<>();
     private final ScheduledExecutorService queryPurger = newSingleThreadScheduledExecutor(threadsNamed("execution-query-purger"));
@@ -73,7 +75,8 @@ public class LocalQueryProvider
             @ForStatementResource BoundedExecutor responseExecutor,
             @ForStatementResource ScheduledExecutorService timeoutExecutor,
             RetryCircuitBreaker retryCircuitBreaker,
-            RetryConfig retryConfig)
+            RetryConfig retryConfig,
+            ResultSegmentSigner resultSegmentSigner)
     {
         this.queryManager = requireNonNull(queryManager, "queryManager is null");
         this.transactionManager = requireNonNull(transactionManager, "transactionManager is null");
@@ -83,6 +86,7 @@ public class LocalQueryProvider
         this.timeoutExecutor = requireNonNull(timeoutExecutor, "timeoutExecutor is null");
         this.retryCircuitBreaker = requireNonNull(retryCircuitBreaker, "retryCircuitBreaker is null");
         this.retryConfig = requireNonNull(retryConfig, "retryConfig is null");
+        this.resultSegmentSigner = requireNonNull(resultSegmentSigner, "resultSegmentSigner is null");
     }
 
     @PostConstruct
@@ -119,15 +123,23 @@ public class LocalQueryProvider
 
     public Query getQuery(QueryId queryId, String slug)
     {
-        return getQuery(queryId, slug, Optional.empty(), OptionalLong.empty(), false);
+        return getQuery(queryId, slug, false);
+    }
+
+    /**
+     * @param resultSegmentsSupported whether the client reads result segments; only the request that first accesses the query decides it
+     */
+    public Query getQuery(QueryId queryId, String slug, boolean resultSegmentsSupported)
+    {
+        return getQuery(queryId, slug, resultSegmentsSupported, Optional.empty(), OptionalLong.empty(), false);
     }
 
     public Query getQuery(QueryId queryId, String slug, Optional<URI> retryUrl, OptionalLong retryExpirationEpochTime)
     {
-        return getQuery(queryId, slug, retryUrl, retryExpirationEpochTime, false);
+        return getQuery(queryId, slug, false, retryUrl, retryExpirationEpochTime, false);
     }
 
-    public Query getQuery(QueryId queryId, String slug, Optional<URI> retryUrl, OptionalLong retryExpirationEpochTime, boolean isRetryQuery)
+    public Query getQuery(QueryId queryId, String slug, boolean resultSegmentsSupported, Optional<URI> retryUrl, OptionalLong retryExpirationEpochTime, boolean isRetryQuery)
     {
         Query query = queries.get(queryId);
         if (query != null) {
@@ -162,6 +174,8 @@ public class LocalQueryProvider
                     blockEncodingSerde,
                     retryCircuitBreaker,
                     retryConfig,
+                    resultSegmentSigner,
+                    resultSegmentsSupported,
                     retryUrl,
                     retryExpirationEpochTime,
                     isRetryQuery);
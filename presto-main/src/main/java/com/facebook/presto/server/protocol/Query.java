@@ -34,8 +34,10 @@ import com.facebook.presto.execution.QueryInfo;
 import com.facebook.presto.execution.QueryManager;
 import com.facebook.presto.execution.QueryState;
 import com.facebook.presto.execution.StageInfo;
+import com.facebook.presto.execution.TaskId;
 import com.facebook.presto.execution.buffer.PagesSerdeFactory;
 import com.facebook.presto.operator.ExchangeClient;
+import com.facebook.presto.server.ResultSegmentSigner;
 import com.facebook.presto.server.RetryConfig;
 import com.facebook.presto.spi.PrestoException;
 import com.facebook.presto.spi.QueryId;
@@ -64,7 +66,9 @@ import jakarta.ws.rs.core.UriBuilder;
 import jakarta.ws.rs.core.UriInfo;
 
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -81,6 +85,7 @@ import static com.facebook.presto.SystemSessionProperties.getQueryRetryLimit;
 import static com.facebook.presto.SystemSessionProperties.getQueryRetryMaxExecutionTime;
 import static com.facebook.presto.SystemSessionProperties.getTargetResultSize;
 import static com.facebook.presto.SystemSessionProperties.isExchangeChecksumEnabled;
+import static com.facebook.presto.SystemSessionProperties.isResultSegmentsEnabled;
 import static com.facebook.presto.SystemSessionProperties.retryQueryWithHistoryBasedOptimizationEnabled;
 import static com.facebook.presto.SystemSessionProperties.trackHistoryBasedPlanStatisticsEnabled;
 import static com.facebook.presto.SystemSessionProperties.useHistoryBasedPlanStatisticsEnabled;
@@ -126,6 +131,8 @@ class Query
     private final PagesSerde serde;
     private final RetryCircuitBreaker retryCircuitBreaker;
     private final RetryConfig retryConfig;
+    private final ResultSegmentSigner resultSegmentSigner;
+    private final boolean resultSegmentsSupported;
 
     @GuardedBy("this")
     private OptionalLong nextToken = OptionalLong.of(0);
@@ -142,6 +149,15 @@ class Query
     @GuardedBy("this")
     private List<Type> types;
 
+    @GuardedBy("this")
+    private boolean resultSegments;
+
+    @GuardedBy("this")
+    private final Set<TaskId> segmentTasks = new HashSet<>();
+
+    @GuardedBy("this")
+    private final List<URI> pendingSegments = new ArrayList<>();
+
     @GuardedBy("this")
     private Optional<String> setCatalog = Optional.empty();
 
@@ -192,6 +208,8 @@ class Query
             BlockEncodingSerde blockEncodingSerde,
             RetryCircuitBreaker retryCircuitBreaker,
             RetryConfig retryConfig,
+            ResultSegmentSigner resultSegmentSigner,
+            boolean resultSegmentsSupported,
             Optional<URI> retryUrl,
             OptionalLong retryExpirationEpochTime,
             boolean isRetryQuery)
@@ -209,7 +227,9 @@ class Query
                 timeoutExecutor,
                 blockEncodingSerde,
                 retryCircuitBreaker,
-                retryConfig);
+                retryConfig,
+                resultSegmentSigner,
+                resultSegmentsSupported);
 
         result.queryManager.addOutputInfoListener(result.getQueryId(), result::setQueryOutputInfo);
 
@@ -236,7 +256,9 @@ class Query
             ScheduledExecutorService timeoutExecutor,
             BlockEncodingSerde blockEncodingSerde,
             RetryCircuitBreaker retryCircuitBreaker,
-            RetryConfig retryConfig)
+            RetryConfig retryConfig,
+            ResultSegmentSigner resultSegmentSigner,
+            boolean resultSegmentsSupported)
     {
         requireNonNull(session, "session is null");
         requireNonNull(slug, "slug is null");
@@ -250,6 +272,7 @@ class Query
         requireNonNull(blockEncodingSerde, "serde is null");
         requireNonNull(retryCircuitBreaker, "retryCircuitBreaker is null");
         requireNonNull(retryConfig, "retryConfig is null");
+        requireNonNull(resultSegmentSigner, "resultSegmentSigner is null");
 
         this.queryManager = queryManager;
         this.transactionManager = transactionManager;
@@ -267,6 +290,8 @@ class Query
         this.serde = new PagesSerdeFactory(blockEncodingSerde, getExchangeCompressionCodec(session), isExchangeChecksumEnabled(session)).createPagesSerde();
         this.retryCircuitBreaker = retryCircuitBreaker;
         this.retryConfig = retryConfig;
+        this.resultSegmentSigner = resultSegmentSigner;
+        this.resultSegmentsSupported = resultSegmentsSupported;
     }
 
     public void cancel()
@@ -556,6 +581,14 @@ class Query
             queryManager.failQuery(queryId, e);
         }
 
+        List<URI> segments = null;
+        if (!pendingSegments.isEmpty()) {
+            segments = ImmutableList.copyOf(pendingSegments);
+            pendingSegments.clear();
+            // the client reads the results from the workers from now on, so the query can no longer be retried
+            hasProducedResult = true;
+        }
+
         // get the query info before returning
         // force update if query manager is closed
         QueryInfo queryInfo = queryManager.getFullQueryInfo(queryId);
@@ -631,6 +664,7 @@ class Query
                 columns,
                 data,
                 binaryData,
+                segments,
                 toStatementStats(queryInfo),
                 toQueryError(queryInfo),
                 queryInfo.getWarnings(),
@@ -669,6 +703,25 @@ class Query
             }
             columns = list.build();
             types = outputInfo.getColumnTypes();
+            // segments are only returned to clients that asked for them, and only when the workers can verify them;
+            // the coordinator reads the results of data modifications for the update count
+            resultSegments = resultSegmentsSupported &&
+                    resultSegmentSigner.isEnabled() &&
+                    isResultSegmentsEnabled(session) &&
+                    queryManager.getFullQueryInfo(queryId).getUpdateInfo() == null;
+        }
+
+        if (resultSegments) {
+            // the client reads the output buffers directly from the workers, the exchange client is left without locations
+            outputInfo.getBufferLocations().forEach((location, taskId) -> {
+                if (segmentTasks.add(taskId)) {
+                    pendingSegments.add(createSegmentUri(location, taskId));
+                }
+            });
+            if (outputInfo.isNoMoreBufferLocations()) {
+                exchangeClient.noMoreLocations();
+            }
+            return;
         }
 
         outputInfo.getBufferLocations().forEach(exchangeClient::addLocation);
@@ -704,6 +757,16 @@ class Query
         return uri.build();
     }
 
+    private URI createSegmentUri(URI bufferLocation, TaskId taskId)
+    {
+        UriBuilder uri = UriBuilder.fromUri(bufferLocation)
+                .replacePath("/v1/segment")
+                .path(taskId.toString())
+                .replaceQuery("");
+        resultSegmentSigner.sign(taskId).ifPresent(key -> uri.queryParam("key", key));
+        return uri.build();
+    }
+
     private synchronized URI createRetryUri(String scheme, UriInfo uriInfo)
     {
         // Check if we have external retry URL information
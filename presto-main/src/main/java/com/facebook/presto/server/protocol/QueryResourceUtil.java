@@ -174,6 +174,7 @@ public final class QueryResourceUtil
                 queryResults.getColumns(),
                 queryResultsData,
                 queryResults.getBinaryData(),
+                queryResults.getSegments(),
                 queryResults.getStats(),
                 queryResults.getError(),
                 queryResults.getWarnings(),
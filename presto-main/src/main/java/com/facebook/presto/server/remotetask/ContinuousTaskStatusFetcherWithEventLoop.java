@@ -24,6 +24,7 @@ import com.facebook.airlift.json.smile.SmileCodec;
 import com.facebook.airlift.log.Logger;
 import com.facebook.airlift.units.Duration;
 import com.facebook.drift.transport.netty.codec.Protocol;
+import com.facebook.presto.execution.Lifespan;
 import com.facebook.presto.execution.StateMachine;
 import com.facebook.presto.execution.TaskId;
 import com.facebook.presto.execution.TaskStatus;
@@ -34,19 +35,23 @@ import com.facebook.presto.server.smile.BaseResponse;
 import com.facebook.presto.server.thrift.ThriftHttpResponseHandler;
 import com.facebook.presto.spi.HostAddress;
 import com.facebook.presto.spi.PrestoException;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import io.netty.channel.EventLoop;
 
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 
 import static com.facebook.airlift.http.client.HttpUriBuilder.uriBuilderFrom;
 import static com.facebook.airlift.http.client.Request.Builder.prepareGet;
 import static com.facebook.airlift.units.Duration.nanosSince;
+import static com.facebook.presto.client.PrestoHeaders.PRESTO_COMPLETED_DRIVER_GROUP_COUNT;
 import static com.facebook.presto.client.PrestoHeaders.PRESTO_CURRENT_STATE;
 import static com.facebook.presto.client.PrestoHeaders.PRESTO_MAX_WAIT;
+import static com.facebook.presto.execution.TaskStatus.withCompletedDriverGroups;
 import static com.facebook.presto.server.RequestErrorTracker.taskRequestErrorTracker;
 import static com.facebook.presto.server.RequestHelpers.getBinaryTransportBuilder;
 import static com.facebook.presto.server.RequestHelpers.getJsonTransportBuilder;
@@ -80,6 +85,8 @@ class ContinuousTaskStatusFetcherWithEventLoop
     private final Protocol thriftProtocol;
     private long currentRequestStartNanos;
     private boolean running;
+    // workers only send the driver groups completed after the ones counted in the request, so all of them are kept here
+    private Set<Lifespan> completedDriverGroups = ImmutableSet.of();
 
     private ListenableFuture<BaseResponse<TaskStatus>> future;
 
@@ -182,6 +189,7 @@ class ContinuousTaskStatusFetcherWithEventLoop
         Request request = requestBuilder.setUri(uriBuilderFrom(taskStatus.getSelf()).appendPath("status").build())
                 .setHeader(PRESTO_CURRENT_STATE, taskStatus.getState().toString())
                 .setHeader(PRESTO_MAX_WAIT, refreshMaxWait.toString())
+                .setHeader(PRESTO_COMPLETED_DRIVER_GROUP_COUNT, String.valueOf(completedDriverGroups.size()))
                 .build();
 
         errorTracker.startRequest();
@@ -255,10 +263,12 @@ class ContinuousTaskStatusFetcherWithEventLoop
         onFail.accept(cause);
     }
 
-    void updateTaskStatus(TaskStatus newValue)
+    void updateTaskStatus(TaskStatus taskStatusUpdate)
     {
         verify(taskEventLoop.inEventLoop());
 
+        TaskStatus newValue = mergeCompletedDriverGroups(taskStatusUpdate);
+
         // change to new value if old value is not changed and new value has a newer version
         AtomicBoolean taskMismatch = new AtomicBoolean();
         taskStatus.setIf(newValue, oldValue -> {
@@ -291,6 +301,21 @@ class ContinuousTaskStatusFetcherWithEventLoop
         }
     }
 
+    private TaskStatus mergeCompletedDriverGroups(TaskStatus newValue)
+    {
+        Set<Lifespan> newCompletedDriverGroups = newValue.getCompletedDriverGroups();
+        if (!completedDriverGroups.containsAll(newCompletedDriverGroups)) {
+            completedDriverGroups = ImmutableSet.<Lifespan>builder()
+                    .addAll(completedDriverGroups)
+                    .addAll(newCompletedDriverGroups)
+                    .build();
+        }
+        if (newCompletedDriverGroups.size() == completedDriverGroups.size()) {
+            return newValue;
+        }
+        return withCompletedDriverGroups(newValue, completedDriverGroups);
+    }
+
     /**
      * Listener is always notified asynchronously using a dedicated notification thread pool so, care should
      * be taken to avoid leaking {@code this} when adding a listener in a constructor. Additionally, it is
@@ -30,6 +30,7 @@ import com.facebook.airlift.units.DataSize;
 import com.facebook.airlift.units.Duration;
 import com.facebook.drift.transport.netty.codec.Protocol;
 import com.facebook.presto.Session;
+import com.facebook.presto.SessionRepresentation;
 import com.facebook.presto.execution.FutureStateChange;
 import com.facebook.presto.execution.Lifespan;
 import com.facebook.presto.execution.NodeTaskMap.NodeStatsTracker;
@@ -130,6 +131,7 @@ import static com.google.common.collect.ImmutableSet.toImmutableSet;
 import static com.google.common.util.concurrent.Futures.addCallback;
 import static com.google.common.util.concurrent.Futures.immediateFuture;
 import static java.lang.Math.addExact;
+import static java.lang.Math.max;
 import static java.lang.String.format;
 import static java.lang.System.currentTimeMillis;
 import static java.util.Objects.requireNonNull;
@@ -165,6 +167,9 @@ public final class HttpRemoteTaskWithEventLoop
     private final URI remoteTaskLocation;
 
     private final Session session;
+    // sent with every task update, so they are built once for the task
+    private final SessionRepresentation sessionRepresentation;
+    private final Map<String, String> extraCredentials;
     private final String nodeId;
     private final PlanFragment planFragment;
 
@@ -230,6 +235,8 @@ public final class HttpRemoteTaskWithEventLoop
 
     private final DecayCounter taskUpdateRequestSize;
     private final boolean taskUpdateSizeTrackingEnabled;
+    // size of a task update without the plan and the splits, computed on the first sampled update of the task
+    private long taskUpdateRequestBaseSize = -1;
     private final SchedulerStatsTracker schedulerStatsTracker;
 
     private final SafeEventLoopGroup.SafeEventLoop taskEventLoop;
@@ -386,6 +393,8 @@ public final class HttpRemoteTaskWithEventLoop
         this.taskLocation = location;
         this.remoteTaskLocation = remoteLocation;
         this.session = session;
+        this.sessionRepresentation = session.toSessionRepresentation();
+        this.extraCredentials = session.getIdentity().getExtraCredentials();
         this.nodeId = nodeId;
         this.planFragment = planFragment;
         this.outputBuffers = outputBuffers;
@@ -1002,8 +1011,8 @@ public final class HttpRemoteTaskWithEventLoop
             }
             Optional<TableWriteInfo> writeInfo = sendPlan ? Optional.of(tableWriteInfo) : Optional.empty();
             TaskUpdateRequest updateRequest = new TaskUpdateRequest(
-                    session.toSessionRepresentation(),
-                    session.getIdentity().getExtraCredentials(),
+                    sessionRepresentation,
+                    extraCredentials,
                     fragment,
                     sources,
                     outputBuffers,
@@ -1029,6 +1038,16 @@ public final class HttpRemoteTaskWithEventLoop
                     if (ThreadLocalRandom.current().nextDouble() < UPDATE_WITHOUT_PLAN_STATS_SAMPLE_RATE) {
                         // This is to keep track of the task update size even when the plan fragment is NOT present
                         stats.updateWithoutPlanSize(taskUpdateRequestBytes.length);
+                        int splitCount = sources.stream()
+                                .mapToInt(source -> source.getSplits().size())
+                                .sum();
+                        if (splitCount > 0) {
+                            if (taskUpdateRequestBaseSize < 0) {
+                                taskUpdateRequestBaseSize = getTaskUpdateRequestBaseSize();
+                            }
+                            long sourcesBytes = taskUpdateRequestBytes.length - taskUpdateRequestBaseSize;
+                            stats.updateBytesPerSplit(max(sourcesBytes, 0) / splitCount);
+                        }
                     }
                 }
             }
@@ -1085,6 +1104,21 @@ public final class HttpRemoteTaskWithEventLoop
         return format("TaskUpdate size of %s has exceeded the limit of %s", taskUpdateSize.toString(), this.maxTaskUpdateDataSize.toString());
     }
 
+    /**
+     * Size of the session, the output buffers and the rest of the task update that do not grow with the splits.
+     */
+    private long getTaskUpdateRequestBaseSize()
+    {
+        TaskUpdateRequest requestWithoutSources = new TaskUpdateRequest(
+                sessionRepresentation,
+                extraCredentials,
+                Optional.empty(),
+                ImmutableList.of(),
+                outputBuffers,
+                Optional.empty());
+        return taskUpdateRequestCodec.toBytes(requestWithoutSources).length;
+    }
+
     private List<TaskSource> getSources()
     {
         return Stream.concat(tableScanPlanNodeIds.stream(), remoteSourcePlanNodeIds.stream())
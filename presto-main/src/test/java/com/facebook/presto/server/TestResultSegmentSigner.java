@@ -0,0 +1,53 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.facebook.presto.server;
+
+import com.facebook.presto.execution.TaskId;
+import org.testng.annotations.Test;
+
+import java.util.Optional;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestResultSegmentSigner
+{
+    private static final TaskId TASK_ID = TaskId.valueOf("query.0.0.0.0");
+    private static final TaskId OTHER_TASK_ID = TaskId.valueOf("query.0.0.1.0");
+
+    @Test
+    public void testSigned()
+    {
+        ResultSegmentSigner signer = new ResultSegmentSigner(Optional.of("secret"));
+        assertTrue(signer.isEnabled());
+
+        String key = signer.sign(TASK_ID).get();
+        assertTrue(signer.isValid(TASK_ID, key));
+        assertFalse(signer.isValid(OTHER_TASK_ID, key));
+        assertFalse(signer.isValid(TASK_ID, null));
+        assertFalse(signer.isValid(TASK_ID, new ResultSegmentSigner(Optional.of("other secret")).sign(TASK_ID).get()));
+    }
+
+    @Test
+    public void testNoSecret()
+    {
+        ResultSegmentSigner signer = new ResultSegmentSigner(Optional.empty());
+        assertFalse(signer.isEnabled());
+        assertEquals(signer.sign(TASK_ID), Optional.empty());
+        // without a secret no segment can be verified, so none is served
+        assertFalse(signer.isValid(TASK_ID, null));
+        assertFalse(signer.isValid(TASK_ID, ""));
+    }
+}
@@ -30,6 +30,8 @@ import com.facebook.drift.codec.utils.DataSizeToBytesThriftCodec;
 import com.facebook.drift.codec.utils.DurationToMillisThriftCodec;
 import com.facebook.drift.codec.utils.JodaDateTimeToEpochMillisThriftCodec;
 import com.facebook.drift.codec.utils.LocaleToLanguageTagCodec;
+import com.facebook.presto.Session;
+import com.facebook.presto.SessionRepresentation;
 import com.facebook.presto.client.NodeVersion;
 import com.facebook.presto.common.ErrorCode;
 import com.facebook.presto.common.type.Type;
@@ -77,6 +79,7 @@ import com.facebook.presto.spi.ConnectorTableLayoutHandle;
 import com.facebook.presto.spi.connector.ConnectorTransactionHandle;
 import com.facebook.presto.spi.plan.PlanNodeId;
 import com.facebook.presto.spi.relation.VariableReferenceExpression;
+import com.facebook.presto.spi.security.Identity;
 import com.facebook.presto.sql.Serialization;
 import com.facebook.presto.sql.analyzer.FeaturesConfig;
 import com.facebook.presto.sql.planner.PlanFragment;
@@ -84,6 +87,8 @@ import com.facebook.presto.testing.TestingHandleResolver;
 import com.facebook.presto.testing.TestingSplit;
 import com.facebook.presto.testing.TestingTransactionHandle;
 import com.facebook.presto.type.TypeDeserializer;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableMultimap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.util.concurrent.SettableFuture;
@@ -110,7 +115,9 @@ import org.testng.annotations.Test;
 
 import java.lang.reflect.Method;
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
@@ -222,6 +229,47 @@ public class TestHttpRemoteTaskWithEventLoop
         httpRemoteTaskFactory.stop();
     }
 
+    @Test(timeOut = 60000)
+    public void testSessionIsSentWithEveryUpdate()
+            throws Exception
+    {
+        AtomicLong lastActivityNanos = new AtomicLong(System.nanoTime());
+        TestingTaskResource testingTaskResource = new TestingTaskResource(lastActivityNanos, FailureScenario.NO_FAILURE);
+
+        HttpRemoteTaskFactory httpRemoteTaskFactory = createHttpRemoteTaskFactory(testingTaskResource, false);
+
+        Session session = Session.builder(TEST_SESSION)
+                .setIdentity(new Identity("test_user", Optional.empty(), ImmutableMap.of("token", "secret")))
+                .setSystemProperty("query_max_execution_time", "1h")
+                .build();
+        RemoteTask remoteTask = createRemoteTask(httpRemoteTaskFactory, session);
+
+        testingTaskResource.setInitialTaskInfo(remoteTask.getTaskInfo());
+        remoteTask.start();
+
+        Lifespan lifespan = Lifespan.driverGroup(3);
+        remoteTask.addSplits(ImmutableMultimap.of(TABLE_SCAN_NODE_ID, new Split(new ConnectorId("test"), TestingTransactionHandle.create(), TestingSplit.createLocalSplit(), lifespan, NON_CACHEABLE)));
+        poll(() -> testingTaskResource.getTaskSource(TABLE_SCAN_NODE_ID) != null);
+        remoteTask.addSplits(ImmutableMultimap.of(TABLE_SCAN_NODE_ID, new Split(new ConnectorId("test"), TestingTransactionHandle.create(), TestingSplit.createLocalSplit(), lifespan, NON_CACHEABLE)));
+        poll(() -> testingTaskResource.getTaskSource(TABLE_SCAN_NODE_ID).getSplits().size() == 2);
+        remoteTask.noMoreSplits(TABLE_SCAN_NODE_ID);
+        poll(() -> testingTaskResource.getTaskSource(TABLE_SCAN_NODE_ID).isNoMoreSplits());
+
+        remoteTask.cancel();
+        poll(() -> remoteTask.getTaskStatus().getState().isDone());
+        httpRemoteTaskFactory.stop();
+
+        List<TaskUpdateRequest> taskUpdateRequests = testingTaskResource.getTaskUpdateRequests();
+        assertTrue(taskUpdateRequests.size() >= 3, format("Expected an update for each split and for no more splits, got %s", taskUpdateRequests.size()));
+        for (TaskUpdateRequest taskUpdateRequest : taskUpdateRequests) {
+            SessionRepresentation sessionRepresentation = taskUpdateRequest.getSession();
+            assertEquals(sessionRepresentation.getQueryId(), session.getQueryId().toString());
+            assertEquals(sessionRepresentation.getUser(), "test_user");
+            assertEquals(sessionRepresentation.getSystemProperties(), ImmutableMap.of("query_max_execution_time", "1h"));
+            assertEquals(taskUpdateRequest.getExtraCredentials(), ImmutableMap.of("token", "secret"));
+        }
+    }
+
     @Test(timeOut = 50000)
     public void testHTTPRemoteTaskSize()
             throws Exception
@@ -343,9 +391,14 @@ public class TestHttpRemoteTaskWithEventLoop
     }
 
     private RemoteTask createRemoteTask(HttpRemoteTaskFactory httpRemoteTaskFactory)
+    {
+        return createRemoteTask(httpRemoteTaskFactory, TEST_SESSION);
+    }
+
+    private RemoteTask createRemoteTask(HttpRemoteTaskFactory httpRemoteTaskFactory, Session session)
     {
         return httpRemoteTaskFactory.createRemoteTask(
-                TEST_SESSION,
+                session,
                 new TaskId("test", 1, 0, 2, 0),
                 new InternalNode("node-id", URI.create("http://fake.invalid/"), new NodeVersion("version"), false),
                 createPlanFragment(),
@@ -556,6 +609,7 @@ public class TestHttpRemoteTaskWithEventLoop
 
         Map<PlanNodeId, TaskSource> taskSourceMap = new HashMap<>();
         private TaskUpdateRequest lastTaskUpdateRequest;
+        private final List<TaskUpdateRequest> taskUpdateRequests = new ArrayList<>();
 
         @POST
         @Path("{taskId}")
@@ -567,6 +621,7 @@ public class TestHttpRemoteTaskWithEventLoop
                 @Context UriInfo uriInfo)
         {
             this.lastTaskUpdateRequest = taskUpdateRequest;
+            taskUpdateRequests.add(taskUpdateRequest);
             for (TaskSource source : taskUpdateRequest.getSources()) {
                 taskSourceMap.compute(source.getPlanNodeId(), (planNodeId, taskSource) -> taskSource == null ? source : taskSource.update(source));
             }
@@ -588,6 +643,11 @@ public class TestHttpRemoteTaskWithEventLoop
             return lastTaskUpdateRequest;
         }
 
+        public synchronized List<TaskUpdateRequest> getTaskUpdateRequests()
+        {
+            return ImmutableList.copyOf(taskUpdateRequests);
+        }
+
         @GET
         @Path("{taskId}/status")
         @Produces({MediaType.APPLICATION_JSON, APPLICATION_THRIFT_BINARY, APPLICATION_THRIFT_COMPACT, APPLICATION_THRIFT_FB_COMPACT})
@@ -26,6 +26,7 @@ import io.airlift.slice.Slices;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.function.Supplier;
@@ -65,6 +66,23 @@ public abstract class AbstractOrcDataSource
     protected abstract void readInternal(long position, byte[] buffer, int bufferOffset, int bufferLength)
             throws IOException;
 
+    /**
+     * Reads the disk ranges, which do not overlap. The ranges are read one after another, sources
+     * which can issue several reads at once should override this method. Only the small ranges which
+     * are read eagerly use this method, the lazily read ranges are read one by one when used.
+     */
+    protected Map<DiskRange, byte[]> readInternal(List<DiskRange> diskRanges)
+            throws IOException
+    {
+        Map<DiskRange, byte[]> buffers = new LinkedHashMap<>();
+        for (DiskRange diskRange : diskRanges) {
+            byte[] buffer = new byte[diskRange.getLength()];
+            readInternal(diskRange.getOffset(), buffer, 0, buffer.length);
+            buffers.put(diskRange, buffer);
+        }
+        return buffers;
+    }
+
     @Override
     public OrcDataSourceId getId()
     {
@@ -152,7 +170,7 @@ public abstract class AbstractOrcDataSource
             return ImmutableMap.of();
         }
 
-        Iterable<DiskRange> mergedRanges = mergeAdjacentDiskRanges(diskRanges.values(), maxMergeDistance, maxBufferSize);
+        List<DiskRange> mergedRanges = mergeAdjacentDiskRanges(diskRanges.values(), maxMergeDistance, maxBufferSize);
 
         ImmutableMap.Builder<K, OrcDataSourceInput> slices = ImmutableMap.builder();
         if (lazyReadSmallRanges) {
@@ -168,12 +186,12 @@ public abstract class AbstractOrcDataSource
             }
         }
         else {
-            Map<DiskRange, byte[]> buffers = new LinkedHashMap<>();
+            // read each full range in one request
+            long start = System.nanoTime();
+            Map<DiskRange, byte[]> buffers = readInternal(mergedRanges);
+            readTimeNanos += System.nanoTime() - start;
             for (DiskRange mergedRange : mergedRanges) {
-                // read full range in one request
-                byte[] buffer = new byte[mergedRange.getLength()];
-                readFully(mergedRange.getOffset(), buffer);
-                buffers.put(mergedRange, buffer);
+                readBytes += mergedRange.getLength();
             }
 
             for (Entry<K, DiskRange> entry : diskRanges.entrySet()) {
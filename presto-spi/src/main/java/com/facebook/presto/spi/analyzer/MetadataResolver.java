@@ -20,6 +20,8 @@ import com.facebook.presto.spi.ColumnHandle;
 import com.facebook.presto.spi.ColumnMetadata;
 import com.facebook.presto.spi.MaterializedViewDefinition;
 import com.facebook.presto.spi.MaterializedViewStatus;
+import com.facebook.presto.spi.MaterializedViewStatus.MaterializedDataPredicates;
+import com.facebook.presto.spi.SchemaTableName;
 import com.facebook.presto.spi.TableHandle;
 
 import java.util.List;
@@ -116,4 +118,14 @@ public interface MetadataResolver
     {
         throw new UnsupportedOperationException("getMaterializedViewStatus is not supported");
     }
+
+    /**
+     * Get the predicates on the base tables that a refresh of the materialized view has to recompute
+     * @param materializedViewName materialized view name
+     * @return the predicates per base table, or an empty map to recompute the whole view
+     */
+    default Map<SchemaTableName, MaterializedDataPredicates> getMaterializedViewRefreshPredicates(QualifiedObjectName materializedViewName)
+    {
+        throw new UnsupportedOperationException("getMaterializedViewRefreshPredicates is not supported");
+    }
 }
@@ -36,6 +36,7 @@ import com.facebook.presto.spi.ConnectorViewDefinition;
 import com.facebook.presto.spi.Constraint;
 import com.facebook.presto.spi.MaterializedViewDefinition;
 import com.facebook.presto.spi.MaterializedViewStatus;
+import com.facebook.presto.spi.MaterializedViewStatus.MaterializedDataPredicates;
 import com.facebook.presto.spi.PrestoException;
 import com.facebook.presto.spi.SchemaTableName;
 import com.facebook.presto.spi.SchemaTablePrefix;
@@ -778,6 +779,17 @@ public interface ConnectorMetadata
         throw new PrestoException(NOT_SUPPORTED, "This connector does not support getting materialized views status");
     }
 
+    /**
+     * Gets the predicates on the base tables that a refresh of the materialized view has to recompute,
+     * or an empty map to recompute the whole view. Unlike the partitions of {@link #getMaterializedViewStatus},
+     * which are missing from the materialized data, the materialized data may still hold rows of these
+     * predicates, which the connector replaces when the refresh begins.
+     */
+    default Map<SchemaTableName, MaterializedDataPredicates> getMaterializedViewRefreshPredicates(ConnectorSession session, SchemaTableName materializedViewName)
+    {
+        return emptyMap();
+    }
+
     /**
      * Begin refresh materialized view
      */